@@ -0,0 +1,224 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.actions;
+
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.database.services.SQLBulkLoadService;
+import io.cloudslang.content.database.utils.RowReader;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.cloudslang.content.constants.BooleanValues.FALSE;
+import static io.cloudslang.content.constants.OtherValues.COMMA_DELIMITER;
+import static io.cloudslang.content.constants.OutputNames.*;
+import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
+import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
+import static io.cloudslang.content.database.constants.DBDefaultValues.*;
+import static io.cloudslang.content.database.constants.DBInputNames.*;
+import static io.cloudslang.content.database.constants.DBOtherValues.*;
+import static io.cloudslang.content.database.constants.DBOutputNames.ROWS_LOADED;
+import static io.cloudslang.content.database.constants.DBOutputNames.ROWS_PER_SECOND;
+import static io.cloudslang.content.database.utils.SQLInputsUtils.*;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlBulkLoadInputs;
+import static io.cloudslang.content.utils.BooleanUtilities.toBoolean;
+import static io.cloudslang.content.utils.NumberUtilities.toInteger;
+import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
+import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+
+public class SQLBulkLoad {
+
+    /**
+     * @param dbServerName              The hostname or ip address of the database server.
+     * @param dbType                    The type of database to connect to.
+     *                                  Valid values: Oracle, MSSQL, Sybase, Netcool, DB2, PostgreSQL and Custom.
+     * @param username                  The username to use when connecting to the database.
+     * @param password                  The password to use when connecting to the database.
+     * @param instance                  The name instance (for MSSQL Server). Leave it blank for default instance.
+     * @param dbPort                    The port to connect to.
+     *                                  Default values: Oracle: 1521, MSSQL: 1433, Sybase: 5000, Netcool: 4100, DB2: 50000, PostgreSQL: 5432.
+     * @param databaseName              The name of the database.
+     * @param authenticationType        The type of authentication used to access the database (applicable only to MSSQL type).
+     *                                  Default: sql
+     *                                  Values: sql, windows
+     * @param dbClass                   The classname of the JDBC driver to use.
+     *                                  Examples: "oracle.jdbc.driver.OracleDriver", "org.postgresql.Driver"
+     * @param dbURL                     The url required to load up the driver and make your connection.
+     *                                  Examples: "jdbc:oracle:drivertype:@database", "jdbc:postgresql://host:port/database"
+     * @param command                   The parameterized INSERT to run for every row of the file, with a ? placeholder for every column.
+     *                                  Example: INSERT INTO employees (id, name, hired) VALUES (?, ?, ?)
+     * @param fileName                  The path of the UTF-8 file with the rows to load.
+     * @param fileFormat                The format of the file. csv files have one record per row, jsonl files have one JSON array
+     *                                  or object per line.
+     *                                  Default value: csv
+     *                                  Valid values: csv, jsonl
+     * @param columnTypes               The comma separated types of the columns, in placeholder order. Columns without a type are loaded as strings.
+     *                                  Empty CSV fields and JSON null values are loaded as NULL.
+     *                                  Valid values: string, int, long, double, decimal, boolean, date, time, timestamp
+     *                                  Example: int,string,date
+     * @param fieldNames                The comma separated names of the fields to load, in placeholder order, when the jsonl lines are objects.
+     * @param csvDelimiter              The character between the fields of a csv file.
+     *                                  Default value: comma (,)
+     * @param hasHeader                 Whether the first record of a csv file is a header that is skipped.
+     *                                  Default value: false
+     *                                  Valid values: true, false
+     * @param batchSize                 The number of rows sent to the database in a JDBC batch.
+     *                                  Default value: 1000
+     * @param commitInterval            The number of rows after which every loading thread commits. When 0, the rows are committed at the end.
+     *                                  Default value: 10000
+     * @param threads                   The number of threads loading the rows, each one over its own connection. Use it with
+     *                                  database pooling so the connections are reused.
+     *                                  Default value: 1
+     * @param trustAllRoots             Specifies whether to enable weak security over SSL/TSL. A certificate is trusted even if no trusted certification authority issued it.
+     *                                  Default value: false
+     *                                  Valid values: true, false
+     *                                  Note: If trustAllRoots is set to 'false', a trustStore and a trustStorePassword must be provided.
+     * @param trustStore                The pathname of the Java TrustStore file. This contains certificates from other parties that you expect to communicate with,
+     *                                  or from Certificate Authorities that you trust to identify other parties.
+     *                                  If the trustAllRoots input is set to 'true' this input is ignored.
+     * @param trustStorePassword        The password associated with the trustStore file.
+     * @param authLibraryPath           The path to the folder where sqljdbc_auth.dll is located. This path must be provided when using windows authentication.
+     *                                  Note: The sqljdbc_auth.dll can be found inside the sqljdbc driver. The driver can be downloaded from https://www.microsoft.com/en-us/download/details.aspx?id=11774.
+     *                                  The downloaded jar should be extracted and the library can be found in the 'auth' folder.
+     *                                  The path provided should be the path to the folder where the sqljdbc_auth.dll library is located, not the path to the file itself.
+     * @param timeout                   Seconds to wait before timing out the execution of a batch. When the default value is used, there
+     *                                  is no limit on the amount of time allowed for a batch to complete.
+     *                                  Default values: 0
+     * @param databasePoolingProperties Properties for database pooling configuration. Pooling is disabled by default.
+     *                                  Default: db.pooling.enable=false
+     *                                  Example: db.pooling.enable=true
+     * @return A map with the number of rows loaded and the load rate.
+     * When a row fails, the rows committed before the failure remain in the database and the rows not committed are rolled back.
+     */
+    @Action(name = "SQL Bulk Load",
+            outputs = {
+                    @Output(RETURN_CODE),
+                    @Output(RETURN_RESULT),
+                    @Output(EXCEPTION),
+                    @Output(ROWS_LOADED),
+                    @Output(ROWS_PER_SECOND),
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = RETURN_CODE, value = SUCCESS,
+                            matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = RETURN_CODE, value = FAILURE,
+                            matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(@Param(value = DB_SERVER_NAME, required = true) String dbServerName,
+                                       @Param(value = DB_TYPE) String dbType,
+                                       @Param(value = USERNAME) String username,
+                                       @Param(value = PASSWORD, encrypted = true) String password,
+                                       @Param(value = INSTANCE) String instance,
+                                       @Param(value = DB_PORT) String dbPort,
+                                       @Param(value = DATABASE_NAME, required = true) String databaseName,
+                                       @Param(value = AUTHENTICATION_TYPE) String authenticationType,
+                                       @Param(value = DB_CLASS) String dbClass,
+                                       @Param(value = DB_URL) String dbURL,
+                                       @Param(value = COMMAND, required = true) String command,
+                                       @Param(value = FILE_NAME, required = true) String fileName,
+                                       @Param(value = FILE_FORMAT) String fileFormat,
+                                       @Param(value = COLUMN_TYPES) String columnTypes,
+                                       @Param(value = FIELD_NAMES) String fieldNames,
+                                       @Param(value = CSV_DELIMITER) String csvDelimiter,
+                                       @Param(value = HAS_HEADER) String hasHeader,
+                                       @Param(value = BATCH_SIZE) String batchSize,
+                                       @Param(value = COMMIT_INTERVAL) String commitInterval,
+                                       @Param(value = THREADS) String threads,
+                                       @Param(value = TRUST_ALL_ROOTS) String trustAllRoots,
+                                       @Param(value = TRUST_STORE) String trustStore,
+                                       @Param(value = TRUST_STORE_PASSWORD) String trustStorePassword,
+                                       @Param(value = AUTH_LIBRARY_PATH) String authLibraryPath,
+                                       @Param(value = TIMEOUT) String timeout,
+                                       @Param(value = DATABASE_POOLING_PROPERTIES) String databasePoolingProperties) {
+
+        dbType = defaultIfEmpty(dbType, ORACLE_DB_TYPE);
+        username = defaultIfEmpty(username, EMPTY);
+        password = defaultIfEmpty(password, EMPTY);
+        instance = defaultIfEmpty(instance, EMPTY);
+        authenticationType = defaultIfEmpty(authenticationType, AUTH_SQL);
+        trustAllRoots = defaultIfEmpty(trustAllRoots, FALSE);
+        trustStore = defaultIfEmpty(trustStore, EMPTY);
+        trustStorePassword = defaultIfEmpty(trustStorePassword, EMPTY);
+        timeout = defaultIfEmpty(timeout, DEFAULT_TIMEOUT);
+
+        fileFormat = defaultIfEmpty(fileFormat, CSV_FORMAT);
+        csvDelimiter = defaultIfEmpty(csvDelimiter, COMMA_DELIMITER);
+        hasHeader = defaultIfEmpty(hasHeader, FALSE);
+        batchSize = defaultIfEmpty(batchSize, DEFAULT_BATCH_SIZE);
+        commitInterval = defaultIfEmpty(commitInterval, DEFAULT_COMMIT_INTERVAL);
+        threads = defaultIfEmpty(threads, DEFAULT_THREADS);
+
+        final List<String> preInputsValidation = validateSqlBulkLoadInputs(dbServerName, dbType, username, password, instance,
+                dbPort, databaseName, authenticationType, command, fileName, fileFormat, columnTypes, csvDelimiter, hasHeader,
+                batchSize, commitInterval, threads, trustAllRoots, trustStore, trustStorePassword, timeout, authLibraryPath);
+        if (!preInputsValidation.isEmpty()) {
+            return getFailureResultsMap(StringUtils.join(preInputsValidation, NEW_LINE));
+        }
+        dbType = getDbType(dbType);
+
+        final SQLInputs sqlInputs = SQLInputs.builder()
+                .dbServer(dbServerName)
+                .dbType(dbType)
+                .username(username)
+                .password(password)
+                .instance(instance)
+                .dbPort(getOrDefaultDBPort(dbPort, dbType))
+                .dbName(defaultIfEmpty(databaseName, EMPTY))
+                .authenticationType(authenticationType)
+                .dbClass(getOrDefaultDBClass(dbClass, dbType))
+                .dbUrl(defaultIfEmpty(dbURL, EMPTY))
+                .sqlCommand(command)
+                .trustAllRoots(toBoolean(trustAllRoots))
+                .trustStore(trustStore)
+                .trustStorePassword(trustStorePassword)
+                .authLibraryPath(authLibraryPath)
+                .timeout(toInteger(timeout))
+                .databasePoolingProperties(getOrDefaultDBPoolingProperties(databasePoolingProperties, EMPTY))
+                .isNetcool(checkIsNetcool(dbType))
+                .build();
+
+        final long start = System.nanoTime();
+        try (final RowReader rowReader = SQLBulkLoadService.createRowReader(fileName, fileFormat, csvDelimiter.charAt(0),
+                toBoolean(hasHeader), getColumnList(fieldNames))) {
+            final long rowsLoaded = SQLBulkLoadService.executeBulkLoad(sqlInputs, rowReader, getColumnList(columnTypes),
+                    toInteger(batchSize), toInteger(commitInterval), toInteger(threads));
+            final long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+            final long rowsPerSecond = rowsLoaded * 1000 / elapsedMillis;
+
+            final Map<String, String> result = getSuccessResultsMap(String.format("Loaded %d rows in %d ms (%d rows/s).",
+                    rowsLoaded, elapsedMillis, rowsPerSecond));
+            result.put(ROWS_LOADED, String.valueOf(rowsLoaded));
+            result.put(ROWS_PER_SECOND, String.valueOf(rowsPerSecond));
+            return result;
+        } catch (Exception e) {
+            return getFailureResultsMap(e);
+        }
+    }
+}
@@ -33,16 +33,20 @@ import java.util.List;
 import java.util.Map;
 
 import static io.cloudslang.content.constants.BooleanValues.FALSE;
+import static io.cloudslang.content.constants.OtherValues.COMMA_DELIMITER;
 import static io.cloudslang.content.constants.OutputNames.*;
 import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
 import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
 import static io.cloudslang.content.database.constants.DBDefaultValues.AUTH_SQL;
+import static io.cloudslang.content.database.constants.DBDefaultValues.DEFAULT_DBMS_OUTPUT_CHUNK_SIZE;
 import static io.cloudslang.content.database.constants.DBDefaultValues.NEW_LINE;
 import static io.cloudslang.content.database.constants.DBInputNames.*;
 import static io.cloudslang.content.database.constants.DBOtherValues.*;
 import static io.cloudslang.content.database.constants.DBOutputNames.OUTPUT_TEXT;
 import static io.cloudslang.content.database.constants.DBOutputNames.UPDATE_COUNT;
 import static io.cloudslang.content.database.utils.SQLInputsUtils.*;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateDbmsOutputChunkSize;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateQueryParameters;
 import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlCommandInputs;
 import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
 import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
@@ -95,6 +99,22 @@ public class SQLCommand {
      * @param resultSetConcurrency      The result set concurrency. See JDBC folder description for more details.
      *                                  Valid values: CONCUR_READ_ONLY, CONCUR_UPDATABLE
      *                                  Default value: CONCUR_READ_ONLY
+     * @param queryParameters           The values bound to the ? placeholders of the command, in order, each in the type:value
+     *                                  format. A command with parameters runs as a prepared statement, so the database can reuse
+     *                                  its execution plan and, with pooling enabled, the pooled connection reuses the statement.
+     *                                  The number of statements cached per connection is set by the connection.statement.cachesize
+     *                                  pooling property, the statement cache is disabled (0) unless it is set.
+     *                                  Valid types: string, int, long, double, decimal, boolean, date (yyyy-mm-dd), time (hh:mm:ss),
+     *                                  timestamp (yyyy-mm-dd hh:mm:ss[.f]), null (null:type to give the type of the null value)
+     *                                  Example: int:42,string:active,null:date
+     * @param queryParametersDelimiter  The delimiter between the values of queryParameters.
+     *                                  Default value: comma (,)
+     * @param dbmsOutputChunkSize       The number of DBMS_OUTPUT lines retrieved per round trip when the command uses
+     *                                  dbms_output on Oracle. Larger chunks mean fewer round trips for verbose procedures.
+     *                                  Default value: 1000
+     * @param dbmsOutputFile            The path of a file the DBMS_OUTPUT lines are streamed to, in UTF-8, instead of being
+     *                                  returned in outputText. Use it for procedures whose output is too large to keep in memory.
+     *                                  Optional
      * @return The return result of SQL command.
      */
     @Action(name = "SQL Command",
@@ -126,7 +146,11 @@ public class SQLCommand {
                                        @Param(value = AUTH_LIBRARY_PATH) String authLibraryPath,
                                        @Param(value = DATABASE_POOLING_PROPERTIES) String databasePoolingProperties,
                                        @Param(value = RESULT_SET_TYPE) String resultSetType,
-                                       @Param(value = RESULT_SET_CONCURRENCY) String resultSetConcurrency) {
+                                       @Param(value = RESULT_SET_CONCURRENCY) String resultSetConcurrency,
+                                       @Param(value = QUERY_PARAMETERS) String queryParameters,
+                                       @Param(value = QUERY_PARAMETERS_DELIMITER) String queryParametersDelimiter,
+                                       @Param(value = DBMS_OUTPUT_CHUNK_SIZE) String dbmsOutputChunkSize,
+                                       @Param(value = DBMS_OUTPUT_FILE) String dbmsOutputFile) {
 
         dbType = defaultIfEmpty(dbType, ORACLE_DB_TYPE);
         username = defaultIfEmpty(username, EMPTY);
@@ -139,10 +163,14 @@ public class SQLCommand {
         trustStorePassword = defaultIfEmpty(trustStorePassword, EMPTY);
         authLibraryPath = defaultIfEmpty(authLibraryPath, EMPTY);
         instance = defaultIfEmpty(instance, EMPTY);
+        queryParametersDelimiter = defaultIfEmpty(queryParametersDelimiter, COMMA_DELIMITER);
+        dbmsOutputChunkSize = defaultIfEmpty(dbmsOutputChunkSize, DEFAULT_DBMS_OUTPUT_CHUNK_SIZE);
 
         final List<String> preInputsValidation = validateSqlCommandInputs(dbServerName, dbType, username, password, instance, dbPort,
                 databaseName, authenticationType, command, trustAllRoots, resultSetType, resultSetConcurrency, trustStore,
                 trustStorePassword, authLibraryPath);
+        preInputsValidation.addAll(validateQueryParameters(queryParameters, queryParametersDelimiter));
+        preInputsValidation.addAll(validateDbmsOutputChunkSize(dbmsOutputChunkSize));
 
         if (!preInputsValidation.isEmpty()) {
             return getFailureResultsMap(StringUtils.join(preInputsValidation, NEW_LINE));
@@ -169,6 +197,9 @@ public class SQLCommand {
                     .databasePoolingProperties(getOrDefaultDBPoolingProperties(databasePoolingProperties, EMPTY))
                     .resultSetType(getResultSetType(resultSetType))
                     .resultSetConcurrency(getResultSetConcurrency(resultSetConcurrency))
+                    .queryParameters(getQueryParameters(queryParameters, queryParametersDelimiter))
+                    .dbmsOutputChunkSize(Integer.parseInt(dbmsOutputChunkSize))
+                    .dbmsOutputFile(defaultIfEmpty(dbmsOutputFile, EMPTY))
                     .isNetcool(checkIsNetcool(dbType))
                     .build();
 
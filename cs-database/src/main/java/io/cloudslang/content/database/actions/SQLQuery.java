@@ -27,6 +27,7 @@ import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
 import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
 import io.cloudslang.content.constants.ResponseNames;
 import io.cloudslang.content.database.constants.DBReturnCodes;
+import io.cloudslang.content.database.services.SQLQueryCursor;
 import io.cloudslang.content.database.services.SQLQueryService;
 import io.cloudslang.content.database.utils.SQLInputs;
 import io.cloudslang.content.database.utils.SQLSessionResource;
@@ -39,6 +40,7 @@ import java.util.Map;
 
 import static io.cloudslang.content.constants.BooleanValues.FALSE;
 import static io.cloudslang.content.constants.BooleanValues.TRUE;
+import static io.cloudslang.content.constants.OtherValues.COMMA_DELIMITER;
 import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
 import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
 import static io.cloudslang.content.database.constants.DBDefaultValues.*;
@@ -48,6 +50,8 @@ import static io.cloudslang.content.database.constants.DBOutputNames.*;
 import static io.cloudslang.content.database.constants.DBResponseNames.HAS_MORE;
 import static io.cloudslang.content.database.constants.DBResponseNames.NO_MORE;
 import static io.cloudslang.content.database.utils.SQLInputsUtils.*;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateQueryParameters;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlQueryCursorInputs;
 import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlQueryInputs;
 import static io.cloudslang.content.database.utils.SQLUtils.getRowsFromGlobalSessionMap;
 import static io.cloudslang.content.utils.BooleanUtilities.toBoolean;
@@ -112,6 +116,29 @@ public class SQLQuery {
      * @param ignoreCase                If set to true the inputs' letters case will be ignored and converted to lowercase.
      *                                  Valid values: true, false
      *                                  Default value: true
+     * @param useCursor                 If set to true the query result is not loaded in memory. The result set is kept open between
+     *                                  calls as a forward only cursor and each call reads the next row from the database. The
+     *                                  connection is released when the last row was read, when the cursor is idle for more than
+     *                                  cursorIdleTimeout seconds or when the session ends. In this mode the number of remaining rows
+     *                                  is not known and rowsLeft is -1 while rows are returned. The resultSetType and
+     *                                  resultSetConcurrency inputs are ignored.
+     *                                  Valid values: true, false
+     *                                  Default value: false
+     * @param fetchSize                 The number of rows fetched from the database in one round trip when useCursor is true.
+     *                                  0 lets the driver choose.
+     *                                  Default value: 1000
+     * @param cursorIdleTimeout         Seconds after which a cursor that was not read is closed and its connection released.
+     *                                  Default value: 300
+     * @param queryParameters           The values bound to the ? placeholders of the command, in order, each in the type:value
+     *                                  format. A command with parameters runs as a prepared statement, so the database can reuse
+     *                                  its execution plan and, with pooling enabled, the pooled connection reuses the statement.
+     *                                  The number of statements cached per connection is set by the connection.statement.cachesize
+     *                                  pooling property, the statement cache is disabled (0) unless it is set.
+     *                                  Valid types: string, int, long, double, decimal, boolean, date (yyyy-mm-dd), time (hh:mm:ss),
+     *                                  timestamp (yyyy-mm-dd hh:mm:ss[.f]), null (null:type to give the type of the null value)
+     *                                  Example: int:42,string:active,null:date
+     * @param queryParametersDelimiter  The delimiter between the values of queryParameters.
+     *                                  Default value: comma (,)
      * @return It contains the data of one row, separated by the "delimiter".
      */
     @Action(name = "SQL Query",
@@ -150,6 +177,11 @@ public class SQLQuery {
                                        @Param(value = RESULT_SET_TYPE) String resultSetType,
                                        @Param(value = RESULT_SET_CONCURRENCY) String resultSetConcurrency,
                                        @Param(value = IGNORE_CASE) String ignoreCase,
+                                       @Param(value = USE_CURSOR) String useCursor,
+                                       @Param(value = FETCH_SIZE) String fetchSize,
+                                       @Param(value = CURSOR_IDLE_TIMEOUT) String cursorIdleTimeout,
+                                       @Param(value = QUERY_PARAMETERS) String queryParameters,
+                                       @Param(value = QUERY_PARAMETERS_DELIMITER) String queryParametersDelimiter,
                                        @Param(value = GLOBAL_SESSION_OBJECT) GlobalSessionObject<Map<String, Object>> globalSessionObject) {
 
         dbType = defaultIfEmpty(dbType, ORACLE_DB_TYPE);
@@ -164,10 +196,16 @@ public class SQLQuery {
         resultSetType = defaultIfEmpty(resultSetType, TYPE_SCROLL_INSENSITIVE);
         resultSetConcurrency = defaultIfEmpty(resultSetConcurrency, CONCUR_READ_ONLY);
         ignoreCase = defaultIfEmpty(ignoreCase, TRUE);
+        useCursor = defaultIfEmpty(useCursor, FALSE);
+        fetchSize = defaultIfEmpty(fetchSize, DEFAULT_FETCH_SIZE);
+        cursorIdleTimeout = defaultIfEmpty(cursorIdleTimeout, DEFAULT_CURSOR_IDLE_TIMEOUT);
+        queryParametersDelimiter = defaultIfEmpty(queryParametersDelimiter, COMMA_DELIMITER);
 
         final List<String> preInputsValidation = validateSqlQueryInputs(dbServerName, dbType, username, password, instance, dbPort,
                 databaseName, authenticationType, command, trustAllRoots, trustStore, trustStorePassword,
                 timeout, resultSetType, resultSetConcurrency, ignoreCase, authLibraryPath);
+        preInputsValidation.addAll(validateSqlQueryCursorInputs(useCursor, fetchSize, cursorIdleTimeout));
+        preInputsValidation.addAll(validateQueryParameters(queryParameters, queryParametersDelimiter));
 
         if (!preInputsValidation.isEmpty()) {
             return getFailureResultsMap(StringUtils.join(preInputsValidation, NEW_LINE));
@@ -198,6 +236,7 @@ public class SQLQuery {
                 .databasePoolingProperties(getOrDefaultDBPoolingProperties(databasePoolingProperties, EMPTY))
                 .resultSetType(getResultSetTypeForDbType(resultSetType, dbType))
                 .resultSetConcurrency(getResultSetConcurrency(resultSetConcurrency))
+                .queryParameters(getQueryParameters(queryParameters, queryParametersDelimiter))
                 .ignoreCase(ignoreCaseBool)
                 .isNetcool(checkIsNetcool(dbType))
                 .build();
@@ -209,6 +248,12 @@ public class SQLQuery {
             globalSessionObject = getOrDefaultGlobalSessionObj(globalSessionObject);
 
             final Map<String, Object> globalMap = globalSessionObject.get();
+            final Object sessionValue = globalMap.get(aKey);
+
+            if (sessionValue instanceof SQLQueryCursor || (toBoolean(useCursor) && sessionValue == null)) {
+                return executeWithCursor(sqlInputs, aKey, globalSessionObject, (SQLQueryCursor) sessionValue,
+                        toInteger(fetchSize), toInteger(cursorIdleTimeout));
+            }
 
             if (globalMap.containsKey(aKey)) {
                 sqlInputs.setLRows(getRowsFromGlobalSessionMap(globalSessionObject, aKey));
@@ -244,4 +289,41 @@ public class SQLQuery {
             return failureMap;
         }
     }
+
+    private Map<String, String> executeWithCursor(final SQLInputs sqlInputs, final String aKey,
+                                                  final GlobalSessionObject<Map<String, Object>> globalSessionObject,
+                                                  SQLQueryCursor cursor, final int fetchSize, final int cursorIdleTimeout) throws Exception {
+        final Map<String, Object> globalMap = globalSessionObject.get();
+        try {
+            if (cursor == null) {
+                cursor = SQLQueryService.openSqlCursor(sqlInputs, fetchSize, cursorIdleTimeout);
+                globalMap.put(aKey, cursor);
+                globalSessionObject.setResource(new SQLSessionResource(globalMap));
+            }
+
+            final String row = cursor.nextRow();
+            if (row != null) {
+                final Map<String, String> result = getSuccessResultsMap(row);
+                result.put(COLUMN_NAMES, cursor.getColumnNames());
+                result.put(ROWS_LEFT, UNKNOWN_ROWS_LEFT);
+                return result;
+            }
+
+            cursor.close();
+            globalMap.remove(aKey);
+
+            final Map<String, String> result = new HashMap<>();
+            result.put(SQL_QUERY, sqlInputs.getSqlCommand());
+            result.put(RETURN_RESULT, NO_MORE);
+            result.put(ROWS_LEFT, ZERO);
+            result.put(RETURN_CODE, DBReturnCodes.NO_MORE);
+            return result;
+        } catch (Exception e) {
+            if (cursor != null) {
+                cursor.close();
+                globalMap.remove(aKey);
+            }
+            throw e;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import com.hp.oo.sdk.content.annotations.Response;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
 import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.database.services.QueryResultCache;
 import io.cloudslang.content.database.services.SQLQueryAllRowsService;
 import io.cloudslang.content.database.utils.SQLInputs;
 import io.cloudslang.content.utils.OutputUtilities;
@@ -41,13 +42,17 @@ import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
 import static io.cloudslang.content.database.constants.DBDefaultValues.*;
 import static io.cloudslang.content.database.constants.DBInputNames.*;
 import static io.cloudslang.content.database.constants.DBOtherValues.*;
+import static io.cloudslang.content.database.constants.DBOutputNames.CACHE_HIT;
 import static io.cloudslang.content.database.utils.SQLInputsUtils.*;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateCacheTtl;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateQueryParameters;
 import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlQueryAllRowsInputs;
 import static io.cloudslang.content.utils.BooleanUtilities.toBoolean;
 import static io.cloudslang.content.utils.NumberUtilities.toInteger;
 import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
  * Created by pinteae on 1/10/2017.
@@ -103,13 +108,38 @@ public class SQLQueryAllRows {
      * @param resultSetConcurrency      the result set concurrency. See JDBC folder description for more details.
      *                                  Valid values: CONCUR_READ_ONLY, CONCUR_UPDATABLE
      *                                  Default value: CONCUR_READ_ONLY
+     * @param queryParameters           The values bound to the ? placeholders of the command, in order, each in the type:value
+     *                                  format. A command with parameters runs as a prepared statement, so the database can reuse
+     *                                  its execution plan and, with pooling enabled, the pooled connection reuses the statement.
+     *                                  The number of statements cached per connection is set by the connection.statement.cachesize
+     *                                  pooling property, the statement cache is disabled (0) unless it is set.
+     *                                  Valid types: string, int, long, double, decimal, boolean, date (yyyy-mm-dd), time (hh:mm:ss),
+     *                                  timestamp (yyyy-mm-dd hh:mm:ss[.f]), null (null:type to give the type of the null value)
+     *                                  Example: int:42,string:active,null:date
+     * @param queryParametersDelimiter  The delimiter between the values of queryParameters.
+     *                                  Default value: comma (,)
+     * @param cacheTtl                  The number of seconds the result is kept in a cache shared by the flows and returned
+     *                                  without querying the database again. Use it only for read-only lookups, such as
+     *                                  configuration tables, that can be served stale for that long. The entry is keyed by the
+     *                                  connection url, username, password, query, queryParameters and output format. The number of cached
+     *                                  results is limited by the db.result.cache.size pooling property, default 1000, and their
+     *                                  total size to 32 MB, after which the least recently used result is evicted. Results over
+     *                                  1 MB are not cached. 0 disables the cache.
+     *                                  Default value: 0
+     * @param cacheInvalidatePrefix     Removes, before the query runs, all the cached results whose key starts with this value
+     *                                  followed by the end of a key part, so jdbc:oracle:thin:@//host:1521/db does not match
+     *                                  the results of jdbc:oracle:thin:@//host:1521/db2. A key starts with the connection urls
+     *                                  of the database, and any one of them matches, so passing one url forgets all the results
+     *                                  of that database.
+     *                                  Optional
      * @return Return the list of all the data returned by the query. It is delimited by colDelimiter and rowDelimiter.
      */
     @Action(name = "SQL Query All Rows",
             outputs = {
                     @Output(RETURN_CODE),
                     @Output(RETURN_RESULT),
-                    @Output(EXCEPTION)
+                    @Output(EXCEPTION),
+                    @Output(CACHE_HIT)
             },
             responses = {
                     @Response(text = ResponseNames.SUCCESS, field = RETURN_CODE, value = SUCCESS,
@@ -137,7 +167,11 @@ public class SQLQueryAllRows {
                                        @Param(value = TIMEOUT) String timeout,
                                        @Param(value = DATABASE_POOLING_PROPERTIES) String databasePoolingProperties,
                                        @Param(value = RESULT_SET_TYPE) String resultSetType,
-                                       @Param(value = RESULT_SET_CONCURRENCY) String resultSetConcurrency) {
+                                       @Param(value = RESULT_SET_CONCURRENCY) String resultSetConcurrency,
+                                       @Param(value = QUERY_PARAMETERS) String queryParameters,
+                                       @Param(value = QUERY_PARAMETERS_DELIMITER) String queryParametersDelimiter,
+                                       @Param(value = CACHE_TTL) String cacheTtl,
+                                       @Param(value = CACHE_INVALIDATE_PREFIX) String cacheInvalidatePrefix) {
 
         dbType = defaultIfEmpty(dbType, ORACLE_DB_TYPE);
         username = defaultIfEmpty(username, EMPTY);
@@ -151,10 +185,14 @@ public class SQLQueryAllRows {
 
         resultSetType = defaultIfEmpty(resultSetType, TYPE_SCROLL_INSENSITIVE);
         resultSetConcurrency = defaultIfEmpty(resultSetConcurrency, CONCUR_READ_ONLY);
+        queryParametersDelimiter = defaultIfEmpty(queryParametersDelimiter, COMMA_DELIMITER);
+        cacheTtl = defaultIfEmpty(cacheTtl, DEFAULT_CACHE_TTL);
 
         final List<String> preInputsValidation = validateSqlQueryAllRowsInputs(dbServerName, dbType, username, password, instance,
                 dbPort, databaseName, authenticationType, command, trustAllRoots, trustStore, trustStorePassword,
                 timeout, resultSetType, resultSetConcurrency, authLibraryPath);
+        preInputsValidation.addAll(validateQueryParameters(queryParameters, queryParametersDelimiter));
+        preInputsValidation.addAll(validateCacheTtl(cacheTtl));
 
         if (!preInputsValidation.isEmpty()) {
             return getFailureResultsMap(StringUtils.join(preInputsValidation, NEW_LINE));
@@ -183,12 +221,20 @@ public class SQLQueryAllRows {
                 .databasePoolingProperties(getOrDefaultDBPoolingProperties(databasePoolingProperties, EMPTY))
                 .resultSetType(getResultSetTypeForDbType(resultSetType, dbType))
                 .resultSetConcurrency(getResultSetConcurrency(resultSetConcurrency))
+                .queryParameters(getQueryParameters(queryParameters, queryParametersDelimiter))
+                .resultCacheTtl(toInteger(cacheTtl))
                 .isNetcool(checkIsNetcool(dbType))
                 .build();
 
+        if (isNotEmpty(cacheInvalidatePrefix)) {
+            QueryResultCache.getInstance().invalidate(cacheInvalidatePrefix);
+        }
+
         try {
-            final String queryResult = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
-            return OutputUtilities.getSuccessResultsMap(queryResult);
+            final QueryResultCache.Result queryResult = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+            final Map<String, String> result = OutputUtilities.getSuccessResultsMap(queryResult.getValue());
+            result.put(CACHE_HIT, String.valueOf(queryResult.isCacheHit()));
+            return result;
         } catch (Exception e) {
             return OutputUtilities.getFailureResultsMap(e);
         }
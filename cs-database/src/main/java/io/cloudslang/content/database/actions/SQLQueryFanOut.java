@@ -0,0 +1,243 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.actions;
+
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.database.services.SQLQueryFanOutService;
+import io.cloudslang.content.database.services.SQLQueryFanOutService.TargetResult;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.cloudslang.content.constants.BooleanValues.FALSE;
+import static io.cloudslang.content.constants.OtherValues.COMMA_DELIMITER;
+import static io.cloudslang.content.constants.OutputNames.*;
+import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
+import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
+import static io.cloudslang.content.database.constants.DBDefaultValues.*;
+import static io.cloudslang.content.database.constants.DBExceptionValues.ALL_TARGETS_FAILED;
+import static io.cloudslang.content.database.constants.DBInputNames.*;
+import static io.cloudslang.content.database.constants.DBOtherValues.*;
+import static io.cloudslang.content.database.constants.DBOutputNames.COLUMN_NAMES;
+import static io.cloudslang.content.database.constants.DBOutputNames.ERRORS;
+import static io.cloudslang.content.database.constants.DBOutputNames.FAILURE_COUNT;
+import static io.cloudslang.content.database.constants.DBOutputNames.SUCCESS_COUNT;
+import static io.cloudslang.content.database.utils.SQLInputsUtils.*;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateQueryParameters;
+import static io.cloudslang.content.database.utils.SQLInputsValidator.validateSqlQueryFanOutInputs;
+import static io.cloudslang.content.utils.BooleanUtilities.toBoolean;
+import static io.cloudslang.content.utils.NumberUtilities.toInteger;
+import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
+import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+
+public class SQLQueryFanOut {
+
+    /**
+     * @param endpoints                 The databases to query, each one a host, a host:port or a JDBC url. IPv6 hosts with a port
+     *                                  must be enclosed in square brackets. The other connection inputs are the same for all the endpoints.
+     *                                  Example: db1.example.com,db2.example.com:1522,jdbc:postgresql://db3.example.com/inventory
+     * @param endpointsDelimiter        The delimiter between the endpoints.
+     *                                  Default value: comma (,)
+     * @param dbType                    The type of database to connect to
+     *                                  Valid values: Oracle, MSSQL, Sybase, Netcool, DB2, PostgreSQL and Custom.
+     *                                  Default value: Oracle
+     * @param username                  The username to use when connecting to the server.
+     * @param password                  The password to use when connecting to the server.
+     * @param instance                  The name instance of MSSQL Server. Leave it blank for default instance.
+     *                                  Example: MSSQLSERVER
+     * @param dbPort                    The port of the endpoints that don't have one.
+     *                                  Default values: Oracle: 1521, MSSQL: 1433, Sybase: 5000, Netcool: 4100, DB2: 50000, PostgreSQL: 5432.
+     * @param databaseName              The name of the database to connect to.
+     * @param authenticationType        The type of authentication used to access the database (applicable only to MSSQL type).
+     *                                  Default: sql
+     *                                  Values: sql, windows
+     * @param dbClass                   The classname of the JDBC driver to use.
+     *                                  Examples: "oracle.jdbc.driver.OracleDriver", "org.postgresql.Driver"
+     * @param command                   The SQL query to execute on every endpoint.
+     *                                  Example: "SELECT * FROM table"
+     * @param threads                   The maximum number of endpoints queried at the same time.
+     *                                  Default value: 10
+     * @param targetTimeout             Seconds after which an endpoint that didn't return its rows is reported as failed. The time is
+     *                                  counted from the moment the endpoint is queried, not from the start of the action.
+     *                                  The action returns at the latest after one 'targetTimeout' per batch of 'threads' endpoints,
+     *                                  the endpoints that were not queried or did not answer by then are reported as failed.
+     *                                  Default value: 60
+     * @param trustAllRoots             Specifies whether to enable weak security over SSL/TSL. A certificate is trusted even if no trusted certification authority issued it.
+     *                                  Default value: false
+     *                                  Valid values: true, false
+     *                                  Note: If trustAllRoots is set to 'false', a trustStore and a trustStorePassword must be provided.
+     * @param trustStore                The pathname of the Java TrustStore file. This contains certificates from other parties that you expect to communicate with,
+     *                                  or from Certificate Authorities that you trust to identify other parties.
+     *                                  If the trustAllRoots input is set to 'true' this input is ignored.
+     * @param trustStorePassword        The password associated with the trustStore file.
+     * @param authLibraryPath           The path to the folder where sqljdbc_auth.dll is located. This path must be provided when using windows authentication.
+     *                                  Note: The sqljdbc_auth.dll can be found inside the sqljdbc driver. The driver can be downloaded from https://www.microsoft.com/en-us/download/details.aspx?id=11774.
+     *                                  The downloaded jar should be extracted and the library can be found in the 'auth' folder.
+     *                                  The path provided should be the path to the folder where the sqljdbc_auth.dll library is located, not the path to the file itself.
+     * @param colDelimiter              The delimiter to use between columns in resulting table.
+     *                                  Default value: comma (,)
+     * @param rowDelimiter              The delimiter to use between rows in resulting table.
+     *                                  Default value: \n
+     * @param databasePoolingProperties Properties for database pooling configuration. Pooling is disabled by default.
+     *                                  Default: db.pooling.enable=false
+     *                                  Example: db.pooling.enable=true
+     * @param queryParameters           The values bound to the ? placeholders of the command, in order, each in the type:value format.
+     *                                  Valid types: string, int, long, double, decimal, boolean, date, time, timestamp, null.
+     *                                  Example: int:10,date:2019-01-31
+     * @param queryParametersDelimiter  The delimiter between the values of queryParameters.
+     *                                  Default value: comma (,)
+     * @return The rows of all the endpoints, delimited by colDelimiter and rowDelimiter, each one starting with the endpoint it
+     * comes from. The errors output has one "endpoint: error" line for every endpoint that failed. The action fails only
+     * when the query fails on all the endpoints.
+     */
+    @Action(name = "SQL Query Fan Out",
+            outputs = {
+                    @Output(RETURN_CODE),
+                    @Output(RETURN_RESULT),
+                    @Output(EXCEPTION),
+                    @Output(COLUMN_NAMES),
+                    @Output(SUCCESS_COUNT),
+                    @Output(FAILURE_COUNT),
+                    @Output(ERRORS),
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = RETURN_CODE, value = SUCCESS,
+                            matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = RETURN_CODE, value = FAILURE,
+                            matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(@Param(value = ENDPOINTS, required = true) String endpoints,
+                                       @Param(value = ENDPOINTS_DELIMITER) String endpointsDelimiter,
+                                       @Param(value = DB_TYPE) String dbType,
+                                       @Param(value = USERNAME) String username,
+                                       @Param(value = PASSWORD, encrypted = true) String password,
+                                       @Param(value = INSTANCE) String instance,
+                                       @Param(value = DB_PORT) String dbPort,
+                                       @Param(value = DATABASE_NAME, required = true) String databaseName,
+                                       @Param(value = AUTHENTICATION_TYPE) String authenticationType,
+                                       @Param(value = DB_CLASS) String dbClass,
+                                       @Param(value = COMMAND, required = true) String command,
+                                       @Param(value = THREADS) String threads,
+                                       @Param(value = TARGET_TIMEOUT) String targetTimeout,
+                                       @Param(value = TRUST_ALL_ROOTS) String trustAllRoots,
+                                       @Param(value = TRUST_STORE) String trustStore,
+                                       @Param(value = TRUST_STORE_PASSWORD) String trustStorePassword,
+                                       @Param(value = AUTH_LIBRARY_PATH) String authLibraryPath,
+                                       @Param(value = COL_DELIMITER) String colDelimiter,
+                                       @Param(value = ROW_DELIMITER) String rowDelimiter,
+                                       @Param(value = DATABASE_POOLING_PROPERTIES) String databasePoolingProperties,
+                                       @Param(value = QUERY_PARAMETERS) String queryParameters,
+                                       @Param(value = QUERY_PARAMETERS_DELIMITER) String queryParametersDelimiter) {
+
+        endpointsDelimiter = defaultIfEmpty(endpointsDelimiter, COMMA_DELIMITER);
+        dbType = defaultIfEmpty(dbType, ORACLE_DB_TYPE);
+        username = defaultIfEmpty(username, EMPTY);
+        password = defaultIfEmpty(password, EMPTY);
+        instance = defaultIfEmpty(instance, EMPTY);
+        authenticationType = defaultIfEmpty(authenticationType, AUTH_SQL);
+        trustAllRoots = defaultIfEmpty(trustAllRoots, FALSE);
+        trustStore = defaultIfEmpty(trustStore, EMPTY);
+        trustStorePassword = defaultIfEmpty(trustStorePassword, EMPTY);
+        threads = defaultIfEmpty(threads, DEFAULT_FAN_OUT_THREADS);
+        targetTimeout = defaultIfEmpty(targetTimeout, DEFAULT_TARGET_TIMEOUT);
+        colDelimiter = defaultIfEmpty(colDelimiter, COMMA_DELIMITER);
+        rowDelimiter = defaultIfEmpty(rowDelimiter, NEW_LINE);
+        queryParametersDelimiter = defaultIfEmpty(queryParametersDelimiter, COMMA_DELIMITER);
+
+        final List<String> preInputsValidation = validateSqlQueryFanOutInputs(endpoints, endpointsDelimiter, dbType, username, password,
+                instance, dbPort, databaseName, authenticationType, command, threads, targetTimeout, trustAllRoots, trustStore,
+                trustStorePassword, authLibraryPath);
+        preInputsValidation.addAll(validateQueryParameters(queryParameters, queryParametersDelimiter));
+        if (!preInputsValidation.isEmpty()) {
+            return getFailureResultsMap(StringUtils.join(preInputsValidation, NEW_LINE));
+        }
+        dbType = getDbType(dbType);
+
+        try {
+            final int defaultPort = getOrDefaultDBPort(dbPort, dbType);
+            final Map<String, SQLInputs> targets = new LinkedHashMap<>();
+            for (final String endpoint : getEndpoints(endpoints, endpointsDelimiter)) {
+                final boolean isUrl = isJdbcUrl(endpoint);
+                targets.put(endpoint, SQLInputs.builder()
+                        .dbServer(isUrl ? EMPTY : getEndpointHost(endpoint))
+                        .dbType(dbType)
+                        .username(username)
+                        .password(password)
+                        .instance(instance)
+                        .dbPort(isUrl ? defaultPort : getEndpointPort(endpoint, defaultPort))
+                        .dbName(defaultIfEmpty(databaseName, EMPTY))
+                        .authenticationType(authenticationType)
+                        .dbClass(getOrDefaultDBClass(dbClass, dbType))
+                        .dbUrl(isUrl ? endpoint : EMPTY)
+                        .sqlCommand(command)
+                        .trustAllRoots(toBoolean(trustAllRoots))
+                        .trustStore(trustStore)
+                        .trustStorePassword(trustStorePassword)
+                        .authLibraryPath(authLibraryPath)
+                        .colDelimiter(colDelimiter)
+                        .rowDelimiter(rowDelimiter)
+                        .timeout(toInteger(targetTimeout))
+                        .databasePoolingProperties(getOrDefaultDBPoolingProperties(databasePoolingProperties, EMPTY))
+                        .queryParameters(getQueryParameters(queryParameters, queryParametersDelimiter))
+                        .isNetcool(checkIsNetcool(dbType))
+                        .build());
+            }
+
+            final List<TargetResult> results = SQLQueryFanOutService.execQueryFanOut(targets, toInteger(threads), toInteger(targetTimeout));
+            final List<String> rows = new ArrayList<>();
+            final List<String> errors = new ArrayList<>();
+            String columnNames = null;
+            for (final TargetResult result : results) {
+                if (result.getError() != null) {
+                    errors.add(result.getEndpoint() + ": " + result.getError());
+                    continue;
+                }
+                if (columnNames == null) {
+                    columnNames = ENDPOINT_COLUMN + colDelimiter + result.getColumnNames();
+                }
+                for (final String row : result.getRows()) {
+                    rows.add(result.getEndpoint() + colDelimiter + row);
+                }
+            }
+
+            final Map<String, String> resultMap = errors.size() == results.size() ?
+                    getFailureResultsMap(ALL_TARGETS_FAILED + NEW_LINE + StringUtils.join(errors, NEW_LINE)) :
+                    getSuccessResultsMap(StringUtils.join(rows, rowDelimiter));
+            resultMap.put(COLUMN_NAMES, defaultIfEmpty(columnNames, EMPTY));
+            resultMap.put(SUCCESS_COUNT, String.valueOf(results.size() - errors.size()));
+            resultMap.put(FAILURE_COUNT, String.valueOf(errors.size()));
+            resultMap.put(ERRORS, StringUtils.join(errors, NEW_LINE));
+            return resultMap;
+        } catch (Exception e) {
+            return getFailureResultsMap(e);
+        }
+    }
+}
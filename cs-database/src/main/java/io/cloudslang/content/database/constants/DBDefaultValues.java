@@ -24,4 +24,15 @@ public class DBDefaultValues {
     public static final String AUTH_SQL = "Sql";
     public static final String DEFAULT_TIMEOUT = "120";
     public static final String NEW_LINE = "\n";
+    public static final String DEFAULT_FETCH_SIZE = "1000";
+    public static final String DEFAULT_CURSOR_IDLE_TIMEOUT = "300";
+    public static final String DEFAULT_BATCH_SIZE = "1000";
+    public static final String DEFAULT_COMMIT_INTERVAL = "10000";
+    public static final String DEFAULT_THREADS = "1";
+    public static final String DEFAULT_FAN_OUT_THREADS = "10";
+    public static final String DEFAULT_TARGET_TIMEOUT = "60";
+    public static final String ENDPOINT_COLUMN = "endpoint";
+    public static final String DEFAULT_SPILL_THRESHOLD = "65536";
+    public static final String DEFAULT_DBMS_OUTPUT_CHUNK_SIZE = "1000";
+    public static final String DEFAULT_CACHE_TTL = "0";
 }
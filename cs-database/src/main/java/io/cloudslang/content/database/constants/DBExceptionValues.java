@@ -45,4 +45,28 @@ public class DBExceptionValues extends ExceptionValues {
     public static final String INVALID_COMMANDS_EXCLUSIVITY = "Only one of the sqlCommands and scriptFileName can be specified";
     public static final String INVALID_AUTHENTICATION_TYPE_FOR_MS_SQL = "Invalid authentication type for MS SQL : ";
     public static final String NO_SQL_COMMAND = "No SQL command to be executed.";
+    public static final String INVALID_USE_CURSOR = "useCursor must be 'true' or 'false'";
+    public static final String INVALID_FETCH_SIZE = "fetchSize must be a non negative integer.";
+    public static final String INVALID_CURSOR_IDLE_TIMEOUT = "cursorIdleTimeout must be a positive integer.";
+    public static final String CURSOR_CLOSED = "The cursor for the query was closed after being idle for more than %s seconds.";
+    public static final String INVALID_QUERY_PARAMETER = "Invalid query parameter '%s'. Query parameters must have the type:value format. " +
+            "Valid types: string, int, long, double, decimal, boolean, date, time, timestamp, null.";
+    public static final String INVALID_QUERY_PARAMETERS_DELIMITER = "queryParametersDelimiter can't be empty when queryParameters are given.";
+    public static final String INVALID_FILE_NAME = "fileName input is empty.";
+    public static final String INVALID_FILE_FORMAT = "fileFormat must be 'csv' or 'jsonl'";
+    public static final String INVALID_CSV_DELIMITER = "csvDelimiter must be a single character.";
+    public static final String INVALID_HAS_HEADER = "hasHeader must be 'true' or 'false'";
+    public static final String INVALID_COLUMN_TYPE = "Invalid column type '%s'. " +
+            "Valid types: string, int, long, double, decimal, boolean, date, time, timestamp.";
+    public static final String INVALID_BATCH_SIZE = "batchSize must be a positive integer.";
+    public static final String INVALID_COMMIT_INTERVAL = "commitInterval must be a non negative integer.";
+    public static final String INVALID_THREADS = "threads must be a positive integer.";
+    public static final String INVALID_GZIP = "gzip must be 'true' or 'false'";
+    public static final String INVALID_ENDPOINTS = "endpoints input is empty.";
+    public static final String INVALID_TARGET_TIMEOUT = "targetTimeout must be a positive integer.";
+    public static final String ALL_TARGETS_FAILED = "The query failed on all the endpoints.";
+    public static final String INVALID_DIRECTORY = "directory input is empty.";
+    public static final String INVALID_SPILL_THRESHOLD = "spillThreshold must be a non negative integer.";
+    public static final String INVALID_DBMS_OUTPUT_CHUNK_SIZE = "dbmsOutputChunkSize must be a positive integer.";
+    public static final String INVALID_CACHE_TTL = "cacheTtl must be a non negative integer.";
 }
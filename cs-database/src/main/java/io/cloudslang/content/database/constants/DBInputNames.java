@@ -50,6 +50,30 @@ public class DBInputNames extends InputNames {
     public static final String SCRIPT_FILE_NAME = "scriptFileName";
     public static final String GLOBAL_SESSION_OBJECT = "globalSessionObject";
     public static final String SQL_COMMANDS = "sqlCommands";
+    public static final String USE_CURSOR = "useCursor";
+    public static final String FETCH_SIZE = "fetchSize";
+    public static final String CURSOR_IDLE_TIMEOUT = "cursorIdleTimeout";
+    public static final String QUERY_PARAMETERS = "queryParameters";
+    public static final String QUERY_PARAMETERS_DELIMITER = "queryParametersDelimiter";
+    public static final String FILE_NAME = "fileName";
+    public static final String FILE_FORMAT = "fileFormat";
+    public static final String COLUMN_TYPES = "columnTypes";
+    public static final String FIELD_NAMES = "fieldNames";
+    public static final String CSV_DELIMITER = "csvDelimiter";
+    public static final String HAS_HEADER = "hasHeader";
+    public static final String BATCH_SIZE = "batchSize";
+    public static final String COMMIT_INTERVAL = "commitInterval";
+    public static final String THREADS = "threads";
+    public static final String GZIP = "gzip";
+    public static final String ENDPOINTS = "endpoints";
+    public static final String ENDPOINTS_DELIMITER = "endpointsDelimiter";
+    public static final String TARGET_TIMEOUT = "targetTimeout";
+    public static final String DIRECTORY = "directory";
+    public static final String SPILL_THRESHOLD = "spillThreshold";
+    public static final String DBMS_OUTPUT_CHUNK_SIZE = "dbmsOutputChunkSize";
+    public static final String DBMS_OUTPUT_FILE = "dbmsOutputFile";
+    public static final String CACHE_TTL = "cacheTtl";
+    public static final String CACHE_INVALIDATE_PREFIX = "cacheInvalidatePrefix";
 
 
     public static final String MS_DELIMITER = "Delimiter";
@@ -22,12 +22,16 @@ package io.cloudslang.content.database.constants;
  */
 public class DBOtherValues {
     public static final String ZERO = "0";
+    public static final String UNKNOWN_ROWS_LEFT = "-1";
     public static final String DATABASE_NAME_CAP = "DatabaseName";
     public static final String SET_NOCOUNT_ON = "SET NOCOUNT ON";
     public static final String FORWARD_SLASH = "/";
     public static final String BACK_SLASH = "\\";
     public static final String SEMI_COLON = ";";
     public static final String DBMS_OUTPUT = "dbms_output";
+    public static final String CSV_FORMAT = "csv";
+    public static final String JSON_LINES_FORMAT = "jsonl";
+    public static final String JDBC_URL_PREFIX = "jdbc:";
 
     public static final String CONCUR_READ_ONLY = "CONCUR_READ_ONLY";
     public static final String CONCUR_UPDATABLE = "CONCUR_UPDATABLE";
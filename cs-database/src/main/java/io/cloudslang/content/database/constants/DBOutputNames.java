@@ -28,4 +28,13 @@ public class DBOutputNames extends OutputNames {
     public static final String OUTPUT_TEXT = "outputText";
     public static final String COLUMN_NAMES = "columnNames";
     public static final String SQL_QUERY = "sqlQuery";
+    public static final String ROWS_LOADED = "rowsLoaded";
+    public static final String ROWS_PER_SECOND = "rowsPerSecond";
+    public static final String ROW_COUNT = "rowCount";
+    public static final String BYTE_COUNT = "byteCount";
+    public static final String SUCCESS_COUNT = "successCount";
+    public static final String FAILURE_COUNT = "failureCount";
+    public static final String ERRORS = "errors";
+    public static final String LOB_FILE_COUNT = "lobFileCount";
+    public static final String CACHE_HIT = "cacheHit";
 }
@@ -18,6 +18,7 @@
 package io.cloudslang.content.database.services;
 
 import io.cloudslang.content.database.services.databases.SqlDatabase;
+import io.cloudslang.content.database.services.dbconnection.ConnectionUrlCache;
 import io.cloudslang.content.database.services.dbconnection.DBConnectionManager;
 import io.cloudslang.content.database.services.dbconnection.DBConnectionManager.DBType;
 import io.cloudslang.content.database.services.dbconnection.TotalMaxPoolSizeExceedException;
@@ -28,9 +29,21 @@ import org.jetbrains.annotations.NotNull;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static io.cloudslang.content.database.services.dbconnection.ConnectionUrlCache.*;
 import static io.cloudslang.content.database.utils.SQLInputsUtils.getDbClassForType;
 import static io.cloudslang.content.database.utils.SQLInputsUtils.getDbEnumForType;
 import static org.apache.commons.lang3.StringUtils.join;
@@ -40,6 +53,24 @@ import static org.apache.commons.lang3.StringUtils.join;
  */
 public class ConnectionService {
 
+    //the connects raced by all the action calls share this many threads, the others wait in the queue
+    private static final int MAX_RACE_THREADS = 16;
+
+    //threads that race connects to the candidate urls, a losing connect may outlive the action call
+    private static final ThreadPoolExecutor RACE_EXECUTOR = new ThreadPoolExecutor(MAX_RACE_THREADS, MAX_RACE_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        @Override
+        public Thread newThread(@NotNull final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "db-connect-race");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static {
+        RACE_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     private DBConnectionManager dbConnectionManager = null;
 
     public Connection setUpConnection(@NotNull final SQLInputs sqlInputs) throws SQLException {
@@ -54,13 +85,46 @@ public class ConnectionService {
     }
 
     private Connection obtainConnection(@NotNull final List<String> dbUrls, @NotNull final SQLInputs sqlInputs) {
-        final DBType enumDbType = getDbEnumForType(sqlInputs.getDbType());
-        final Properties properties = sqlInputs.getDatabasePoolingProperties();
-        final List<String> exceptionsList = new ArrayList<>();
+        final Properties properties = sqlInputs.getDatabasePoolingProperties() != null ?
+                sqlInputs.getDatabasePoolingProperties() : new Properties();
+        final ConnectionUrlCache urlCache = ConnectionUrlCache.getInstance();
+        final String target = getTarget(sqlInputs.getDbType(), sqlInputs.getUsername(), dbUrls);
+        final long healthTtl = getTtlMillis(properties, DB_URL_HEALTH_TTL_NAME, DB_URL_HEALTH_TTL_DEFAULT_VALUE);
+        final long failureTtl = getTtlMillis(properties, DB_URL_FAILURE_TTL_NAME, DB_URL_FAILURE_TTL_DEFAULT_VALUE);
+        final List<String> exceptionsList = Collections.synchronizedList(new ArrayList<String>());
+
+        //urls that failed recently are only tried when every other candidate failed as well
+        final List<String> orderedUrls = urlCache.orderUrls(target, dbUrls);
+        final List<String> candidateUrls = new ArrayList<>();
+        final List<String> failedUrls = new ArrayList<>();
+        for (final String url : orderedUrls) {
+            (urlCache.hasFailed(target, url) ? failedUrls : candidateUrls).add(url);
+        }
+
+        //a pooled connect creates a datasource per url, racing would leave pools open on every losing url
+        Connection dbCon = null;
+        if (candidateUrls.size() > 1 && Boolean.valueOf(properties.getProperty(DB_URL_RACE_CONNECT_NAME, DB_URL_RACE_CONNECT_DEFAULT_VALUE))
+                && !dbConnectionManager.isPoolingEnabled(properties)) {
+            dbCon = raceConnect(candidateUrls, sqlInputs, target, healthTtl, failureTtl, exceptionsList);
+        } else if (!candidateUrls.isEmpty()) {
+            dbCon = connect(candidateUrls, sqlInputs, target, healthTtl, failureTtl, exceptionsList);
+        }
+        if (dbCon == null && !failedUrls.isEmpty()) {
+            dbCon = connect(failedUrls, sqlInputs, target, healthTtl, failureTtl, exceptionsList);
+        }
+        if (dbCon != null) {
+            return dbCon;
+        }
+
+        throw new RuntimeException("Couldn't find a valid url to connect to." + Constants.NEW_LINE +
+                join(exceptionsList, Constants.NEW_LINE));
+    }
 
+    private Connection connect(@NotNull final List<String> dbUrls, @NotNull final SQLInputs sqlInputs, final String target,
+                               final long healthTtl, final long failureTtl, final List<String> exceptionsList) {
         for (final String currentUrl : dbUrls) {
             try {
-                final Connection dbCon = dbConnectionManager.getConnection(enumDbType, sqlInputs.getAuthenticationType(), currentUrl, sqlInputs.getUsername(), sqlInputs.getPassword(), properties);
+                final Connection dbCon = getConnection(currentUrl, sqlInputs, target, healthTtl, failureTtl);
                 sqlInputs.setDbUrl(currentUrl);
                 return dbCon;
             } catch (TotalMaxPoolSizeExceedException e) {
@@ -69,8 +133,80 @@ public class ConnectionService {
                 exceptionsList.add(e.getMessage());
             }
         }
+        return null;
+    }
 
-        throw new RuntimeException("Couldn't find a valid url to connect to." + Constants.NEW_LINE +
-                join(exceptionsList, Constants.NEW_LINE));
+    /**
+     * Connects to all the urls in parallel and returns the first connection obtained. The connects still queued once
+     * there is a winner are cancelled, the connections that complete after it are closed as soon as they are obtained.
+     */
+    private Connection raceConnect(@NotNull final List<String> dbUrls, @NotNull final SQLInputs sqlInputs, final String target,
+                                   final long healthTtl, final long failureTtl, final List<String> exceptionsList) {
+        final CompletionService<Connection> completionService = new ExecutorCompletionService<>(RACE_EXECUTOR);
+        final AtomicBoolean connected = new AtomicBoolean(false);
+        final List<Future<Connection>> futures = new ArrayList<>();
+        for (final String currentUrl : dbUrls) {
+            futures.add(completionService.submit(new Callable<Connection>() {
+                @Override
+                public Connection call() throws Exception {
+                    final Connection dbCon = getConnection(currentUrl, sqlInputs, target, healthTtl, failureTtl);
+                    if (!connected.compareAndSet(false, true)) {
+                        dbCon.close();
+                        return null;
+                    }
+                    sqlInputs.setDbUrl(currentUrl);
+                    return dbCon;
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < dbUrls.size(); i++) {
+                try {
+                    final Connection dbCon = completionService.take().get();
+                    if (dbCon != null) {
+                        return dbCon;
+                    }
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof TotalMaxPoolSizeExceedException) {
+                        throw new RuntimeException(e.getCause().getMessage(), e.getCause().getCause());
+                    }
+                    exceptionsList.add(e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            for (final Future<Connection> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return null;
+    }
+
+    private Connection getConnection(final String url, final SQLInputs sqlInputs, final String target,
+                                     final long healthTtl, final long failureTtl) throws SQLException {
+        final DBType enumDbType = getDbEnumForType(sqlInputs.getDbType());
+        final ConnectionUrlCache urlCache = ConnectionUrlCache.getInstance();
+        try {
+            final Connection dbCon = dbConnectionManager.getConnection(enumDbType, sqlInputs.getAuthenticationType(), url,
+                    sqlInputs.getUsername(), sqlInputs.getPassword(), sqlInputs.getDatabasePoolingProperties());
+            urlCache.markHealthy(target, url, healthTtl);
+            return dbCon;
+        } catch (TotalMaxPoolSizeExceedException e) {
+            throw e;
+        } catch (SQLException e) {
+            urlCache.markFailed(target, url, failureTtl);
+            throw e;
+        }
+    }
+
+    private static long getTtlMillis(final Properties properties, final String name, final String defaultValue) {
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(name, defaultValue).trim()));
+        } catch (NumberFormatException e) {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(defaultValue));
+        }
     }
 }
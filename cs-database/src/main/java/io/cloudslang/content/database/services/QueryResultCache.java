@@ -0,0 +1,258 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLParameter;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.join;
+
+/**
+ * Read-through cache for the formatted results of read-only queries.
+ * An entry is keyed by the connection urls, the username, a salted hash of the password, the normalized query, the bind
+ * values and the output format, in this order, separated by {@link #KEY_SEPARATOR}, so all the entries of a database
+ * start with its urls and a wrong password never gets the result cached for the right one.
+ * Entries expire after their ttl and the least recently used entry is evicted once the cache holds more than the
+ * configured number of entries or more than {@link #MAX_SIZE} bytes. Results larger than {@link #MAX_ENTRY_SIZE} bytes
+ * are not cached.
+ */
+public class QueryResultCache {
+
+    //property that sets the maximum number of cached results
+    public static final String DB_RESULT_CACHE_SIZE_NAME = "db.result.cache.size";
+    public static final String DB_RESULT_CACHE_SIZE_DEFAULT_VALUE = "1000";
+    public static final String KEY_SEPARATOR = "|";
+    //separates the candidate urls of a database, a jdbc url never contains a line break
+    static final String URL_SEPARATOR = "\n";
+    public static final long MAX_SIZE = 32 * 1024 * 1024;
+    public static final int MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final QueryResultCache instance = new QueryResultCache(MAX_SIZE, MAX_ENTRY_SIZE);
+
+    //salts the password hashes of the keys, so they can't be matched against the hashes of known passwords
+    private static final String PASSWORD_SALT = newPasswordSalt();
+
+    //access ordered so the first entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxSize;
+    private final int maxEntrySize;
+    private long size;
+
+    QueryResultCache(final long maxSize, final int maxEntrySize) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public static QueryResultCache getInstance() {
+        return instance;
+    }
+
+    public static String getKey(@NotNull final List<String> dbUrls, @NotNull final SQLInputs sqlInputs, final String format) {
+        return join(dbUrls, URL_SEPARATOR) + KEY_SEPARATOR + sqlInputs.getUsername() + KEY_SEPARATOR +
+                DigestUtils.sha256Hex(PASSWORD_SALT + defaultString(sqlInputs.getPassword())) + KEY_SEPARATOR +
+                normalizeSql(sqlInputs.getSqlCommand()) + KEY_SEPARATOR + SQLParameter.toKey(sqlInputs.getQueryParameters()) + KEY_SEPARATOR + format;
+    }
+
+    private static String newPasswordSalt() {
+        final byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return DigestUtils.sha256Hex(salt);
+    }
+
+    public static int getMaxEntries(final Properties properties) {
+        try {
+            final String size = properties == null ? DB_RESULT_CACHE_SIZE_DEFAULT_VALUE :
+                    properties.getProperty(DB_RESULT_CACHE_SIZE_NAME, DB_RESULT_CACHE_SIZE_DEFAULT_VALUE);
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return Integer.parseInt(DB_RESULT_CACHE_SIZE_DEFAULT_VALUE);
+        }
+    }
+
+    /**
+     * Collapses the whitespace outside of quoted literals, so queries that differ only in formatting share an entry.
+     */
+    static String normalizeSql(final String sql) {
+        if (sql == null) {
+            return null;
+        }
+        final StringBuilder normalized = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            final char c = sql.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            if (quote == 0 && (c == '\'' || c == '"')) {
+                quote = c;
+            } else if (c == quote) {
+                quote = 0;
+            }
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * @return the cached result, or null if there is none or it expired
+     */
+    public synchronized String get(final String key) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(final String key, final String value, final long ttlMillis, final int maxEntries) {
+        if (ttlMillis <= 0 || maxEntries <= 0 || value == null) {
+            return;
+        }
+        //the previous result of the key is stale even when the new one is too large to be cached
+        remove(key);
+        final Entry entry = new Entry(key, value, System.currentTimeMillis() + ttlMillis);
+        if (entry.size > maxEntrySize) {
+            return;
+        }
+        entries.put(key, entry);
+        size += entry.size;
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || size > maxSize) && eldest.hasNext()) {
+            size -= eldest.next().size;
+            eldest.remove();
+        }
+    }
+
+    private void remove(final String key) {
+        final Entry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.size;
+        }
+    }
+
+    /**
+     * @param prefix the start of the keys to remove, for example a connection url. It must end where a part of the key
+     *               ends, so the url of a database does not remove the entries of another url that starts with it.
+     *               Any one of the candidate urls of a database matches its entries.
+     * @return the number of entries removed
+     */
+    public synchronized int invalidate(final String prefix) {
+        int removed = 0;
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> entry = iterator.next();
+            if (matchesPrefix(entry.getKey(), prefix)) {
+                size -= entry.getValue().size;
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    static boolean matchesPrefix(final String key, final String prefix) {
+        if (startsWithParts(key, prefix)) {
+            return true;
+        }
+        //the key of a database with several candidate urls is matched with each of them in front of the other parts
+        final int urlsEnd = key.indexOf(KEY_SEPARATOR);
+        final String urls = urlsEnd < 0 ? key : key.substring(0, urlsEnd);
+        if (!urls.contains(URL_SEPARATOR)) {
+            return false;
+        }
+        final String otherParts = urlsEnd < 0 ? "" : key.substring(urlsEnd);
+        for (final String url : urls.split(URL_SEPARATOR)) {
+            if (startsWithParts(url + otherParts, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithParts(final String key, final String prefix) {
+        return key.startsWith(prefix) && (key.length() == prefix.length() || prefix.endsWith(KEY_SEPARATOR) ||
+                key.startsWith(KEY_SEPARATOR, prefix.length()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * A formatted query result and whether it was served from the cache.
+     */
+    public static class Result {
+        private final String value;
+        private final boolean cacheHit;
+
+        public Result(final String value, final boolean cacheHit) {
+            this.value = value;
+            this.cacheHit = cacheHit;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isCacheHit() {
+            return cacheHit;
+        }
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long expiresAt;
+        //the key and the value take two bytes per character
+        private final long size;
+
+        private Entry(final String key, final String value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.size = 2L * (key.length() + value.length());
+        }
+    }
+}
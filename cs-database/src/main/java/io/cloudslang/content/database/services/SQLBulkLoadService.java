@@ -0,0 +1,251 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.utils.CsvRowReader;
+import io.cloudslang.content.database.utils.JsonLinesRowReader;
+import io.cloudslang.content.database.utils.RowReader;
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLParameter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.cloudslang.content.database.constants.DBOtherValues.JSON_LINES_FORMAT;
+
+/**
+ * Loads the rows of a CSV or JSON lines file into a parameterized INSERT using JDBC batches.
+ * The file is parsed by one thread at a time while every loader thread binds and executes its batches
+ * over its own connection and commits every commitInterval rows.
+ */
+public class SQLBulkLoadService {
+
+    private static final String STRING_TYPE = "string";
+
+    /**
+     * @param fileName    the file to read
+     * @param fileFormat  csv or jsonl
+     * @param delimiter   the CSV field delimiter
+     * @param hasHeader   whether the first CSV record is a header to skip
+     * @param fieldNames the object fields to read from JSON lines, in column order
+     * @return a reader over the rows of the file
+     */
+    @NotNull
+    public static RowReader createRowReader(@NotNull final String fileName, @NotNull final String fileFormat, final char delimiter,
+                                            final boolean hasHeader, @NotNull final List<String> fieldNames) throws IOException {
+        final Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(fileName)), StandardCharsets.UTF_8);
+        if (JSON_LINES_FORMAT.equalsIgnoreCase(fileFormat)) {
+            return new JsonLinesRowReader(reader, fieldNames);
+        }
+        try {
+            return new CsvRowReader(reader, delimiter, hasHeader);
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs sqlInputs.sqlCommand once for every row read.
+     *
+     * @param sqlInputs      the connection inputs and the INSERT command, with one ? for every column
+     * @param rowReader      the rows to load
+     * @param columnTypes    the parameter type of every column, columns without a type are bound as strings
+     * @param batchSize      the number of rows sent in a JDBC batch
+     * @param commitInterval the number of rows after which a loader thread commits, 0 commits only at the end
+     * @param threads        the number of loader threads, each one with its own connection
+     * @return the number of rows loaded
+     * @throws Exception if a row can't be loaded, the rows committed before the failure are kept
+     */
+    public static long executeBulkLoad(@NotNull final SQLInputs sqlInputs, @NotNull final RowReader rowReader, @NotNull final List<String> columnTypes,
+                                       final int batchSize, final int commitInterval, final int threads) throws Exception {
+        final ConnectionService connectionService = new ConnectionService();
+        final List<Connection> connections = new ArrayList<>();
+        final AtomicLong rowsLoaded = new AtomicLong();
+        final AtomicBoolean failed = new AtomicBoolean();
+        try {
+            //the connections are opened up front as setting up a connection updates the sqlInputs
+            for (int i = 0; i < threads; i++) {
+                connections.add(connectionService.setUpConnection(sqlInputs));
+            }
+            final List<BulkLoadWorker> workers = new ArrayList<>();
+            for (final Connection connection : connections) {
+                workers.add(new BulkLoadWorker(connection, sqlInputs, rowReader, columnTypes, batchSize, commitInterval, rowsLoaded, failed));
+            }
+
+            if (workers.size() == 1) {
+                workers.get(0).call();
+                return rowsLoaded.get();
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+            try {
+                final List<Future<Void>> futures = executor.invokeAll(workers);
+                for (final Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        //the other workers stop after the first failure, which is the one reported
+                        if (e.getCause() instanceof Exception) {
+                            throw (Exception) e.getCause();
+                        }
+                        throw e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return rowsLoaded.get();
+        } catch (Exception e) {
+            throw new Exception(e.getMessage() + " Rows committed before the failure: " + rowsLoaded.get() + ".", e);
+        } finally {
+            for (final Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignore) {
+                }
+            }
+        }
+    }
+
+    private static class Batch {
+        private final long firstRowNumber;
+        private final List<List<String>> rows;
+
+        private Batch(final long firstRowNumber, final List<List<String>> rows) {
+            this.firstRowNumber = firstRowNumber;
+            this.rows = rows;
+        }
+    }
+
+    private static class BulkLoadWorker implements Callable<Void> {
+        private final Connection connection;
+        private final SQLInputs sqlInputs;
+        private final RowReader rowReader;
+        private final List<String> columnTypes;
+        private final int batchSize;
+        private final int commitInterval;
+        private final AtomicLong rowsLoaded;
+        private final AtomicBoolean failed;
+
+        private BulkLoadWorker(final Connection connection, final SQLInputs sqlInputs, final RowReader rowReader, final List<String> columnTypes,
+                               final int batchSize, final int commitInterval, final AtomicLong rowsLoaded, final AtomicBoolean failed) {
+            this.connection = connection;
+            this.sqlInputs = sqlInputs;
+            this.rowReader = rowReader;
+            this.columnTypes = columnTypes;
+            this.batchSize = batchSize;
+            this.commitInterval = commitInterval;
+            this.rowsLoaded = rowsLoaded;
+            this.failed = failed;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            long uncommitted = 0;
+            try (final PreparedStatement statement = connection.prepareStatement(sqlInputs.getSqlCommand())) {
+                statement.setQueryTimeout(sqlInputs.getTimeout());
+                Batch batch;
+                while (!failed.get() && (batch = readBatch()) != null) {
+                    long rowNumber = batch.firstRowNumber;
+                    for (final List<String> row : batch.rows) {
+                        bindRow(statement, row, rowNumber++);
+                        statement.addBatch();
+                    }
+                    try {
+                        statement.executeBatch();
+                    } catch (SQLException e) {
+                        throw new SQLException("Failed to load the batch of rows " + batch.firstRowNumber + " to " + (rowNumber - 1) +
+                                ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                    statement.clearBatch();
+                    uncommitted += batch.rows.size();
+                    if (commitInterval > 0 && uncommitted >= commitInterval) {
+                        connection.commit();
+                        rowsLoaded.addAndGet(uncommitted);
+                        uncommitted = 0;
+                    }
+                }
+                if (!failed.get()) {
+                    connection.commit();
+                    rowsLoaded.addAndGet(uncommitted);
+                } else {
+                    connection.rollback();
+                }
+            } catch (Exception e) {
+                failed.set(true);
+                try {
+                    connection.rollback();
+                } catch (SQLException ignore) {
+                }
+                throw e;
+            } finally {
+                try {
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException ignore) {
+                }
+            }
+            return null;
+        }
+
+        private Batch readBatch() throws IOException {
+            synchronized (rowReader) {
+                final List<List<String>> rows = new ArrayList<>(batchSize);
+                List<String> row;
+                while (rows.size() < batchSize && (row = rowReader.nextRow()) != null) {
+                    rows.add(row);
+                }
+                if (rows.isEmpty()) {
+                    return null;
+                }
+                return new Batch(rowReader.getRowNumber() - rows.size() + 1, rows);
+            }
+        }
+
+        private void bindRow(final PreparedStatement statement, final List<String> row, final long rowNumber) throws SQLException {
+            for (int i = 0; i < row.size(); i++) {
+                final String columnType = i < columnTypes.size() ? columnTypes.get(i) : STRING_TYPE;
+                try {
+                    SQLParameter.valueOf(columnType, row.get(i)).bind(statement, i + 1);
+                } catch (IllegalArgumentException e) {
+                    throw new SQLException("Invalid " + columnType + " value '" + row.get(i) + "' in row " + rowNumber +
+                            ", column " + (i + 1) + ".", e);
+                }
+            }
+        }
+    }
+}
@@ -22,6 +22,12 @@ import io.cloudslang.content.database.utils.SQLInputs;
 import io.cloudslang.content.database.utils.SQLUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 
 import static io.cloudslang.content.database.constants.DBOtherValues.DBMS_OUTPUT;
@@ -44,18 +50,28 @@ public class SQLCommandService {
 
                 final PreparedStatement preparedStatement = connection.prepareStatement(sqlInputs.getSqlCommand());
                 preparedStatement.setQueryTimeout(sqlInputs.getTimeout());
-                OracleDbmsOutput oracleDbmsOutput = new OracleDbmsOutput(connection);
+                SQLUtils.bindParameters(preparedStatement, sqlInputs.getQueryParameters());
+                OracleDbmsOutput oracleDbmsOutput = new OracleDbmsOutput(connection, sqlInputs.getDbmsOutputChunkSize());
                 preparedStatement.executeQuery();
                 sqlInputs.setIUpdateCount(preparedStatement.getUpdateCount());
                 preparedStatement.close();
-                final String output = oracleDbmsOutput.getOutput();
-                oracleDbmsOutput.close();
-                return output;
+                try {
+                    if (StringUtils.isNotEmpty(sqlInputs.getDbmsOutputFile())) {
+                        final File outputFile = new File(sqlInputs.getDbmsOutputFile());
+                        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+                            final long lines = oracleDbmsOutput.writeOutput(writer);
+                            return lines + " line(s) of DBMS_OUTPUT written to " + outputFile.getAbsolutePath();
+                        }
+                    }
+                    return oracleDbmsOutput.getOutput();
+                } finally {
+                    oracleDbmsOutput.close();
+                }
             } else {
-                final Statement statement = connection.createStatement(sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
+                final Statement statement = SQLUtils.createStatement(connection, sqlInputs, sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
                 statement.setQueryTimeout(sqlInputs.getTimeout());
                 try {
-                    statement.execute(sqlInputs.getSqlCommand());
+                    SQLUtils.execute(statement, sqlInputs.getSqlCommand());
                 } catch (SQLException e) {
                     if (SYBASE_DB_TYPE.equalsIgnoreCase(dbType)) {
                         //during a dump sybase sends back status as exceptions.
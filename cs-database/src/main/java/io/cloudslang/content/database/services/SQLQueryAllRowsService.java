@@ -20,11 +20,13 @@ package io.cloudslang.content.database.services;
 
 import io.cloudslang.content.database.utils.Format;
 import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by victor on 13.01.2017.
@@ -33,25 +35,38 @@ public class SQLQueryAllRowsService {
     /** todo
      * Run a SQL query with given configuration
      *
-     * @return the formatted result set by colDelimiter and rowDelimiter
+     * @return the formatted result set by colDelimiter and rowDelimiter, and whether it was served from the cache
      * @throws ClassNotFoundException
      * @throws java.sql.SQLException
      */
-    public static String execQueryAllRows(@NotNull final SQLInputs sqlInputs) throws Exception {
+    public static QueryResultCache.Result execQueryAllRows(@NotNull final SQLInputs sqlInputs) throws Exception {
         ConnectionService connectionService = new ConnectionService();
+        final String cacheKey = sqlInputs.getResultCacheTtl() > 0 ?
+                QueryResultCache.getKey(connectionService.getConnectionUrls(sqlInputs), sqlInputs,
+                        "allRows" + sqlInputs.getColDelimiter() + sqlInputs.getRowDelimiter()) : null;
+        if (cacheKey != null) {
+            final String cachedResult = QueryResultCache.getInstance().get(cacheKey);
+            if (cachedResult != null) {
+                return new QueryResultCache.Result(cachedResult, true);
+            }
+        }
         try (final Connection connection = connectionService.setUpConnection(sqlInputs)) {
             connection.setReadOnly(true);
 
-            Statement statement = connection.createStatement(sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
+            Statement statement = SQLUtils.createStatement(connection, sqlInputs, sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
 
             statement.setQueryTimeout(sqlInputs.getTimeout());
-            final ResultSet resultSet = statement.executeQuery(sqlInputs.getSqlCommand());
+            final ResultSet resultSet = SQLUtils.executeQuery(statement, sqlInputs.getSqlCommand());
 
             final String resultSetToDelimitedColsAndRows = Format.resultSetToDelimitedColsAndRows(resultSet, sqlInputs.isNetcool(), sqlInputs.getColDelimiter(), sqlInputs.getRowDelimiter());
             if (resultSet != null) {
                 resultSet.close();
             }
-            return resultSetToDelimitedColsAndRows;
+            if (cacheKey != null) {
+                QueryResultCache.getInstance().put(cacheKey, resultSetToDelimitedColsAndRows, TimeUnit.SECONDS.toMillis(sqlInputs.getResultCacheTtl()),
+                        QueryResultCache.getMaxEntries(sqlInputs.getDatabasePoolingProperties()));
+            }
+            return new QueryResultCache.Result(resultSetToDelimitedColsAndRows, false);
         }
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static io.cloudslang.content.database.constants.DBExceptionValues.CURSOR_CLOSED;
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * A server side cursor over the result of a query. The connection, the statement and the result set stay open
+ * between calls, so every call reads only the next row from the driver, fetching {@code fetchSize} rows per
+ * round trip, instead of materializing the whole result in memory.
+ * <p>
+ * Open cursors are tracked by a daemon sweeper which closes the ones that were not read for longer than their
+ * idle timeout, so an abandoned iteration does not hold a database connection forever.
+ */
+public class SQLQueryCursor implements Closeable {
+
+    //interval in seconds between two runs of the idle cursor sweeper
+    private static final long SWEEP_INTERVAL = 10;
+
+    private static final Set<SQLQueryCursor> OPEN_CURSORS = newSetFromMap(new ConcurrentHashMap<SQLQueryCursor, Boolean>());
+    private static ScheduledExecutorService sweeper;
+
+    private final Connection connection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final boolean restoreAutoCommit;
+    private final int columnCount;
+    private final String columnNames;
+    private final String delimiter;
+    private final boolean isNetcool;
+    private final long idleTimeoutMillis;
+
+    private volatile long lastAccess;
+    private long rowsRead;
+    private boolean closed;
+    private boolean expired;
+
+    SQLQueryCursor(@NotNull final Connection connection, @NotNull final Statement statement, @NotNull final ResultSet resultSet,
+                   final boolean restoreAutoCommit, final String columnNames, @NotNull final SQLInputs sqlInputs,
+                   final int idleTimeout) throws SQLException {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.restoreAutoCommit = restoreAutoCommit;
+        this.columnCount = resultSet.getMetaData().getColumnCount();
+        this.columnNames = columnNames;
+        this.delimiter = sqlInputs.getStrDelim();
+        this.isNetcool = sqlInputs.isNetcool();
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeout);
+        this.lastAccess = System.currentTimeMillis();
+        OPEN_CURSORS.add(this);
+        startSweeper();
+    }
+
+    /**
+     * Reads the next row of the result.
+     *
+     * @return the values of the row separated by the delimiter, or null if there are no more rows
+     * @throws SQLException if the cursor was closed by the idle sweeper or the driver fails to read the row
+     */
+    @Nullable
+    public synchronized String nextRow() throws SQLException {
+        if (closed) {
+            throw new SQLException(expired ? String.format(CURSOR_CLOSED, TimeUnit.MILLISECONDS.toSeconds(idleTimeoutMillis)) : "The cursor is closed.");
+        }
+        lastAccess = System.currentTimeMillis();
+        if (!resultSet.next()) {
+            return null;
+        }
+        rowsRead++;
+        return SQLQueryService.getRow(resultSet, columnCount, delimiter, isNetcool);
+    }
+
+    public String getColumnNames() {
+        return columnNames;
+    }
+
+    public synchronized long getRowsRead() {
+        return rowsRead;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the result set and the statement and gives the connection back to the pool.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        OPEN_CURSORS.remove(this);
+        try {
+            resultSet.close();
+        } catch (SQLException ignored) {
+        }
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+        SQLUtils.endForwardOnlyRead(connection, restoreAutoCommit);
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Closes every open cursor that was not read since more than its idle timeout.
+     *
+     * @param now the current time in milliseconds
+     * @return the number of cursors closed
+     */
+    static int closeIdleCursors(final long now) {
+        int count = 0;
+        for (final SQLQueryCursor cursor : OPEN_CURSORS) {
+            if (now - cursor.lastAccess > cursor.idleTimeoutMillis && cursor.expire(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int getOpenCursorCount() {
+        return OPEN_CURSORS.size();
+    }
+
+    private synchronized boolean expire(final long now) {
+        //re-check under the lock, the cursor may have been read while the sweeper was iterating
+        if (closed || now - lastAccess <= idleTimeoutMillis) {
+            return false;
+        }
+        expired = true;
+        close();
+        return true;
+    }
+
+    private static synchronized void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NotNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "sql-query-cursor-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        sweeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                closeIdleCursors(System.currentTimeMillis());
+            }
+        }, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.SECONDS);
+    }
+}
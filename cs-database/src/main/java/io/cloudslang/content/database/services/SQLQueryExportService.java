@@ -0,0 +1,243 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.cloudslang.content.database.utils.Format;
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.zip.GZIPOutputStream;
+
+import static io.cloudslang.content.database.constants.DBOtherValues.JSON_LINES_FORMAT;
+
+/**
+ * Writes the result of a query to a CSV or JSON lines file, one row at a time, so the memory used
+ * doesn't depend on the size of the result.
+ */
+public class SQLQueryExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    private static final char QUOTE = '"';
+    private static final char NEW_LINE = '\n';
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * @param sqlInputs    the query inputs
+     * @param fileName     the file to write, replaced if it exists once the query was written to a sibling .part file
+     * @param fileFormat   csv or jsonl
+     * @param csvDelimiter the CSV field delimiter
+     * @param csvHeader    whether to write the column names as the first CSV record
+     * @param gzip         whether to gzip the file
+     * @param fetchSize    the number of rows the driver fetches per round trip, 0 to use the driver default
+     * @return the number of rows written
+     */
+    public static long exportQuery(@NotNull final SQLInputs sqlInputs, @NotNull final String fileName, @NotNull final String fileFormat,
+                                   final char csvDelimiter, final boolean csvHeader, final boolean gzip, final int fetchSize) throws Exception {
+        final Path part = Paths.get(fileName + PART_SUFFIX);
+        final long rows;
+        final ConnectionService connectionService = new ConnectionService();
+        try (final Connection connection = connectionService.setUpConnection(sqlInputs)) {
+            final boolean restoreAutoCommit = SQLUtils.beginForwardOnlyRead(connection);
+            try (final ResultSet resultSet = SQLUtils.executeForwardOnlyQuery(connection, sqlInputs, fetchSize);
+                 final Statement statement = resultSet.getStatement();
+                 final Writer writer = openWriter(part, gzip)) {
+                if (JSON_LINES_FORMAT.equalsIgnoreCase(fileFormat)) {
+                    rows = writeJsonLines(resultSet, writer, sqlInputs.isNetcool());
+                } else {
+                    rows = writeCsv(resultSet, writer, csvDelimiter, csvHeader, sqlInputs.isNetcool());
+                }
+            } finally {
+                SQLUtils.endForwardOnlyRead(connection, restoreAutoCommit);
+            }
+        } catch (Exception e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        //the file is only replaced once the whole result was written
+        Files.move(part, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    @NotNull
+    private static Writer openWriter(@NotNull final Path path, final boolean gzip) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(path);
+        try {
+            if (gzip) {
+                outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            }
+            return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            outputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the rows as RFC 4180 records. NULL values are written as empty fields and empty strings as "",
+     * so the file can be loaded back with SQL Bulk Load.
+     */
+    static long writeCsv(@NotNull final ResultSet resultSet, @NotNull final Writer writer, final char delimiter,
+                         final boolean header, final boolean checkNullTermination) throws SQLException, IOException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int columnCount = metaData.getColumnCount();
+        if (header) {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    writer.write(delimiter);
+                }
+                writeCsvField(writer, metaData.getColumnLabel(i), delimiter);
+            }
+            writer.write(NEW_LINE);
+        }
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    writer.write(delimiter);
+                }
+                writeCsvField(writer, getString(resultSet, i, checkNullTermination), delimiter);
+            }
+            writer.write(NEW_LINE);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Writes every row as a JSON object keyed by the column labels. Numeric and boolean columns are written
+     * as JSON numbers and booleans, every other column as a string.
+     */
+    static long writeJsonLines(@NotNull final ResultSet resultSet, @NotNull final Writer writer, final boolean checkNullTermination)
+            throws SQLException, IOException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int columnCount = metaData.getColumnCount();
+        final String[] labels = new String[columnCount + 1];
+        final int[] types = new int[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i);
+            types[i] = metaData.getColumnType(i);
+        }
+        long rows = 0;
+        final JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (resultSet.next()) {
+            generator.writeStartObject();
+            for (int i = 1; i <= columnCount; i++) {
+                generator.writeFieldName(labels[i]);
+                writeJsonValue(generator, resultSet, i, types[i], checkNullTermination);
+            }
+            generator.writeEndObject();
+            generator.writeRaw(NEW_LINE);
+            rows++;
+        }
+        generator.close();
+        return rows;
+    }
+
+    static void writeJsonValue(@NotNull final JsonGenerator generator, @NotNull final ResultSet resultSet, final int column,
+                                       final int type, final boolean checkNullTermination) throws SQLException, IOException {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                final long longValue = resultSet.getLong(column);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(longValue);
+                }
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                generator.writeNumber(resultSet.getBigDecimal(column));
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                final double doubleValue = resultSet.getDouble(column);
+                if (resultSet.wasNull() || Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(doubleValue);
+                }
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                final boolean booleanValue = resultSet.getBoolean(column);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeBoolean(booleanValue);
+                }
+                break;
+            default:
+                generator.writeString(getString(resultSet, column, checkNullTermination));
+                break;
+        }
+    }
+
+    private static String getString(@NotNull final ResultSet resultSet, final int column, final boolean checkNullTermination) throws SQLException {
+        final String value = resultSet.getString(column);
+        if (value != null && checkNullTermination) {
+            return Format.processNullTerminatedString(value);
+        }
+        return value;
+    }
+
+    private static void writeCsvField(@NotNull final Writer writer, final String value, final char delimiter) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && value.indexOf(delimiter) < 0 && value.indexOf(QUOTE) < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(ch);
+        }
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.utils.Format;
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same query against many databases concurrently, with at most {@code threads} targets queried at once.
+ * Every target has its own timeout, counted from the moment its query starts; a target that doesn't complete in
+ * time is reported as failed and doesn't delay the results of the other targets.
+ * The whole fan out has a deadline of one timeout per wave of {@code threads} targets, so a worker stuck in a driver
+ * that ignores the cancel and the interrupt cannot hold the targets queued behind it forever: those that didn't
+ * start or finish by then are reported as failed.
+ */
+public class SQLQueryFanOutService {
+
+    //leaves the watchdog of the last wave the time to fail its targets with their own error
+    private static final long DEADLINE_GRACE_SECONDS = 1;
+
+    /**
+     * @param targets       the inputs of every target, keyed by the endpoint name used to tag its rows, in output order
+     * @param threads       the maximum number of targets queried at once
+     * @param targetTimeout seconds after which a target that didn't complete is failed
+     * @return the result of every target, in the order of the targets
+     */
+    @NotNull
+    public static List<TargetResult> execQueryFanOut(@NotNull final Map<String, SQLInputs> targets, final int threads,
+                                                     final int targetTimeout) throws InterruptedException {
+        final List<TargetResult> results = new ArrayList<>();
+        if (targets.isEmpty()) {
+            return results;
+        }
+        final CountDownLatch completed = new CountDownLatch(targets.size());
+        final int threadCount = Math.min(threads, targets.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (final Map.Entry<String, SQLInputs> target : targets.entrySet()) {
+                final TargetResult result = new TargetResult(target.getKey(), completed);
+                results.add(result);
+                executor.execute(new TargetQuery(result, target.getValue(), watchdog, targetTimeout));
+            }
+            final long waves = (targets.size() + threadCount - 1) / threadCount;
+            final long deadline = waves * targetTimeout + DEADLINE_GRACE_SECONDS;
+            if (!completed.await(deadline, TimeUnit.SECONDS)) {
+                for (final TargetResult result : results) {
+                    result.complete(null, null, (result.isStarted() ? "Not finished" : "Not started")
+                            + " before the deadline of " + deadline + " seconds.");
+                }
+            }
+        } finally {
+            //threads stuck in drivers that ignore the interrupt are left to finish on their own
+            executor.shutdownNow();
+            watchdog.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * The rows or the error of one target. Completed exactly once, by its query, its timeout or the deadline.
+     */
+    public static class TargetResult {
+        private final String endpoint;
+        private final CountDownLatch completed;
+        private boolean started;
+        private boolean done;
+        private String columnNames;
+        private List<String> rows;
+        private String error;
+
+        private TargetResult(final String endpoint, final CountDownLatch completed) {
+            this.endpoint = endpoint;
+            this.completed = completed;
+        }
+
+        private synchronized boolean complete(@Nullable final String columnNames, @Nullable final List<String> rows, @Nullable final String error) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            this.columnNames = columnNames;
+            this.rows = rows;
+            this.error = error;
+            completed.countDown();
+            return true;
+        }
+
+        private synchronized boolean isDone() {
+            return done;
+        }
+
+        private synchronized void start() {
+            started = true;
+        }
+
+        private synchronized boolean isStarted() {
+            return started;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return the column names of the query, delimited by colDelimiter, or null if the target failed
+         */
+        @Nullable
+        public synchronized String getColumnNames() {
+            return columnNames;
+        }
+
+        /**
+         * @return the rows of the target, with the columns delimited by colDelimiter, or null if the target failed
+         */
+        @Nullable
+        public synchronized List<String> getRows() {
+            return rows;
+        }
+
+        @Nullable
+        public synchronized String getError() {
+            return error;
+        }
+    }
+
+    private static class TargetQuery implements Runnable {
+        private final TargetResult result;
+        private final SQLInputs sqlInputs;
+        private final ScheduledExecutorService watchdog;
+        private final int targetTimeout;
+        private volatile Statement statement;
+        private boolean finished;
+
+        private TargetQuery(final TargetResult result, final SQLInputs sqlInputs, final ScheduledExecutorService watchdog, final int targetTimeout) {
+            this.result = result;
+            this.sqlInputs = sqlInputs;
+            this.watchdog = watchdog;
+            this.targetTimeout = targetTimeout;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                //failed by the deadline while queued
+                return;
+            }
+            result.start();
+            final Thread worker = Thread.currentThread();
+            final ScheduledFuture<?> timeout = watchdog.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (result.complete(null, null, "Timed out after " + targetTimeout + " seconds.")) {
+                        cancel(worker);
+                    }
+                }
+            }, targetTimeout, TimeUnit.SECONDS);
+            try {
+                final List<String> rows = new ArrayList<>();
+                final String columnNames = query(rows);
+                result.complete(columnNames, rows, null);
+            } catch (Exception e) {
+                result.complete(null, null, e.getMessage() != null ? e.getMessage() : e.toString());
+            } finally {
+                timeout.cancel(false);
+                synchronized (this) {
+                    //the worker goes back to the pool, clear an interrupt meant for this target
+                    finished = true;
+                    statement = null;
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void cancel(final Thread worker) {
+            if (finished) {
+                return;
+            }
+            final Statement running = statement;
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (Exception ignored) {
+                }
+            }
+            worker.interrupt();
+        }
+
+        private String query(final List<String> rows) throws Exception {
+            final ConnectionService connectionService = new ConnectionService();
+            try (final Connection connection = connectionService.setUpConnection(sqlInputs)) {
+                connection.setReadOnly(true);
+                try (final Statement statement = SQLUtils.createStatement(connection, sqlInputs, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    this.statement = statement;
+                    statement.setQueryTimeout(targetTimeout);
+                    try (final ResultSet resultSet = SQLUtils.executeQuery(statement, sqlInputs.getSqlCommand())) {
+                        final ResultSetMetaData metaData = resultSet.getMetaData();
+                        final int columnCount = metaData.getColumnCount();
+                        final StringBuilder columnNames = new StringBuilder();
+                        for (int i = 1; i <= columnCount; i++) {
+                            if (i > 1) {
+                                columnNames.append(sqlInputs.getColDelimiter());
+                            }
+                            columnNames.append(metaData.getColumnLabel(i));
+                        }
+                        while (resultSet.next() && !result.isDone()) {
+                            final StringBuilder row = new StringBuilder();
+                            for (int i = 1; i <= columnCount; i++) {
+                                if (i > 1) {
+                                    row.append(sqlInputs.getColDelimiter());
+                                }
+                                row.append(Format.getColumn(resultSet, i, sqlInputs.isNetcool()));
+                            }
+                            rows.add(row.toString());
+                        }
+                        return columnNames.toString();
+                    }
+                }
+            }
+        }
+    }
+}
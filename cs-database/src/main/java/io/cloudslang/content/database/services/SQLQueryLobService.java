@@ -17,26 +17,42 @@
 
 package io.cloudslang.content.database.services;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.cloudslang.content.database.utils.SQLInputs;
 import io.cloudslang.content.database.utils.SQLUtils;
-import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 
-import static org.apache.commons.io.FileUtils.*;
-
 /**
  * Created by victor on 13.01.2017.
  */
 public class SQLQueryLobService {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LOB_MANIFEST = "rows.jsonl";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     public static boolean executeSqlQueryLob(SQLInputs sqlInputs) throws Exception {
         if (StringUtils.isEmpty(sqlInputs.getSqlCommand())) {
             throw new Exception("command input is empty.");
@@ -72,7 +88,9 @@ public class SQLQueryLobService {
                             isLOB = true;
                             final File tmpFile = File.createTempFile("CLOB_" + mtd.getColumnLabel(i), ".txt");
 
-                            copyInputStreamToFile(new ReaderInputStream(results.getCharacterStream(i), StandardCharsets.UTF_8), tmpFile);
+                            try (final Reader reader = results.getCharacterStream(i)) {
+                                copyToFile(reader, tmpFile);
+                            }
 
                             if (sqlInputs.getLRowsFiles().size() == nr) {
                                 sqlInputs.getLRowsFiles().add(nr, new ArrayList<String>());
@@ -98,4 +116,251 @@ public class SQLQueryLobService {
         return isLOB;
     }
 
+    /**
+     * Exports the result of a query row by row to a JSON lines manifest in the given directory.
+     * BLOB, CLOB and NCLOB values up to spillThreshold bytes or characters are written inline in the manifest,
+     * BLOBs as base64, and larger ones are streamed to their own file in the directory and referenced from
+     * the manifest as {"file": name, "length": length}.
+     *
+     * @param sqlInputs      the query inputs
+     * @param directory      the directory of the manifest and of the LOB files
+     * @param spillThreshold the largest LOB kept inline in the manifest
+     * @param fetchSize      the number of rows the driver fetches per round trip, 0 to use the driver default
+     * @return the counts of the export
+     */
+    @NotNull
+    public static LobExportResult exportLobs(@NotNull final SQLInputs sqlInputs, @NotNull final File directory, final long spillThreshold,
+                                             final int fetchSize) throws Exception {
+        if (StringUtils.isEmpty(sqlInputs.getSqlCommand())) {
+            throw new Exception("command input is empty.");
+        }
+        Files.createDirectories(directory.toPath());
+        final LobExportResult exportResult = new LobExportResult(new File(directory, LOB_MANIFEST));
+        final ConnectionService connectionService = new ConnectionService();
+        try (final Connection connection = connectionService.setUpConnection(sqlInputs)) {
+            final boolean restoreAutoCommit = SQLUtils.beginForwardOnlyRead(connection);
+            try (final ResultSet results = SQLUtils.executeForwardOnlyQuery(connection, sqlInputs, fetchSize);
+                 final Statement statement = results.getStatement();
+                 final Writer manifest = new BufferedWriter(new OutputStreamWriter(
+                         Files.newOutputStream(exportResult.getManifest().toPath()), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                writeLobRows(results, manifest, directory, spillThreshold, sqlInputs.isNetcool(), exportResult);
+            } finally {
+                SQLUtils.endForwardOnlyRead(connection, restoreAutoCommit);
+            }
+        }
+        return exportResult;
+    }
+
+    static void writeLobRows(@NotNull final ResultSet results, @NotNull final Writer manifest, @NotNull final File directory,
+                             final long spillThreshold, final boolean checkNullTermination,
+                             @NotNull final LobExportResult exportResult) throws SQLException, IOException {
+        final ResultSetMetaData mtd = results.getMetaData();
+        final int iNumCols = mtd.getColumnCount();
+        final String[] labels = new String[iNumCols + 1];
+        final int[] types = new int[iNumCols + 1];
+        for (int i = 1; i <= iNumCols; i++) {
+            labels[i] = mtd.getColumnLabel(i);
+            types[i] = mtd.getColumnType(i);
+        }
+        final JsonGenerator generator = JSON_FACTORY.createGenerator(manifest);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (results.next()) {
+            exportResult.rowCount++;
+            generator.writeStartObject();
+            for (int i = 1; i <= iNumCols; i++) {
+                generator.writeFieldName(labels[i]);
+                switch (types[i]) {
+                    case Types.BLOB:
+                    case Types.LONGVARBINARY:
+                        writeBlob(generator, results.getBlob(i), directory, getLobFileName(exportResult.rowCount, i, labels[i], ".bin"),
+                                spillThreshold, exportResult);
+                        break;
+                    case Types.CLOB:
+                    case Types.NCLOB:
+                        writeClob(generator, results.getClob(i), directory, getLobFileName(exportResult.rowCount, i, labels[i], ".txt"),
+                                spillThreshold, exportResult);
+                        break;
+                    case Types.LONGVARCHAR:
+                    case Types.LONGNVARCHAR:
+                        writeCharacterStream(generator, results.getCharacterStream(i), directory,
+                                getLobFileName(exportResult.rowCount, i, labels[i], ".txt"), spillThreshold, exportResult);
+                        break;
+                    default:
+                        SQLQueryExportService.writeJsonValue(generator, results, i, types[i], checkNullTermination);
+                        break;
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private static void writeBlob(@NotNull final JsonGenerator generator, final Blob blob, @NotNull final File directory, @NotNull final String fileName,
+                                  final long spillThreshold, @NotNull final LobExportResult exportResult) throws SQLException, IOException {
+        if (blob == null) {
+            generator.writeNull();
+            return;
+        }
+        try {
+            final long length = blob.length();
+            if (length <= spillThreshold) {
+                generator.writeBinary(blob.getBytes(1, (int) length));
+                return;
+            }
+            final File lobFile = new File(directory, fileName);
+            try (final InputStream inputStream = blob.getBinaryStream();
+                 final OutputStream outputStream = Files.newOutputStream(lobFile.toPath())) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) >= 0) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            writeLobFile(generator, fileName, length, lobFile, exportResult);
+        } finally {
+            freeQuietly(blob);
+        }
+    }
+
+    private static void writeClob(@NotNull final JsonGenerator generator, final Clob clob, @NotNull final File directory, @NotNull final String fileName,
+                                  final long spillThreshold, @NotNull final LobExportResult exportResult) throws SQLException, IOException {
+        if (clob == null) {
+            generator.writeNull();
+            return;
+        }
+        try {
+            final long length = clob.length();
+            if (length <= spillThreshold) {
+                generator.writeString(length == 0 ? StringUtils.EMPTY : clob.getSubString(1, (int) length));
+                return;
+            }
+            final File lobFile = new File(directory, fileName);
+            try (final Reader reader = clob.getCharacterStream()) {
+                copyToFile(reader, lobFile);
+            }
+            writeLobFile(generator, fileName, length, lobFile, exportResult);
+        } finally {
+            freeQuietly(clob);
+        }
+    }
+
+    /**
+     * The length of a LONGVARCHAR is only known once it was read: the value is written inline if it ends within
+     * the spill threshold, else what was read so far and the rest of the stream go to its own file.
+     */
+    private static void writeCharacterStream(@NotNull final JsonGenerator generator, final Reader stream, @NotNull final File directory,
+                                             @NotNull final String fileName, final long spillThreshold,
+                                             @NotNull final LobExportResult exportResult) throws IOException {
+        if (stream == null) {
+            generator.writeNull();
+            return;
+        }
+        try (final Reader reader = stream) {
+            final StringBuilder head = new StringBuilder();
+            final char[] buffer = new char[(int) Math.min(BUFFER_SIZE, spillThreshold + 1)];
+            int read;
+            while (head.length() <= spillThreshold
+                    && (read = reader.read(buffer, 0, (int) Math.min(buffer.length, spillThreshold + 1 - head.length()))) >= 0) {
+                head.append(buffer, 0, read);
+            }
+            if (head.length() <= spillThreshold) {
+                generator.writeString(head.toString());
+                return;
+            }
+            final File lobFile = new File(directory, fileName);
+            final long length = copyToFile(head, reader, lobFile);
+            writeLobFile(generator, fileName, length, lobFile, exportResult);
+        }
+    }
+
+    private static void writeLobFile(@NotNull final JsonGenerator generator, @NotNull final String fileName, final long length,
+                                     @NotNull final File lobFile, @NotNull final LobExportResult exportResult) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("file", fileName);
+        generator.writeNumberField("length", length);
+        generator.writeEndObject();
+        exportResult.fileCount++;
+        exportResult.byteCount += lobFile.length();
+    }
+
+    private static void copyToFile(@NotNull final Reader reader, @NotNull final File file) throws IOException {
+        copyToFile(StringUtils.EMPTY, reader, file);
+    }
+
+    /**
+     * Streams the characters, after the ones already read, to a UTF-8 file through a large buffer, without holding
+     * the value in memory.
+     *
+     * @return the number of characters written
+     */
+    private static long copyToFile(@NotNull final CharSequence head, @NotNull final Reader reader, @NotNull final File file) throws IOException {
+        long length = head.length();
+        try (final Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            writer.append(head);
+            final char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                writer.write(buffer, 0, read);
+                length += read;
+            }
+        }
+        return length;
+    }
+
+    @NotNull
+    private static String getLobFileName(final long row, final int column, @NotNull final String columnLabel, @NotNull final String extension) {
+        return "row" + row + "_" + column + "_" + columnLabel.replaceAll("[^A-Za-z0-9_-]", "_") + extension;
+    }
+
+    private static void freeQuietly(@NotNull final Blob blob) {
+        try {
+            blob.free();
+        } catch (SQLException | AbstractMethodError ignored) {
+        }
+    }
+
+    private static void freeQuietly(@NotNull final Clob clob) {
+        try {
+            clob.free();
+        } catch (SQLException | AbstractMethodError ignored) {
+        }
+    }
+
+    /**
+     * The counts of a LOB export.
+     */
+    public static class LobExportResult {
+        private final File manifest;
+        private long rowCount;
+        private long fileCount;
+        private long byteCount;
+
+        LobExportResult(final File manifest) {
+            this.manifest = manifest;
+        }
+
+        public File getManifest() {
+            return manifest;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return the number of LOBs larger than the spill threshold, written to their own file
+         */
+        public long getFileCount() {
+            return fileCount;
+        }
+
+        /**
+         * @return the size of the LOB files
+         */
+        public long getByteCount() {
+            return byteCount;
+        }
+    }
 }
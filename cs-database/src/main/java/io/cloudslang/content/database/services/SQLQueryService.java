@@ -17,6 +17,7 @@
 
 package io.cloudslang.content.database.services;
 
+import io.cloudslang.content.database.utils.ResultBuffer;
 import io.cloudslang.content.database.utils.SQLInputs;
 import io.cloudslang.content.database.utils.SQLUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -25,7 +26,9 @@ import org.jetbrains.annotations.NotNull;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.AbstractList;
 
 /**
  * Created by victor on 13.01.2017.
@@ -40,38 +43,137 @@ public class SQLQueryService {
         try (final Connection connection = connectionService.setUpConnection(sqlInputs)) {
 
             connection.setReadOnly(true);
-            Statement statement = connection.createStatement(sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
+            Statement statement = SQLUtils.createStatement(connection, sqlInputs, sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
             statement.setQueryTimeout(sqlInputs.getTimeout());
-            final ResultSet results = statement.executeQuery(sqlInputs.getSqlCommand());
+            final ResultSet results = SQLUtils.executeQuery(statement, sqlInputs.getSqlCommand());
 
             final ResultSetMetaData mtd = results.getMetaData();
 
-            int iNumCols = mtd.getColumnCount();
+            sqlInputs.setStrColumns(getColumnNames(mtd, sqlInputs.getStrColumns(), sqlInputs.getStrDelim()));
 
-            final StringBuilder strColumns = new StringBuilder(sqlInputs.getStrColumns());
+            //the rows are kept in the session between calls, hold them in columnar form and render each row when it is read
+            final BufferedRows rows = new BufferedRows(ResultBuffer.read(results), sqlInputs.getStrDelim(), sqlInputs.isNetcool());
+            if (sqlInputs.getLRows().isEmpty()) {
+                sqlInputs.setLRows(rows);
+            } else {
+                sqlInputs.getLRows().addAll(rows);
+            }
+        }
+    }
+
+    /**
+     * Executes the query and keeps its result set open as a server side cursor, reading fetchSize rows per round trip.
+     * The cursor always uses a forward only, read only result set since scrollable result sets are buffered by most drivers.
+     *
+     * @param sqlInputs   the query inputs
+     * @param fetchSize   the number of rows the driver fetches per round trip, 0 to use the driver default
+     * @param idleTimeout seconds after which an unread cursor is closed
+     * @return the open cursor, positioned before the first row
+     */
+    @NotNull
+    public static SQLQueryCursor openSqlCursor(@NotNull final SQLInputs sqlInputs, final int fetchSize, final int idleTimeout) throws Exception {
+        if (StringUtils.isEmpty(sqlInputs.getSqlCommand())) {
+            throw new Exception("command input is empty.");
+        }
+        ConnectionService connectionService = new ConnectionService();
+        final Connection connection = connectionService.setUpConnection(sqlInputs);
+        boolean restoreAutoCommit = false;
+        Statement statement = null;
+        try {
+            restoreAutoCommit = SQLUtils.beginForwardOnlyRead(connection);
+            final ResultSet results = SQLUtils.executeForwardOnlyQuery(connection, sqlInputs, fetchSize);
+            statement = results.getStatement();
 
-            for (int i = 1; i <= iNumCols; i++) {
-                if (i > 1) {
-                    strColumns.append(sqlInputs.getStrDelim());
+            final String strColumns = getColumnNames(results.getMetaData(), sqlInputs.getStrColumns(), sqlInputs.getStrDelim());
+            sqlInputs.setStrColumns(strColumns);
+            return new SQLQueryCursor(connection, statement, results, restoreAutoCommit, strColumns, sqlInputs, idleTimeout);
+        } catch (Exception e) {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (Exception ignored) {
                 }
-                strColumns.append(mtd.getColumnLabel(i));
             }
-            sqlInputs.setStrColumns(strColumns.toString());
-
-            while (results.next()) {
-                final StringBuilder strRowHolder = new StringBuilder();
-                for (int i = 1; i <= iNumCols; i++) {
-                    if (i > 1) strRowHolder.append(sqlInputs.getStrDelim());
-                    if (results.getString(i) != null) {
-                        String value = results.getString(i).trim();
-                        if (sqlInputs.isNetcool())
-                            value = SQLUtils.processNullTerminatedString(value);
-
-                        strRowHolder.append(value);
-                    }
-                }
-                sqlInputs.getLRows().add(strRowHolder.toString());
+            SQLUtils.endForwardOnlyRead(connection, restoreAutoCommit);
+            connection.close();
+            throw e;
+        }
+    }
+
+    static String getColumnNames(@NotNull final ResultSetMetaData mtd, final String prefix, final String delimiter) throws SQLException {
+        final StringBuilder strColumns = new StringBuilder(StringUtils.defaultString(prefix));
+        final int iNumCols = mtd.getColumnCount();
+        for (int i = 1; i <= iNumCols; i++) {
+            if (i > 1) {
+                strColumns.append(delimiter);
+            }
+            strColumns.append(mtd.getColumnLabel(i));
+        }
+        return strColumns.toString();
+    }
+
+    static String getRow(@NotNull final ResultSet results, final int iNumCols, final String delimiter, final boolean isNetcool) throws SQLException {
+        final StringBuilder strRowHolder = new StringBuilder();
+        for (int i = 1; i <= iNumCols; i++) {
+            if (i > 1) strRowHolder.append(delimiter);
+            final String value = results.getString(i);
+            if (value != null) {
+                strRowHolder.append(isNetcool ? SQLUtils.processNullTerminatedString(value.trim()) : value.trim());
+            }
+        }
+        return strRowHolder.toString();
+    }
+
+    static String getRow(@NotNull final ResultBuffer buffer, final int row, final String delimiter, final boolean isNetcool) {
+        final StringBuilder strRowHolder = new StringBuilder();
+        for (int col = 0; col < buffer.getColumnCount(); col++) {
+            if (col > 0) strRowHolder.append(delimiter);
+            final String value = buffer.getString(row, col);
+            if (value != null) {
+                strRowHolder.append(isNetcool ? SQLUtils.processNullTerminatedString(value.trim()) : value.trim());
+            }
+        }
+        return strRowHolder.toString();
+    }
+
+    /**
+     * The rows of a buffered result set, rendered as delimited strings when they are read.
+     * The rows are read from the front, so removing the first row only moves the start of the list.
+     */
+    static class BufferedRows extends AbstractList<String> {
+        private final ResultBuffer buffer;
+        private final String delimiter;
+        private final boolean isNetcool;
+        private int first;
+
+        BufferedRows(@NotNull final ResultBuffer buffer, final String delimiter, final boolean isNetcool) {
+            this.buffer = buffer;
+            this.delimiter = delimiter;
+            this.isNetcool = isNetcool;
+        }
+
+        @Override
+        public String get(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return getRow(buffer, first + index, delimiter, isNetcool);
+        }
+
+        @Override
+        public int size() {
+            return buffer.getRowCount() - first;
+        }
+
+        @Override
+        public String remove(final int index) {
+            if (index != 0) {
+                throw new UnsupportedOperationException("Only the first row can be removed.");
             }
+            final String row = get(0);
+            first++;
+            modCount++;
+            return row;
         }
     }
 }
@@ -19,11 +19,13 @@ package io.cloudslang.content.database.services;
 
 import io.cloudslang.content.database.utils.Format;
 import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by victor on 13.01.2017.
@@ -33,23 +35,35 @@ public class SQLQueryTabularService {
     /**
      * Run a SQL query with given configuration
      *
-     * @return the formatted result set by colDelimiter and rowDelimiter
+     * @return the result set formatted as a table, and whether it was served from the cache
      * @throws ClassNotFoundException
      * @throws java.sql.SQLException
      */
-    public static String execSqlQueryTabular(@NotNull final SQLInputs sqlInputs) throws Exception {
+    public static QueryResultCache.Result execSqlQueryTabular(@NotNull final SQLInputs sqlInputs) throws Exception {
         ConnectionService connectionService = new ConnectionService();
+        final String cacheKey = sqlInputs.getResultCacheTtl() > 0 ?
+                QueryResultCache.getKey(connectionService.getConnectionUrls(sqlInputs), sqlInputs, "tabular") : null;
+        if (cacheKey != null) {
+            final String cachedResult = QueryResultCache.getInstance().get(cacheKey);
+            if (cachedResult != null) {
+                return new QueryResultCache.Result(cachedResult, true);
+            }
+        }
         try (final Connection connection = connectionService.setUpConnection(sqlInputs)){
             connection.setReadOnly(true);
 
-            final Statement statement = connection.createStatement(sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
+            final Statement statement = SQLUtils.createStatement(connection, sqlInputs, sqlInputs.getResultSetType(), sqlInputs.getResultSetConcurrency());
             statement.setQueryTimeout(sqlInputs.getTimeout());
 
-            final ResultSet resultSet = statement.executeQuery(sqlInputs.getSqlCommand());
+            final ResultSet resultSet = SQLUtils.executeQuery(statement, sqlInputs.getSqlCommand());
 
             final String resultSetToTable = Format.resultSetToTable(resultSet, sqlInputs.isNetcool());
             resultSet.close();
-            return resultSetToTable;
+            if (cacheKey != null) {
+                QueryResultCache.getInstance().put(cacheKey, resultSetToTable, TimeUnit.SECONDS.toMillis(sqlInputs.getResultCacheTtl()),
+                        QueryResultCache.getMaxEntries(sqlInputs.getDatabasePoolingProperties()));
+            }
+            return new QueryResultCache.Result(resultSetToTable, false);
         }
     }
 }
@@ -68,6 +68,13 @@ public class C3P0PooledDataSourceProvider extends PooledDataSourceProvider {
     //trying to getConneciton on its own if the connection fails. set this to
     //be true to clean the pool, so it won't keep trying
     private final static String C3P0_BREAK_AFTERACQUIREFAILURE_NAME = "breakAfterAcquireFailure";
+    //deal with prepared statements, c3p0 keeps a LRU statement cache for each
+    //pooled connection
+    //set default 50
+    private final static String C3P0_MAX_STATEMENTS_PER_CONNECTION_NAME = "maxStatementsPerConnection";
+    //close evicted statements on a separate thread, some drivers (e.g. oracle) deadlock
+    //when a statement is closed while its connection is in use
+    private final static String C3P0_STATEMENT_CACHE_CLOSE_THREADS_NAME = "statementCacheNumDeferredCloseThreads";
 
     /**
      * constructor
@@ -193,36 +200,16 @@ public class C3P0PooledDataSourceProvider extends PooledDataSourceProvider {
                 CONNECTION_BREAKAFTERACQUIREFAILURE_DEFAULT_VALUE);
         retMap.put(C3P0_BREAK_AFTERACQUIREFAILURE_NAME, breakAfterFailure);
 
+        //prepared statement cache size for each connection
+        String statementCacheSize = this.getPropStringValue(CONNECTION_STATEMENT_CACHE_SIZE_NAME,
+                CONNECTION_STATEMENT_CACHE_SIZE_DEFAULT_VALUE);
+        retMap.put(C3P0_MAX_STATEMENTS_PER_CONNECTION_NAME, statementCacheSize);
+        retMap.put(C3P0_STATEMENT_CACHE_CLOSE_THREADS_NAME, "1");
+
         //db specific properties
         //connection life time
-        String conLifeTimeName;
-
-        switch (aDbType) {
-            case ORACLE:
-                conLifeTimeName = ORACLE_CONNECTION_LIFETIME_NAME;
-                break;
-            case MSSQL:
-                conLifeTimeName = MSSQL_CONNECTION_LIFETIME_NAME;
-                break;
-            case MYSQL:
-                conLifeTimeName = MYSQL_CONNECTION_LIFETIME_NAME;
-                break;
-            case SYBASE:
-                conLifeTimeName = SYBASE_CONNECTION_LIFETIME_NAME;
-                break;
-            case DB2:
-                conLifeTimeName = DB2_CONNECTION_LIFETIME_NAME;
-                break;
-            case NETCOOL:
-                conLifeTimeName = NETCOOL_CONNECTION_LIFETIME_NAME;
-                break;
-            default:
-                conLifeTimeName = CUSTOM_CONNECTION_LIFETIME_NAME;
-                break;
-        }
-
-        String connectionLifetime =
-                this.getPropStringValue(conLifeTimeName, CONNECTION_LIFETIME_DEFAULT_VALUE);
+        String connectionLifetime = this.getPropStringValue(getConnectionLifetimeName(aDbType),
+                CONNECTION_LIFETIME_DEFAULT_VALUE);
 
         retMap.put(C3P0_MAX_CONNECTION_AGE_NAME, connectionLifetime);
 
@@ -0,0 +1,151 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services.dbconnection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per logical target, the connection url that last worked and the urls that recently failed, so a
+ * target with several candidate urls (MSSQL named instances, Oracle failover lists) does not pay a connect
+ * timeout on a dead url at every action call.
+ * A logical target is identified by its db type, username and the full list of candidate urls.
+ */
+public class ConnectionUrlCache {
+
+    //property that sets for how many seconds the url that last worked is tried first, 0 disables it
+    public static final String DB_URL_HEALTH_TTL_NAME = "db.url.health.ttl";
+    public static final String DB_URL_HEALTH_TTL_DEFAULT_VALUE = "300";
+    //property that sets for how many seconds a url that failed is tried only after the other candidates, 0 disables it
+    public static final String DB_URL_FAILURE_TTL_NAME = "db.url.failure.ttl";
+    public static final String DB_URL_FAILURE_TTL_DEFAULT_VALUE = "60";
+    //property that enables connecting to all the candidate urls in parallel and keeping the first that succeeds,
+    //ignored when pooling is enabled
+    public static final String DB_URL_RACE_CONNECT_NAME = "db.url.race.connect";
+    public static final String DB_URL_RACE_CONNECT_DEFAULT_VALUE = "false";
+
+    //expired entries are purged once the cache holds more entries than this
+    private static final int PURGE_THRESHOLD = 1000;
+
+    private static final ConnectionUrlCache instance = new ConnectionUrlCache();
+
+    //key = target, value = the url that last worked
+    private final ConcurrentHashMap<String, Entry> healthyUrls = new ConcurrentHashMap<>();
+    //key = target + url, value = the url that failed
+    private final ConcurrentHashMap<String, Entry> failedUrls = new ConcurrentHashMap<>();
+
+    ConnectionUrlCache() {
+    }
+
+    public static ConnectionUrlCache getInstance() {
+        return instance;
+    }
+
+    public static String getTarget(final String dbType, final String username, final List<String> urls) {
+        return dbType + "." + username + "." + urls;
+    }
+
+    /**
+     * @param target the logical target
+     * @param urls   the candidate urls, in the order the database type generated them
+     * @return the candidate urls with the url that last worked first and the urls that recently failed last
+     */
+    public List<String> orderUrls(final String target, final List<String> urls) {
+        final List<String> healthy = new ArrayList<>(urls.size());
+        final List<String> failed = new ArrayList<>();
+        final String lastGoodUrl = getValue(healthyUrls, target);
+        for (final String url : urls) {
+            if (url.equals(lastGoodUrl)) {
+                healthy.add(0, url);
+            } else if (getValue(failedUrls, target + "." + url) != null) {
+                failed.add(url);
+            } else {
+                healthy.add(url);
+            }
+        }
+        healthy.addAll(failed);
+        return healthy;
+    }
+
+    public boolean hasFailed(final String target, final String url) {
+        return getValue(failedUrls, target + "." + url) != null;
+    }
+
+    public void markHealthy(final String target, final String url, final long ttlMillis) {
+        failedUrls.remove(target + "." + url);
+        put(healthyUrls, target, url, ttlMillis);
+    }
+
+    public void markFailed(final String target, final String url, final long ttlMillis) {
+        final Entry healthy = healthyUrls.get(target);
+        if (healthy != null && healthy.url.equals(url)) {
+            healthyUrls.remove(target, healthy);
+        }
+        put(failedUrls, target + "." + url, url, ttlMillis);
+    }
+
+    public void clear() {
+        healthyUrls.clear();
+        failedUrls.clear();
+    }
+
+    private static String getValue(final ConcurrentHashMap<String, Entry> table, final String key) {
+        final Entry entry = table.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            table.remove(key, entry);
+            return null;
+        }
+        return entry.url;
+    }
+
+    private static void put(final ConcurrentHashMap<String, Entry> table, final String key, final String url, final long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        table.put(key, new Entry(url, now + ttlMillis));
+        if (table.size() > PURGE_THRESHOLD) {
+            final Iterator<Map.Entry<String, Entry>> iterator = table.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getValue().isExpired(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String url;
+        private final long expiresAt;
+
+        private Entry(final String url, final long expiresAt) {
+            this.url = url;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expiresAt;
+        }
+    }
+}
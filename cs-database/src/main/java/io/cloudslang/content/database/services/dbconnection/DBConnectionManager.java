@@ -18,6 +18,7 @@
 package io.cloudslang.content.database.services.dbconnection;
 
 import com.mchange.v2.c3p0.PooledDataSource;
+import com.zaxxer.hikari.HikariDataSource;
 import io.cloudslang.content.database.services.dbconnection.PooledDataSourceCleaner.STATE_CLEANER;
 import io.cloudslang.content.database.utils.TripleDES;
 
@@ -25,7 +26,10 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.cloudslang.content.database.constants.DBOtherValues.MSSQL_DB_TYPE;
 import static io.cloudslang.content.database.utils.Constants.AUTH_WINDOWS;
@@ -48,6 +52,12 @@ public class DBConnectionManager {
     //default is false, meaning if the databasePooling.properties is not
     //there or the property is not there, then we don't want to have pooling
     private static final String DB_POOL_ENABLE_DEFAULT_VALUE = "false";
+    //property that will decide which pooled datasource provider creates new pools
+    public static final String DB_POOL_PROVIDER_NAME = "db.pooling.provider";
+    public static final String DB_POOL_PROVIDER_C3P0 = "c3p0";
+    public static final String DB_POOL_PROVIDER_HIKARI = "hikari";
+    //default is c3p0, the provider used before the provider became configurable
+    private static final String DB_POOL_PROVIDER_DEFAULT_VALUE = DB_POOL_PROVIDER_C3P0;
     //max number of connections for db server, this will control all the pooled
     //datasources for same db server.
     private final static String MAX_TOTAL_POOL_SIZE_DEFAULT_VALUE = "100";
@@ -76,27 +86,28 @@ public class DBConnectionManager {
             "custom.connection.total.maxpoolsize";
     //singleton instance, make it protected so it can be mocked
     protected static volatile DBConnectionManager instance = null;
-    //table to hole the providers, for now it only has c3p0 provider
-    protected Hashtable<String, PooledDataSourceProvider> providerTable = null;
+    //table to hole the providers, c3p0 and hikari, keyed by provider name
+    protected volatile ConcurrentHashMap<String, PooledDataSourceProvider> providerTable = null;
     //dbms pool table, key = dbType + "." + dbUrl
-    //the reason that keep the dbType is we might use this dbType to find what
-    //datasource provider later if we have different kinds of datasource provider
-    //right now we only have one provider c3p0. Other provider might be implemented
-    //if it is necessary.
-    //the dbms pool table will have Hashtable dsTable which contians DataSources
+    //new datasources are opened by the provider configured through db.pooling.provider,
+    //an existing datasource is always closed and measured by the provider that opened it
+    //the dbms pool table will have a dsTable which contians DataSources
     //the key for the dsTable is dbUrl + "." + username + "." + encryptedpassword
-    //hashtable is synchronized already
-    protected Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable = null;
+    //lookups are lock free, creating or removing a datasource only locks the
+    //dsTable of its dbms so flows using different servers never contend
+    protected volatile ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable = null;
     //properties that contain configurable connection pooling params
-    protected Properties dbPoolingProperties = null;
+    protected volatile Properties dbPoolingProperties = null;
+    //copy of the last applied pooling properties
+    private volatile Map<Object, Object> dbPoolingPropertiesSnapshot = null;
     /**
      * if the pooling is enabled or not, default is false
      */
-    protected boolean isPoolingEnabled = false;
+    protected volatile boolean isPoolingEnabled = false;
     //datasource cleaner to clean the datasource with 0 connections.
-    private PooledDataSourceCleaner datasourceCleaner = null;
+    private volatile PooledDataSourceCleaner datasourceCleaner = null;
     //the thread that will run the cleaner runnable
-    private Thread cleanerThread = null;
+    private volatile Thread cleanerThread = null;
 
 
     /**
@@ -132,21 +143,39 @@ public class DBConnectionManager {
         customizeDbPoolingProperties(dbPoolingProperties);
         if (isPoolingEnabled) {
             createPoolTable();
-            createCleaner();
+            if (cleanerThread == null) {
+                createCleaner();
+            }
         }
     }
 
     private void customizeDbPoolingProperties(Properties dbPoolingProperties) {
         if (dbPoolingProperties != null && dbPoolingProperties.size() > 0) {
-            this.dbPoolingProperties = dbPoolingProperties;
-            this.isPoolingEnabled = this.getPropBooleanValue(DB_POOL_ENABLE_NAME, DB_POOL_ENABLE_DEFAULT_VALUE);
+            //every action passes its own copy of the same properties, only publish a change.
+            //compare with an unshared snapshot so the check does not lock the current properties
+            if (dbPoolingProperties.equals(dbPoolingPropertiesSnapshot)) {
+                return;
+            }
+            synchronized (this) {
+                this.dbPoolingProperties = dbPoolingProperties;
+                this.isPoolingEnabled = this.getPropBooleanValue(DB_POOL_ENABLE_NAME, DB_POOL_ENABLE_DEFAULT_VALUE);
+                this.dbPoolingPropertiesSnapshot = new HashMap<>(dbPoolingProperties);
+            }
         }
     }
 
-    private void createPoolTable() {
-        if (dbmsPoolTable == null) {
-            dbmsPoolTable = new Hashtable<>();
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> createPoolTable() {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> poolTable = dbmsPoolTable;
+        if (poolTable == null) {
+            synchronized (this) {
+                poolTable = dbmsPoolTable;
+                if (poolTable == null) {
+                    poolTable = new ConcurrentHashMap<>();
+                    dbmsPoolTable = poolTable;
+                }
+            }
         }
+        return poolTable;
     }
 
     /**
@@ -168,7 +197,7 @@ public class DBConnectionManager {
      * @return a Connection to db
      * @throws SQLException
      */
-    public synchronized Connection getConnection(DBType aDbType, String aAuthType, String aDbUrl, String aUsername, String aPassword, Properties properties)
+    public Connection getConnection(DBType aDbType, String aAuthType, String aDbUrl, String aUsername, String aPassword, Properties properties)
             throws SQLException {
         if (isEmpty(aDbUrl)) {
             throw new SQLException("Failed to check out connection dbUrl is empty");
@@ -197,11 +226,9 @@ public class DBConnectionManager {
 
             //if the runnable has been shutdown when dbmspoolsize is 0
             //then need to resumbit to the thread and start it again
-            if (datasourceCleaner.getState() == STATE_CLEANER.SHUTDOWN) {
-                //submit it to the thread to run
-                cleanerThread = new Thread(datasourceCleaner);
-                cleanerThread.setPriority(Thread.MIN_PRIORITY);
-                cleanerThread.start();
+            final PooledDataSourceCleaner cleaner = datasourceCleaner;
+            if (cleaner != null && cleaner.getState() == STATE_CLEANER.SHUTDOWN) {
+                restartCleaner();
             }
             //will use pooled datasource provider
             return getPooledConnection(aDbType, aDbUrl, aUsername, aPassword);
@@ -209,88 +236,76 @@ public class DBConnectionManager {
 
     }
 
+    /**
+     * @param properties the databasePooling.properties of the caller
+     * @return whether the connections are checked out of pooled datasources, one per url and user
+     */
+    public boolean isPoolingEnabled(Properties properties) {
+        customizeDbPoolingProperties(properties);
+        return this.isPoolingEnabled;
+    }
+
     /**
      * clean any empty datasource and pool in the dbmsPool table.
      */
     public void cleanDataSources() {
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> poolTable = dbmsPoolTable;
+        if (poolTable == null) {
+            return;
+        }
 
-        Hashtable<String, List<String>> removedDsKeyTable = null;
-
-        //gather all the empty ds's key, can't remove item while iterate
-        Enumeration<String> allPoolKeys = dbmsPoolTable.keys();
-        while (allPoolKeys.hasMoreElements()) {
-            String dbPoolKey = allPoolKeys.nextElement();
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbPoolKey);
-            Enumeration<String> allDsKeys = dsTable.keys();
-            while (allDsKeys.hasMoreElements()) {
-                String dsKey = allDsKeys.nextElement();
-                DataSource ds = dsTable.get(dsKey);
-
-                //c3p0 impl
-                if (ds != null && ds instanceof PooledDataSource) {
-                    PooledDataSource pDs = (PooledDataSource) ds;
-                    int conCount;
-                    try {
-                        conCount = pDs.getNumConnectionsAllUsers();
-                    } catch (SQLException e) {
+        for (Map.Entry<String, ConcurrentHashMap<String, DataSource>> poolEntry : poolTable.entrySet()) {
+            final String dbPoolKey = poolEntry.getKey();
+            final ConcurrentHashMap<String, DataSource> dsTable = poolEntry.getValue();
+            //the same lock guards the creation of datasources for this dbms
+            synchronized (dsTable) {
+                for (Map.Entry<String, DataSource> dsEntry : dsTable.entrySet()) {
+                    DataSource ds = dsEntry.getValue();
+
+                    //c3p0 impl
+                    if (ds instanceof PooledDataSource) {
+                        PooledDataSource pDs = (PooledDataSource) ds;
+                        int conCount;
+                        try {
+                            conCount = pDs.getNumConnectionsAllUsers();
+                        } catch (SQLException e) {
 //                  todo      logger.error
 //                                ("Failed to get total number of connections for datasource. dbmsPoolKey = "
 //                                        + dbPoolKey, e);
-                        continue;
-                    }
-                    //no connections
-                    if (conCount == 0) {
-                        List<String> removedList = null;
-                        if (removedDsKeyTable == null) {
-                            removedDsKeyTable = new Hashtable<>();
-                        } else {
-                            removedList = removedDsKeyTable.get(dbPoolKey);
+                            continue;
                         }
-
-                        if (removedList == null) {
-                            removedList = new ArrayList<>();
-                            removedList.add(dsKey);
-                            removedDsKeyTable.put(dbPoolKey, removedList);
-                        } else {
-                            removedList.add(dsKey);
+                        //no connections
+                        if (conCount == 0 && dsTable.remove(dsEntry.getKey(), ds)) {
+                            try {
+                                this.getProvider(ds).closePooledDataSource(ds);
+                            } catch (SQLException e) {
+                                //can't show the dsKey since it has encrypted password there
+//                  todo      logger.error("Failed to close datadsource in dmbs poolKey = "
+//                                + dbPoolKey, e);
+                            }
                         }
-                    }
-                }
-            }
-        }
-
-        //have empty ds
-        if (removedDsKeyTable != null && !removedDsKeyTable.isEmpty()) {
-            Enumeration<String> removedPoolKeys = removedDsKeyTable.keys();
-            while (removedPoolKeys.hasMoreElements()) {
-                String removedPoolKey = removedPoolKeys.nextElement();
-                PooledDataSourceProvider provider = this.getProvider(removedPoolKey);
-                List<String> removedDsList = removedDsKeyTable.get(removedPoolKey);
-                Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(removedPoolKey);
-                for (String dsKey : removedDsList) {
-                    DataSource removedDs = dsTable.remove(dsKey);
-                    try {
-                        provider.closePooledDataSource(removedDs);
-                    } catch (SQLException e) {
-                        //can't show the dsKey since it has encrypted password there
+                    } else if (ds instanceof HikariDataSource) {
+                        //hikari impl, the pool shrinks to 0 once the idle connections timed out
+                        PooledDataSourceProvider provider = this.getProvider(ds);
+                        int conCount;
+                        try {
+                            conCount = provider.getAllConnectionNumber(ds);
+                        } catch (SQLException e) {
+                            continue;
+                        }
+                        if (conCount == 0 && dsTable.remove(dsEntry.getKey(), ds)) {
+                            try {
+                                provider.closePooledDataSource(ds);
+                            } catch (SQLException e) {
 //                  todo      logger.error("Failed to close datadsource in dmbs poolKey = "
-//                                + removedPoolKey, e);
-                        continue;
+//                                + dbPoolKey, e);
+                            }
+                        }
                     }
-
-                    //tracing
-//                todo    if (logger.isDebugEnabled()) {
-//                        logger.debug("Removed one datasource in dbms poolKey = "
-//                                + removedPoolKey);
-//                    }
                 }
                 //don't have any ds for the pool key
                 if (dsTable.isEmpty()) {
-                    dbmsPoolTable.remove(removedPoolKey);
-                    //tracing
-//              todo      if (logger.isDebugEnabled()) {
-//                        logger.debug("Removed dbms poolKey = " + removedPoolKey);
-//                    }
+                    poolTable.remove(dbPoolKey, dsTable);
                 }
             }
         }
@@ -302,32 +317,37 @@ public class DBConnectionManager {
     public synchronized void shutdownDbmsPools() {
         //force shutdown
         //runnable
-        datasourceCleaner.shutdown();
-        datasourceCleaner = null;
+        if (datasourceCleaner != null) {
+            datasourceCleaner.shutdown();
+            datasourceCleaner = null;
+        }
         //shell for the runnable
-        cleanerThread.interrupt();//stop the thread
-        cleanerThread = null;
+        if (cleanerThread != null) {
+            cleanerThread.interrupt();//stop the thread
+            cleanerThread = null;
+        }
 
-        if (dbmsPoolTable == null) {
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> poolTable = dbmsPoolTable;
+        if (poolTable == null) {
             return;
         }
-        Enumeration<String> allDbmsKeys = dbmsPoolTable.keys();
-        while (allDbmsKeys.hasMoreElements()) {
-            String dbmsKey = allDbmsKeys.nextElement();
-            PooledDataSourceProvider provider = this.getProvider(dbmsKey);
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsKey);
-            for (DataSource ds : dsTable.values()) {
-                try {
-                    provider.closePooledDataSource(ds);
-                } catch (SQLException e) {
+        dbmsPoolTable = null;
+        for (Map.Entry<String, ConcurrentHashMap<String, DataSource>> poolEntry : poolTable.entrySet()) {
+            String dbmsKey = poolEntry.getKey();
+            ConcurrentHashMap<String, DataSource> dsTable = poolEntry.getValue();
+            synchronized (dsTable) {
+                for (DataSource ds : dsTable.values()) {
+                    try {
+                        this.getProvider(ds).closePooledDataSource(ds);
+                    } catch (SQLException e) {
 //          todo          logger.error("Failed to close datasource in dbms poolKey = "
 //                            + dbmsKey);
+                    }
                 }
+                dsTable.clear();
             }
-            dsTable.clear();
         }
-        dbmsPoolTable.clear();
-        dbmsPoolTable = null;
+        poolTable.clear();
     }
 
     /**
@@ -367,7 +387,7 @@ public class DBConnectionManager {
     /**
      * create and start a pool cleaner if pooling is enabled.
      */
-    private void createCleaner() {
+    private synchronized void createCleaner() {
         if (cleanerThread == null) {
             int interval = getPropIntValue
                     (DB_DATASOURCE_CLEAN_INTERNAL_NAME,
@@ -384,20 +404,46 @@ public class DBConnectionManager {
     }
 
     /**
-     * @param aDbmsPoolKey a key to find the datasource table
-     * @return a PooledDataSourceProvider
+     * submit the cleaner to a new thread once it stopped itself because there were no pools left.
+     */
+    private synchronized void restartCleaner() {
+        if (datasourceCleaner != null && datasourceCleaner.getState() == STATE_CLEANER.SHUTDOWN) {
+            //submit it to the thread to run
+            datasourceCleaner.markRunning();
+            cleanerThread = new Thread(datasourceCleaner);
+            cleanerThread.setPriority(Thread.MIN_PRIORITY);
+            cleanerThread.setDaemon(true);
+            cleanerThread.start();
+        }
+    }
+
+    /**
+     * @param aPooledDataSource a pooled datasource
+     * @return the PooledDataSourceProvider that opened that datasource
      */
-    private PooledDataSourceProvider getProvider(String aDbmsPoolKey) {
+    private PooledDataSourceProvider getProvider(DataSource aPooledDataSource) {
         PooledDataSourceProvider retProvider;
-        //now we only has one provider, later should use that key to find
-        //what type of db and find provider since first part of that key is dbType
-        String providerName = C3P0PooledDataSourceProvider.C3P0_DATASOURCE_PROVIDER_NAME;
+        //pools opened before the provider property changed keep their provider
+        String providerName = (aPooledDataSource instanceof HikariDataSource) ?
+                HikariPooledDataSourceProvider.HIKARI_DATASOURCE_PROVIDER_NAME :
+                C3P0PooledDataSourceProvider.C3P0_DATASOURCE_PROVIDER_NAME;
 
         retProvider = providerTable.get(providerName);
 
         return retProvider;
     }
 
+    /**
+     * @return the provider name configured through db.pooling.provider
+     */
+    private String getConfiguredProviderName() {
+        String provider = dbPoolingProperties.getProperty(DB_POOL_PROVIDER_NAME, DB_POOL_PROVIDER_DEFAULT_VALUE);
+        if (DB_POOL_PROVIDER_HIKARI.equalsIgnoreCase(provider.trim())) {
+            return HikariPooledDataSourceProvider.HIKARI_DATASOURCE_PROVIDER_NAME;
+        }
+        return C3P0PooledDataSourceProvider.C3P0_DATASOURCE_PROVIDER_NAME;
+    }
+
     /**
      * @param aDbUrl    connection url
      * @param aUsername username to connect to db
@@ -419,60 +465,61 @@ public class DBConnectionManager {
      * @throws SQLException
      */
     protected Connection getPooledConnection(DBType aDbType, String aDbUrl, String aUsername, String aPassword) throws SQLException {
-        Connection retCon;
-
-        //key to hashtable of datasources for that dbms
+        //key to table of datasources for that dbms
         String dbmsKey = aDbType + "." + aDbUrl;
 
+        String encryptedPass;
+        try {
+            encryptedPass = TripleDES.encryptPassword(aPassword);
+        } catch (Exception e) {
+            throw new SQLException
+                    ("Failed to encrypt password for key = " + dbmsKey, e);
+        }
+        String dsTableKey = aDbUrl + "." + aUsername + "." + encryptedPass;
 
-        if (dbmsPoolTable.containsKey(dbmsKey)) {
-
-            //each pool has pooled datasources, pool is based on dbUrl
-            //so we can control the total size of connection to dbms
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsKey);
-
-            String encryptedPass;
-            try {
-                encryptedPass = TripleDES.encryptPassword(aPassword);
-            } catch (Exception e) {
-                throw new SQLException
-                        ("Failed to encrypt password for key = " + dbmsKey, e);
-            }
-
-            String dsTableKey = aDbUrl + "." + aUsername + "." + encryptedPass;
-
-            DataSource ds;
-            if (dsTable.containsKey(dsTableKey)) {
-
-                ds = dsTable.get(dsTableKey);
-                retCon = ds.getConnection();
-            } else {
+        //fast path, the datasource exists already
+        Map<String, DataSource> dsTable = createPoolTable().get(dbmsKey);
+        DataSource ds = (dsTable == null) ? null : dsTable.get(dsTableKey);
+        if (ds == null) {
+            ds = getOrCreateDataSource(aDbType, aDbUrl, aUsername, aPassword, dbmsKey, dsTableKey);
+        }
 
-                //need to check if it is ok to create another ds
-                ds = this.createDataSource(aDbType, aDbUrl, aUsername, aPassword, dsTable);
-                retCon = ds.getConnection();
+        if (ds instanceof PooledDataSource) {
+            return getPooledConnection((PooledDataSource) ds, aUsername, aPassword);
+        }
+        return ds.getConnection();
+    }
 
-                dsTable.put(dsTableKey, ds);
+    /**
+     * each pool has pooled datasources, pool is based on dbUrl so we can control the total size of connection
+     * to dbms. Only the dsTable of that dbms is locked while a datasource is created.
+     */
+    private DataSource getOrCreateDataSource(DBType aDbType, String aDbUrl, String aUsername, String aPassword,
+                                             String dbmsKey, String dsTableKey) throws SQLException {
+        while (true) {
+            final ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> poolTable = createPoolTable();
+            ConcurrentHashMap<String, DataSource> dsTable = poolTable.get(dbmsKey);
+            if (dsTable == null) {
+                final ConcurrentHashMap<String, DataSource> newDsTable = new ConcurrentHashMap<>();
+                dsTable = poolTable.putIfAbsent(dbmsKey, newDsTable);
+                if (dsTable == null) {
+                    dsTable = newDsTable;
+                }
             }
-        } else//don't have dbmsKey, will create one for that dbtype.dburl
-        {
-
-            //just create, don't need to check, since we don't have this dbmsKey
-            PooledDataSource ds = (PooledDataSource) this.createDataSource(aDbType, aDbUrl, aUsername, aPassword);
-            retCon = getPooledConnection(ds, aUsername, aPassword);
-
-            Hashtable<String, DataSource> dsTable = new Hashtable<>();
-            String encryptedPass;
-            try {
-                encryptedPass = TripleDES.encryptPassword(aPassword);
-            } catch (Exception e) {
-                throw new SQLException("Failed to encrypt password for key = " + dbmsKey, e);
+            synchronized (dsTable) {
+                //the cleaner may have dropped this dsTable in the meantime, start over with the current one
+                if (poolTable != dbmsPoolTable || poolTable.get(dbmsKey) != dsTable) {
+                    continue;
+                }
+                DataSource ds = dsTable.get(dsTableKey);
+                if (ds == null) {
+                    //need to check if it is ok to create another ds
+                    ds = this.createDataSource(aDbType, aDbUrl, aUsername, aPassword, dsTable);
+                    dsTable.put(dsTableKey, ds);
+                }
+                return ds;
             }
-            String dsTableKey = aDbUrl + "." + aUsername + "." + encryptedPass;
-            dsTable.put(dsTableKey, ds);
-            dbmsPoolTable.put(dbmsKey, dsTable);
         }
-        return retCon;
     }
 
     private Connection getPooledConnection(PooledDataSource ds, String aUsername, String aPassword) throws SQLException {
@@ -516,7 +563,7 @@ public class DBConnectionManager {
                                           String aDbUrl,
                                           String aUsername,
                                           String aPassword,
-                                          Hashtable<String, DataSource> aDsTable)
+                                          Map<String, DataSource> aDsTable)
             throws SQLException {
         DataSource retDatasource;
 
@@ -581,27 +628,26 @@ public class DBConnectionManager {
         PooledDataSourceProvider provider;
 
         if (providerTable == null) {
-
-            switch (aDbType) {
-                //only has one at the moment
-                default:
-                    provider = new C3P0PooledDataSourceProvider(dbPoolingProperties);
+            synchronized (this) {
+                if (providerTable == null) {
+                    providerTable = new ConcurrentHashMap<>();
+                }
             }
-            String name = provider.getProviderName();
-            providerTable = new Hashtable<>();
-            providerTable.put(name, provider);
-
-
-        }
-
-        String providerName;
-        switch (aDbType) {
-            default:
-                providerName = C3P0PooledDataSourceProvider.C3P0_DATASOURCE_PROVIDER_NAME;
         }
 
+        String providerName = getConfiguredProviderName();
         provider = providerTable.get(providerName);
-
+        if (provider == null) {
+            if (HikariPooledDataSourceProvider.HIKARI_DATASOURCE_PROVIDER_NAME.equals(providerName)) {
+                provider = new HikariPooledDataSourceProvider(dbPoolingProperties);
+            } else {
+                provider = new C3P0PooledDataSourceProvider(dbPoolingProperties);
+            }
+            PooledDataSourceProvider existing = providerTable.putIfAbsent(providerName, provider);
+            if (existing != null) {
+                provider = existing;
+            }
+        }
 
         retDatasource = provider.openPooledDataSource(aDbType,
                 aDbUrl,
@@ -616,7 +662,8 @@ public class DBConnectionManager {
      * return how many dbms pools
      */
     public int getDbmsPoolSize() {
-        return dbmsPoolTable.size();
+        final Map<String, ConcurrentHashMap<String, DataSource>> poolTable = dbmsPoolTable;
+        return (poolTable == null) ? 0 : poolTable.size();
     }
 
     //The followings are only for testing purpose
@@ -631,12 +678,11 @@ public class DBConnectionManager {
         int retTotal = 0;
 
         String dbmsPoolKey = aDbType + "." + aDbUrl;
-        Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-        PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        Map<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
 
         if (dsTable != null) {
             for (DataSource ds : dsTable.values()) {
-                retTotal = retTotal + provider.getAllConnectionNumber(ds);
+                retTotal = retTotal + this.getProvider(ds).getAllConnectionNumber(ds);
             }
         }
 
@@ -654,12 +700,11 @@ public class DBConnectionManager {
         int retTotal = 0;
 
         String dbmsPoolKey = aDbType + "." + aDbUrl;
-        Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-        PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        Map<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
 
         if (dsTable != null) {
             for (DataSource ds : dsTable.values()) {
-                retTotal = retTotal + provider.getCheckedOutConnectionNumber(ds);
+                retTotal = retTotal + this.getProvider(ds).getCheckedOutConnectionNumber(ds);
             }
         }
 
@@ -676,12 +721,11 @@ public class DBConnectionManager {
         int retTotal = 0;
 
         String dbmsPoolKey = aDbType + "." + aDbUrl;
-        Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-        PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        Map<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
 
         if (dsTable != null) {
             for (DataSource ds : dsTable.values()) {
-                retTotal = retTotal + provider.getCheckedInConnectionNumber(ds);
+                retTotal = retTotal + this.getProvider(ds).getCheckedInConnectionNumber(ds);
             }
         }
 
@@ -695,15 +739,12 @@ public class DBConnectionManager {
     public int getTotalConnectionSize() throws SQLException {
         int retTotal = 0;
 
-        Enumeration<String> allDbmsKeys = dbmsPoolTable.keys();
-        while (allDbmsKeys.hasMoreElements()) {
-            String dbmsPoolKey = allDbmsKeys.nextElement();
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-            PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        for (Map.Entry<String, ConcurrentHashMap<String, DataSource>> poolEntry : dbmsPoolTable.entrySet()) {
+            Map<String, DataSource> dsTable = poolEntry.getValue();
 
             if (dsTable != null) {
                 for (DataSource ds : dsTable.values()) {
-                    retTotal = retTotal + provider.getAllConnectionNumber(ds);
+                    retTotal = retTotal + this.getProvider(ds).getAllConnectionNumber(ds);
                 }
             }
         }
@@ -717,15 +758,12 @@ public class DBConnectionManager {
     public int getTotalCheckedOutConnectionSize() throws SQLException {
         int retTotal = 0;
 
-        Enumeration<String> allDbmsKeys = dbmsPoolTable.keys();
-        while (allDbmsKeys.hasMoreElements()) {
-            String dbmsPoolKey = allDbmsKeys.nextElement();
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-            PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        for (Map.Entry<String, ConcurrentHashMap<String, DataSource>> poolEntry : dbmsPoolTable.entrySet()) {
+            Map<String, DataSource> dsTable = poolEntry.getValue();
 
             if (dsTable != null) {
                 for (DataSource ds : dsTable.values()) {
-                    retTotal = retTotal + provider.getCheckedOutConnectionNumber(ds);
+                    retTotal = retTotal + this.getProvider(ds).getCheckedOutConnectionNumber(ds);
                 }
             }
         }
@@ -739,14 +777,11 @@ public class DBConnectionManager {
     public int getTotalCheckedInConnectionSize() throws SQLException {
         int retTotal = 0;
 
-        Enumeration<String> allDbmsKeys = dbmsPoolTable.keys();
-        while (allDbmsKeys.hasMoreElements()) {
-            String dbmsPoolKey = allDbmsKeys.nextElement();
-            Hashtable<String, DataSource> dsTable = dbmsPoolTable.get(dbmsPoolKey);
-            PooledDataSourceProvider provider = this.getProvider(dbmsPoolKey);
+        for (Map.Entry<String, ConcurrentHashMap<String, DataSource>> poolEntry : dbmsPoolTable.entrySet()) {
+            Map<String, DataSource> dsTable = poolEntry.getValue();
             if (dsTable != null) {
                 for (DataSource ds : dsTable.values()) {
-                    retTotal = retTotal + provider.getCheckedInConnectionNumber(ds);
+                    retTotal = retTotal + this.getProvider(ds).getCheckedInConnectionNumber(ds);
                 }
             }
         }
@@ -0,0 +1,221 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services.dbconnection;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.cloudslang.content.database.services.dbconnection.DBConnectionManager.DBType;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PooledDataSourceProvider backed by HikariCP. It reads the same databasePooling.properties as the
+ * c3p0 provider and maps them onto the HikariCP configuration. The c3p0 only settings (acquire increment,
+ * retry count/delay, idle test period and check-in validation) have no HikariCP counterpart and are ignored;
+ * HikariCP always validates a connection on checkout.
+ * HikariCP does not cache prepared statements itself, the statement cache size is passed to the statement
+ * cache of the JDBC drivers that have one.
+ */
+public class HikariPooledDataSourceProvider extends PooledDataSourceProvider {
+    //name of this provider
+    public final static String HIKARI_DATASOURCE_PROVIDER_NAME = "HikariPooledDataSourceProvider";
+    //HikariCP lower bounds, below these values HikariCP falls back to its own defaults
+    private final static long HIKARI_MIN_IDLE_TIMEOUT = 10000; //in mili seconds
+    private final static long HIKARI_MIN_MAX_LIFETIME = 30000; //in mili seconds
+    private final static long HIKARI_MIN_CONNECTION_TIMEOUT = 250; //in mili seconds
+    private final static String HIKARI_POOL_NAME_PREFIX = "cs-database-";
+    //used to give every pool an unique name, needed by the JMX registration
+    private final static AtomicInteger poolCounter = new AtomicInteger();
+
+    /**
+     * constructor
+     *
+     * @param aDBPoolingProperties the Properties from databasePooling.properties
+     */
+    public HikariPooledDataSourceProvider(Properties aDBPoolingProperties) {
+        super(aDBPoolingProperties);
+    }
+
+    /**
+     * return the name of this provider
+     */
+    public String getProviderName() {
+        return HIKARI_DATASOURCE_PROVIDER_NAME;
+    }
+
+    /**
+     * close the pooled data source
+     *
+     * @param aPooledDataSource a pooled datasource
+     * @throws SQLException
+     */
+    public void closePooledDataSource(DataSource aPooledDataSource) throws SQLException {
+        if (aPooledDataSource == null) {
+            return;
+        }
+        ((HikariDataSource) aPooledDataSource).close();
+    }
+
+    /**
+     * get the pooled datasource from HikariCP
+     *
+     * @param aDbType   a supported database type.
+     * @param aDbUrl    a connection url
+     * @param aUsername a username for the database
+     * @param aPassword a password for the database connection
+     * @return a DataSource  a pooled data source
+     * @throws SQLException
+     */
+    public DataSource openPooledDataSource(DBType aDbType, String aDbUrl, String aUsername, String aPassword) throws SQLException {
+        final HikariConfig config = this.getPoolingConfig(aDbType);
+        config.setJdbcUrl(aDbUrl);
+        config.setUsername(aUsername);
+        config.setPassword(aPassword);
+
+        try {
+            return new HikariDataSource(config);
+        } catch (RuntimeException e) {
+            //HikariCP reports a failed fail-fast initialization with an unchecked exception
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * set up the HikariCP configuration based on the properties values in
+     * databasePooling.properties.
+     *
+     * @param aDbType a supported db type.
+     * @return a HikariConfig without url and credentials
+     */
+    HikariConfig getPoolingConfig(DBType aDbType) {
+        final HikariConfig config = new HikariConfig();
+
+        //max pool size
+        final int maxPoolSize = Integer.parseInt(this.getPropStringValue(MAX_POOL_SIZE_NAME,
+                MAX_POOL_SIZE_DEFAULT_VALUE));
+        config.setMaximumPoolSize(maxPoolSize);
+
+        //min pool size, HikariCP keeps this many idle connections
+        final int minPoolSize = Integer.parseInt(this.getPropStringValue(MIN_POOL_SIZE_NAME,
+                MIN_POOL_SIZE_DEFAULT_VALUE));
+        config.setMinimumIdle(Math.min(minPoolSize, maxPoolSize));
+
+        //max idle time, zero means idle connections never expire
+        final long maxIdleTime = Long.parseLong(this.getPropStringValue(CONNECTION_MAX_IDLETIME_NAME,
+                CONNECTION_MAX_IDLETIME_DEFAULT_VALUE)) * 1000;
+        config.setIdleTimeout(maxIdleTime == 0 ? 0 : Math.max(maxIdleTime, HIKARI_MIN_IDLE_TIMEOUT));
+
+        //connection timeout, zero means waiting indefinitely for a connection
+        final long conTimeout = Long.parseLong(this.getPropStringValue(CONNECTION_CHECKOUT_TIMEOUT_NAME,
+                CONNECTION_CHECKOUT_TIMEOUT_DEFAULT_VALUE));
+        config.setConnectionTimeout(conTimeout == 0 ? 0 : Math.max(conTimeout, HIKARI_MIN_CONNECTION_TIMEOUT));
+
+        //connection break after acquire failure, fail the pool creation instead of retrying in background
+        final boolean breakAfterFailure = Boolean.parseBoolean(this.getPropStringValue(
+                CONNECTION_BREAKAFTERACQUIREFAILURE_NAME, CONNECTION_BREAKAFTERACQUIREFAILURE_DEFAULT_VALUE));
+        config.setInitializationFailTimeout(breakAfterFailure ? 1 : -1);
+
+        //db specific properties
+        //connection life time, zero means no maximum lifetime
+        final long connectionLifetime = Long.parseLong(this.getPropStringValue(getConnectionLifetimeName(aDbType),
+                CONNECTION_LIFETIME_DEFAULT_VALUE)) * 1000;
+        config.setMaxLifetime(connectionLifetime == 0 ? 0 : Math.max(connectionLifetime, HIKARI_MIN_MAX_LIFETIME));
+
+        //prepared statement cache of the driver
+        final int statementCacheSize = Integer.parseInt(this.getPropStringValue(CONNECTION_STATEMENT_CACHE_SIZE_NAME,
+                CONNECTION_STATEMENT_CACHE_SIZE_DEFAULT_VALUE));
+        if (statementCacheSize > 0) {
+            addStatementCacheProperties(config, aDbType, String.valueOf(statementCacheSize));
+        }
+
+        //expose the pool metrics through JMX
+        config.setPoolName(HIKARI_POOL_NAME_PREFIX + aDbType.name().toLowerCase() + "-" + poolCounter.incrementAndGet());
+        config.setRegisterMbeans(true);
+
+        return config;
+    }
+
+    /**
+     * the driver properties are passed along with the credentials to the driver of the jdbc url.
+     * Netcool, DB2 and custom drivers are left with their own defaults.
+     */
+    private static void addStatementCacheProperties(HikariConfig aConfig, DBType aDbType, String aCacheSize) {
+        switch (aDbType) {
+            case ORACLE:
+                aConfig.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", aCacheSize);
+                break;
+            case MSSQL:
+                aConfig.addDataSourceProperty("disableStatementPooling", "false");
+                aConfig.addDataSourceProperty("statementPoolingCacheSize", aCacheSize);
+                break;
+            case MYSQL:
+                aConfig.addDataSourceProperty("cachePrepStmts", "true");
+                aConfig.addDataSourceProperty("prepStmtCacheSize", aCacheSize);
+                break;
+            case POSTGRESQL:
+                aConfig.addDataSourceProperty("preparedStatementCacheQueries", aCacheSize);
+                break;
+            case SYBASE:
+                aConfig.addDataSourceProperty("maxStatements", aCacheSize);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param aPooledDataSource a HikariCP pooled datasource
+     * @return the number of threads waiting for a connection from this pool
+     */
+    public int getThreadsAwaitingConnection(DataSource aPooledDataSource) {
+        final HikariPoolMXBean poolBean = getPoolBean(aPooledDataSource);
+        return poolBean == null ? 0 : poolBean.getThreadsAwaitingConnection();
+    }
+
+    //The followings are only for testing purpose
+    public int getAllConnectionNumber(DataSource aPooledDataSource) throws SQLException {
+        final HikariPoolMXBean poolBean = getPoolBean(aPooledDataSource);
+        return poolBean == null ? 0 : poolBean.getTotalConnections();
+    }
+
+    public int getCheckedInConnectionNumber(DataSource aPooledDataSource) throws SQLException {
+        final HikariPoolMXBean poolBean = getPoolBean(aPooledDataSource);
+        return poolBean == null ? 0 : poolBean.getIdleConnections();
+    }
+
+    public int getCheckedOutConnectionNumber(DataSource aPooledDataSource)
+            throws SQLException {
+        final HikariPoolMXBean poolBean = getPoolBean(aPooledDataSource);
+        return poolBean == null ? 0 : poolBean.getActiveConnections();
+    }
+
+    private static HikariPoolMXBean getPoolBean(DataSource aPooledDataSource) {
+        final HikariDataSource hikariDs = (HikariDataSource) aPooledDataSource;
+        //a closed pool has no bean anymore
+        return hikariDs.isClosed() ? null : hikariDs.getHikariPoolMXBean();
+    }
+
+}//end of HikariPooledDataSourceProvider
@@ -30,7 +30,7 @@ public class PooledDataSourceCleaner implements Runnable {
 
     //DBConnectionPoolManager handle
     private DBConnectionManager manager = null;
-    private STATE_CLEANER state = STATE_CLEANER.SHUTDOWN;
+    private volatile STATE_CLEANER state = STATE_CLEANER.SHUTDOWN;
 
     /**
      * constructor
@@ -76,6 +76,13 @@ public class PooledDataSourceCleaner implements Runnable {
         }
     }
 
+    /**
+     * mark the cleaner as running before it is submitted to a thread, so it is not submitted twice
+     */
+    protected void markRunning() {
+        state = STATE_CLEANER.RUNNING;
+    }
+
     /**
      * force shutdown and derefrence manager
      */
@@ -92,6 +92,14 @@ public abstract class PooledDataSourceProvider {
     public static String CONNECTION_BREAKAFTERACQUIREFAILURE_NAME =
             "connection.break_afteracquirefailure";
     public static String CONNECTION_BREAKAFTERACQUIREFAILURE_DEFAULT_VALUE = "true";
+    //Number of PreparedStatements cached for each pooled connection, the least
+    //recently used statement is closed when the cache is full. Parameterized
+    //queries run again on the same connection skip the parse on the database.
+    //Zero, the default, disables the statement cache, each cached statement keeps
+    //a cursor open on the database so the cache has to be sized for its limits.
+    public static String CONNECTION_STATEMENT_CACHE_SIZE_NAME =
+            "connection.statement.cachesize";
+    public static String CONNECTION_STATEMENT_CACHE_SIZE_DEFAULT_VALUE = "0";
     //properties in databasePooling.properties which are specific for
     //dbtype
     //oracle
@@ -173,6 +181,29 @@ public abstract class PooledDataSourceProvider {
                 aDefaultValue);
     }
 
+    /**
+     * @param aDbType a supported db type.
+     * @return the name of the connection lifetime property for that db type
+     */
+    protected static String getConnectionLifetimeName(DBType aDbType) {
+        switch (aDbType) {
+            case ORACLE:
+                return ORACLE_CONNECTION_LIFETIME_NAME;
+            case MSSQL:
+                return MSSQL_CONNECTION_LIFETIME_NAME;
+            case MYSQL:
+                return MYSQL_CONNECTION_LIFETIME_NAME;
+            case SYBASE:
+                return SYBASE_CONNECTION_LIFETIME_NAME;
+            case DB2:
+                return DB2_CONNECTION_LIFETIME_NAME;
+            case NETCOOL:
+                return NETCOOL_CONNECTION_LIFETIME_NAME;
+            default:
+                return CUSTOM_CONNECTION_LIFETIME_NAME;
+        }
+    }
+
     //the followings are only for testing purpose
     public abstract int getAllConnectionNumber(DataSource aPooledDataSource)
             throws SQLException;
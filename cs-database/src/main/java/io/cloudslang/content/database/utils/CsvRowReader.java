@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records as described by RFC 4180.
+ * Fields may be enclosed in double quotes, in which case they can contain the delimiter, line breaks and
+ * doubled double quotes. An empty field that is not quoted is returned as null, while "" is an empty string.
+ * Empty lines are skipped, unless the records have a single column, as given by the header or else by the first
+ * record, in which case an empty line is a record holding a null field.
+ */
+public class CsvRowReader implements RowReader {
+
+    private static final char QUOTE = '"';
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long rowNumber;
+    private int columnCount;
+
+    public CsvRowReader(@NotNull final Reader reader, final char delimiter, final boolean hasHeader) throws IOException {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        if (hasHeader) {
+            final List<String> header = nextRow();
+            columnCount = header != null ? header.size() : 0;
+            rowNumber = 0;
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<String> nextRow() throws IOException {
+        int ch = read();
+        while (columnCount != 1 && (ch == '\r' || ch == '\n')) {
+            //skip the empty lines, in a single column they are null values
+            ch = read();
+        }
+        if (ch < 0) {
+            return null;
+        }
+        rowNumber++;
+        final List<String> row = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            boolean quoted = false;
+            if (ch == QUOTE) {
+                quoted = true;
+                ch = readQuoted();
+            }
+            while (ch >= 0 && ch != delimiter && ch != '\r' && ch != '\n') {
+                field.append((char) ch);
+                ch = read();
+            }
+            row.add(quoted || field.length() > 0 ? field.toString() : null);
+            if (ch == delimiter) {
+                ch = read();
+                continue;
+            }
+            if (ch == '\r') {
+                ch = read();
+                if (ch != '\n' && ch >= 0) {
+                    position--;
+                }
+            }
+            if (columnCount == 0) {
+                columnCount = row.size();
+            }
+            return row;
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Appends the content of a quoted field to the current field.
+     *
+     * @return the first character after the closing quote
+     */
+    private int readQuoted() throws IOException {
+        while (true) {
+            final int ch = read();
+            if (ch < 0) {
+                throw new IOException("Unterminated quoted field in row " + rowNumber + ".");
+            }
+            if (ch == QUOTE) {
+                final int next = read();
+                if (next != QUOTE) {
+                    return next;
+                }
+            }
+            field.append((char) ch);
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
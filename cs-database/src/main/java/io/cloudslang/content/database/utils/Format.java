@@ -20,9 +20,7 @@ package io.cloudslang.content.database.utils;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 
 import static io.cloudslang.content.database.constants.DBDefaultValues.NEW_LINE;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
@@ -57,7 +55,7 @@ public class Format {
      * @return
      * @throws SQLException
      */
-    private static String getColumn(ResultSet rs, int col, boolean checkNullTermination) throws SQLException {
+    public static String getColumn(ResultSet rs, int col, boolean checkNullTermination) throws SQLException {
         final String value = rs.getString(col);
         if (value == null) {
             return "null";
@@ -105,55 +103,50 @@ public class Format {
     private static String resultSetToTable(ResultSet result, Calendar cal, boolean checkNullTermination) throws SQLException {
         assert (result != null);
 
-        ResultSetMetaData md = result.getMetaData();
-        int nCols = md.getColumnCount();
-        String[] headers = new String[nCols];
-        int[] headerSz = new int[nCols]; // Note: Eclipse has a friendly getDisplaySizes() function
-        int maxWidth = 1; // maximum column width - initially set at 1 to prevent an edge case
-
-        List<String[]> rows = new ArrayList<>(); // columns
-        // This is fairly space intensive because we don't want to turn this into an O^2(n) problem
-        // instead of a O(n) problem. It's O(n) space but with a k of 2, and same with space.
-        // Ugh, stupid time-memory tradeoffs
-        // We're storing it ALL in Java data structures to figure out width of columns first, then padding later
-        // for serialization
-        for (int colheader = 0; colheader < nCols; colheader++) {
-            headers[colheader] = md.getColumnLabel(colheader + 1);
-            headerSz[colheader] = headers[colheader].length();
-        }
+        return resultBufferToTable(ResultBuffer.read(result), checkNullTermination);
+    }
+
+    /**
+     * Formats a buffered result set into a table, see {@link #resultSetToTable(ResultSet, boolean)}.
+     * The column widths are computed in one pass over the buffer and the cells are rendered again while they are
+     * appended, so no rendered copy of the rows is kept.
+     *
+     * @param buffer               the buffered result set
+     * @param checkNullTermination perform the null termination check on a string (eg. netcool)
+     * @return the table
+     */
+    public static String resultBufferToTable(ResultBuffer buffer, boolean checkNullTermination) {
+        final int nCols = buffer.getColumnCount();
+        final int nRows = buffer.getRowCount();
+        final int[] headerSz = new int[nCols];
 
         // setup columns to be width of column labels
-        while (result.next()) {
-            String[] row = new String[headers.length];
-            for (int colN = 0; colN < nCols; colN++) {
-                String colVal = getColumn(result, colN + 1, checkNullTermination);
-                headerSz[colN] = colVal.length() > headerSz[colN] ? colVal.length() : headerSz[colN];
-                row[colN] = colVal;
+        int lineLength = NEW_LINE.length();
+        for (int col = 0; col < nCols; col++) {
+            headerSz[col] = buffer.getColumnLabel(col).length();
+            for (int row = 0; row < nRows; row++) {
+                headerSz[col] = Math.max(headerSz[col], getColumn(buffer, row, col, checkNullTermination).length());
             }
-            rows.add(row);
+            lineLength += headerSz[col] + colPadding;
         }
         // column widths set, now start populating the string builder
-        StringBuilder resultSb = new StringBuilder(headers.length * maxWidth / 2);
+        final StringBuilder resultSb = new StringBuilder(lineLength * (nRows + 2));
         // construct the headers
-        for (int colheader = 0; colheader < nCols; colheader++) {
-            resultSb.append(headers[colheader]);
-            for (int count = 0; count < headerSz[colheader] - headers[colheader].length() + colPadding; count++)
-                resultSb.append(" ");
+        for (int col = 0; col < nCols; col++) {
+            appendPadded(resultSb, buffer.getColumnLabel(col), headerSz[col] + colPadding);
         }
         resultSb.append(NEW_LINE);
-        for (int colheader = 0; colheader < nCols; colheader++) {
-            for (int count = 0; count < headerSz[colheader]; count++)
+        for (int col = 0; col < nCols; col++) {
+            for (int count = 0; count < headerSz[col]; count++)
                 resultSb.append("-");
             for (int count = 0; count < colPadding; count++)
                 resultSb.append(" ");
         }
         resultSb.append(NEW_LINE);
         // now append the data itself
-        for (String[] row : rows) {
+        for (int row = 0; row < nRows; row++) {
             for (int col = 0; col < nCols; col++) {
-                resultSb.append(row[col]);
-                for (int padIdx = 0; padIdx < headerSz[col] - row[col].length() + colPadding; padIdx++)
-                    resultSb.append(" ");
+                appendPadded(resultSb, getColumn(buffer, row, col, checkNullTermination), headerSz[col] + colPadding);
             }
             resultSb.append(NEW_LINE);
         }
@@ -161,6 +154,44 @@ public class Format {
         return resultSb.toString();
     }
 
+    /**
+     * Formats a buffered result set delimited by colDelimiter and rowDelimiter,
+     * see {@link #resultSetToDelimitedColsAndRows(ResultSet, boolean, String, String)}.
+     */
+    public static String resultBufferToDelimitedColsAndRows(ResultBuffer buffer, boolean checkNullTermination, String colDelimiter, String rowDelimiter) {
+        final StringBuilder delimitedResult = new StringBuilder();
+        final int nCols = buffer.getColumnCount();
+        for (int row = 0; row < buffer.getRowCount(); row++) {
+            if (row != 0) {
+                delimitedResult.append(rowDelimiter);
+            }
+            for (int col = 0; col < nCols; col++) {
+                if (col != 0) {
+                    delimitedResult.append(colDelimiter);
+                }
+                delimitedResult.append(getColumn(buffer, row, col, checkNullTermination));
+            }
+        }
+        return delimitedResult.toString();
+    }
+
+    private static String getColumn(ResultBuffer buffer, int row, int col, boolean checkNullTermination) {
+        final String value = buffer.getString(row, col);
+        if (value == null) {
+            return "null";
+        }
+        if (checkNullTermination) {
+            return processNullTerminatedString(value);
+        }
+        return value;
+    }
+
+    private static void appendPadded(StringBuilder sb, String value, int width) {
+        sb.append(value);
+        for (int padIdx = value.length(); padIdx < width; padIdx++)
+            sb.append(" ");
+    }
+
     /**
      * Returns tabular form of resultSet similar to what you would get from
      * running a query from the command line
@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads JSON lines, one JSON document per line.
+ * A line can be an array, whose values are taken by position, or an object, whose values are taken in the
+ * order of the given field names. JSON null values and missing object fields are returned as null.
+ */
+public class JsonLinesRowReader implements RowReader {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final List<String> fieldNames;
+    private long rowNumber;
+
+    public JsonLinesRowReader(@NotNull final Reader reader, @NotNull final List<String> fieldNames) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.fieldNames = fieldNames;
+    }
+
+    @Nullable
+    @Override
+    public List<String> nextRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+        rowNumber++;
+
+        final JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (IOException e) {
+            throw new IOException("Invalid JSON in row " + rowNumber + ": " + e.getMessage(), e);
+        }
+        final List<String> row = new ArrayList<>();
+        if (node.isArray()) {
+            final Iterator<JsonNode> values = node.elements();
+            while (values.hasNext()) {
+                row.add(toValue(values.next()));
+            }
+        } else if (node.isObject()) {
+            if (fieldNames.isEmpty()) {
+                throw new IOException("Row " + rowNumber + " is a JSON object, fieldNames must be given to map its fields.");
+            }
+            for (final String fieldName : fieldNames) {
+                row.add(toValue(node.get(fieldName)));
+            }
+        } else {
+            throw new IOException("Row " + rowNumber + " must be a JSON array or object.");
+        }
+        return row;
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    @Nullable
+    private static String toValue(@Nullable final JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+}
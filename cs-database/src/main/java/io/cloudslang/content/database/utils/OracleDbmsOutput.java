@@ -17,52 +17,104 @@
 
 package io.cloudslang.content.database.utils;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.sql.CallableStatement;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Types;
 
 /**
  * Created by victor on 13.01.2017.
  */
 public class OracleDbmsOutput {
 
-    private CallableStatement retrieveOutputStatement;
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CallableStatement retrieveOutputStatement;
+    private final int chunkSize;
 
     public OracleDbmsOutput(Connection conn) throws SQLException {
+        this(conn, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Prepares the retrieval of the DBMS_OUTPUT buffer, fetching up to chunkSize lines per round trip with
+     * dbms_output.get_lines. The lines of a chunk are joined server side into a temporary CLOB so no driver
+     * specific array binding is needed.
+     *
+     * @param conn      the connection the PL/SQL block was executed on
+     * @param chunkSize the maximum number of lines fetched per round trip; values lower than 1 use the default
+     */
+    public OracleDbmsOutput(Connection conn, int chunkSize) throws SQLException {
+        this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
         retrieveOutputStatement = conn.prepareCall(
                 "declare " +
-                        "    one_line varchar2(255); " +
-                        "    is_done number; " +
-                        "    the_buffer long; " +
+                        "    l_lines dbms_output.chararr; " +
+                        "    l_count integer := :chunk; " +
+                        "    l_buffer clob; " +
                         "begin " +
-                        "  loop " +
-                        "    exit when length(the_buffer)+255 > :maxbytes OR is_done = 1; " +
-                        "    dbms_output.get_line( one_line, is_done ); " +
-                        "    the_buffer := the_buffer || one_line || chr(10); " +
+                        "  dbms_lob.createtemporary(l_buffer, true, dbms_lob.call); " +
+                        "  dbms_output.get_lines(l_lines, l_count); " +
+                        "  for i in 1 .. l_count loop " +
+                        "    if l_lines(i) is not null then " +
+                        "      dbms_lob.writeappend(l_buffer, length(l_lines(i)), l_lines(i)); " +
+                        "    end if; " +
+                        "    dbms_lob.writeappend(l_buffer, 1, chr(10)); " +
                         "  end loop; " +
-                        " :done := is_done; " +
-                        " :buffer := the_buffer; " +
+                        " :count := l_count; " +
+                        " :buffer := l_buffer; " +
                         "end;");
     }
 
     public String getOutput() throws SQLException {
+        final StringWriter writer = new StringWriter();
+        try {
+            writeOutput(writer);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+        return writer.toString();
+    }
 
-        StringBuilder stringBuilder = new StringBuilder();
-
-
-        retrieveOutputStatement.registerOutParameter(2, java.sql.Types.INTEGER);
-        retrieveOutputStatement.registerOutParameter(3, java.sql.Types.VARCHAR);
-
-        int done = 0;
+    /**
+     * Drains the DBMS_OUTPUT buffer into the given writer one chunk at a time, so the whole output never has to be
+     * held in memory.
+     *
+     * @param writer the destination of the output lines
+     * @return the number of lines written
+     */
+    public long writeOutput(Writer writer) throws SQLException, IOException {
+        retrieveOutputStatement.registerOutParameter(2, Types.INTEGER);
+        retrieveOutputStatement.registerOutParameter(3, Types.CLOB);
 
-        while(done != 1) {
-            retrieveOutputStatement.setInt(1, 32000);
+        final char[] buffer = new char[BUFFER_SIZE];
+        long lines = 0;
+        int count;
+        do {
+            retrieveOutputStatement.setInt(1, chunkSize);
             retrieveOutputStatement.executeUpdate();
-            stringBuilder.append(retrieveOutputStatement.getString(3));
-            done = retrieveOutputStatement.getInt(2);
-        }
+            count = retrieveOutputStatement.getInt(2);
+            final Clob clob = retrieveOutputStatement.getClob(3);
+            if (clob != null) {
+                try (Reader reader = clob.getCharacterStream()) {
+                    int read;
+                    while ((read = reader.read(buffer)) != -1) {
+                        writer.write(buffer, 0, read);
+                    }
+                } finally {
+                    clob.free();
+                }
+            }
+            lines += count;
+        } while (count >= chunkSize);
 
-        return stringBuilder.toString();
+        return lines;
     }
 
     public void close() throws SQLException {
@@ -0,0 +1,311 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar in-memory copy of a result set, holding the text the driver returns for every cell in a compact form.
+ * Integer columns are kept in long arrays, date and time columns as the digits of their text in long arrays and
+ * all the other columns as dictionary codes, so repeated values are stored once.
+ * A value that can not be stored exactly by its column moves the column to the dictionary form, so
+ * {@link #getString(int, int)} always returns what {@link ResultSet#getString(int)} returned.
+ */
+public class ResultBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+    //a long holds up to 18 decimal digits
+    private static final int MAX_PACKED_DIGITS = 18;
+    private static final char DIGIT = '#';
+
+    private final String[] columnLabels;
+    private final Column[] columns;
+    private int rowCount;
+
+    private ResultBuffer(final String[] columnLabels, final Column[] columns) {
+        this.columnLabels = columnLabels;
+        this.columns = columns;
+    }
+
+    /**
+     * Reads all the remaining rows of the result set.
+     */
+    @NotNull
+    public static ResultBuffer read(@NotNull final ResultSet resultSet) throws SQLException {
+        final ResultSetMetaData md = resultSet.getMetaData();
+        final int nCols = md.getColumnCount();
+        final String[] columnLabels = new String[nCols];
+        final Column[] columns = new Column[nCols];
+        for (int col = 0; col < nCols; col++) {
+            columnLabels[col] = md.getColumnLabel(col + 1);
+            columns[col] = newColumn(md.getColumnType(col + 1));
+        }
+
+        final ResultBuffer buffer = new ResultBuffer(columnLabels, columns);
+        while (resultSet.next()) {
+            for (int col = 0; col < nCols; col++) {
+                columns[col] = columns[col].add(resultSet.getString(col + 1));
+            }
+            buffer.rowCount++;
+        }
+        for (final Column column : columns) {
+            column.seal();
+        }
+        return buffer;
+    }
+
+    private static Column newColumn(final int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return new LongColumn();
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return new DigitsColumn();
+            default:
+                return new StringColumn();
+        }
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param col 0-indexed column number
+     */
+    public String getColumnLabel(final int col) {
+        return columnLabels[col];
+    }
+
+    /**
+     * @param row 0-indexed row number
+     * @param col 0-indexed column number
+     * @return the value of the cell as returned by the driver, null for a SQL NULL
+     */
+    public String getString(final int row, final int col) {
+        return columns[col].get(row);
+    }
+
+    private abstract static class Column {
+        protected final BitSet nulls = new BitSet();
+        protected int size;
+
+        final Column add(final String value) {
+            ensureCapacity(size + 1);
+            if (value == null) {
+                nulls.set(size++);
+                return this;
+            }
+            if (store(size, value)) {
+                size++;
+                return this;
+            }
+            final StringColumn strings = new StringColumn();
+            for (int row = 0; row < size; row++) {
+                strings.add(get(row));
+            }
+            return strings.add(value);
+        }
+
+        final String get(final int row) {
+            return nulls.get(row) ? null : getValue(row);
+        }
+
+        protected static int grow(final int length, final int minCapacity) {
+            return Math.max(minCapacity, Math.max(INITIAL_CAPACITY, length * 2));
+        }
+
+        protected abstract void ensureCapacity(int capacity);
+
+        /**
+         * @return false if the value can not be stored exactly by this column
+         */
+        protected abstract boolean store(int row, String value);
+
+        protected abstract String getValue(int row);
+
+        /**
+         * Releases the memory that is only needed while rows are added.
+         */
+        protected abstract void seal();
+    }
+
+    private static class LongColumn extends Column {
+        private long[] values = new long[0];
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected boolean store(final int row, final String value) {
+            final long number;
+            try {
+                number = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            //rejects the text a number does not print back to, like leading zeros or a plus sign
+            if (!Long.toString(number).equals(value)) {
+                return false;
+            }
+            values[row] = number;
+            return true;
+        }
+
+        @Override
+        protected String getValue(final int row) {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        protected void seal() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Stores values sharing the same text shape, like 2017-01-13 10:20:30.0, as the number formed by their digits.
+     * The shape is taken from the first value, with its digits replaced by {@link #DIGIT}.
+     */
+    private static class DigitsColumn extends Column {
+        private char[] shape;
+        private long[] values = new long[0];
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected boolean store(final int row, final String value) {
+            if (shape == null) {
+                final char[] newShape = value.toCharArray();
+                int digits = 0;
+                for (int i = 0; i < newShape.length; i++) {
+                    if (newShape[i] == DIGIT) {
+                        return false;
+                    }
+                    if (newShape[i] >= '0' && newShape[i] <= '9') {
+                        newShape[i] = DIGIT;
+                        digits++;
+                    }
+                }
+                if (digits == 0 || digits > MAX_PACKED_DIGITS) {
+                    return false;
+                }
+                shape = newShape;
+            }
+            if (value.length() != shape.length) {
+                return false;
+            }
+            long number = 0;
+            for (int i = 0; i < shape.length; i++) {
+                final char c = value.charAt(i);
+                if (shape[i] == DIGIT) {
+                    if (c < '0' || c > '9') {
+                        return false;
+                    }
+                    number = number * 10 + (c - '0');
+                } else if (c != shape[i]) {
+                    return false;
+                }
+            }
+            values[row] = number;
+            return true;
+        }
+
+        @Override
+        protected String getValue(final int row) {
+            final char[] text = shape.clone();
+            long number = values[row];
+            for (int i = text.length - 1; i >= 0; i--) {
+                if (text[i] == DIGIT) {
+                    text[i] = (char) ('0' + number % 10);
+                    number /= 10;
+                }
+            }
+            return new String(text);
+        }
+
+        @Override
+        protected void seal() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static class StringColumn extends Column {
+        private final ArrayList<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> codes = new HashMap<>();
+        private int[] values = new int[0];
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected boolean store(final int row, final String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            values[row] = code;
+            return true;
+        }
+
+        @Override
+        protected String getValue(final int row) {
+            return dictionary.get(values[row]);
+        }
+
+        @Override
+        protected void seal() {
+            codes = null;
+            values = Arrays.copyOf(values, size);
+            dictionary.trimToSize();
+        }
+    }
+}
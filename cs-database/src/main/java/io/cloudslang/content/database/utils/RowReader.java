@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads the rows of a bulk load input file one at a time.
+ */
+public interface RowReader extends Closeable {
+
+    /**
+     * @return the values of the next row, a value is null if the field is null, or null if there are no more rows
+     * @throws IOException if the row can't be read or parsed
+     */
+    @Nullable
+    List<String> nextRow() throws IOException;
+
+    /**
+     * @return the 1 based number of the last row returned by {@link #nextRow()}
+     */
+    long getRowNumber();
+}
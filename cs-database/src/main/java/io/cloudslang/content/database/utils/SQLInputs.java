@@ -61,9 +61,13 @@ public class SQLInputs {
     private Integer resultSetType;
     private Integer resultSetConcurrency;
     private List<String> sqlCommands = new ArrayList<>();
+    private List<SQLParameter> queryParameters = new ArrayList<>();
+    private int dbmsOutputChunkSize;
+    private String dbmsOutputFile;
+    private int resultCacheTtl;
 
-    @java.beans.ConstructorProperties({"sqlCommand", "dbServer", "dbName", "dbPort", "dbType", "key", "username", "password", "authenticationType", "instance", "ignoreCase", "timeout", "dbUrl", "dbClass", "isNetcool", "lRowsFiles", "lRowsNames", "skip", "strDelim", "strColumns", "lRows", "iUpdateCount", "databasePoolingProperties", "trustStore", "trustStorePassword", "trustAllRoots", "authLibraryPath", "colDelimiter", "rowDelimiter", "resultSetType", "resultSetConcurrency", "sqlCommands"})
-    SQLInputs(String sqlCommand, String dbServer, String dbName, int dbPort, String dbType, String key, String username, String password, String authenticationType, String instance, boolean ignoreCase, int timeout, String dbUrl, String dbClass, boolean isNetcool, List<List<String>> lRowsFiles, List<List<String>> lRowsNames, long skip, String strDelim, String strColumns, List<String> lRows, int iUpdateCount, Properties databasePoolingProperties, String trustStore, String trustStorePassword, boolean trustAllRoots, String authLibraryPath, String colDelimiter, String rowDelimiter, Integer resultSetType, Integer resultSetConcurrency, List<String> sqlCommands) {
+    @java.beans.ConstructorProperties({"sqlCommand", "dbServer", "dbName", "dbPort", "dbType", "key", "username", "password", "authenticationType", "instance", "ignoreCase", "timeout", "dbUrl", "dbClass", "isNetcool", "lRowsFiles", "lRowsNames", "skip", "strDelim", "strColumns", "lRows", "iUpdateCount", "databasePoolingProperties", "trustStore", "trustStorePassword", "trustAllRoots", "authLibraryPath", "colDelimiter", "rowDelimiter", "resultSetType", "resultSetConcurrency", "sqlCommands", "queryParameters", "dbmsOutputChunkSize", "dbmsOutputFile", "resultCacheTtl"})
+    SQLInputs(String sqlCommand, String dbServer, String dbName, int dbPort, String dbType, String key, String username, String password, String authenticationType, String instance, boolean ignoreCase, int timeout, String dbUrl, String dbClass, boolean isNetcool, List<List<String>> lRowsFiles, List<List<String>> lRowsNames, long skip, String strDelim, String strColumns, List<String> lRows, int iUpdateCount, Properties databasePoolingProperties, String trustStore, String trustStorePassword, boolean trustAllRoots, String authLibraryPath, String colDelimiter, String rowDelimiter, Integer resultSetType, Integer resultSetConcurrency, List<String> sqlCommands, List<SQLParameter> queryParameters, int dbmsOutputChunkSize, String dbmsOutputFile, int resultCacheTtl) {
         this.sqlCommand = sqlCommand;
         this.dbServer = dbServer;
         this.dbName = dbName;
@@ -96,6 +100,10 @@ public class SQLInputs {
         this.resultSetType = resultSetType;
         this.resultSetConcurrency = resultSetConcurrency;
         this.sqlCommands = sqlCommands == null ? new ArrayList<String>() : sqlCommands;
+        this.queryParameters = queryParameters == null ? new ArrayList<SQLParameter>() : queryParameters;
+        this.dbmsOutputChunkSize = dbmsOutputChunkSize;
+        this.dbmsOutputFile = dbmsOutputFile;
+        this.resultCacheTtl = resultCacheTtl;
     }
 
     public static SQLInputsBuilder builder() {
@@ -354,6 +362,38 @@ public class SQLInputs {
         return this.sqlCommands;
     }
 
+    public List<SQLParameter> getQueryParameters() {
+        return this.queryParameters;
+    }
+
+    public void setQueryParameters(List<SQLParameter> queryParameters) {
+        this.queryParameters = queryParameters;
+    }
+
+    public int getDbmsOutputChunkSize() {
+        return this.dbmsOutputChunkSize;
+    }
+
+    public void setDbmsOutputChunkSize(int dbmsOutputChunkSize) {
+        this.dbmsOutputChunkSize = dbmsOutputChunkSize;
+    }
+
+    public String getDbmsOutputFile() {
+        return this.dbmsOutputFile;
+    }
+
+    public void setDbmsOutputFile(String dbmsOutputFile) {
+        this.dbmsOutputFile = dbmsOutputFile;
+    }
+
+    public int getResultCacheTtl() {
+        return this.resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(int resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
     public boolean equals(Object o) {
         if (o == this) return true;
         if (!(o instanceof SQLInputs)) return false;
@@ -455,6 +495,16 @@ public class SQLInputs {
         final Object other$sqlCommands = other.getSqlCommands();
         if (this$sqlCommands == null ? other$sqlCommands != null : !this$sqlCommands.equals(other$sqlCommands))
             return false;
+        final Object this$queryParameters = this.getQueryParameters();
+        final Object other$queryParameters = other.getQueryParameters();
+        if (this$queryParameters == null ? other$queryParameters != null : !this$queryParameters.equals(other$queryParameters))
+            return false;
+        if (this.getDbmsOutputChunkSize() != other.getDbmsOutputChunkSize()) return false;
+        final Object this$dbmsOutputFile = this.getDbmsOutputFile();
+        final Object other$dbmsOutputFile = other.getDbmsOutputFile();
+        if (this$dbmsOutputFile == null ? other$dbmsOutputFile != null : !this$dbmsOutputFile.equals(other$dbmsOutputFile))
+            return false;
+        if (this.getResultCacheTtl() != other.getResultCacheTtl()) return false;
         return true;
     }
 
@@ -518,6 +568,12 @@ public class SQLInputs {
         result = result * PRIME + ($resultSetConcurrency == null ? 43 : $resultSetConcurrency.hashCode());
         final Object $sqlCommands = this.getSqlCommands();
         result = result * PRIME + ($sqlCommands == null ? 43 : $sqlCommands.hashCode());
+        final Object $queryParameters = this.getQueryParameters();
+        result = result * PRIME + ($queryParameters == null ? 43 : $queryParameters.hashCode());
+        result = result * PRIME + this.getDbmsOutputChunkSize();
+        final Object $dbmsOutputFile = this.getDbmsOutputFile();
+        result = result * PRIME + ($dbmsOutputFile == null ? 43 : $dbmsOutputFile.hashCode());
+        result = result * PRIME + this.getResultCacheTtl();
         return result;
     }
 
@@ -526,7 +582,7 @@ public class SQLInputs {
     }
 
     public String toString() {
-        return "io.cloudslang.content.database.utils.SQLInputs(sqlCommand=" + this.getSqlCommand() + ", dbServer=" + this.getDbServer() + ", dbName=" + this.getDbName() + ", dbPort=" + this.getDbPort() + ", dbType=" + this.getDbType() + ", key=" + this.getKey() + ", username=" + this.getUsername() + ", password=" + this.getPassword() + ", authenticationType=" + this.getAuthenticationType() + ", instance=" + this.getInstance() + ", ignoreCase=" + this.isIgnoreCase() + ", timeout=" + this.getTimeout() + ", dbUrl=" + this.getDbUrl() + ", dbClass=" + this.getDbClass() + ", isNetcool=" + this.isNetcool() + ", lRowsFiles=" + this.getLRowsFiles() + ", lRowsNames=" + this.getLRowsNames() + ", skip=" + this.getSkip() + ", strDelim=" + this.getStrDelim() + ", strColumns=" + this.getStrColumns() + ", lRows=" + this.getLRows() + ", iUpdateCount=" + this.getIUpdateCount() + ", databasePoolingProperties=" + this.getDatabasePoolingProperties() + ", trustStore=" + this.getTrustStore() + ", trustStorePassword=" + this.getTrustStorePassword() + ", trustAllRoots=" + this.isTrustAllRoots() + ", authLibraryPath=" + this.getAuthLibraryPath() + ", colDelimiter=" + this.getColDelimiter() + ", rowDelimiter=" + this.getRowDelimiter() + ", resultSetType=" + this.getResultSetType() + ", resultSetConcurrency=" + this.getResultSetConcurrency() + ", sqlCommands=" + this.getSqlCommands() + ")";
+        return "io.cloudslang.content.database.utils.SQLInputs(sqlCommand=" + this.getSqlCommand() + ", dbServer=" + this.getDbServer() + ", dbName=" + this.getDbName() + ", dbPort=" + this.getDbPort() + ", dbType=" + this.getDbType() + ", key=" + this.getKey() + ", username=" + this.getUsername() + ", password=" + this.getPassword() + ", authenticationType=" + this.getAuthenticationType() + ", instance=" + this.getInstance() + ", ignoreCase=" + this.isIgnoreCase() + ", timeout=" + this.getTimeout() + ", dbUrl=" + this.getDbUrl() + ", dbClass=" + this.getDbClass() + ", isNetcool=" + this.isNetcool() + ", lRowsFiles=" + this.getLRowsFiles() + ", lRowsNames=" + this.getLRowsNames() + ", skip=" + this.getSkip() + ", strDelim=" + this.getStrDelim() + ", strColumns=" + this.getStrColumns() + ", lRows=" + this.getLRows() + ", iUpdateCount=" + this.getIUpdateCount() + ", databasePoolingProperties=" + this.getDatabasePoolingProperties() + ", trustStore=" + this.getTrustStore() + ", trustStorePassword=" + this.getTrustStorePassword() + ", trustAllRoots=" + this.isTrustAllRoots() + ", authLibraryPath=" + this.getAuthLibraryPath() + ", colDelimiter=" + this.getColDelimiter() + ", rowDelimiter=" + this.getRowDelimiter() + ", resultSetType=" + this.getResultSetType() + ", resultSetConcurrency=" + this.getResultSetConcurrency() + ", sqlCommands=" + this.getSqlCommands() + ", queryParameters=" + this.getQueryParameters() + ", dbmsOutputChunkSize=" + this.getDbmsOutputChunkSize() + ", dbmsOutputFile=" + this.getDbmsOutputFile() + ", resultCacheTtl=" + this.getResultCacheTtl() + ")";
     }
 
     public static class SQLInputsBuilder {
@@ -562,6 +618,10 @@ public class SQLInputs {
         private Integer resultSetType;
         private Integer resultSetConcurrency;
         private List<String> sqlCommands;
+        private List<SQLParameter> queryParameters;
+        private int dbmsOutputChunkSize;
+        private String dbmsOutputFile;
+        private int resultCacheTtl;
 
         SQLInputsBuilder() {
         }
@@ -697,12 +757,32 @@ public class SQLInputs {
             return this;
         }
 
+        public SQLInputs.SQLInputsBuilder queryParameters(List<SQLParameter> queryParameters) {
+            this.queryParameters = queryParameters;
+            return this;
+        }
+
+        public SQLInputs.SQLInputsBuilder dbmsOutputChunkSize(int dbmsOutputChunkSize) {
+            this.dbmsOutputChunkSize = dbmsOutputChunkSize;
+            return this;
+        }
+
+        public SQLInputs.SQLInputsBuilder dbmsOutputFile(String dbmsOutputFile) {
+            this.dbmsOutputFile = dbmsOutputFile;
+            return this;
+        }
+
+        public SQLInputs.SQLInputsBuilder resultCacheTtl(int resultCacheTtl) {
+            this.resultCacheTtl = resultCacheTtl;
+            return this;
+        }
+
         public SQLInputs build() {
-            return new SQLInputs(sqlCommand, dbServer, dbName, dbPort, dbType, key, username, password, authenticationType, instance, ignoreCase, timeout, dbUrl, dbClass, isNetcool, lRowsFiles, lRowsNames, skip, strDelim, strColumns, lRows, iUpdateCount, databasePoolingProperties, trustStore, trustStorePassword, trustAllRoots, authLibraryPath, colDelimiter, rowDelimiter, resultSetType, resultSetConcurrency, sqlCommands);
+            return new SQLInputs(sqlCommand, dbServer, dbName, dbPort, dbType, key, username, password, authenticationType, instance, ignoreCase, timeout, dbUrl, dbClass, isNetcool, lRowsFiles, lRowsNames, skip, strDelim, strColumns, lRows, iUpdateCount, databasePoolingProperties, trustStore, trustStorePassword, trustAllRoots, authLibraryPath, colDelimiter, rowDelimiter, resultSetType, resultSetConcurrency, sqlCommands, queryParameters, dbmsOutputChunkSize, dbmsOutputFile, resultCacheTtl);
         }
 
         public String toString() {
-            return "io.cloudslang.content.database.utils.SQLInputs.SQLInputsBuilder(sqlCommand=" + this.sqlCommand + ", dbServer=" + this.dbServer + ", dbName=" + this.dbName + ", dbPort=" + this.dbPort + ", dbType=" + this.dbType + ", key=" + this.key + ", username=" + this.username + ", password=" + this.password + ", authenticationType=" + this.authenticationType + ", instance=" + this.instance + ", ignoreCase=" + this.ignoreCase + ", timeout=" + this.timeout + ", dbUrl=" + this.dbUrl + ", dbClass=" + this.dbClass + ", isNetcool=" + this.isNetcool + ", lRowsFiles=" + this.lRowsFiles + ", lRowsNames=" + this.lRowsNames + ", skip=" + this.skip + ", strDelim=" + this.strDelim + ", strColumns=" + this.strColumns + ", lRows=" + this.lRows + ", iUpdateCount=" + this.iUpdateCount + ", databasePoolingProperties=" + this.databasePoolingProperties + ", trustStore=" + this.trustStore + ", trustStorePassword=" + this.trustStorePassword + ", trustAllRoots=" + this.trustAllRoots + ", authLibraryPath=" + this.authLibraryPath + ", colDelimiter=" + this.colDelimiter + ", rowDelimiter=" + this.rowDelimiter + ", resultSetType=" + this.resultSetType + ", resultSetConcurrency=" + this.resultSetConcurrency + ", sqlCommands=" + this.sqlCommands + ")";
+            return "io.cloudslang.content.database.utils.SQLInputs.SQLInputsBuilder(sqlCommand=" + this.sqlCommand + ", dbServer=" + this.dbServer + ", dbName=" + this.dbName + ", dbPort=" + this.dbPort + ", dbType=" + this.dbType + ", key=" + this.key + ", username=" + this.username + ", password=" + this.password + ", authenticationType=" + this.authenticationType + ", instance=" + this.instance + ", ignoreCase=" + this.ignoreCase + ", timeout=" + this.timeout + ", dbUrl=" + this.dbUrl + ", dbClass=" + this.dbClass + ", isNetcool=" + this.isNetcool + ", lRowsFiles=" + this.lRowsFiles + ", lRowsNames=" + this.lRowsNames + ", skip=" + this.skip + ", strDelim=" + this.strDelim + ", strColumns=" + this.strColumns + ", lRows=" + this.lRows + ", iUpdateCount=" + this.iUpdateCount + ", databasePoolingProperties=" + this.databasePoolingProperties + ", trustStore=" + this.trustStore + ", trustStorePassword=" + this.trustStorePassword + ", trustAllRoots=" + this.trustAllRoots + ", authLibraryPath=" + this.authLibraryPath + ", colDelimiter=" + this.colDelimiter + ", rowDelimiter=" + this.rowDelimiter + ", resultSetType=" + this.resultSetType + ", resultSetConcurrency=" + this.resultSetConcurrency + ", sqlCommands=" + this.sqlCommands + ", queryParameters=" + this.queryParameters + ", dbmsOutputChunkSize=" + this.dbmsOutputChunkSize + ", dbmsOutputFile=" + this.dbmsOutputFile + ", resultCacheTtl=" + this.resultCacheTtl + ")";
         }
     }
 }
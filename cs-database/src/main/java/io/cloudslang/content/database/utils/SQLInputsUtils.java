@@ -29,6 +29,7 @@ import java.io.StringReader;
 import java.sql.ResultSet;
 import java.util.*;
 
+import static io.cloudslang.content.constants.OtherValues.COMMA_DELIMITER;
 import static io.cloudslang.content.database.constants.DBExceptionValues.INVALID_DB_TYPE;
 import static io.cloudslang.content.database.constants.DBOtherValues.*;
 import static io.cloudslang.content.database.utils.SQLInputsValidator.isValidDbType;
@@ -99,6 +100,97 @@ public class SQLInputsUtils {
         return Collections.emptyList();
     }
 
+    /**
+     * @param queryParameters the typed query parameters, each in the type:value format
+     * @param delimiter       the delimiter between the parameters
+     * @return the parsed parameters in the order of their placeholders
+     * @throws IllegalArgumentException if a parameter is not valid
+     */
+    @NotNull
+    public static List<SQLParameter> getQueryParameters(final String queryParameters, final String delimiter) {
+        final List<SQLParameter> parameters = new ArrayList<>();
+        if (isEmpty(queryParameters)) {
+            return parameters;
+        }
+        for (final String parameter : splitByWholeSeparatorPreserveAllTokens(queryParameters, delimiter)) {
+            parameters.add(SQLParameter.parse(parameter));
+        }
+        return parameters;
+    }
+
+    /**
+     * @param columns the comma separated column types or names
+     * @return the trimmed values, empty if no columns are given
+     */
+    @NotNull
+    public static List<String> getColumnList(final String columns) {
+        final List<String> columnList = new ArrayList<>();
+        if (isBlank(columns)) {
+            return columnList;
+        }
+        for (final String column : columns.split(COMMA_DELIMITER)) {
+            columnList.add(column.trim());
+        }
+        return columnList;
+    }
+
+    /**
+     * @param endpoints the delimited endpoints, each one a host, a host:port or a JDBC url
+     * @param delimiter the delimiter between the endpoints
+     * @return the trimmed endpoints, without the empty ones
+     */
+    @NotNull
+    public static List<String> getEndpoints(final String endpoints, final String delimiter) {
+        final List<String> endpointList = new ArrayList<>();
+        if (isBlank(endpoints) || isEmpty(delimiter)) {
+            return endpointList;
+        }
+        for (final String endpoint : splitByWholeSeparator(endpoints, delimiter)) {
+            if (isNotBlank(endpoint)) {
+                endpointList.add(endpoint.trim());
+            }
+        }
+        return endpointList;
+    }
+
+    public static boolean isJdbcUrl(@NotNull final String endpoint) {
+        return endpoint.toLowerCase().startsWith(JDBC_URL_PREFIX);
+    }
+
+    /**
+     * @param endpoint a host or host:port endpoint, IPv6 hosts with a port are enclosed in square brackets
+     * @return the host of the endpoint
+     */
+    @NotNull
+    public static String getEndpointHost(@NotNull final String endpoint) {
+        final int portSeparator = getEndpointPortSeparator(endpoint);
+        final String host = portSeparator < 0 ? endpoint : endpoint.substring(0, portSeparator);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            return host.substring(1, host.length() - 1);
+        }
+        return host;
+    }
+
+    /**
+     * @param endpoint    a host or host:port endpoint
+     * @param defaultPort the port of the endpoints without one
+     * @return the port of the endpoint
+     */
+    public static int getEndpointPort(@NotNull final String endpoint, final int defaultPort) {
+        final int portSeparator = getEndpointPortSeparator(endpoint);
+        return portSeparator < 0 ? defaultPort : Integer.parseInt(endpoint.substring(portSeparator + 1));
+    }
+
+    private static int getEndpointPortSeparator(@NotNull final String endpoint) {
+        final int portSeparator = endpoint.lastIndexOf(':');
+        //a bare IPv6 address has more than one colon and no port
+        if (portSeparator < 0 || (endpoint.indexOf(':') != portSeparator && !endpoint.startsWith("["))
+                || !isNumeric(endpoint.substring(portSeparator + 1))) {
+            return -1;
+        }
+        return portSeparator;
+    }
+
     @NotNull
     public static List<String> getDbUrls(final String dbUrl) {
         final List<String> dbUrls = new ArrayList<>();
@@ -170,14 +262,16 @@ public class SQLInputsUtils {
 
     @NotNull
     public static String getSqlKey(@NotNull final SQLInputs sqlInputs) {
+        //the same prepared query with other parameter values has another result
+        final String parameters = SQLParameter.toKey(sqlInputs.getQueryParameters());
         if (sqlInputs.isIgnoreCase()) {
             return SQLUtils.computeSessionId(sqlInputs.getDbServer().toLowerCase() + sqlInputs.getDbType().toLowerCase() +
                     sqlInputs.getUsername() + sqlInputs.getPassword() + sqlInputs.getInstance() + sqlInputs.getDbPort() + sqlInputs.getDbName() +
-                    sqlInputs.getAuthenticationType().toLowerCase() + sqlInputs.getSqlCommand().toLowerCase() + sqlInputs.getKey());
+                    sqlInputs.getAuthenticationType().toLowerCase() + sqlInputs.getSqlCommand().toLowerCase() + parameters + sqlInputs.getKey());
         }
         return SQLUtils.computeSessionId(sqlInputs.getDbServer() + sqlInputs.getDbType() +
                 sqlInputs.getUsername() + sqlInputs.getPassword() + sqlInputs.getInstance() + sqlInputs.getDbPort() + sqlInputs.getDbName() +
-                sqlInputs.getAuthenticationType() + sqlInputs.getSqlCommand() + sqlInputs.getKey());
+                sqlInputs.getAuthenticationType() + sqlInputs.getSqlCommand() + parameters + sqlInputs.getKey());
     }
 
 
@@ -36,6 +36,7 @@ import static io.cloudslang.content.utils.NumberUtilities.isValidInt;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.isNoneEmpty;
+import static org.apache.commons.lang3.StringUtils.splitByWholeSeparatorPreserveAllTokens;
 
 /**
  * Created by victor on 1/23/17.
@@ -66,6 +67,55 @@ public class SQLInputsValidator {
         return validationList;
     }
 
+    public static List<String> validateSqlQueryCursorInputs(String useCursor, String fetchSize, String cursorIdleTimeout) {
+        final List<String> validationList = new ArrayList<>();
+        if (!BooleanUtilities.isValid(useCursor)) {
+            validationList.add(INVALID_USE_CURSOR);
+        }
+        if (!isValidInt(fetchSize) || NumberUtilities.toInteger(fetchSize) < 0) {
+            validationList.add(INVALID_FETCH_SIZE);
+        }
+        if (!isValidInt(cursorIdleTimeout) || NumberUtilities.toInteger(cursorIdleTimeout) <= 0) {
+            validationList.add(INVALID_CURSOR_IDLE_TIMEOUT);
+        }
+        return validationList;
+    }
+
+    public static List<String> validateQueryParameters(String queryParameters, String delimiter) {
+        final List<String> validationList = new ArrayList<>();
+        if (isEmpty(queryParameters)) {
+            return validationList;
+        }
+        if (isEmpty(delimiter)) {
+            validationList.add(INVALID_QUERY_PARAMETERS_DELIMITER);
+            return validationList;
+        }
+        for (final String parameter : splitByWholeSeparatorPreserveAllTokens(queryParameters, delimiter)) {
+            try {
+                SQLParameter.parse(parameter);
+            } catch (IllegalArgumentException e) {
+                validationList.add(e.getMessage());
+            }
+        }
+        return validationList;
+    }
+
+    public static List<String> validateDbmsOutputChunkSize(String dbmsOutputChunkSize) {
+        final List<String> validationList = new ArrayList<>();
+        if (!isValidInt(dbmsOutputChunkSize) || NumberUtilities.toInteger(dbmsOutputChunkSize) < 1) {
+            validationList.add(INVALID_DBMS_OUTPUT_CHUNK_SIZE);
+        }
+        return validationList;
+    }
+
+    public static List<String> validateCacheTtl(String cacheTtl) {
+        final List<String> validationList = new ArrayList<>();
+        if (!isValidInt(cacheTtl) || NumberUtilities.toInteger(cacheTtl) < 0) {
+            validationList.add(INVALID_CACHE_TTL);
+        }
+        return validationList;
+    }
+
     public static List<String> validateSqlQueryAllRowsInputs(String dbServerName, String dbType, String username, String password,
                                                              String instance, String dbPort, String database, String authenticationType, String command,
                                                              String trustAllRoots, String trustStore, String trustStorePassword,
@@ -106,6 +156,93 @@ public class SQLInputsValidator {
         return validationList;
     }
 
+    public static List<String> validateSqlBulkLoadInputs(String dbServerName, String dbType, String username, String password,
+                                                         String instance, String dbPort, String database, String authenticationType, String command,
+                                                         String fileName, String fileFormat, String columnTypes, String csvDelimiter, String hasHeader,
+                                                         String batchSize, String commitInterval, String threads,
+                                                         String trustAllRoots, String trustStore, String trustStorePassword,
+                                                         String timeout, String authLibraryPath) {
+        final List<String> validationList = validateCommonSqlInputs(dbServerName, dbType, username, password, instance, dbPort, database, authenticationType,
+                trustAllRoots, trustStore, trustStorePassword, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, authLibraryPath);
+        validateNoneEmpty(command, INVALID_COMMAND, validationList);
+        validateFileInputs(fileName, fileFormat, csvDelimiter, hasHeader, validationList);
+        for (final String columnType : getColumnList(columnTypes)) {
+            if (!SQLParameter.isValidType(columnType)) {
+                validationList.add(String.format(INVALID_COLUMN_TYPE, columnType));
+            }
+        }
+        if (!isValidInt(batchSize) || NumberUtilities.toInteger(batchSize) <= 0) {
+            validationList.add(INVALID_BATCH_SIZE);
+        }
+        if (!isValidInt(commitInterval) || NumberUtilities.toInteger(commitInterval) < 0) {
+            validationList.add(INVALID_COMMIT_INTERVAL);
+        }
+        if (!isValidInt(threads) || NumberUtilities.toInteger(threads) <= 0) {
+            validationList.add(INVALID_THREADS);
+        }
+        validateTimeout(timeout, validationList);
+        return validationList;
+    }
+
+    public static List<String> validateSqlQueryExportInputs(String dbServerName, String dbType, String username, String password,
+                                                            String instance, String dbPort, String database, String authenticationType, String command,
+                                                            String fileName, String fileFormat, String csvDelimiter, String hasHeader, String gzip, String fetchSize,
+                                                            String trustAllRoots, String trustStore, String trustStorePassword,
+                                                            String timeout, String authLibraryPath) {
+        final List<String> validationList = validateCommonSqlInputs(dbServerName, dbType, username, password, instance, dbPort, database, authenticationType,
+                trustAllRoots, trustStore, trustStorePassword, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, authLibraryPath);
+        validateNoneEmpty(command, INVALID_COMMAND, validationList);
+        validateFileInputs(fileName, fileFormat, csvDelimiter, hasHeader, validationList);
+        if (!BooleanUtilities.isValid(gzip)) {
+            validationList.add(INVALID_GZIP);
+        }
+        if (!isValidInt(fetchSize) || NumberUtilities.toInteger(fetchSize) < 0) {
+            validationList.add(INVALID_FETCH_SIZE);
+        }
+        validateTimeout(timeout, validationList);
+        return validationList;
+    }
+
+    public static List<String> validateSqlQueryLobExportInputs(String dbServerName, String dbType, String username, String password,
+                                                               String instance, String dbPort, String database, String authenticationType, String command,
+                                                               String directory, String spillThreshold, String fetchSize,
+                                                               String trustAllRoots, String trustStore, String trustStorePassword,
+                                                               String timeout, String authLibraryPath) {
+        final List<String> validationList = validateCommonSqlInputs(dbServerName, dbType, username, password, instance, dbPort, database, authenticationType,
+                trustAllRoots, trustStore, trustStorePassword, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, authLibraryPath);
+        validateNoneEmpty(command, INVALID_COMMAND, validationList);
+        validateNoneEmpty(directory, INVALID_DIRECTORY, validationList);
+        if (!isValidInt(spillThreshold) || NumberUtilities.toInteger(spillThreshold) < 0) {
+            validationList.add(INVALID_SPILL_THRESHOLD);
+        }
+        if (!isValidInt(fetchSize) || NumberUtilities.toInteger(fetchSize) < 0) {
+            validationList.add(INVALID_FETCH_SIZE);
+        }
+        validateTimeout(timeout, validationList);
+        return validationList;
+    }
+
+    public static List<String> validateSqlQueryFanOutInputs(String endpoints, String endpointsDelimiter, String dbType, String username, String password,
+                                                            String instance, String dbPort, String database, String authenticationType, String command,
+                                                            String threads, String targetTimeout, String trustAllRoots, String trustStore, String trustStorePassword,
+                                                            String authLibraryPath) {
+        final List<String> validationList = validateCommonSqlInputs(endpoints, dbType, username, password, instance, dbPort, database, authenticationType,
+                trustAllRoots, trustStore, trustStorePassword, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, authLibraryPath);
+        //the endpoints take the place of dbServerName
+        validationList.remove(INVALID_DB_SERVER_NAME);
+        if (getEndpoints(endpoints, endpointsDelimiter).isEmpty()) {
+            validationList.add(INVALID_ENDPOINTS);
+        }
+        validateNoneEmpty(command, INVALID_COMMAND, validationList);
+        if (!isValidInt(threads) || NumberUtilities.toInteger(threads) <= 0) {
+            validationList.add(INVALID_THREADS);
+        }
+        if (!isValidInt(targetTimeout) || NumberUtilities.toInteger(targetTimeout) <= 0) {
+            validationList.add(INVALID_TARGET_TIMEOUT);
+        }
+        return validationList;
+    }
+
     private static List<String> validateCommonSqlInputs(String dbServerName, String dbType, String username, String password, String instance, String dbPort, String database, String authenticationType,
                                                         String trustAllRoots, String trustStore, String trustStorePassword,
                                                         String resultSetType, String resultSetConcurrency, String authLibraryPath) {
@@ -162,6 +299,20 @@ public class SQLInputsValidator {
         }
     }
 
+    private static void validateFileInputs(final String fileName, final String fileFormat, final String csvDelimiter, final String hasHeader,
+                                           final List<String> validationList) {
+        validateNoneEmpty(fileName, INVALID_FILE_NAME, validationList);
+        if (!CSV_FORMAT.equalsIgnoreCase(fileFormat) && !JSON_LINES_FORMAT.equalsIgnoreCase(fileFormat)) {
+            validationList.add(INVALID_FILE_FORMAT);
+        }
+        if (csvDelimiter == null || csvDelimiter.length() != 1) {
+            validationList.add(INVALID_CSV_DELIMITER);
+        }
+        if (!BooleanUtilities.isValid(hasHeader)) {
+            validationList.add(INVALID_HAS_HEADER);
+        }
+    }
+
     private static void validateTimeout(final String timeout, final List<String> validationList) {
         if (!NumberUtilities.isValidInt(timeout)) {
             validationList.add(INVALID_TIMEOUT);
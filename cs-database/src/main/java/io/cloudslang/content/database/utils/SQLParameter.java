@@ -0,0 +1,249 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.cloudslang.content.database.constants.DBExceptionValues.INVALID_QUERY_PARAMETER;
+
+/**
+ * A typed bind parameter of a prepared query, parsed from the type:value format.
+ * The "null" type binds SQL NULL and takes an optional type for the null value, e.g. "null:int".
+ */
+public class SQLParameter {
+
+    private static final String TYPE_SEPARATOR = ":";
+    private static final String NULL_TYPE = "null";
+    private static final Map<String, Integer> SQL_TYPES = createSqlTypes();
+
+    private final int sqlType;
+    private final Object value;
+
+    SQLParameter(final int sqlType, @Nullable final Object value) {
+        this.sqlType = sqlType;
+        this.value = value;
+    }
+
+    /**
+     * @param parameter a parameter in the type:value format
+     * @return the parsed parameter
+     * @throws IllegalArgumentException if the type is unknown or the value does not match the type
+     */
+    @NotNull
+    public static SQLParameter parse(@NotNull final String parameter) {
+        final int separator = parameter.indexOf(TYPE_SEPARATOR);
+        final String typeName = (separator < 0 ? parameter : parameter.substring(0, separator)).trim().toLowerCase();
+        final String valueStr = separator < 0 ? null : parameter.substring(separator + 1);
+
+        if (NULL_TYPE.equals(typeName)) {
+            if (valueStr == null) {
+                return new SQLParameter(Types.VARCHAR, null);
+            }
+            final Integer nullType = SQL_TYPES.get(valueStr.trim().toLowerCase());
+            if (nullType == null) {
+                throw new IllegalArgumentException(String.format(INVALID_QUERY_PARAMETER, parameter));
+            }
+            return new SQLParameter(nullType, null);
+        }
+
+        final Integer sqlType = SQL_TYPES.get(typeName);
+        if (sqlType == null || valueStr == null) {
+            throw new IllegalArgumentException(String.format(INVALID_QUERY_PARAMETER, parameter));
+        }
+        try {
+            return new SQLParameter(sqlType, toValue(sqlType, valueStr));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(INVALID_QUERY_PARAMETER, parameter), e);
+        }
+    }
+
+    /**
+     * @param typeName the name of one of the parameter types
+     * @param value    the value to convert, null or blank values of non string types bind SQL NULL
+     * @return the converted parameter
+     * @throws IllegalArgumentException if the type is unknown or the value does not match the type
+     */
+    @NotNull
+    public static SQLParameter valueOf(@NotNull final String typeName, @Nullable final String value) {
+        final Integer sqlType = SQL_TYPES.get(typeName.trim().toLowerCase());
+        if (sqlType == null) {
+            throw new IllegalArgumentException(String.format(INVALID_QUERY_PARAMETER, typeName + TYPE_SEPARATOR + value));
+        }
+        if (value == null || (sqlType != Types.VARCHAR && value.trim().isEmpty())) {
+            return new SQLParameter(sqlType, null);
+        }
+        return new SQLParameter(sqlType, toValue(sqlType, value));
+    }
+
+    /**
+     * @param typeName the type name to check
+     * @return true if the type name is one of the parameter types
+     */
+    public static boolean isValidType(@Nullable final String typeName) {
+        return typeName != null && SQL_TYPES.containsKey(typeName.trim().toLowerCase());
+    }
+
+    /**
+     * Binds this parameter to the given position of the statement.
+     *
+     * @param statement the prepared statement
+     * @param index     the 1 based position of the parameter
+     */
+    public void bind(@NotNull final PreparedStatement statement, final int index) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+            return;
+        }
+        switch (sqlType) {
+            case Types.INTEGER:
+                statement.setInt(index, (Integer) value);
+                break;
+            case Types.BIGINT:
+                statement.setLong(index, (Long) value);
+                break;
+            case Types.DOUBLE:
+                statement.setDouble(index, (Double) value);
+                break;
+            case Types.DECIMAL:
+                statement.setBigDecimal(index, (BigDecimal) value);
+                break;
+            case Types.BOOLEAN:
+                statement.setBoolean(index, (Boolean) value);
+                break;
+            case Types.DATE:
+                statement.setDate(index, (Date) value);
+                break;
+            case Types.TIME:
+                statement.setTime(index, (Time) value);
+                break;
+            case Types.TIMESTAMP:
+                statement.setTimestamp(index, (Timestamp) value);
+                break;
+            default:
+                statement.setString(index, (String) value);
+                break;
+        }
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    @Nullable
+    public Object getValue() {
+        return value;
+    }
+
+    private static Object toValue(final int sqlType, final String valueStr) {
+        switch (sqlType) {
+            case Types.INTEGER:
+                return Integer.valueOf(valueStr.trim());
+            case Types.BIGINT:
+                return Long.valueOf(valueStr.trim());
+            case Types.DOUBLE:
+                return Double.valueOf(valueStr.trim());
+            case Types.DECIMAL:
+                return new BigDecimal(valueStr.trim());
+            case Types.BOOLEAN:
+                if (!"true".equalsIgnoreCase(valueStr.trim()) && !"false".equalsIgnoreCase(valueStr.trim())) {
+                    throw new IllegalArgumentException(valueStr);
+                }
+                return Boolean.valueOf(valueStr.trim());
+            case Types.DATE:
+                //yyyy-[m]m-[d]d
+                return Date.valueOf(valueStr.trim());
+            case Types.TIME:
+                //hh:mm:ss
+                return Time.valueOf(valueStr.trim());
+            case Types.TIMESTAMP:
+                //yyyy-[m]m-[d]d hh:mm:ss[.f...]
+                return Timestamp.valueOf(valueStr.trim());
+            default:
+                return valueStr;
+        }
+    }
+
+    @NotNull
+    private static Map<String, Integer> createSqlTypes() {
+        final Map<String, Integer> sqlTypes = new HashMap<>();
+        sqlTypes.put("string", Types.VARCHAR);
+        sqlTypes.put("int", Types.INTEGER);
+        sqlTypes.put("long", Types.BIGINT);
+        sqlTypes.put("double", Types.DOUBLE);
+        sqlTypes.put("decimal", Types.DECIMAL);
+        sqlTypes.put("boolean", Types.BOOLEAN);
+        sqlTypes.put("date", Types.DATE);
+        sqlTypes.put("time", Types.TIME);
+        sqlTypes.put("timestamp", Types.TIMESTAMP);
+        return sqlTypes;
+    }
+
+    /**
+     * Writes the parameters as part of a cache or session key. Every value is prefixed with its length, and a null value
+     * with -1, so a value holding separators can't be read as several parameters and different lists give different keys.
+     */
+    @NotNull
+    public static String toKey(@NotNull final List<SQLParameter> parameters) {
+        final StringBuilder key = new StringBuilder();
+        for (final SQLParameter parameter : parameters) {
+            key.append(parameter.sqlType).append(TYPE_SEPARATOR);
+            if (parameter.value == null) {
+                key.append(-1);
+            } else {
+                final String value = parameter.value.toString();
+                key.append(value.length()).append(TYPE_SEPARATOR).append(value);
+            }
+            key.append(';');
+        }
+        return key.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SQLParameter)) {
+            return false;
+        }
+        final SQLParameter other = (SQLParameter) o;
+        return sqlType == other.sqlType && (value == null ? other.value == null : value.equals(other.value));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * sqlType + (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return sqlType + TYPE_SEPARATOR + value;
+    }
+}
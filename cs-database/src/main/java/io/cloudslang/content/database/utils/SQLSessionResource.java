@@ -19,6 +19,8 @@ package io.cloudslang.content.database.utils;
 
 import com.hp.oo.sdk.content.plugin.SessionResource;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -39,6 +41,17 @@ public class SQLSessionResource extends SessionResource<Map<String, Object>> {
 
     @Override
     public void release() {
+        if (sqlConnectionMap != null) {
+            //open query cursors hold a database connection
+            for (final Object value : sqlConnectionMap.values()) {
+                if (value instanceof Closeable) {
+                    try {
+                        ((Closeable) value).close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
         sqlConnectionMap = null;
     }
 }
@@ -24,7 +24,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -47,6 +51,107 @@ public class SQLUtils {
         }
     }
 
+    /**
+     * Creates the statement that runs the command of the inputs. A command with query parameters is prepared and the
+     * parameters are bound, so the database reuses its execution plan and a pooled connection reuses the statement.
+     *
+     * @return a PreparedStatement if the inputs have query parameters, a plain Statement otherwise
+     */
+    @NotNull
+    public static Statement createStatement(@NotNull final Connection connection, @NotNull final SQLInputs sqlInputs,
+                                            final int resultSetType, final int resultSetConcurrency) throws SQLException {
+        final List<SQLParameter> queryParameters = sqlInputs.getQueryParameters();
+        if (queryParameters.isEmpty()) {
+            return connection.createStatement(resultSetType, resultSetConcurrency);
+        }
+        final PreparedStatement preparedStatement = connection.prepareStatement(sqlInputs.getSqlCommand(), resultSetType, resultSetConcurrency);
+        try {
+            bindParameters(preparedStatement, queryParameters);
+        } catch (SQLException e) {
+            preparedStatement.close();
+            throw e;
+        }
+        return preparedStatement;
+    }
+
+    public static void bindParameters(@NotNull final PreparedStatement preparedStatement, @NotNull final List<SQLParameter> queryParameters) throws SQLException {
+        for (int i = 0; i < queryParameters.size(); i++) {
+            queryParameters.get(i).bind(preparedStatement, i + 1);
+        }
+    }
+
+    /**
+     * Runs a query on a statement created by {@link #createStatement(Connection, SQLInputs, int, int)}.
+     */
+    public static ResultSet executeQuery(@NotNull final Statement statement, final String sqlCommand) throws SQLException {
+        if (statement instanceof PreparedStatement) {
+            return ((PreparedStatement) statement).executeQuery();
+        }
+        return statement.executeQuery(sqlCommand);
+    }
+
+    /**
+     * Runs a command on a statement created by {@link #createStatement(Connection, SQLInputs, int, int)}.
+     */
+    public static boolean execute(@NotNull final Statement statement, final String sqlCommand) throws SQLException {
+        if (statement instanceof PreparedStatement) {
+            return ((PreparedStatement) statement).execute();
+        }
+        return statement.execute(sqlCommand);
+    }
+
+    /**
+     * Prepares a connection to read a query forward only. The connection is made read only and autocommit is
+     * turned off, because some drivers (e.g. PostgreSQL) only fetch incrementally, and keep LOBs readable, inside
+     * a transaction. The read is ended with {@link #endForwardOnlyRead(Connection, boolean)}.
+     *
+     * @return whether autocommit was on and has to be restored
+     */
+    public static boolean beginForwardOnlyRead(@NotNull final Connection connection) throws SQLException {
+        connection.setReadOnly(true);
+        if (connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs the command of the inputs on a forward only, read only statement. The statement is closed if the query
+     * fails, otherwise it is closed by the caller through {@link ResultSet#getStatement()}.
+     *
+     * @param fetchSize the number of rows the driver fetches per round trip, 0 to use the driver default
+     */
+    @NotNull
+    public static ResultSet executeForwardOnlyQuery(@NotNull final Connection connection, @NotNull final SQLInputs sqlInputs,
+                                                    final int fetchSize) throws SQLException {
+        final Statement statement = createStatement(connection, sqlInputs, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setQueryTimeout(sqlInputs.getTimeout());
+            statement.setFetchSize(fetchSize);
+            final ResultSet resultSet = executeQuery(statement, sqlInputs.getSqlCommand());
+            resultSet.setFetchSize(fetchSize);
+            return resultSet;
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ends a read begun by {@link #beginForwardOnlyRead(Connection)}: the transaction is rolled back and autocommit
+     * is restored. Errors are ignored so they don't hide the error of the read.
+     */
+    public static void endForwardOnlyRead(@NotNull final Connection connection, final boolean restoreAutoCommit) {
+        try {
+            connection.rollback();
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ignored) {
+        }
+    }
+
     public static String processNullTerminatedString(final String value) {
         if (isEmpty(value)) {
             return "null";
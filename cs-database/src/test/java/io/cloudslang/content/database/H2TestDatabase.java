@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database;
+
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.jetbrains.annotations.NotNull;
+import org.junit.rules.ExternalResource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static io.cloudslang.content.database.constants.DBOtherValues.CUSTOM_DB_TYPE;
+
+/**
+ * An in-memory H2 database for the tests that run queries through the services. Used as a class rule, it runs its
+ * set up statements before the tests, keeps a connection open so the database lives while they run, and drops
+ * everything created in it afterwards.
+ */
+public class H2TestDatabase extends ExternalResource {
+
+    public static final String DRIVER = "org.h2.Driver";
+    public static final String USERNAME = "sa";
+    public static final String PASSWORD = "test";
+
+    private final String url;
+    private final String[] setUpStatements;
+    private Connection connection;
+
+    /**
+     * @param name            the name of the in-memory database
+     * @param setUpStatements the statements creating and filling its tables
+     */
+    public H2TestDatabase(@NotNull final String name, final String... setUpStatements) {
+        this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        this.setUpStatements = setUpStatements;
+    }
+
+    @Override
+    protected void before() throws Exception {
+        Class.forName(DRIVER);
+        connection = DriverManager.getConnection(url, USERNAME, PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            for (String setUpStatement : setUpStatements) {
+                statement.execute(setUpStatement);
+            }
+        }
+    }
+
+    @Override
+    protected void after() {
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            } finally {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the connection kept open by the rule, to set up or check the tables
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * @return a builder of the inputs running the command on this database
+     */
+    public SQLInputs.SQLInputsBuilder getSqlInputs(final String command) {
+        return SQLInputs.builder()
+                .dbType(CUSTOM_DB_TYPE)
+                .dbClass(DRIVER)
+                .dbUrl(url)
+                .username(USERNAME)
+                .password(PASSWORD)
+                .sqlCommand(command)
+                .timeout(0);
+    }
+}
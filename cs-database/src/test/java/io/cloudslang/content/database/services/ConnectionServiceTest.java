@@ -37,6 +37,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
@@ -45,6 +46,10 @@ import static junit.framework.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 /**
@@ -157,6 +162,71 @@ public class ConnectionServiceTest {
         connectionServiceSpy.setUpConnection(sqlInputs);
     }
 
+    @Test
+    public void testSetUpConnectionRemembersWorkingUrl() throws Exception {
+        final String deadUrl = "jdbc:h2:tcp://dead/~/remember";
+        final String aliveUrl = "jdbc:h2:tcp://alive/~/remember";
+        sqlInputs.setDbType(CUSTOM_DB_TYPE);
+        sqlInputs.setDatabasePoolingProperties(new Properties());
+        doReturn(Arrays.asList(deadUrl, aliveUrl)).when(connectionServiceSpy).getConnectionUrls(sqlInputs);
+        when(dbConnectionManagerMock.getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(deadUrl), any(String.class), any(String.class), any(Properties.class)))
+                .thenThrow(new SQLException("Connection refused"));
+
+        assertEquals(connectionMock, connectionServiceSpy.setUpConnection(sqlInputs));
+        assertEquals(aliveUrl, sqlInputs.getDbUrl());
+        assertEquals(connectionMock, connectionServiceSpy.setUpConnection(sqlInputs));
+
+        verify(dbConnectionManagerMock, times(1)).getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(deadUrl), any(String.class), any(String.class), any(Properties.class));
+        verify(dbConnectionManagerMock, times(2)).getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(aliveUrl), any(String.class), any(String.class), any(Properties.class));
+    }
+
+    @Test
+    public void testSetUpConnectionRaceConnect() throws Exception {
+        final String deadUrl = "jdbc:h2:tcp://dead/~/race";
+        final String aliveUrl = "jdbc:h2:tcp://alive/~/race";
+        final Properties properties = new Properties();
+        properties.setProperty("db.url.race.connect", "true");
+        sqlInputs.setDbType(CUSTOM_DB_TYPE);
+        sqlInputs.setDatabasePoolingProperties(properties);
+        doReturn(Arrays.asList(deadUrl, aliveUrl)).when(connectionServiceSpy).getConnectionUrls(sqlInputs);
+        when(dbConnectionManagerMock.getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(deadUrl), any(String.class), any(String.class), any(Properties.class)))
+                .thenThrow(new SQLException("Connection refused"));
+
+        assertEquals(connectionMock, connectionServiceSpy.setUpConnection(sqlInputs));
+        assertEquals(aliveUrl, sqlInputs.getDbUrl());
+    }
+
+    @Test
+    public void testSetUpConnectionNoRaceWhenPooling() throws Exception {
+        final String firstUrl = "jdbc:h2:tcp://first/~/pooled";
+        final String secondUrl = "jdbc:h2:tcp://second/~/pooled";
+        final Properties properties = new Properties();
+        properties.setProperty("db.url.race.connect", "true");
+        sqlInputs.setDbType(CUSTOM_DB_TYPE);
+        sqlInputs.setDatabasePoolingProperties(properties);
+        doReturn(Arrays.asList(firstUrl, secondUrl)).when(connectionServiceSpy).getConnectionUrls(sqlInputs);
+        when(dbConnectionManagerMock.isPoolingEnabled(properties)).thenReturn(true);
+
+        assertEquals(connectionMock, connectionServiceSpy.setUpConnection(sqlInputs));
+        assertEquals(firstUrl, sqlInputs.getDbUrl());
+
+        verify(dbConnectionManagerMock, never()).getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(secondUrl), any(String.class), any(String.class), any(Properties.class));
+    }
+
+    @Test
+    public void testSetUpConnectionAllUrlsFail() throws Exception {
+        final String deadUrl = "jdbc:h2:tcp://dead/~/all";
+        sqlInputs.setDbType(CUSTOM_DB_TYPE);
+        sqlInputs.setDatabasePoolingProperties(new Properties());
+        doReturn(Arrays.asList(deadUrl)).when(connectionServiceSpy).getConnectionUrls(sqlInputs);
+        when(dbConnectionManagerMock.getConnection(any(DBConnectionManager.DBType.class), any(String.class), eq(deadUrl), any(String.class), any(String.class), any(Properties.class)))
+                .thenThrow(new SQLException("Connection refused"));
+
+        expectedEx.expect(RuntimeException.class);
+        expectedEx.expectMessage("Connection refused");
+        connectionServiceSpy.setUpConnection(sqlInputs);
+    }
+
     @Test
     public void testSetUpConnectionMySQL() throws Exception {
         sqlInputs.setDbType(MYSQL_DB_TYPE);
@@ -0,0 +1,200 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLParameter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryResultCacheTest {
+
+    private QueryResultCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new QueryResultCache(QueryResultCache.MAX_SIZE, QueryResultCache.MAX_ENTRY_SIZE);
+    }
+
+    @Test
+    public void getReturnsCachedValue() {
+        cache.put("key", "value", 60000, 10);
+        assertEquals("value", cache.get("key"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void expiredOrDisabledEntriesAreNotReturned() throws Exception {
+        cache.put("expired", "value", 1, 10);
+        cache.put("disabled", "value", 0, 10);
+        Thread.sleep(5);
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("disabled"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        cache.put("a", "1", 60000, 2);
+        cache.put("b", "2", 60000, 2);
+        cache.get("a");
+        cache.put("c", "3", 60000, 2);
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedOverTheSizeBudget() {
+        //every entry takes 2 * (1 + 10) bytes
+        final QueryResultCache smallCache = new QueryResultCache(100, 40);
+        smallCache.put("a", "0123456789", 60000, 10);
+        smallCache.put("b", "0123456789", 60000, 10);
+        smallCache.get("a");
+        assertEquals(44, smallCache.getSize());
+        smallCache.put("c", "0123456789", 60000, 10);
+        smallCache.put("d", "0123456789", 60000, 10);
+        smallCache.put("e", "0123456789", 60000, 10);
+        assertEquals(4, smallCache.size());
+        assertEquals(88, smallCache.getSize());
+        assertEquals("0123456789", smallCache.get("a"));
+        assertNull(smallCache.get("b"));
+    }
+
+    @Test
+    public void resultsOverTheEntryLimitAreNotCached() {
+        final QueryResultCache smallCache = new QueryResultCache(100, 40);
+        smallCache.put("key", "small", 60000, 10);
+        smallCache.put("key", "a result over the entry limit", 60000, 10);
+        assertNull(smallCache.get("key"));
+        assertEquals(0, smallCache.size());
+        assertEquals(0, smallCache.getSize());
+    }
+
+    @Test
+    public void invalidateByPrefix() {
+        cache.put("jdbc:oracle:thin:@//host1:1521/db|user|select 1", "1", 60000, 10);
+        cache.put("jdbc:oracle:thin:@//host1:1521/db|user|select 2", "2", 60000, 10);
+        cache.put("jdbc:oracle:thin:@//host2:1521/db|user|select 1", "3", 60000, 10);
+        assertEquals(2, cache.invalidate("jdbc:oracle:thin:@//host1:1521/db"));
+        assertEquals(1, cache.size());
+        assertEquals("3", cache.get("jdbc:oracle:thin:@//host2:1521/db|user|select 1"));
+    }
+
+    @Test
+    public void invalidateStopsAtKeySeparator() {
+        cache.put("jdbc:oracle:thin:@//host:1521/db|user|select 1", "1", 60000, 10);
+        cache.put("jdbc:oracle:thin:@//host:1521/db2|user|select 1", "2", 60000, 10);
+        assertEquals(1, cache.invalidate("jdbc:oracle:thin:@//host:1521/db"));
+        assertEquals("2", cache.get("jdbc:oracle:thin:@//host:1521/db2|user|select 1"));
+        assertEquals(1, cache.invalidate("jdbc:oracle:thin:@//host:1521/db2|"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void matchesPrefix() {
+        assertTrue(QueryResultCache.matchesPrefix("url|user|query", "url"));
+        assertTrue(QueryResultCache.matchesPrefix("url|user|query", "url|user"));
+        assertTrue(QueryResultCache.matchesPrefix("url|user|query", "url|"));
+        assertTrue(QueryResultCache.matchesPrefix("url|user|query", "url|user|query"));
+        assertFalse(QueryResultCache.matchesPrefix("url2|user|query", "url"));
+        assertFalse(QueryResultCache.matchesPrefix("url|user|query", "url|us"));
+    }
+
+    @Test
+    public void matchesPrefixWithEachUrl() {
+        assertTrue(QueryResultCache.matchesPrefix("url1\nurl2|user|query", "url1"));
+        assertTrue(QueryResultCache.matchesPrefix("url1\nurl2|user|query", "url2"));
+        assertTrue(QueryResultCache.matchesPrefix("url1\nurl2|user|query", "url2|user"));
+        assertTrue(QueryResultCache.matchesPrefix("url1\nurl2|user|query", "url1\nurl2|user"));
+        assertFalse(QueryResultCache.matchesPrefix("url1\nurl22|user|query", "url2"));
+        assertFalse(QueryResultCache.matchesPrefix("url1\nurl2|user|query", "url2|other"));
+    }
+
+    @Test
+    public void invalidateByOneOfTheUrls() {
+        final SQLInputs sqlInputs = SQLInputs.builder()
+                .username("user")
+                .sqlCommand("select 1")
+                .build();
+        cache.put(QueryResultCache.getKey(Arrays.asList("jdbc:url1", "jdbc:url2"), sqlInputs, "tabular"), "1", 60000, 10);
+        cache.put(QueryResultCache.getKey(Collections.singletonList("jdbc:url3"), sqlInputs, "tabular"), "2", 60000, 10);
+        assertEquals(1, cache.invalidate("jdbc:url2"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void normalizeSqlKeepsQuotedLiterals() {
+        assertEquals("select * from t where a = '  x  '",
+                QueryResultCache.normalizeSql("  select *\n  from t\twhere a =   '  x  '  "));
+    }
+
+    @Test
+    public void keyDependsOnQueryParametersAndFormat() {
+        final SQLInputs sqlInputs = SQLInputs.builder()
+                .username("user")
+                .sqlCommand("select * from t where id = ?")
+                .queryParameters(Collections.singletonList(SQLParameter.parse("int:1")))
+                .build();
+        final String key = QueryResultCache.getKey(Arrays.asList("jdbc:url1", "jdbc:url2"), sqlInputs, "tabular");
+        assertTrue(key.startsWith("jdbc:url1\njdbc:url2|user|"));
+        assertTrue(key.contains("|select * from t where id = ?|"));
+        assertNotEquals(key, QueryResultCache.getKey(Arrays.asList("jdbc:url1", "jdbc:url2"), sqlInputs, "allRows"));
+
+        sqlInputs.setQueryParameters(Collections.singletonList(SQLParameter.parse("int:2")));
+        assertNotEquals(key, QueryResultCache.getKey(Arrays.asList("jdbc:url1", "jdbc:url2"), sqlInputs, "tabular"));
+
+        //one value holding the separators is not the same key as two values
+        sqlInputs.setQueryParameters(Collections.singletonList(SQLParameter.parse("string:a, 12:b")));
+        final String keyOneValue = QueryResultCache.getKey(Collections.singletonList("jdbc:url"), sqlInputs, "tabular");
+        sqlInputs.setQueryParameters(Arrays.asList(SQLParameter.parse("string:a"), SQLParameter.parse("string:b")));
+        assertNotEquals(keyOneValue, QueryResultCache.getKey(Collections.singletonList("jdbc:url"), sqlInputs, "tabular"));
+    }
+
+    @Test
+    public void keyDependsOnPassword() {
+        final SQLInputs sqlInputs = SQLInputs.builder()
+                .username("user")
+                .password("secret")
+                .sqlCommand("select 1")
+                .build();
+        final String key = QueryResultCache.getKey(Collections.singletonList("jdbc:url"), sqlInputs, "tabular");
+        assertFalse(key.contains("secret"));
+        assertEquals(key, QueryResultCache.getKey(Collections.singletonList("jdbc:url"), sqlInputs, "tabular"));
+
+        sqlInputs.setPassword("wrong");
+        assertNotEquals(key, QueryResultCache.getKey(Collections.singletonList("jdbc:url"), sqlInputs, "tabular"));
+    }
+
+    @Test
+    public void getMaxEntries() {
+        final Properties properties = new Properties();
+        assertEquals(1000, QueryResultCache.getMaxEntries(properties));
+        properties.setProperty(QueryResultCache.DB_RESULT_CACHE_SIZE_NAME, "50");
+        assertEquals(50, QueryResultCache.getMaxEntries(properties));
+        assertEquals(1000, QueryResultCache.getMaxEntries(null));
+    }
+}
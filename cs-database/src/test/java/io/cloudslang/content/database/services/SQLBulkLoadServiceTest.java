@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import io.cloudslang.content.database.utils.CsvRowReader;
+import io.cloudslang.content.database.utils.JsonLinesRowReader;
+import io.cloudslang.content.database.utils.RowReader;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SQLBulkLoadServiceTest {
+
+    private static final List<String> COLUMN_TYPES = Arrays.asList("int", "string", "date");
+
+    @ClassRule
+    public static final H2TestDatabase DATABASE = new H2TestDatabase("bulkLoadTest",
+            "CREATE TABLE employees (id INT PRIMARY KEY, name VARCHAR(40), hired DATE)");
+
+    @Before
+    public void clearTable() throws Exception {
+        try (Statement statement = DATABASE.getConnection().createStatement()) {
+            statement.execute("DELETE FROM employees");
+        }
+    }
+
+    private static SQLInputs getSqlInputs() {
+        return DATABASE.getSqlInputs("INSERT INTO employees (id, name, hired) VALUES (?, ?, ?)").build();
+    }
+
+    private static String getCsv(final int rows) {
+        final StringBuilder csv = new StringBuilder("id,name,hired\r\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append(i).append(",\"Doe, John ").append(i).append("\",2019-01-").append(i % 28 + 1).append("\r\n");
+        }
+        return csv.toString();
+    }
+
+    private static long countRows() throws Exception {
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM employees")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Test
+    public void testLoadCsv() throws Exception {
+        try (RowReader rowReader = new CsvRowReader(new StringReader(getCsv(2500)), ',', true)) {
+            assertEquals(2500, SQLBulkLoadService.executeBulkLoad(getSqlInputs(), rowReader, COLUMN_TYPES, 100, 1000, 1));
+        }
+        assertEquals(2500, countRows());
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name, hired FROM employees WHERE id = 7")) {
+            assertTrue(resultSet.next());
+            assertEquals("Doe, John 7", resultSet.getString(1));
+            assertEquals(Date.valueOf("2019-01-08"), resultSet.getDate(2));
+        }
+    }
+
+    @Test
+    public void testLoadCsvWithThreads() throws Exception {
+        try (RowReader rowReader = new CsvRowReader(new StringReader(getCsv(5000)), ',', true)) {
+            assertEquals(5000, SQLBulkLoadService.executeBulkLoad(getSqlInputs(), rowReader, COLUMN_TYPES, 250, 0, 4));
+        }
+        assertEquals(5000, countRows());
+    }
+
+    @Test
+    public void testLoadJsonLines() throws Exception {
+        final String jsonLines = "[1, \"Jane\", \"2019-02-01\"]\n" +
+                "{\"hired\": null, \"name\": \"Joe\", \"id\": 2}\n" +
+                "\n" +
+                "{\"id\": 3}\n";
+        try (RowReader rowReader = new JsonLinesRowReader(new StringReader(jsonLines), Arrays.asList("id", "name", "hired"))) {
+            assertEquals(3, SQLBulkLoadService.executeBulkLoad(getSqlInputs(), rowReader, COLUMN_TYPES, 2, 2, 1));
+        }
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name, hired FROM employees WHERE id = 2")) {
+            assertTrue(resultSet.next());
+            assertEquals("Joe", resultSet.getString(1));
+            assertNull(resultSet.getDate(2));
+        }
+        assertEquals(3, countRows());
+    }
+
+    @Test
+    public void testInvalidRowKeepsCommittedRows() throws Exception {
+        final String csv = "1,a,2019-01-01\n2,b,2019-01-02\n3,c,2019-01-03\nfour,d,2019-01-04\n5,e,2019-01-05\n";
+        try (RowReader rowReader = new CsvRowReader(new StringReader(csv), ',', false)) {
+            SQLBulkLoadService.executeBulkLoad(getSqlInputs(), rowReader, COLUMN_TYPES, 2, 2, 1);
+            fail("the row with an invalid id should fail the load");
+        } catch (Exception e) {
+            assertEquals("Invalid int value 'four' in row 4, column 1. Rows committed before the failure: 2.", e.getMessage());
+        }
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    public void testDuplicateKeyReportsBatch() throws Exception {
+        final String csv = "1,a,\n2,b,\n2,c,\n";
+        try (RowReader rowReader = new CsvRowReader(new StringReader(csv), ',', false)) {
+            SQLBulkLoadService.executeBulkLoad(getSqlInputs(), rowReader, Collections.singletonList("int"), 10, 0, 1);
+            fail("the duplicate key should fail the load");
+        } catch (Exception e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Failed to load the batch of rows 1 to 3: "));
+            assertTrue(e.getMessage(), e.getMessage().endsWith("Rows committed before the failure: 0."));
+        }
+        assertEquals(0, countRows());
+    }
+}
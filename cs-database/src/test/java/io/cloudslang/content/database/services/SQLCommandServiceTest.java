@@ -109,7 +109,7 @@ public class SQLCommandServiceTest {
 
     @Test
     public void testExecuteSqlCommandDBMS_OUTPUT() throws Exception {
-        PowerMockito.whenNew(OracleDbmsOutput.class).withArguments(connectionMock).thenReturn(oracleDbmsOutputMock);
+        PowerMockito.whenNew(OracleDbmsOutput.class).withArguments(connectionMock, 0).thenReturn(oracleDbmsOutputMock);
         when(connectionMock.prepareStatement(Matchers.any(String.class))).thenReturn(preparedStatementMock);
         when(preparedStatementMock.getUpdateCount()).thenReturn(1);
         when(oracleDbmsOutputMock.getOutput()).thenReturn("Command completed successfully");
@@ -36,11 +36,14 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Statement;
+import java.util.Collections;
 
 
 import static io.cloudslang.content.database.constants.DBOtherValues.ORACLE_DB_TYPE;
 import static io.cloudslang.content.database.constants.DBOtherValues.POSTGRES_DB_TYPE;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
 
@@ -91,7 +94,7 @@ public class SQLQueryAllRowsServiceTest {
         sqlInputs.setColDelimiter("|");
         sqlInputs.setTimeout(QUYERY_TIMEOUT);
         sqlInputs.setSqlCommand(SQL_QUERY);
-        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs).getValue();
 
         assertEquals("", execQueryAllRows);
         verify(connectionMock, Mockito.times(1)).setReadOnly(true);
@@ -100,6 +103,30 @@ public class SQLQueryAllRowsServiceTest {
         verify(resultSetMock, Mockito.times(1)).close();
     }
 
+    @Test
+    public void testExecuteQueryAllRowsCached() throws Exception {
+        sqlInputs.setDbType(ORACLE_DB_TYPE);
+        sqlInputs.setRowDelimiter(",");
+        sqlInputs.setColDelimiter("|");
+        sqlInputs.setTimeout(QUYERY_TIMEOUT);
+        sqlInputs.setSqlCommand(SQL_QUERY);
+        sqlInputs.setResultCacheTtl(60);
+        when(connectionServiceMock.getConnectionUrls(sqlInputs)).thenReturn(Collections.singletonList("jdbc:oracle:thin:@//cached:30/dbName"));
+
+        QueryResultCache.Result result = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+        assertEquals("", result.getValue());
+        assertFalse(result.isCacheHit());
+        result = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+        assertEquals("", result.getValue());
+        assertTrue(result.isCacheHit());
+        verify(statementMock, Mockito.times(1)).executeQuery(SQL_QUERY);
+
+        sqlInputs.setPassword("wrongPassword");
+        assertFalse(SQLQueryAllRowsService.execQueryAllRows(sqlInputs).isCacheHit());
+        verify(statementMock, Mockito.times(2)).executeQuery(SQL_QUERY);
+        QueryResultCache.getInstance().invalidate("jdbc:oracle:thin:@//cached:30/dbName");
+    }
+
     @Test
     public void testExecuteQueryAllRowsIsNetcool() throws Exception {
         sqlInputs.setDbType(ORACLE_DB_TYPE);
@@ -111,7 +138,7 @@ public class SQLQueryAllRowsServiceTest {
         sqlInputs.setTimeout(QUYERY_TIMEOUT);
         sqlInputs.setSqlCommand(SQL_QUERY);
         sqlInputs.setNetcool(true);
-        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs).getValue();
 
         assertEquals("", execQueryAllRows);
         verify(connectionMock, Mockito.times(1)).setReadOnly(true);
@@ -131,7 +158,7 @@ public class SQLQueryAllRowsServiceTest {
         sqlInputs.setTimeout(QUYERY_TIMEOUT);
         sqlInputs.setSqlCommand(SQL_QUERY);
         sqlInputs.setNetcool(true);
-        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs);
+        final String execQueryAllRows = SQLQueryAllRowsService.execQueryAllRows(sqlInputs).getValue();
 
         assertEquals("", execQueryAllRows);
         verify(connectionMock, Mockito.times(1)).setReadOnly(true);
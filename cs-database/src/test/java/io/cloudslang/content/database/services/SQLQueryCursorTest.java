@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import io.cloudslang.content.database.utils.SQLInputs;
+import io.cloudslang.content.database.utils.SQLSessionResource;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SQLQueryCursorTest {
+
+    private static final int ROWS = 2500;
+
+    @ClassRule
+    public static final H2TestDatabase DATABASE = new H2TestDatabase("cursorTest",
+            "CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))",
+            "INSERT INTO items SELECT x, ' item' || x || ' ' FROM SYSTEM_RANGE(1, " + ROWS + ")");
+
+    private static SQLInputs getSqlInputs() {
+        return DATABASE.getSqlInputs("SELECT id, name FROM items ORDER BY id")
+                .strDelim(",")
+                .build();
+    }
+
+    @Test
+    public void testReadsAllRowsInOrder() throws Exception {
+        final SQLQueryCursor cursor = SQLQueryService.openSqlCursor(getSqlInputs(), 100, 60);
+        try {
+            assertEquals("ID,NAME", cursor.getColumnNames());
+            for (int i = 1; i <= ROWS; i++) {
+                assertEquals(i + ",item" + i, cursor.nextRow());
+            }
+            assertNull(cursor.nextRow());
+            assertEquals(ROWS, cursor.getRowsRead());
+        } finally {
+            cursor.close();
+        }
+        assertTrue(cursor.isClosed());
+    }
+
+    @Test
+    public void testIdleCursorIsClosed() throws Exception {
+        final SQLQueryCursor cursor = SQLQueryService.openSqlCursor(getSqlInputs(), 10, 1);
+        assertEquals("1,item1", cursor.nextRow());
+
+        SQLQueryCursor.closeIdleCursors(System.currentTimeMillis());
+        assertFalse(cursor.isClosed());
+
+        assertEquals(1, SQLQueryCursor.closeIdleCursors(System.currentTimeMillis() + 5000));
+        assertTrue(cursor.isClosed());
+        try {
+            cursor.nextRow();
+            fail("an expired cursor should not be readable");
+        } catch (SQLException e) {
+            assertEquals("The cursor for the query was closed after being idle for more than 1 seconds.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSessionReleaseClosesCursor() throws Exception {
+        final SQLQueryCursor cursor = SQLQueryService.openSqlCursor(getSqlInputs(), 10, 60);
+        final Map<String, Object> sessionMap = new HashMap<>();
+        sessionMap.put("key", cursor);
+
+        new SQLSessionResource(sessionMap).release();
+
+        assertTrue(cursor.isClosed());
+    }
+}
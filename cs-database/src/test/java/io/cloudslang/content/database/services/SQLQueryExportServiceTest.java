@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+
+import static io.cloudslang.content.database.constants.DBOtherValues.CSV_FORMAT;
+import static io.cloudslang.content.database.constants.DBOtherValues.JSON_LINES_FORMAT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SQLQueryExportServiceTest {
+
+    private static final int ROWS = 3000;
+
+    @ClassRule
+    public static final H2TestDatabase DATABASE = new H2TestDatabase("exportTest",
+            "CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(40), price DECIMAL(10, 2), active BOOLEAN)",
+            "INSERT INTO items VALUES (1, 'plain', 1.50, TRUE), (2, 'a, \"quoted\" name', NULL, FALSE), (3, '', 3, NULL)",
+            "INSERT INTO items SELECT x, 'item' || x, x, TRUE FROM SYSTEM_RANGE(4, " + ROWS + ")");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static SQLInputs getSqlInputs(final String command) {
+        return DATABASE.getSqlInputs(command).build();
+    }
+
+    @Test
+    public void testExportCsv() throws Exception {
+        final File file = new File(folder.getRoot(), "items.csv");
+        final long rows = SQLQueryExportService.exportQuery(getSqlInputs("SELECT id, name, price, active FROM items ORDER BY id"),
+                file.getPath(), CSV_FORMAT, ',', true, false, 100);
+
+        assertEquals(ROWS, rows);
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            assertEquals("ID,NAME,PRICE,ACTIVE", reader.readLine());
+            assertEquals("1,plain,1.50,TRUE", reader.readLine());
+            assertEquals("2,\"a, \"\"quoted\"\" name\",,FALSE", reader.readLine());
+            assertEquals("3,\"\",3.00,", reader.readLine());
+        }
+        assertEquals(ROWS + 1, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testExportGzippedJsonLines() throws Exception {
+        final File file = new File(folder.getRoot(), "items.jsonl.gz");
+        final long rows = SQLQueryExportService.exportQuery(getSqlInputs("SELECT id, name, price, active FROM items WHERE id <= 3 ORDER BY id"),
+                file.getPath(), JSON_LINES_FORMAT, ',', true, true, 0);
+
+        assertEquals(3, rows);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file.toPath())), StandardCharsets.UTF_8))) {
+            assertEquals("{\"ID\":1,\"NAME\":\"plain\",\"PRICE\":1.50,\"ACTIVE\":true}", reader.readLine());
+            assertEquals("{\"ID\":2,\"NAME\":\"a, \\\"quoted\\\" name\",\"PRICE\":null,\"ACTIVE\":false}", reader.readLine());
+            assertEquals("{\"ID\":3,\"NAME\":\"\",\"PRICE\":3.00,\"ACTIVE\":null}", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void testFailedExportKeepsTheExistingFile() throws Exception {
+        final File file = new File(folder.getRoot(), "items.csv");
+        Files.write(file.toPath(), "previous export\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            SQLQueryExportService.exportQuery(getSqlInputs("SELECT id, 1 / (id - 2000) FROM items ORDER BY id"),
+                    file.getPath(), CSV_FORMAT, ',', true, false, 100);
+            fail("the division by zero should fail the export");
+        } catch (SQLException expected) {
+        }
+
+        assertEquals("previous export", Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).get(0));
+        assertFalse(new File(file.getPath() + ".part").exists());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import io.cloudslang.content.database.services.SQLQueryFanOutService.TargetResult;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SQLQueryFanOutServiceTest {
+
+    private static final int DATABASES = 6;
+    private static final H2TestDatabase[] H2_DATABASES = new H2TestDatabase[DATABASES];
+
+    @ClassRule
+    public static final RuleChain DATABASE_RULES;
+
+    static {
+        RuleChain rules = RuleChain.emptyRuleChain();
+        for (int i = 0; i < DATABASES; i++) {
+            H2_DATABASES[i] = new H2TestDatabase("fanOut" + i,
+                    "CREATE TABLE inventory (host VARCHAR(20), disks INT)",
+                    "INSERT INTO inventory VALUES ('host" + i + "', " + i + ")",
+                    "CREATE ALIAS SLEEP FOR \"java.lang.Thread.sleep\"",
+                    "CREATE ALIAS SPIN FOR \"" + SQLQueryFanOutServiceTest.class.getName() + ".spin\"");
+            rules = rules.around(H2_DATABASES[i]);
+        }
+        DATABASE_RULES = rules;
+    }
+
+    private static volatile boolean spinning;
+
+    /**
+     * Stands for a driver call ignoring both the cancel and the interrupt.
+     */
+    public static int spin(final int millis) {
+        final long end = System.currentTimeMillis() + millis;
+        while (spinning && System.currentTimeMillis() < end) {
+            Thread.yield();
+        }
+        return millis;
+    }
+
+    private static SQLInputs getSqlInputs(final int database, final String command) {
+        return H2_DATABASES[database].getSqlInputs(command)
+                .colDelimiter(",")
+                .build();
+    }
+
+    @Test
+    public void testQueriesAllEndpoints() throws Exception {
+        final Map<String, SQLInputs> targets = new LinkedHashMap<>();
+        for (int i = 0; i < DATABASES; i++) {
+            targets.put("db" + i, getSqlInputs(i, "SELECT host, disks FROM inventory"));
+        }
+        targets.put("missing", H2_DATABASES[0].getSqlInputs("SELECT host, disks FROM inventory")
+                .dbUrl("jdbc:h2:mem:fanOutMissing;IFEXISTS=TRUE")
+                .colDelimiter(",")
+                .build());
+
+        final List<TargetResult> results = SQLQueryFanOutService.execQueryFanOut(targets, 3, 30);
+
+        assertEquals(DATABASES + 1, results.size());
+        for (int i = 0; i < DATABASES; i++) {
+            final TargetResult result = results.get(i);
+            assertEquals("db" + i, result.getEndpoint());
+            assertNull(result.getError());
+            assertEquals("HOST,DISKS", result.getColumnNames());
+            assertEquals(Arrays.asList("host" + i + "," + i), result.getRows());
+        }
+        final TargetResult missing = results.get(DATABASES);
+        assertEquals("missing", missing.getEndpoint());
+        assertNull(missing.getRows());
+        assertTrue(missing.getError(), missing.getError().contains("fanOutMissing"));
+    }
+
+    @Test
+    public void testSlowEndpointTimesOut() throws Exception {
+        final Map<String, SQLInputs> targets = new LinkedHashMap<>();
+        targets.put("slow", getSqlInputs(0, "SELECT host, SLEEP(30000) FROM inventory"));
+        targets.put("fast", getSqlInputs(1, "SELECT host FROM inventory"));
+
+        final long start = System.currentTimeMillis();
+        final List<TargetResult> results = SQLQueryFanOutService.execQueryFanOut(targets, 2, 1);
+
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        assertEquals("Timed out after 1 seconds.", results.get(0).getError());
+        assertEquals(Arrays.asList("host1"), results.get(1).getRows());
+    }
+
+    @Test
+    public void testStuckEndpointDoesNotHoldQueuedEndpoints() throws Exception {
+        final Map<String, SQLInputs> targets = new LinkedHashMap<>();
+        targets.put("stuck", getSqlInputs(0, "SELECT host, SPIN(30000) FROM inventory"));
+        targets.put("queued", getSqlInputs(1, "SELECT host FROM inventory"));
+
+        spinning = true;
+        try {
+            final long start = System.currentTimeMillis();
+            final List<TargetResult> results = SQLQueryFanOutService.execQueryFanOut(targets, 1, 1);
+
+            assertTrue(System.currentTimeMillis() - start < 10000);
+            assertEquals("Timed out after 1 seconds.", results.get(0).getError());
+            assertNull(results.get(1).getRows());
+            assertEquals("Not started before the deadline of 3 seconds.", results.get(1).getError());
+        } finally {
+            spinning = false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import io.cloudslang.content.database.services.SQLQueryLobService.LobExportResult;
+import io.cloudslang.content.database.utils.SQLInputs;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SQLQueryLobExportTest {
+
+    private static final byte[] SMALL_BLOB = {1, 2, 3};
+    private static final byte[] LARGE_BLOB = new byte[200 * 1024];
+    private static final String LARGE_CLOB;
+
+    static {
+        final StringBuilder clob = new StringBuilder();
+        for (int i = 0; clob.length() < 150 * 1024; i++) {
+            clob.append("line ").append(i).append(" é\n");
+        }
+        LARGE_CLOB = clob.toString();
+        for (int i = 0; i < LARGE_BLOB.length; i++) {
+            LARGE_BLOB[i] = (byte) i;
+        }
+    }
+
+    @ClassRule
+    public static final H2TestDatabase DATABASE = new H2TestDatabase("lobExportTest",
+            "CREATE TABLE documents (id INT PRIMARY KEY, content CLOB, data BLOB)");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void insertDocuments() throws Exception {
+        try (PreparedStatement statement = DATABASE.getConnection().prepareStatement("INSERT INTO documents VALUES (?, ?, ?)")) {
+            statement.setInt(1, 1);
+            statement.setString(2, "small");
+            statement.setBytes(3, SMALL_BLOB);
+            statement.addBatch();
+            statement.setInt(1, 2);
+            statement.setString(2, LARGE_CLOB);
+            statement.setBytes(3, LARGE_BLOB);
+            statement.addBatch();
+            statement.setInt(1, 3);
+            statement.setNull(2, Types.CLOB);
+            statement.setNull(3, Types.BLOB);
+            statement.addBatch();
+            statement.executeBatch();
+        }
+    }
+
+    @Test
+    public void testExportLobs() throws Exception {
+        final SQLInputs sqlInputs = DATABASE.getSqlInputs("SELECT id, content, data FROM documents ORDER BY id").build();
+        final File directory = new File(folder.getRoot(), "export");
+
+        final LobExportResult result = SQLQueryLobService.exportLobs(sqlInputs, directory, 64 * 1024, 1);
+
+        assertEquals(3, result.getRowCount());
+        assertEquals(2, result.getFileCount());
+        final byte[] clobBytes = LARGE_CLOB.getBytes(StandardCharsets.UTF_8);
+        assertEquals(clobBytes.length + LARGE_BLOB.length, result.getByteCount());
+
+        final List<String> rows = Files.readAllLines(result.getManifest().toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(
+                "{\"ID\":1,\"CONTENT\":\"small\",\"DATA\":\"" + Base64.encodeBase64String(SMALL_BLOB) + "\"}",
+                "{\"ID\":2,\"CONTENT\":{\"file\":\"row2_2_CONTENT.txt\",\"length\":" + LARGE_CLOB.length() + "}," +
+                        "\"DATA\":{\"file\":\"row2_3_DATA.bin\",\"length\":" + LARGE_BLOB.length + "}}",
+                "{\"ID\":3,\"CONTENT\":null,\"DATA\":null}"), rows);
+        assertArrayEquals(clobBytes, Files.readAllBytes(new File(directory, "row2_2_CONTENT.txt").toPath()));
+        assertArrayEquals(LARGE_BLOB, Files.readAllBytes(new File(directory, "row2_3_DATA.bin").toPath()));
+    }
+
+    @Test
+    public void testExportLongVarchars() throws Exception {
+        final String atThreshold = LARGE_CLOB.substring(0, 64 * 1024);
+        final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnLabel(1)).thenReturn("NOTE");
+        when(metaData.getColumnType(1)).thenReturn(Types.LONGVARCHAR);
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenReturn(true, true, true, true, false);
+        when(resultSet.getCharacterStream(1)).thenReturn(new StringReader("small"), new StringReader(LARGE_CLOB),
+                new StringReader(atThreshold), null);
+        final File directory = folder.newFolder("longvarchar");
+        final LobExportResult result = new LobExportResult(new File(directory, "manifest.jsonl"));
+        final StringWriter manifest = new StringWriter();
+
+        SQLQueryLobService.writeLobRows(resultSet, manifest, directory, 64 * 1024, false, result);
+
+        assertEquals(4, result.getRowCount());
+        assertEquals(1, result.getFileCount());
+        assertEquals("{\"NOTE\":\"small\"}\n" +
+                "{\"NOTE\":{\"file\":\"row2_1_NOTE.txt\",\"length\":" + LARGE_CLOB.length() + "}}\n" +
+                "{\"NOTE\":\"" + atThreshold.replace("\n", "\\n") + "\"}\n" +
+                "{\"NOTE\":null}\n", manifest.toString());
+        assertArrayEquals(LARGE_CLOB.getBytes(StandardCharsets.UTF_8),
+                Files.readAllBytes(new File(directory, "row2_1_NOTE.txt").toPath()));
+    }
+}
@@ -88,7 +88,7 @@ public class SQLQueryTabularServiceTest {
         sqlInputs.setDbName("/dbName");
         sqlInputs.setTimeout(QUYERY_TIMEOUT);
         sqlInputs.setSqlCommand(SQL_COMMAND);
-        final String execSqlQueryTabular = SQLQueryTabularService.execSqlQueryTabular(sqlInputs);
+        final String execSqlQueryTabular = SQLQueryTabularService.execSqlQueryTabular(sqlInputs).getValue();
 
         assertEquals("\n\n", execSqlQueryTabular);
         verify(connectionMock, Mockito.times(1)).setReadOnly(true);
@@ -106,7 +106,7 @@ public class SQLQueryTabularServiceTest {
         sqlInputs.setTimeout(QUYERY_TIMEOUT);
         sqlInputs.setNetcool(true);
         sqlInputs.setSqlCommand(SQL_COMMAND);
-        final String execSqlQueryTabular = SQLQueryTabularService.execSqlQueryTabular(sqlInputs);
+        final String execSqlQueryTabular = SQLQueryTabularService.execSqlQueryTabular(sqlInputs).getValue();
 
         assertEquals("\n\n", execSqlQueryTabular);
         verify(connectionMock, Mockito.times(1)).setReadOnly(true);
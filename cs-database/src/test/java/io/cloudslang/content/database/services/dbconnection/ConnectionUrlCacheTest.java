@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.services.dbconnection;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectionUrlCacheTest {
+
+    private static final String URL_1 = "jdbc:oracle:thin:@//host1:1521/db";
+    private static final String URL_2 = "jdbc:oracle:thin:@//host2:1521/db";
+    private static final String URL_3 = "jdbc:oracle:thin:@//host3:1521/db";
+
+    private final List<String> urls = Arrays.asList(URL_1, URL_2, URL_3);
+    private ConnectionUrlCache cache;
+    private String target;
+
+    @Before
+    public void setUp() {
+        cache = new ConnectionUrlCache();
+        target = ConnectionUrlCache.getTarget("Oracle", "user", urls);
+    }
+
+    @Test
+    public void orderUrlsWithoutHistory() {
+        assertEquals(urls, cache.orderUrls(target, urls));
+    }
+
+    @Test
+    public void orderUrlsHealthyFirstFailedLast() {
+        cache.markFailed(target, URL_1, 60000);
+        cache.markHealthy(target, URL_3, 60000);
+        assertEquals(Arrays.asList(URL_3, URL_2, URL_1), cache.orderUrls(target, urls));
+        assertTrue(cache.hasFailed(target, URL_1));
+        assertFalse(cache.hasFailed(target, URL_3));
+    }
+
+    @Test
+    public void markFailedForgetsHealthyUrl() {
+        cache.markHealthy(target, URL_2, 60000);
+        cache.markFailed(target, URL_2, 60000);
+        assertEquals(Arrays.asList(URL_1, URL_3, URL_2), cache.orderUrls(target, urls));
+    }
+
+    @Test
+    public void markHealthyForgetsFailure() {
+        cache.markFailed(target, URL_2, 60000);
+        cache.markHealthy(target, URL_2, 60000);
+        assertFalse(cache.hasFailed(target, URL_2));
+        assertEquals(Arrays.asList(URL_2, URL_1, URL_3), cache.orderUrls(target, urls));
+    }
+
+    @Test
+    public void expiredOrDisabledEntriesAreIgnored() throws Exception {
+        cache.markFailed(target, URL_1, 1);
+        cache.markHealthy(target, URL_3, 0);
+        Thread.sleep(5);
+        assertFalse(cache.hasFailed(target, URL_1));
+        assertEquals(urls, cache.orderUrls(target, urls));
+    }
+
+    @Test
+    public void targetsAreIndependent() {
+        final String otherTarget = ConnectionUrlCache.getTarget("Oracle", "other", urls);
+        cache.markFailed(target, URL_1, 60000);
+        assertFalse(cache.hasFailed(otherTarget, URL_1));
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services.dbconnection;
+
+import io.cloudslang.content.database.services.dbconnection.DBConnectionManager.DBType;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that DBConnectionManager does not serialize flows on a single monitor.
+ */
+public class DBConnectionManagerConcurrencyTest {
+
+    private static final String USERNAME = "user";
+    private static final String PASSWORD = "password";
+    private static final int CHECKOUT_LATENCY_MICROS = 1000;
+
+    @Test(timeout = 10000)
+    public void testPlainConnectionsAreNotSerialized() throws Exception {
+        final CyclicBarrier bothInside = new CyclicBarrier(2);
+        final DBConnectionManager manager = new DBConnectionManager() {
+            @Override
+            protected Connection getPlainConnection(String aDbUrl, String aUsername, String aPassword) throws SQLException {
+                //only passes if the second thread can enter getConnection while the first one is still inside
+                awaitQuietly(bothInside);
+                return newConnection();
+            }
+        };
+
+        runConcurrently(2, new ConnectionTask(manager, new Properties(), 2));
+    }
+
+    @Test(timeout = 10000)
+    public void testPooledConnectionsToDifferentDatabasesAreNotSerialized() throws Exception {
+        final CyclicBarrier bothInside = new CyclicBarrier(2);
+        final DBConnectionManager manager = new StubPoolManager(new CheckoutHook() {
+            @Override
+            public void onCheckout() {
+                awaitQuietly(bothInside);
+            }
+        });
+
+        runConcurrently(2, new ConnectionTask(manager, getPoolingProperties(), 2));
+    }
+
+    @Test(timeout = 10000)
+    public void testDataSourceIsCreatedOncePerKey() throws Exception {
+        final StubPoolManager manager = new StubPoolManager(null);
+
+        runConcurrently(16, new ConnectionTask(manager, getPoolingProperties(), 1));
+
+        assertEquals(1, manager.created.get());
+        assertEquals(1, manager.getDbmsPoolSize());
+    }
+
+    @Test(timeout = 30000)
+    public void testPooledCheckoutThroughputScalesWithThreads() throws Exception {
+        final CheckoutHook latency = new CheckoutHook() {
+            @Override
+            public void onCheckout() {
+                //a checkout waits on the database (connect or connection test on checkout), it does not use the cpu
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(CHECKOUT_LATENCY_MICROS));
+            }
+        };
+        final double oneThread = measure(1, new ConnectionTask(new StubPoolManager(latency), getPoolingProperties(), 4));
+        final double eightThreads = measure(8, new ConnectionTask(new StubPoolManager(latency), getPoolingProperties(), 4));
+
+        //checkouts serialized on one monitor would keep the same throughput, 8 free threads get close to 8 times more
+        assertTrue(String.format("1 thread %.0f/s, 8 threads %.0f/s", oneThread, eightThreads), eightThreads >= 3 * oneThread);
+    }
+
+    private static double measure(final int threads, final ConnectionTask task) throws Exception {
+        final int perThread = 100;
+        final long start = System.nanoTime();
+        runConcurrently(threads, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for (int i = 0; i < perThread; i++) {
+                    task.call();
+                }
+                return null;
+            }
+        });
+        return threads * perThread / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void runConcurrently(final int threads, final Callable<?> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Properties getPoolingProperties() {
+        final Properties properties = new Properties();
+        properties.put("db.pooling.enable", "true");
+        return properties;
+    }
+
+    private static void awaitQuietly(final CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("the other thread did not enter the connection manager", e);
+        }
+    }
+
+    private static Connection newConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return null;
+                    }
+                });
+    }
+
+    private interface CheckoutHook {
+        void onCheckout();
+    }
+
+    /**
+     * Each thread takes connections from its own database url, in turns over the given number of databases.
+     */
+    private static class ConnectionTask implements Callable<Void> {
+        private final DBConnectionManager manager;
+        private final Properties properties;
+        private final int databases;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ConnectionTask(final DBConnectionManager manager, final Properties properties, final int databases) {
+            this.manager = manager;
+            this.properties = properties;
+            this.databases = databases;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            final String dbUrl = "jdbc:stub://db" + (next.getAndIncrement() % databases);
+            assertNotNull(manager.getConnection(DBType.CUSTOM, "", dbUrl, USERNAME, PASSWORD, properties));
+            return null;
+        }
+    }
+
+    /**
+     * A manager whose pooled datasources hand out stub connections.
+     */
+    private static class StubPoolManager extends DBConnectionManager {
+        private final CheckoutHook hook;
+        private final AtomicInteger created = new AtomicInteger();
+
+        StubPoolManager(final CheckoutHook hook) {
+            this.hook = hook;
+        }
+
+        @Override
+        protected DataSource createDataSource(DBType aDbType, String aDbUrl, String aUsername, String aPassword,
+                                              Map<String, DataSource> aDsTable) {
+            created.incrementAndGet();
+            return new StubDataSource(hook);
+        }
+    }
+
+    private static class StubDataSource implements DataSource {
+        private final CheckoutHook hook;
+
+        StubDataSource(final CheckoutHook hook) {
+            this.hook = hook;
+        }
+
+        @Override
+        public Connection getConnection() {
+            if (hook != null) {
+                hook.onCheckout();
+            }
+            return newConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+}
@@ -35,8 +35,8 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Hashtable;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -240,9 +240,9 @@ public class DBConnectionManagerTest {
     public void testCleanDataSources() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         PooledDataSource dataSourceMock = mock(PooledDataSource.class);
-        Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable = getHashTableObject1(dataSourceMock);
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable = getHashTableObject1(dataSourceMock);
 
-        Hashtable<String, PooledDataSourceProvider> providerTable = new Hashtable<>();
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTable = new ConcurrentHashMap<>();
         PooledDataSourceProvider dataSourceProviderMock = mock(PooledDataSourceProvider.class);
 
         doNothing().when(dataSourceProviderMock).closePooledDataSource(any(DataSource.class));
@@ -266,7 +266,7 @@ public class DBConnectionManagerTest {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         PooledDataSource dataSourceMock = mock(PooledDataSource.class);
         dbcManagerSpy.dbmsPoolTable = getHashTableObject1(dataSourceMock);
-        Hashtable<String, PooledDataSourceProvider> providerTable = new Hashtable<>();
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTable = new ConcurrentHashMap<>();
         PooledDataSourceProvider dataSourceProviderMock = mock(PooledDataSourceProvider.class);
         doNothing().when(dataSourceProviderMock).closePooledDataSource(any(DataSource.class));
         providerTable.put(C3P0PooledDataSourceProvider.C3P0_DATASOURCE_PROVIDER_NAME, dataSourceProviderMock);
@@ -350,7 +350,7 @@ public class DBConnectionManagerTest {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         PooledDataSource dataSourceMock = mock(PooledDataSource.class);
         Connection connMock = mock(Connection.class);
-        Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable = getHashTableObject2(dataSourceMock, connMock);
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable = getHashTableObject2(dataSourceMock, connMock);
         dbcManagerSpy.dbmsPoolTable = dbmsPoolTable;
         PowerMockito.mockStatic(TripleDES.class);
         Mockito.when(TripleDES.encryptPassword(any(String.class))).thenThrow(new Exception("encryption failed"));
@@ -373,7 +373,7 @@ public class DBConnectionManagerTest {
         doReturn(connMock).when(dataSourceMock).getConnection();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject2(dataSourceMock, connMock);
         doReturn(dataSourceMock).when(dbcManagerSpy).createDataSource(any(DBType.class)
-                , anyString(), anyString(), anyString(), any(Hashtable.class));
+                , anyString(), anyString(), anyString(), any(ConcurrentHashMap.class));
 
         PowerMockito.mockStatic(TripleDES.class);
         Mockito.when(TripleDES.encryptPassword(any(String.class))).thenReturn(ENCRYPTED_PASS);
@@ -381,7 +381,7 @@ public class DBConnectionManagerTest {
         assertEquals(connMock, dbcManagerSpy.getPooledConnection(DBType.MYSQL, DB_URL, DHARMA_USER, DHARMA_PASSWORD));
         verify(dataSourceMock, times(1)).getConnection();
         verify(dbcManagerSpy.createDataSource(any(DBType.class)
-                , anyString(), anyString(), anyString(), any(Hashtable.class)), times(1));
+                , anyString(), anyString(), anyString(), any(ConcurrentHashMap.class)), times(1));
     }
 
     /**
@@ -393,7 +393,7 @@ public class DBConnectionManagerTest {
     public void testGetConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         doReturn(10).when(providerMock).getAllConnectionNumber(any(DataSource.class));
         doReturn(providerMock).when(providerTableMock).get(anyString());
@@ -412,7 +412,7 @@ public class DBConnectionManagerTest {
     public void testGetCheckedOutConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         setUpPooledDataSourceProviderMockForCheckedOutConnectionNumber(providerTableMock, providerMock);
         dbcManagerSpy.providerTable = providerTableMock;
@@ -430,7 +430,7 @@ public class DBConnectionManagerTest {
     public void testGetCheckedInConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         setUpPooledDataSourceProviderMockForCheckedInConnectionNumber(providerTableMock, providerMock);
         dbcManagerSpy.providerTable = providerTableMock;
@@ -448,7 +448,7 @@ public class DBConnectionManagerTest {
     public void testGetTotalConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         doReturn(10).when(providerMock).getAllConnectionNumber(any(DataSource.class));
         doReturn(providerMock).when(providerTableMock).get(anyString());
@@ -467,7 +467,7 @@ public class DBConnectionManagerTest {
     public void testGetTotalCheckedOutConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         setUpPooledDataSourceProviderMockForCheckedOutConnectionNumber(providerTableMock, providerMock);
         dbcManagerSpy.providerTable = providerTableMock;
@@ -485,7 +485,7 @@ public class DBConnectionManagerTest {
     public void testGetTotalCheckedInConnectionSize() throws SQLException {
         DBConnectionManager dbcManagerSpy = getDBConnectionManagerSpyWithPooling();
         dbcManagerSpy.dbmsPoolTable = getHashTableObject3();
-        Hashtable<String, PooledDataSourceProvider> providerTableMock = mock(Hashtable.class);
+        ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock = mock(ConcurrentHashMap.class);
         PooledDataSourceProvider providerMock = mock(PooledDataSourceProvider.class);
         setUpPooledDataSourceProviderMockForCheckedInConnectionNumber(providerTableMock, providerMock);
         dbcManagerSpy.providerTable = providerTableMock;
@@ -501,7 +501,7 @@ public class DBConnectionManagerTest {
      * @param providerMock
      * @throws java.sql.SQLException
      */
-    private void setUpPooledDataSourceProviderMockForCheckedInConnectionNumber(Hashtable<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
+    private void setUpPooledDataSourceProviderMockForCheckedInConnectionNumber(ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
         doReturn(10).when(providerMock).getCheckedInConnectionNumber(any(DataSource.class));
         doReturn(providerMock).when(providerTableMock).get(anyString());
     }
@@ -513,7 +513,7 @@ public class DBConnectionManagerTest {
      * @param providerMock
      * @throws java.sql.SQLException
      */
-    private void setUpPooledDataSourceProviderMockForCheckedOutConnectionNumber(Hashtable<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
+    private void setUpPooledDataSourceProviderMockForCheckedOutConnectionNumber(ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
         doReturn(10).when(providerMock).getCheckedOutConnectionNumber(any(DataSource.class));
         doReturn(providerMock).when(providerTableMock).get(anyString());
     }
@@ -525,7 +525,7 @@ public class DBConnectionManagerTest {
      * @param providerMock
      * @throws java.sql.SQLException
      */
-    private void verifyNumberOfInvocationsOnMockObjects(Hashtable<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
+    private void verifyNumberOfInvocationsOnMockObjects(ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
         verify(providerMock, times(1)).getAllConnectionNumber(any(DataSource.class));
         verify(providerTableMock, times(1)).get(anyString());
     }
@@ -537,7 +537,7 @@ public class DBConnectionManagerTest {
      * @param providerMock
      * @throws java.sql.SQLException
      */
-    private void verifyNumberOfInvocationsOnMockObjects3(Hashtable<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
+    private void verifyNumberOfInvocationsOnMockObjects3(ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
         verify(providerMock, times(1)).getCheckedOutConnectionNumber(any(DataSource.class));
         verify(providerTableMock, times(1)).get(anyString());
     }
@@ -549,7 +549,7 @@ public class DBConnectionManagerTest {
      * @param providerMock
      * @throws java.sql.SQLException
      */
-    private void verifyNumberOfInvocationsOnMockObject2(Hashtable<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
+    private void verifyNumberOfInvocationsOnMockObject2(ConcurrentHashMap<String, PooledDataSourceProvider> providerTableMock, PooledDataSourceProvider providerMock) throws SQLException {
         verify(providerMock, times(1)).getCheckedInConnectionNumber(any(DataSource.class));
         verify(providerTableMock, times(1)).get(anyString());
     }
@@ -569,32 +569,32 @@ public class DBConnectionManagerTest {
         return dbPoolingPropertiesMock;
     }
 
-    private Hashtable getHashTableObject1(PooledDataSource dataSourceMock) throws SQLException {
-        Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable
-                = new Hashtable<String, Hashtable<String, DataSource>>();
+    private ConcurrentHashMap getHashTableObject1(PooledDataSource dataSourceMock) throws SQLException {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable
+                = new ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>>();
         String tableKey1 = "key1";
-        Hashtable<String, DataSource> hashTable1 = new Hashtable<String, DataSource>();
+        ConcurrentHashMap<String, DataSource> hashTable1 = new ConcurrentHashMap<String, DataSource>();
         doReturn(0).when(dataSourceMock).getNumConnectionsAllUsers();
         hashTable1.put(tableKey1, dataSourceMock);
         dbmsPoolTable.put(tableKey1, hashTable1);
         return dbmsPoolTable;
     }
 
-    private Hashtable<String, Hashtable<String, DataSource>> getHashTableObject2(PooledDataSource dataSourceMock, Connection connMock) throws SQLException {
-        Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable = new Hashtable<>();
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> getHashTableObject2(PooledDataSource dataSourceMock, Connection connMock) throws SQLException {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable = new ConcurrentHashMap<>();
         String dsTableKey = DB_URL + "." + DHARMA_USER + "." + ENCRYPTED_PASS;
         String tableKey1 = DBType.MYSQL + "." + DB_URL;
-        Hashtable<String, DataSource> hashTable1 = new Hashtable<String, DataSource>();
+        ConcurrentHashMap<String, DataSource> hashTable1 = new ConcurrentHashMap<String, DataSource>();
         doReturn(connMock).when(dataSourceMock).getConnection();
         hashTable1.put(dsTableKey, dataSourceMock);
         dbmsPoolTable.put(tableKey1, hashTable1);
         return dbmsPoolTable;
     }
 
-    private Hashtable<String, Hashtable<String, DataSource>> getHashTableObject3() {
-        Hashtable<String, Hashtable<String, DataSource>> dbmsPoolTable
-                = new Hashtable<String, Hashtable<String, DataSource>>();
-        Hashtable<String, DataSource> hashTable = new Hashtable<String, DataSource>();
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> getHashTableObject3() {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>> dbmsPoolTable
+                = new ConcurrentHashMap<String, ConcurrentHashMap<String, DataSource>>();
+        ConcurrentHashMap<String, DataSource> hashTable = new ConcurrentHashMap<String, DataSource>();
         PooledDataSource dataSourceMock = mock(PooledDataSource.class);
         String dbmsPoolKey = DBType.MYSQL + "." + DB_URL;
         hashTable.put("key", dataSourceMock);
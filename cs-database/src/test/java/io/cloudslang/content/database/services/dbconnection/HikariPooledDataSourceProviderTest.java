@@ -0,0 +1,182 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.services.dbconnection;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.cloudslang.content.database.services.dbconnection.DBConnectionManager.DBType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HikariPooledDataSourceProviderTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:hikariTest;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "hikari";
+
+    private Properties savedProviderProperties;
+    private HikariPooledDataSourceProvider provider;
+
+    /**
+     * Will execute before each test.
+     */
+    @Before
+    public void setUp() {
+        //the provider properties are shared by all providers, the first one wins
+        savedProviderProperties = PooledDataSourceProvider.dbPoolingProperties;
+        PooledDataSourceProvider.dbPoolingProperties = null;
+        provider = new HikariPooledDataSourceProvider(getPoolingProperties());
+    }
+
+    /**
+     * Will execute after each test.
+     */
+    @After
+    public void tearDown() {
+        PooledDataSourceProvider.dbPoolingProperties = savedProviderProperties;
+        provider = null;
+    }
+
+    /**
+     * Test the mapping of databasePooling.properties onto the HikariCP configuration.
+     */
+    @Test
+    public void testGetPoolingConfig() {
+        HikariConfig config = provider.getPoolingConfig(DBType.MYSQL);
+        assertEquals(2, config.getMaximumPoolSize());
+        assertEquals(0, config.getMinimumIdle());
+        assertEquals(300000, config.getIdleTimeout());
+        assertEquals(600000, config.getMaxLifetime());
+        assertEquals(20000, config.getConnectionTimeout());
+        assertTrue(config.getPoolName().startsWith("cs-database-mysql-"));
+        //the statement cache of the driver is disabled by default
+        assertNull(config.getDataSourceProperties().getProperty("cachePrepStmts"));
+        assertNull(config.getDataSourceProperties().getProperty("prepStmtCacheSize"));
+
+        //custom lifetime falls back to the global default
+        assertEquals(7200000, provider.getPoolingConfig(DBType.CUSTOM).getMaxLifetime());
+    }
+
+    /**
+     * Test that a positive connection.statement.cachesize turns on the statement cache of the driver.
+     */
+    @Test
+    public void testGetPoolingConfigStatementCache() {
+        Properties props = getPoolingProperties();
+        props.setProperty(PooledDataSourceProvider.CONNECTION_STATEMENT_CACHE_SIZE_NAME, "50");
+        PooledDataSourceProvider.dbPoolingProperties = null;
+        HikariConfig config = new HikariPooledDataSourceProvider(props).getPoolingConfig(DBType.MYSQL);
+        assertEquals("true", config.getDataSourceProperties().getProperty("cachePrepStmts"));
+        assertEquals("50", config.getDataSourceProperties().getProperty("prepStmtCacheSize"));
+    }
+
+    /**
+     * Test that a zero checkout timeout waits indefinitely and a positive one is raised to the HikariCP minimum.
+     */
+    @Test
+    public void testGetPoolingConfigConnectionTimeout() {
+        Properties props = getPoolingProperties();
+        props.setProperty(PooledDataSourceProvider.CONNECTION_CHECKOUT_TIMEOUT_NAME, "0");
+        PooledDataSourceProvider.dbPoolingProperties = null;
+        assertEquals(Integer.MAX_VALUE, new HikariPooledDataSourceProvider(props).getPoolingConfig(DBType.MYSQL)
+                .getConnectionTimeout());
+
+        props.setProperty(PooledDataSourceProvider.CONNECTION_CHECKOUT_TIMEOUT_NAME, "100");
+        PooledDataSourceProvider.dbPoolingProperties = null;
+        assertEquals(250, new HikariPooledDataSourceProvider(props).getPoolingConfig(DBType.MYSQL)
+                .getConnectionTimeout());
+    }
+
+    /**
+     * Test openPooledDataSource(...) and the pool metrics.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testOpenPooledDataSource() throws SQLException {
+        DataSource ds = provider.openPooledDataSource(DBType.CUSTOM, DB_URL, USER, PASSWORD);
+        try {
+            assertTrue(ds instanceof HikariDataSource);
+            try (Connection connection = ds.getConnection()) {
+                assertFalse(connection.isClosed());
+                assertEquals(1, provider.getCheckedOutConnectionNumber(ds));
+                assertEquals(1, provider.getAllConnectionNumber(ds));
+                assertEquals(0, provider.getThreadsAwaitingConnection(ds));
+            }
+            assertEquals(0, provider.getCheckedOutConnectionNumber(ds));
+            assertEquals(1, provider.getCheckedInConnectionNumber(ds));
+        } finally {
+            provider.closePooledDataSource(ds);
+        }
+        assertEquals(0, provider.getAllConnectionNumber(ds));
+    }
+
+    /**
+     * Test the pooled connections of DBConnectionManager when hikari is the configured provider.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testConnectionManagerWithHikari() throws SQLException {
+        DBConnectionManager manager = new DBConnectionManager();
+        Properties props = getPoolingProperties();
+        props.setProperty("db.pooling.enable", "true");
+        props.setProperty(DBConnectionManager.DB_POOL_PROVIDER_NAME, DBConnectionManager.DB_POOL_PROVIDER_HIKARI);
+        props.setProperty("custom.connection.total.maxpoolsize", "2");
+        try {
+            try (Connection connection = manager.getConnection(DBType.CUSTOM, null, DB_URL, USER, PASSWORD, props);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE USER IF NOT EXISTS OTHER PASSWORD 'other'");
+                assertEquals(1, manager.getCheckedOutConnectionSize(DBType.CUSTOM, DB_URL));
+            }
+            assertEquals(1, manager.getConnectionSize(DBType.CUSTOM, DB_URL));
+            assertEquals(1, manager.getTotalCheckedInConnectionSize());
+
+            //a second datasource would exceed the total max pool size of the dbms
+            try {
+                manager.getConnection(DBType.CUSTOM, null, DB_URL, "OTHER", "other", props);
+                fail("the total max pool size was not enforced");
+            } catch (TotalMaxPoolSizeExceedException e) {
+                assertEquals(1, manager.getDbmsPoolSize());
+            }
+        } finally {
+            manager.shutdownDbmsPools();
+        }
+        assertNull(manager.dbmsPoolTable);
+    }
+
+    private static Properties getPoolingProperties() {
+        Properties props = new Properties();
+        props.setProperty(PooledDataSourceProvider.MAX_POOL_SIZE_NAME, "2");
+        props.setProperty(PooledDataSourceProvider.MYSQL_CONNECTION_LIFETIME_NAME, "600");
+        return props;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class CsvRowReaderTest {
+
+    @Test
+    public void testReadsQuotedFields() throws Exception {
+        final String csv = "id;name;note\r\n" +
+                "1;\"Doe; John\";\"said \"\"hi\"\"\"\r\n" +
+                "2;;\"\"\n" +
+                "\n" +
+                "3;\"multi\nline\";last";
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(csv), ';', true)) {
+            assertEquals(Arrays.asList("1", "Doe; John", "said \"hi\""), reader.nextRow());
+            assertEquals(1, reader.getRowNumber());
+            assertEquals(Arrays.asList("2", null, ""), reader.nextRow());
+            assertEquals(Arrays.asList("3", "multi\nline", "last"), reader.nextRow());
+            assertEquals(3, reader.getRowNumber());
+            assertNull(reader.nextRow());
+        }
+    }
+
+    @Test
+    public void testReadsEmptyLinesOfSingleColumn() throws Exception {
+        try (CsvRowReader reader = new CsvRowReader(new StringReader("name\r\na\r\n\r\n\"\"\nb\n"), ',', true)) {
+            assertEquals(Arrays.asList("a"), reader.nextRow());
+            assertEquals(Arrays.asList((String) null), reader.nextRow());
+            assertEquals(Arrays.asList(""), reader.nextRow());
+            assertEquals(Arrays.asList("b"), reader.nextRow());
+            assertNull(reader.nextRow());
+        }
+        try (CsvRowReader reader = new CsvRowReader(new StringReader("a\n\nb"), ',', false)) {
+            assertEquals(Arrays.asList("a"), reader.nextRow());
+            assertEquals(Arrays.asList((String) null), reader.nextRow());
+            assertEquals(Arrays.asList("b"), reader.nextRow());
+            assertEquals(3, reader.getRowNumber());
+            assertNull(reader.nextRow());
+        }
+    }
+
+    @Test
+    public void testUnterminatedQuote() throws Exception {
+        try (CsvRowReader reader = new CsvRowReader(new StringReader("1,\"open\n2,b\n"), ',', false)) {
+            reader.nextRow();
+            fail("an unterminated quoted field should not be read");
+        } catch (IOException e) {
+            assertEquals("Unterminated quoted field in row 1.", e.getMessage());
+        }
+    }
+}
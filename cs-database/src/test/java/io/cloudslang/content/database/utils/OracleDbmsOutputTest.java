@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.database.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OracleDbmsOutputTest {
+
+    private final List<String> buffer = new ArrayList<>();
+    private CallableStatement statement;
+    private Connection connection;
+    private int chunk;
+    private int count;
+    private Clob clob;
+
+    /**
+     * The statement hands out the lines of the buffer like dbms_output.get_lines, at most :chunk per call.
+     */
+    @Before
+    public void setUp() throws Exception {
+        statement = mock(CallableStatement.class);
+        connection = mock(Connection.class);
+        when(connection.prepareCall(anyString())).thenReturn(statement);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                chunk = (Integer) invocation.getArguments()[1];
+                return null;
+            }
+        }).when(statement).setInt(eq(1), anyInt());
+        when(statement.executeUpdate()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Exception {
+                final StringBuilder lines = new StringBuilder();
+                count = Math.min(chunk, buffer.size());
+                for (int i = 0; i < count; i++) {
+                    lines.append(buffer.remove(0)).append('\n');
+                }
+                clob = mock(Clob.class);
+                when(clob.getCharacterStream()).thenReturn(new StringReader(lines.toString()));
+                return 0;
+            }
+        });
+        when(statement.getInt(2)).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return count;
+            }
+        });
+        when(statement.getClob(3)).thenAnswer(new Answer<Clob>() {
+            @Override
+            public Clob answer(InvocationOnMock invocation) {
+                return clob;
+            }
+        });
+    }
+
+    @Test
+    public void testWriteOutputAcrossChunks() throws Exception {
+        addLines(5);
+        final StringWriter writer = new StringWriter();
+
+        assertEquals(5, new OracleDbmsOutput(connection, 2).writeOutput(writer));
+        assertEquals("line0\nline1\nline2\nline3\nline4\n", writer.toString());
+        verify(statement, times(3)).executeUpdate();
+    }
+
+    @Test
+    public void testWriteOutputExactMultipleOfChunk() throws Exception {
+        addLines(4);
+        final StringWriter writer = new StringWriter();
+
+        assertEquals(4, new OracleDbmsOutput(connection, 2).writeOutput(writer));
+        assertEquals("line0\nline1\nline2\nline3\n", writer.toString());
+        //the last full chunk is followed by an empty one
+        verify(statement, times(3)).executeUpdate();
+    }
+
+    @Test
+    public void testGetOutputWithoutLines() throws Exception {
+        assertEquals("", new OracleDbmsOutput(connection, 2).getOutput());
+        verify(statement, times(1)).executeUpdate();
+    }
+
+    @Test
+    public void testDefaultChunkSize() throws Exception {
+        addLines(OracleDbmsOutput.DEFAULT_CHUNK_SIZE + 1);
+
+        assertEquals(OracleDbmsOutput.DEFAULT_CHUNK_SIZE + 1, new OracleDbmsOutput(connection, 0).writeOutput(new StringWriter()));
+        verify(statement, times(2)).executeUpdate();
+    }
+
+    private void addLines(final int lines) {
+        for (int i = 0; i < lines; i++) {
+            buffer.add("line" + i);
+        }
+    }
+}
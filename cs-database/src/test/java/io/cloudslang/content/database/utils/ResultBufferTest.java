@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.database.utils;
+
+import io.cloudslang.content.database.H2TestDatabase;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class ResultBufferTest {
+
+    private static final String ALL_ROWS = "SELECT * FROM events ORDER BY id";
+
+    @ClassRule
+    public static final H2TestDatabase DATABASE = new H2TestDatabase("resultBufferTest",
+            "CREATE TABLE events (id INT PRIMARY KEY, total BIGINT, day DATE, created TIMESTAMP, " +
+                    "status VARCHAR(20), amount DECIMAL(10, 2))",
+            "INSERT INTO events VALUES " +
+                    "(1, -9000000000, DATE '2017-01-13', TIMESTAMP '2017-01-13 10:20:30', 'open', 1.50), " +
+                    "(2, NULL, DATE '2017-01-14', TIMESTAMP '2017-01-14 08:00:00.5', 'closed', NULL), " +
+                    "(3, 0, NULL, NULL, 'open', 3), " +
+                    "(4, 42, DATE '0999-12-31', TIMESTAMP '2017-01-15 00:00:00.123456789', NULL, 0.01)",
+            "INSERT INTO events SELECT x, x * 1000, DATE '2017-01-01', TIMESTAMP '2017-01-01 12:00:00', " +
+                    "CASEWHEN(MOD(x, 2) = 0, 'open', 'closed'), x FROM SYSTEM_RANGE(5, 500)");
+
+    private static ResultBuffer read(final String query) throws Exception {
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            return ResultBuffer.read(resultSet);
+        }
+    }
+
+    @Test
+    public void getStringReturnsTheDriverText() throws Exception {
+        final ResultBuffer buffer = read(ALL_ROWS);
+        assertEquals(6, buffer.getColumnCount());
+        assertEquals(500, buffer.getRowCount());
+        assertEquals("STATUS", buffer.getColumnLabel(4));
+
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(ALL_ROWS)) {
+            int row = 0;
+            while (resultSet.next()) {
+                for (int col = 0; col < buffer.getColumnCount(); col++) {
+                    assertEquals("row " + row + ", column " + col, resultSet.getString(col + 1), buffer.getString(row, col));
+                }
+                row++;
+            }
+            assertEquals(buffer.getRowCount(), row);
+        }
+    }
+
+    @Test
+    public void nullValues() throws Exception {
+        final ResultBuffer buffer = read("SELECT total, day, status FROM events WHERE id IN (2, 3, 4) ORDER BY id");
+        assertNull(buffer.getString(0, 0));
+        assertNull(buffer.getString(1, 1));
+        assertNull(buffer.getString(2, 2));
+        assertEquals("0", buffer.getString(1, 0));
+    }
+
+    @Test
+    public void emptyResult() throws Exception {
+        final ResultBuffer buffer = read("SELECT id, status FROM events WHERE id < 0");
+        assertEquals(2, buffer.getColumnCount());
+        assertEquals(0, buffer.getRowCount());
+        assertEquals("ID  STATUS  \n--  ------  \n", Format.resultBufferToTable(buffer, false));
+        assertEquals("", Format.resultBufferToDelimitedColsAndRows(buffer, false, ",", "\n"));
+    }
+
+    @Test
+    public void resultBufferToTable() throws Exception {
+        final ResultBuffer buffer = read("SELECT id, status, total FROM events WHERE id <= 3 ORDER BY id");
+        assertEquals("ID  STATUS  TOTAL        \n" +
+                        "--  ------  -----------  \n" +
+                        "1   open    -9000000000  \n" +
+                        "2   closed  null         \n" +
+                        "3   open    0            \n",
+                Format.resultBufferToTable(buffer, false));
+    }
+
+    @Test
+    public void resultBufferToDelimitedColsAndRows() throws Exception {
+        final String expected;
+        try (Statement statement = DATABASE.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(ALL_ROWS)) {
+            expected = Format.resultSetToDelimitedColsAndRows(resultSet, false, "|", "\n");
+        }
+        final String actual = Format.resultBufferToDelimitedColsAndRows(read(ALL_ROWS), false, "|", "\n");
+        assertFalse(actual.isEmpty());
+        assertEquals(expected, actual);
+    }
+}
@@ -26,7 +26,10 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.math.BigDecimal;
+import java.sql.Date;
 import java.sql.ResultSet;
+import java.sql.Types;
 import java.util.*;
 
 import static io.cloudslang.content.database.constants.DBOtherValues.*;
@@ -339,6 +342,62 @@ public class SQLInputsUtilsTest {
         getDbEnumForType("NoType");
     }
 
+    @Test
+    public void getQueryParametersValues() {
+        assertTrue(getQueryParameters(EMPTY, ",").isEmpty());
+
+        final List<SQLParameter> parameters = getQueryParameters("int:42| string:a,b|decimal:1.50|date:2019-01-31|null:long", "|");
+        assertEquals(5, parameters.size());
+        assertEquals(new SQLParameter(Types.INTEGER, 42), parameters.get(0));
+        assertEquals(new SQLParameter(Types.VARCHAR, "a,b"), parameters.get(1));
+        assertEquals(new SQLParameter(Types.DECIMAL, new BigDecimal("1.50")), parameters.get(2));
+        assertEquals(new SQLParameter(Types.DATE, Date.valueOf("2019-01-31")), parameters.get(3));
+        assertEquals(new SQLParameter(Types.BIGINT, null), parameters.get(4));
+    }
+
+    @Test
+    public void getSqlKeyWithQueryParameters() {
+        final SQLInputs sqlInputs = getTestInputsSqlKey(false);
+        final String keyWithoutParameters = getSqlKey(sqlInputs);
+
+        sqlInputs.setQueryParameters(getQueryParameters("int:1", ","));
+        final String keyFirstValue = getSqlKey(sqlInputs);
+        sqlInputs.setQueryParameters(getQueryParameters("int:2", ","));
+
+        assertNotEquals(keyWithoutParameters, keyFirstValue);
+        assertNotEquals(keyFirstValue, getSqlKey(sqlInputs));
+
+        //one value holding the separators is not the same key as two values
+        sqlInputs.setQueryParameters(Collections.singletonList(SQLParameter.parse("string:a, 12:b")));
+        final String keyOneValue = getSqlKey(sqlInputs);
+        sqlInputs.setQueryParameters(Arrays.asList(SQLParameter.parse("string:a"), SQLParameter.parse("string:b")));
+        assertNotEquals(keyOneValue, getSqlKey(sqlInputs));
+    }
+
+    @Test
+    public void queryParametersToKey() {
+        assertEquals("", SQLParameter.toKey(Collections.<SQLParameter>emptyList()));
+        assertEquals("4:1:7;12:-1;12:4:null;", SQLParameter.toKey(Arrays.asList(SQLParameter.parse("int:7"),
+                SQLParameter.parse("null:string"), SQLParameter.parse("string:null"))));
+    }
+
+    @Test
+    public void getEndpointsValues() {
+        final List<String> endpoints = getEndpoints(" db1 ,db2:1522,,[::1]:5432,::1,jdbc:h2:mem:test ", ",");
+        assertEquals(Arrays.asList("db1", "db2:1522", "[::1]:5432", "::1", "jdbc:h2:mem:test"), endpoints);
+
+        assertEquals("db1", getEndpointHost("db1"));
+        assertEquals(1521, getEndpointPort("db1", 1521));
+        assertEquals("db2", getEndpointHost("db2:1522"));
+        assertEquals(1522, getEndpointPort("db2:1522", 1521));
+        assertEquals("::1", getEndpointHost("[::1]:5432"));
+        assertEquals(5432, getEndpointPort("[::1]:5432", 1521));
+        assertEquals("::1", getEndpointHost("::1"));
+        assertEquals(1521, getEndpointPort("::1", 1521));
+        assertTrue(isJdbcUrl("jdbc:h2:mem:test"));
+        assertFalse(isJdbcUrl("db1"));
+    }
+
     @NotNull
     private SQLInputs getTestInputsSqlKey(boolean ignoreCase) {
         final SQLInputs sqlInputs = SQLInputs.builder().build();
@@ -88,6 +88,45 @@ public class SQLInputsValidatorTest {
                 INVALID_COMMAND, INVALID_TIMEOUT)));
     }
 
+    @Test
+    public void validateSqlQueryCursorInputsValues() throws Exception {
+        assertThat(validateSqlQueryCursorInputs("true", "0", "1"), is(Collections.<String>emptyList()));
+        assertThat(validateSqlQueryCursorInputs("yes", "-1", "0"), is(Arrays.asList(INVALID_USE_CURSOR, INVALID_FETCH_SIZE,
+                INVALID_CURSOR_IDLE_TIMEOUT)));
+        assertThat(validateSqlQueryCursorInputs(FALSE, "many", EMPTY), is(Arrays.asList(INVALID_FETCH_SIZE, INVALID_CURSOR_IDLE_TIMEOUT)));
+    }
+
+    @Test
+    public void validateQueryParametersValues() throws Exception {
+        assertThat(validateQueryParameters(EMPTY, ","), is(Collections.<String>emptyList()));
+        assertThat(validateQueryParameters("int:1,string:,null,null:date,timestamp:2019-01-31 10:00:00", ","),
+                is(Collections.<String>emptyList()));
+        assertThat(validateQueryParameters("int:one;blob:1;string", ";"), is(Arrays.asList(String.format(INVALID_QUERY_PARAMETER, "int:one"),
+                String.format(INVALID_QUERY_PARAMETER, "blob:1"), String.format(INVALID_QUERY_PARAMETER, "string"))));
+        assertThat(validateQueryParameters("int:1", EMPTY), is(Collections.singletonList(INVALID_QUERY_PARAMETERS_DELIMITER)));
+    }
+
+    @Test
+    public void validateSqlBulkLoadInputsValues() throws Exception {
+        assertThat(validateSqlBulkLoadInputs("1", MSSQL_DB_TYPE, "username", "Password", "someInstance", "123", "database", AUTH_SQL,
+                "INSERT INTO t VALUES (?, ?)", "rows.csv", "CSV", "int, string", ",", FALSE, "1000", "0", "4", "true", EMPTY, EMPTY, "0", EMPTY),
+                is(Collections.<String>emptyList()));
+        assertThat(validateSqlBulkLoadInputs("1", MSSQL_DB_TYPE, "username", "Password", "someInstance", "123", "database", AUTH_SQL,
+                "INSERT INTO t VALUES (?, ?)", EMPTY, "xml", "int,blob", ";;", "yes", "0", "-1", "0", "true", EMPTY, EMPTY, "0", EMPTY),
+                is(Arrays.asList(INVALID_FILE_NAME, INVALID_FILE_FORMAT, INVALID_CSV_DELIMITER, INVALID_HAS_HEADER,
+                        String.format(INVALID_COLUMN_TYPE, "blob"), INVALID_BATCH_SIZE, INVALID_COMMIT_INTERVAL, INVALID_THREADS)));
+    }
+
+    @Test
+    public void validateSqlQueryExportInputsValues() throws Exception {
+        assertThat(validateSqlQueryExportInputs("1", MSSQL_DB_TYPE, "username", "Password", "someInstance", "123", "database", AUTH_SQL,
+                "SELECT 1", "rows.jsonl.gz", "jsonl", ",", "true", "true", "0", "true", EMPTY, EMPTY, "0", EMPTY),
+                is(Collections.<String>emptyList()));
+        assertThat(validateSqlQueryExportInputs("1", MSSQL_DB_TYPE, "username", "Password", "someInstance", "123", "database", AUTH_SQL,
+                "SELECT 1", "rows.csv", "csv", EMPTY, "true", "zip", "-1", "true", EMPTY, EMPTY, "0", EMPTY),
+                is(Arrays.asList(INVALID_CSV_DELIMITER, INVALID_GZIP, INVALID_FETCH_SIZE)));
+    }
+
     @Test
     public void validateSqlQueryAllRowsInputsValid() throws Exception {
         final List<String> validationList = validateSqlQueryAllRowsInputs("1", MSSQL_DB_TYPE, "username",
@@ -228,6 +267,13 @@ public class SQLInputsValidatorTest {
         assertFalse(isValidResultSetConcurrency(EMPTY));
     }
 
+    @Test
+    public void validateDbmsOutputChunkSizeValues() throws Exception {
+        assertTrue(validateDbmsOutputChunkSize("1000").isEmpty());
+        assertThat(validateDbmsOutputChunkSize("0"), is(Collections.singletonList(INVALID_DBMS_OUTPUT_CHUNK_SIZE)));
+        assertThat(validateDbmsOutputChunkSize("abc"), is(Collections.singletonList(INVALID_DBMS_OUTPUT_CHUNK_SIZE)));
+    }
+
     @Test
     public void isValidResultSetTypeValid() throws Exception {
         assertTrue(isValidResultSetType(TYPE_FORWARD_ONLY));
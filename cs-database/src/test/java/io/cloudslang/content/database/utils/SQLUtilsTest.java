@@ -23,7 +23,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -62,6 +67,33 @@ public class SQLUtilsTest {
         assertEquals("null", value);
     }
 
+    @Test
+    public void testCreateStatementWithQueryParameters() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:parametersTest", "sa", "")) {
+            final SQLInputs sqlInputs = SQLInputs.builder()
+                    .sqlCommand("SELECT X FROM SYSTEM_RANGE(1, 10) WHERE X > ? AND ? IS NULL AND ? = 'a,b'")
+                    .queryParameters(SQLInputsUtils.getQueryParameters("int:8|null:date|string:a,b", "|"))
+                    .build();
+            final Statement statement = SQLUtils.createStatement(connection, sqlInputs, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            assertTrue(statement instanceof PreparedStatement);
+
+            final ResultSet resultSet = SQLUtils.executeQuery(statement, sqlInputs.getSqlCommand());
+            assertTrue(resultSet.next());
+            assertEquals(9, resultSet.getInt(1));
+            assertTrue(resultSet.next());
+            assertEquals(10, resultSet.getInt(1));
+            assertFalse(resultSet.next());
+            statement.close();
+
+            sqlInputs.setSqlCommand("SELECT 1");
+            sqlInputs.setQueryParameters(SQLInputsUtils.getQueryParameters(EMPTY, ","));
+            final Statement plainStatement = SQLUtils.createStatement(connection, sqlInputs, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            assertFalse(plainStatement instanceof PreparedStatement);
+            assertTrue(SQLUtils.execute(plainStatement, sqlInputs.getSqlCommand()));
+            plainStatement.close();
+        }
+    }
+
     @Test
     public void testGetIPv4OrIPv6WithSquareBracketsHost() {
         String host = SQLUtils.getIPv4OrIPv6WithSquareBracketsHost("localhost");
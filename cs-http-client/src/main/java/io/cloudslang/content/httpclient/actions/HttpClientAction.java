@@ -80,9 +80,13 @@ public class HttpClientAction {
      * @param kerberosConfFile                   A krb5.conf file with content similar to the one in the examples
      *                                           (where you replace CONTOSO.COM with your domain and 'ad.contoso.com' with your kdc FQDN).
      *                                           This configures the Kerberos mechanism required by the Java GSS-API methods.
+     *                                           The JVM loads its Kerberos configuration once, so all the Kerberos requests of a
+     *                                           worker must use the same configuration.
      *                                           <br>Format: http://web.mit.edu/kerberos/krb5-1.4/krb5-1.4.4/doc/krb5-admin/krb5.conf.html
      * @param kerberosLoginConfFile              A login.conf file needed by the JAAS framework with the content similar to the one in examples
      *                                           Format: http://docs.oracle.com/javase/7/docs/jre/api/security/jaas/spec/com/sun/security/auth/module/Krb5LoginModule.html
+     *                                           The Kerberos login of a principal and the service tickets obtained with it are reused by the
+     *                                           following requests of the worker, a new login is done once 80% of the lifetime of its TGT has passed.
      * @param kerberosSkipPortForLookup          Do not include port in the key distribution center database lookup. Default value: true. Valid values: true, false
      * @param proxyHost                          The proxy server used to access the web site.
      * @param proxyPort                          The proxy server port. Default value: 8080. Valid values: -1 and integer values greater than 0.
@@ -127,6 +131,12 @@ public class HttpClientAction {
      *                                           The default will create no more than 2 concurrent connections per given route. Default value: 2
      * @param connectionsMaxTotal                The maximum limit of connections in total.
      *                                           The default will create no more than 2 concurrent connections in total. Default value: 20
+     * @param connectionsIdleTimeout             The time, in seconds, after which a pooled connection that stayed idle is closed.
+     *                                           The pooled connections are swept in the background every 5 seconds, expired
+     *                                           connections are always closed. A value of '0' only closes the expired connections.
+     *                                           Default value: 60
+     * @param connectionsValidateAfterInactivity The time, in seconds, after which an idle pooled connection is checked for being
+     *                                           still open before it is reused. A value of '0' checks it every time. Default value: 2
      * @param headers                            The list containing the headers to use for the request separated by new line (CRLF).
      *                                           The header name - value pair will be separated by ":". Format: According to HTTP standard for headers (RFC 2616).
      *                                           Examples: Accept:text/plain
@@ -136,7 +146,11 @@ public class HttpClientAction {
      *                                           the default value will be used. You should not use this for method=HEAD or OPTIONS. Default value: ISO-8859-1
      * @param destinationFile                    The absolute path of a file on disk where to save the entity returned by the response.
      *                                           'returnResult' will no longer be populated with the entity if this is specified.
+     *                                           The entity bytes are written as received, so binary content is saved unchanged.
      *                                           You should not use this for method=HEAD or OPTIONS. Example: C:\temp\destinationFile.txt
+     * @param destinationFileCharacterSet        If specified, the entity saved in 'destinationFile' is decoded using the response
+     *                                           character set and re-encoded using this character set. Leave it empty for binary content.
+     *                                           Examples: UTF-8, ISO-8859-1
      * @param followRedirects                    Specifies whether the HTTP client automatically follows redirects.
      *                                           Redirects explicitly prohibited by the HTTP specification as requiring user intervention
      *                                           will not be followed (redirects on POST and PUT requests that are converted to GET requests).
@@ -180,6 +194,7 @@ public class HttpClientAction {
      * @param sourceFile                         The absolute path of a file on disk from where to read the entity for the http request.
      *                                           This will be read using 'requestCharacterSet' or 'contentType' input (see below).
      *                                           This should not be provided for method=GET, HEAD, TRACE. Examples: C:\temp\sourceFile.txt
+     *                                           The file is streamed while it is sent, it is never loaded in memory.
      * @param body                               The string to include in body for HTTP POST operation. If both sourceFile and body will be provided,
      *                                           the body input has priority over sourceFile. This should not be provided for method=GET, HEAD, TRACE
      * @param contentType                        The content type that should be set in the request header, representing the MIME-type of the
@@ -219,11 +234,79 @@ public class HttpClientAction {
      *                                           Please note that HttpClient will use this flag as a hint only.
      *                                           This value will be ignored when using HTTP protocol versions that do not support chunk coding, such as HTTP/1.0.
      *                                           This setting is ignored for multipart post entities.
+     * @param compression                        Controls the compression of the transferred entities. When empty, the request
+     *                                           asks for a gzip or deflate compressed response (Accept-Encoding) and the response
+     *                                           is decompressed while it is read. 'gzip' also compresses the request entity
+     *                                           (Content-Encoding: gzip). 'none' disables compression in both directions.
+     *                                           Valid values: none, gzip, ""
+     * @param retryCount                         The number of times a failed request is retried. Only the idempotent methods
+     *                                           (GET, HEAD, PUT, DELETE, OPTIONS, TRACE) with a repeatable entity are retried,
+     *                                           on transient connection errors and on the 'retryStatusCodes' responses.
+     *                                           Default value: 0
+     * @param retryDelay                         The base delay between retries, in milliseconds. The n-th retry waits a random
+     *                                           time between 0 and retryDelay * 2^(n-1) (exponential backoff with jitter),
+     *                                           or the time asked by the Retry-After header of the response. Default value: 1000
+     * @param retryMaxDelay                      The maximum delay between retries, in milliseconds. A response asking through
+     *                                           Retry-After to wait longer is returned without being retried. Default value: 30000
+     * @param retryStatusCodes                   The comma separated status codes that are retried. Default value: 429,502,503,504
+     * @param circuitBreakerThreshold            The number of consecutive failed requests to a host after which the requests to
+     *                                           that host fail fast for 'circuitBreakerOpenTime'. A request fails on a connection
+     *                                           error or on one of the 'retryStatusCodes', once its retries are spent.
+     *                                           A value of '0' disables the circuit breaker. Default value: 0
+     * @param circuitBreakerOpenTime             The time, in seconds, the requests to a host fail fast once its circuit breaker
+     *                                           opened. A single request is then let through to probe the host. Default value: 30
+     * @param rateLimit                          The number of requests per second allowed for 'rateLimitKey', shared by all the
+     *                                           operations running in the same worker. Decimal values are accepted, e.g. 0.5 for one
+     *                                           request every two seconds. Every request sent takes a permit: the retries, the
+     *                                           redirects and the byte ranges of 'downloadSegments' included.
+     *                                           An empty value disables the rate limiting.
+     * @param rateLimitBurst                     The number of requests that can be sent at once after 'rateLimitKey' was idle,
+     *                                           before being throttled to 'rateLimit'. Default value: 1
+     * @param rateLimitKey                       The key of the rate limit, so operations targeting several hosts of the same
+     *                                           service can share a quota. Default value: the scheme, host and port of 'url'
+     * @param rateLimitMaxWait                   The maximum time, in milliseconds, to wait for the rate limit before failing
+     *                                           the operation without sending the request. A value of '0' fails fast.
+     *                                           Default value: 1000
+     * @param downloadSegments                   The number of byte ranges a GET response written to 'destinationFile' is split into
+     *                                           and downloaded concurrently, when the server supports ranges (Accept-Ranges: bytes).
+     *                                           Each segment is at least 1 MB and uses its own pooled connection, so the number of
+     *                                           segments downloaded in parallel is capped by 'connectionsMaxPerRoute' (default 2),
+     *                                           which should be raised accordingly. The segments are written into 'destinationFile'.part,
+     *                                           renamed once its length was verified. Such a response is not decompressed.
+     *                                           A response that is not the download (e.g. an error status) is returned in
+     *                                           'returnResult' and 'destinationFile' is left untouched.
+     *                                           Default value: 1 (a single stream)
+     * @param resumeDownload                     If true and 'destinationFile' already holds the first bytes of the entity of a GET,
+     *                                           only the missing bytes are requested (Range header) and appended to the file.
+     *                                           The file is overwritten when the server does not support ranges, and kept as it is
+     *                                           when the server answers with an error, returned in 'returnResult'.
+     *                                           Valid values: true, false
+     *                                           Default value: false
+     * @param useResponseCache                   If true, the bodies of the GET responses carrying an ETag or a Last-Modified header are
+     *                                           kept in memory and the next identical request is sent with If-None-Match/If-Modified-Since.
+     *                                           When the server answers 304 Not Modified the cached response is returned, with its
+     *                                           original status code. Responses over 1 MB are not cached and the cache is bounded to 32 MB.
+     *                                           Valid values: true, false
+     *                                           Default value: false
+     * @param responseSelectors                  The comma separated JSONPath or XPath selectors evaluated while the response is
+     *                                           read, without parsing it into a document first. The selected values are returned
+     *                                           in 'selectedValues'. JSONPath selectors start with '$' and support names, indexes,
+     *                                           '*' and '..', e.g. $.value[*].id,$..nextLink. XPath selectors start with '/' and
+     *                                           support element names, '*', '//' and a last '@attribute' step, e.g. //item/@id.
+     *                                           Filters and slices are not supported. Cannot be used with 'destinationFile'.
+     * @param skipResponseBody                   If true and 'responseSelectors' is specified, the response body is not kept in memory
+     *                                           and 'returnResult' is empty, only the selected values are returned.
+     *                                           Valid values: true, false
+     *                                           Default value: false
+     * @param collectMetrics                     If true, the state of the connection pool and the timings of the request are
+     *                                           returned in the 'routePoolStats', 'totalPoolStats' and 'requestTimings' outputs.
+     *                                           Valid values: true, false
+     *                                           Default value: false
      * @param method                             The HTTP method used. This is a required input.
      * @param httpClientCookieSession            the session object that holds the cookies if the useCookies input is true.
      * @param httpClientPoolingConnectionManager the GlobalSessionObject that holds the http client pooling connection manager.
      * @return a map containing the output of the operation. Keys present in the map are:
-     * <br><br><b>returnResult</b> - This will contain the response entity (unless 'destinationFile' is specified).
+     * <br><br><b>returnResult</b> - This will contain the response entity (unless 'destinationFile' is specified or 'skipResponseBody' is true).
      * In case of an error this output will contain the error message.
      * <br><b>exception</b> - In case of success response, this result is empty. In case of failure response,
      * this result contains the java stack trace of the runtime exception.
@@ -238,6 +321,29 @@ public class HttpClientAction {
      * <br><b>responseHeaders</b> - The list containing the headers of the response message, separated by newline.
      * Format: This is conforming to HTTP standard for headers (RFC 2616).
      * <br><b>protocolVersion</b> - The HTTP protocol version. Examples: HTTP/1.1
+     * <br><b>bytesWritten</b> - The number of bytes written to 'destinationFile'. Empty if 'destinationFile' is not specified.
+     * <br><b>throughput</b> - The rate at which the entity was written to 'destinationFile', in bytes per second.
+     * Empty if 'destinationFile' is not specified.
+     * <br><b>bytesUploaded</b> - The number of bytes of the request entity written to the connection, after compression.
+     * Empty if the request has no entity.
+     * <br><b>uploadThroughput</b> - The rate at which the request entity was written, in bytes per second.
+     * Empty if the request has no entity.
+     * <br><b>cacheHit</b> - true if the response was served from the cache after the server answered 304 Not Modified,
+     * false otherwise. Only set when 'useResponseCache' is true.
+     * <br><b>selectedValues</b> - A JSON object with the array of the values matched by each of the 'responseSelectors',
+     * in document order. JSON values are returned as they appear in the response, XML values as strings.
+     * Only set when 'responseSelectors' is specified. Example: {"$.value[*].id":["a1","b2"]}
+     * When the response is not valid JSON or XML, e.g. an HTML error page, every array is empty.
+     * <br><b>selectorsError</b> - Why the response could not be parsed for the 'responseSelectors'. Only set when it could not be
+     * parsed, 'returnResult' and 'statusCode' are returned as usual.
+     * <br><b>rateLimitWait</b> - The time, in milliseconds, the request waited for 'rateLimit'. Only set when 'rateLimit' is specified.
+     * <br><b>routePoolStats</b> - The connections of the pool for the route of the request, sampled while the request
+     * held its connection. Only set when 'collectMetrics' is true. Format: leased=1,available=0,pending=0,max=2
+     * <br><b>totalPoolStats</b> - The connections of the whole pool, in the same format as 'routePoolStats'.
+     * <br><b>requestTimings</b> - The phases of the request in milliseconds: the wait for a pooled connection, the TCP connect,
+     * the TLS handshake, the time to the first byte of the response and the time to read its body.
+     * Only set when 'collectMetrics' is true.
+     * Format: leaseWait=0,connect=3,tlsHandshake=12,timeToFirstByte=40,bodyRead=2,total=58
      * <br><b>reasonPhrase</b> - The reason phrase from the origin HTTP response. This depends on the status code and are according to RFC 1945 and RFC 2048
      * <br>Examples: (HTTP 1.0): OK, Created, Accepted, No Content, Moved Permanently, Moved Temporarily, Not Modified, Bad Request,
      * Unauthorized, Forbidden, Not Found, Internal Server Error, Not Implemented, Bad Gateway,
@@ -257,6 +363,17 @@ public class HttpClientAction {
                     @Output(RESPONSE_HEADERS),
                     @Output(PROTOCOL_VERSION),
                     @Output(REASON_PHRASE),
+                    @Output(BYTES_WRITTEN),
+                    @Output(THROUGHPUT),
+                    @Output(BYTES_UPLOADED),
+                    @Output(UPLOAD_THROUGHPUT),
+                    @Output(CACHE_HIT),
+                    @Output(RATE_LIMIT_WAIT),
+                    @Output(SELECTED_VALUES),
+                    @Output(SELECTORS_ERROR),
+                    @Output(ROUTE_POOL_STATS),
+                    @Output(TOTAL_POOL_STATS),
+                    @Output(REQUEST_TIMINGS),
                     @Output(RETURN_CODE),
                     @Output(RETURN_RESULT)
             },
@@ -292,9 +409,12 @@ public class HttpClientAction {
             @Param(HttpClientInputs.KEEP_ALIVE) String keepAlive,
             @Param(HttpClientInputs.CONNECTIONS_MAX_PER_ROUTE) String connectionsMaxPerRoot,
             @Param(HttpClientInputs.CONNECTIONS_MAX_TOTAL) String connectionsMaxTotal,
+            @Param(HttpClientInputs.CONNECTIONS_IDLE_TIMEOUT) String connectionsIdleTimeout,
+            @Param(HttpClientInputs.CONNECTIONS_VALIDATE_AFTER_INACTIVITY) String connectionsValidateAfterInactivity,
             @Param(HttpClientInputs.HEADERS) String headers,
             @Param(HttpClientInputs.RESPONSE_CHARACTER_SET) String responseCharacterSet,
             @Param(HttpClientInputs.DESTINATION_FILE) String destinationFile,
+            @Param(HttpClientInputs.DESTINATION_FILE_CHARACTER_SET) String destinationFileCharacterSet,
             @Param(HttpClientInputs.FOLLOW_REDIRECTS) String followRedirects,
             @Param(HttpClientInputs.QUERY_PARAMS) String queryParams,
             @Param(HttpClientInputs.QUERY_PARAMS_ARE_URLENCODED) String queryParamsAreURLEncoded,
@@ -311,6 +431,23 @@ public class HttpClientAction {
             @Param(HttpClientInputs.MULTIPART_FILES_CONTENT_TYPE) String multipartFilesContentType,
             @Param(HttpClientInputs.MULTIPART_VALUES_ARE_URLENCODED) String multipartValuesAreURLEncoded,
             @Param(HttpClientInputs.CHUNKED_REQUEST_ENTITY) String chunkedRequestEntity,
+            @Param(HttpClientInputs.COMPRESSION) String compression,
+            @Param(HttpClientInputs.RETRY_COUNT) String retryCount,
+            @Param(HttpClientInputs.RETRY_DELAY) String retryDelay,
+            @Param(HttpClientInputs.RETRY_MAX_DELAY) String retryMaxDelay,
+            @Param(HttpClientInputs.RETRY_STATUS_CODES) String retryStatusCodes,
+            @Param(HttpClientInputs.CIRCUIT_BREAKER_THRESHOLD) String circuitBreakerThreshold,
+            @Param(HttpClientInputs.CIRCUIT_BREAKER_OPEN_TIME) String circuitBreakerOpenTime,
+            @Param(HttpClientInputs.RATE_LIMIT) String rateLimit,
+            @Param(HttpClientInputs.RATE_LIMIT_BURST) String rateLimitBurst,
+            @Param(HttpClientInputs.RATE_LIMIT_KEY) String rateLimitKey,
+            @Param(HttpClientInputs.RATE_LIMIT_MAX_WAIT) String rateLimitMaxWait,
+            @Param(HttpClientInputs.DOWNLOAD_SEGMENTS) String downloadSegments,
+            @Param(HttpClientInputs.RESUME_DOWNLOAD) String resumeDownload,
+            @Param(HttpClientInputs.USE_RESPONSE_CACHE) String useResponseCache,
+            @Param(HttpClientInputs.RESPONSE_SELECTORS) String responseSelectors,
+            @Param(HttpClientInputs.SKIP_RESPONSE_BODY) String skipResponseBody,
+            @Param(HttpClientInputs.COLLECT_METRICS) String collectMetrics,
             @Param(value = HttpClientInputs.METHOD, required = true) String method,
             @Param(HttpClientInputs.SESSION_COOKIES) SerializableSessionObject httpClientCookieSession,
             @Param(HttpClientInputs.SESSION_CONNECTION_POOL) GlobalSessionObject httpClientPoolingConnectionManager) {
@@ -340,9 +477,12 @@ public class HttpClientAction {
         httpClientInputs.setKeepAlive(keepAlive);
         httpClientInputs.setConnectionsMaxPerRoute(connectionsMaxPerRoot);
         httpClientInputs.setConnectionsMaxTotal(connectionsMaxTotal);
+        httpClientInputs.setConnectionsIdleTimeout(connectionsIdleTimeout);
+        httpClientInputs.setConnectionsValidateAfterInactivity(connectionsValidateAfterInactivity);
         httpClientInputs.setHeaders(headers);
         httpClientInputs.setResponseCharacterSet(responseCharacterSet);
         httpClientInputs.setDestinationFile(destinationFile);
+        httpClientInputs.setDestinationFileCharacterSet(destinationFileCharacterSet);
         httpClientInputs.setFollowRedirects(followRedirects);
         httpClientInputs.setQueryParams(queryParams);
         httpClientInputs.setQueryParamsAreURLEncoded(queryParamsAreURLEncoded);
@@ -359,6 +499,23 @@ public class HttpClientAction {
         httpClientInputs.setMultipartFilesContentType(multipartFilesContentType);
         httpClientInputs.setMultipartValuesAreURLEncoded(multipartValuesAreURLEncoded);
         httpClientInputs.setChunkedRequestEntity(chunkedRequestEntity);
+        httpClientInputs.setCompression(compression);
+        httpClientInputs.setRetryCount(retryCount);
+        httpClientInputs.setRetryDelay(retryDelay);
+        httpClientInputs.setRetryMaxDelay(retryMaxDelay);
+        httpClientInputs.setRetryStatusCodes(retryStatusCodes);
+        httpClientInputs.setCircuitBreakerThreshold(circuitBreakerThreshold);
+        httpClientInputs.setCircuitBreakerOpenTime(circuitBreakerOpenTime);
+        httpClientInputs.setRateLimit(rateLimit);
+        httpClientInputs.setRateLimitBurst(rateLimitBurst);
+        httpClientInputs.setRateLimitKey(rateLimitKey);
+        httpClientInputs.setRateLimitMaxWait(rateLimitMaxWait);
+        httpClientInputs.setDownloadSegments(downloadSegments);
+        httpClientInputs.setResumeDownload(resumeDownload);
+        httpClientInputs.setUseResponseCache(useResponseCache);
+        httpClientInputs.setResponseSelectors(responseSelectors);
+        httpClientInputs.setSkipResponseBody(skipResponseBody);
+        httpClientInputs.setCollectMetrics(collectMetrics);
         httpClientInputs.setMethod(method);
         httpClientInputs.setTlsVersion(tlsVersion);
         httpClientInputs.setAllowedCyphers(allowedCyphers);
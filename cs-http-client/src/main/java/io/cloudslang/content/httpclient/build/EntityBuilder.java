@@ -17,14 +17,16 @@
 
 package io.cloudslang.content.httpclient.build;
 
+import io.cloudslang.content.httpclient.build.entity.FileChannelBody;
+import io.cloudslang.content.httpclient.build.entity.FileChannelEntity;
 import io.cloudslang.content.httpclient.entities.HttpClientInputs;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 
@@ -32,6 +34,8 @@ import java.io.File;
 import java.nio.charset.Charset;
 import java.util.List;
 
+import static io.cloudslang.content.httpclient.entities.Constants.COMPRESSION_GZIP;
+
 public class EntityBuilder {
     private String body;
     private String filePath;
@@ -44,6 +48,7 @@ public class EntityBuilder {
     private String multipartBodiesContentType = "text/plain; charset=ISO-8859-1";
     private String multipartFilesContentType = "application/octet-stream";
     private String chunkedRequestEntity;
+    private String compression;
 
     public EntityBuilder setBody(String body) {
         this.body = body;
@@ -108,7 +113,21 @@ public class EntityBuilder {
         return this;
     }
 
+    public EntityBuilder setCompression(String compression) {
+        this.compression = compression;
+        return this;
+    }
+
     public HttpEntity buildEntity() {
+        HttpEntity httpEntity = buildUncompressedEntity();
+        if (httpEntity != null && COMPRESSION_GZIP.equalsIgnoreCase(compression)) {
+            //the body is compressed while it is written to the connection, it is never held in memory
+            return new GzipCompressingEntity(httpEntity);
+        }
+        return httpEntity;
+    }
+
+    private HttpEntity buildUncompressedEntity() {
         AbstractHttpEntity httpEntity = null;
         if (!StringUtils.isEmpty(formParams)) {
             List<? extends NameValuePair> list;
@@ -124,7 +143,7 @@ public class EntityBuilder {
                 throw new IllegalArgumentException("file set by input '" + HttpClientInputs.SOURCE_FILE
                         + "' does not exist:" + filePath);
             }
-            httpEntity = new FileEntity(file, contentType);
+            httpEntity = new FileChannelEntity(file, contentType);
         }
         if (httpEntity != null) {
             if (!StringUtils.isEmpty(chunkedRequestEntity)) {
@@ -152,7 +171,12 @@ public class EntityBuilder {
                 ContentType filesCT = ContentType.parse(multipartFilesContentType);
                 for (NameValuePair nameValuePair : list) {
                     File file = new File(nameValuePair.getValue());
-                    multipartEntityBuilder.addBinaryBody(nameValuePair.getName(), file, filesCT, file.getName());
+                    if (!file.exists()) {
+                        throw new IllegalArgumentException("file set by input '" + HttpClientInputs.MULTIPART_FILES
+                                + "' does not exist:" + nameValuePair.getValue());
+                    }
+                    //the parts are written one after the other as the entity is sent, the files are never loaded
+                    multipartEntityBuilder.addPart(nameValuePair.getName(), new FileChannelBody(file, filesCT, file.getName()));
                 }
             }
             return multipartEntityBuilder.build();
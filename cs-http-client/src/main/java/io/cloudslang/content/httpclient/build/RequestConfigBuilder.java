@@ -17,16 +17,21 @@
 
 package io.cloudslang.content.httpclient.build;
 
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
 import org.apache.http.client.config.RequestConfig;
 
+import static io.cloudslang.content.httpclient.entities.Constants.COMPRESSION_GZIP;
+import static io.cloudslang.content.httpclient.entities.Constants.COMPRESSION_NONE;
+
 public class RequestConfigBuilder {
     private String connectionTimeout = "0";
     private String socketTimeout = "0";
     private String followRedirects = "true";
     private String proxyHost;
     private String proxyPort = "8080";
+    private String compression;
 
     public RequestConfigBuilder setConnectionTimeout(String connectionTimeout) {
         if (!StringUtils.isEmpty(connectionTimeout)) {
@@ -61,6 +66,11 @@ public class RequestConfigBuilder {
         return this;
     }
 
+    public RequestConfigBuilder setCompression(String compression) {
+        this.compression = compression;
+        return this;
+    }
+
     public RequestConfig buildRequestConfig() {
         HttpHost proxy = null;
         final int proxyPortNumber;
@@ -68,6 +78,11 @@ public class RequestConfigBuilder {
             proxyPortNumber = Utils.validatePortNumber(proxyPort);
             proxy = new HttpHost(proxyHost, proxyPortNumber);
         }
+        if (!StringUtils.isEmpty(compression) && !COMPRESSION_NONE.equalsIgnoreCase(compression)
+                && !COMPRESSION_GZIP.equalsIgnoreCase(compression)) {
+            throw new IllegalArgumentException("Invalid value '" + compression + "' for input '" + HttpClientInputs.COMPRESSION
+                    + "'. Valid values: '" + COMPRESSION_NONE + "', '" + COMPRESSION_GZIP + "'.");
+        }
         int connectionTimeout = Integer.parseInt(this.connectionTimeout);
         int socketTimeout = Integer.parseInt(this.socketTimeout);
         //todo should we also allow user to enable redirects prohibited by the HTTP specification (on POST and PUT)? See 'LaxRedirectStrategy'
@@ -75,6 +90,8 @@ public class RequestConfigBuilder {
                 .setConnectTimeout(connectionTimeout <= 0 ? connectionTimeout : connectionTimeout * 1000)
                 .setSocketTimeout(socketTimeout <= 0 ? socketTimeout : socketTimeout * 1000)
                 .setProxy(proxy)
+                //Accept-Encoding is sent and the response is decompressed as it is read unless compression is 'none'
+                .setContentCompressionEnabled(!COMPRESSION_NONE.equalsIgnoreCase(compression))
                 .setRedirectsEnabled(Boolean.parseBoolean(followRedirects)).build();
     }
 }
\ No newline at end of file
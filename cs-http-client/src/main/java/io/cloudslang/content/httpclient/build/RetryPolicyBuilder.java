@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build;
+
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.execute.RetryPolicy;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RetryPolicyBuilder {
+    public static final String DEFAULT_RETRY_STATUS_CODES = "429,502,503,504";
+
+    private String retryCount = "0";
+    private String retryDelay = "1000";
+    private String retryMaxDelay = "30000";
+    private String retryStatusCodes = DEFAULT_RETRY_STATUS_CODES;
+    private String circuitBreakerThreshold = "0";
+    private String circuitBreakerOpenTime = "30";
+
+    public RetryPolicyBuilder setRetryCount(String retryCount) {
+        if (!StringUtils.isEmpty(retryCount)) {
+            this.retryCount = retryCount;
+        }
+        return this;
+    }
+
+    public RetryPolicyBuilder setRetryDelay(String retryDelay) {
+        if (!StringUtils.isEmpty(retryDelay)) {
+            this.retryDelay = retryDelay;
+        }
+        return this;
+    }
+
+    public RetryPolicyBuilder setRetryMaxDelay(String retryMaxDelay) {
+        if (!StringUtils.isEmpty(retryMaxDelay)) {
+            this.retryMaxDelay = retryMaxDelay;
+        }
+        return this;
+    }
+
+    public RetryPolicyBuilder setRetryStatusCodes(String retryStatusCodes) {
+        if (!StringUtils.isEmpty(retryStatusCodes)) {
+            this.retryStatusCodes = retryStatusCodes;
+        }
+        return this;
+    }
+
+    public RetryPolicyBuilder setCircuitBreakerThreshold(String circuitBreakerThreshold) {
+        if (!StringUtils.isEmpty(circuitBreakerThreshold)) {
+            this.circuitBreakerThreshold = circuitBreakerThreshold;
+        }
+        return this;
+    }
+
+    public RetryPolicyBuilder setCircuitBreakerOpenTime(String circuitBreakerOpenTime) {
+        if (!StringUtils.isEmpty(circuitBreakerOpenTime)) {
+            this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+        }
+        return this;
+    }
+
+    /**
+     * @return the policy of the request, null if it neither retries nor uses a circuit breaker
+     */
+    public RetryPolicy buildRetryPolicy() {
+        int maxRetries = parseNonNegative(retryCount, HttpClientInputs.RETRY_COUNT);
+        int threshold = parseNonNegative(circuitBreakerThreshold, HttpClientInputs.CIRCUIT_BREAKER_THRESHOLD);
+        if (maxRetries == 0 && threshold == 0) {
+            return null;
+        }
+        int initialDelay = parseNonNegative(retryDelay, HttpClientInputs.RETRY_DELAY);
+        int maxDelay = parseNonNegative(retryMaxDelay, HttpClientInputs.RETRY_MAX_DELAY);
+        int openTime = parseNonNegative(circuitBreakerOpenTime, HttpClientInputs.CIRCUIT_BREAKER_OPEN_TIME);
+
+        Set<Integer> statusCodes = new HashSet<>();
+        for (String statusCode : retryStatusCodes.split(",")) {
+            if (StringUtils.isNotBlank(statusCode)) {
+                statusCodes.add(parseNonNegative(statusCode.trim(), HttpClientInputs.RETRY_STATUS_CODES));
+            }
+        }
+        return new RetryPolicy(maxRetries, initialDelay, Math.max(initialDelay, maxDelay), statusCodes,
+                threshold, TimeUnit.SECONDS.toMillis(openTime));
+    }
+
+    private static int parseNonNegative(String value, String inputName) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        throw new IllegalArgumentException("the '" + inputName + "' input should be a non negative integer, got: " + value);
+    }
+}
@@ -38,9 +38,13 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AuthSchemeProviderLookupBuilder {
+    private static final Map<String, File> KRB5_CONFIGURATIONS = new HashMap<>();
+
     private AuthTypes authTypes;
     private String skipPortAtKerberosDatabaseLookup = "true";
     private String kerberosConfigFile;
@@ -116,43 +120,30 @@ public class AuthSchemeProviderLookupBuilder {
                     registryBuilder.register(AuthSchemes.DIGEST, new DigestSchemeFactory());
                     break;
                 case "KERBEROS":
+                    String krb5Config;
                     if (kerberosConfigFile != null) {
-                        System.setProperty("java.security.krb5.conf", kerberosConfigFile);
+                        krb5Config = kerberosConfigFile;
                     } else {
-                        File krb5Config;
                         String domain = host.replaceAll(".*\\.(?=.*\\.)", "");
                         try {
-                            krb5Config = createKrb5Configuration(domain);
+                            krb5Config = getKrb5Configuration(domain).toURI().toString();
                         } catch (IOException e) {
                             throw new RuntimeException("could not create the krb5 config file" + e.getMessage(), e);
                         }
-                        System.setProperty("java.security.krb5.conf", krb5Config.toURI().toString());
                     }
+                    //JVM wide, the JDK keeps using the first configuration it loaded (see KerberosSubjectCache)
+                    System.setProperty("java.security.krb5.conf", krb5Config);
 
                     if (kerberosLoginConfigFile != null) {
                         System.setProperty("java.security.auth.login.config", kerberosLoginConfigFile);
-                    } else {
-                        File loginConfig;
-                        try {
-                            loginConfig = createLoginConfig();
-                        } catch (IOException e) {
-                            throw new RuntimeException("could not create the kerberos login config file" + e.getMessage(), e);
-                        }
-                        System.setProperty("java.security.auth.login.config", loginConfig.toURI().toString());
-                    }
-
-                    if (password != null) {
-                        System.setProperty(KrbHttpLoginModule.PAS, password);
                     }
-                    if (username != null) {
-                        System.setProperty(KrbHttpLoginModule.USR, username);
-                    }
-
-                    System.setProperty("javax.security.auth.useSubjectCredsOnly", "false");
 
+                    //the GSS contexts are created as the cached Subject and take its credentials first,
+                    //javax.security.auth.useSubjectCredsOnly is left to the JVM (see KerberosSubjectCache)
                     boolean skipPort = Boolean.parseBoolean(skipPortAtKerberosDatabaseLookup);
-                    registryBuilder.register(AuthSchemes.KERBEROS, new KerberosSchemeFactory(skipPort));
-                    registryBuilder.register(AuthSchemes.SPNEGO, new SPNegoSchemeFactory(skipPort));
+                    KerberosLogin login = new KerberosLogin(username, password, kerberosLoginConfigFile);
+                    registryBuilder.register(AuthSchemes.KERBEROS, new CachedSubjectKerberosSchemeFactory(skipPort, login));
+                    registryBuilder.register(AuthSchemes.SPNEGO, new CachedSubjectSPNegoSchemeFactory(skipPort, login));
                     break;
                 case AuthTypes.ANONYMOUS:
                     break;
@@ -165,6 +156,20 @@ public class AuthSchemeProviderLookupBuilder {
     }
 
 
+    /**
+     * The generated krb5.conf of a domain is written once per process.
+     */
+    private static File getKrb5Configuration(String domain) throws IOException {
+        synchronized (KRB5_CONFIGURATIONS) {
+            File krb5Config = KRB5_CONFIGURATIONS.get(domain);
+            if (krb5Config == null || !krb5Config.isFile()) {
+                krb5Config = createKrb5Configuration(domain);
+                KRB5_CONFIGURATIONS.put(domain, krb5Config);
+            }
+            return krb5Config;
+        }
+    }
+
     private static File createKrb5Configuration(String domain) throws IOException {
         File tempFile = File.createTempFile("krb", "kdc");
         tempFile.deleteOnExit();
@@ -190,29 +195,6 @@ public class AuthSchemeProviderLookupBuilder {
         return tempFile;
     }
 
-    private static File createLoginConfig() throws IOException {
-        File tempFile = File.createTempFile("krb", "loginConf");
-        tempFile.deleteOnExit();
-        ArrayList<String> lines = new ArrayList<>();
-        lines.add("com.sun.security.jgss.initiate {\n" +
-                "  " + KrbHttpLoginModule.class.getCanonicalName() + " required\n" +
-                "  doNotPrompt=true\n" +
-                "  useFirstPass=true\n" +
-                "  debug=true ;\n" +
-                "};");
-        FileWriter writer = null;
-        try {
-            writer = new FileWriter(tempFile);
-            IOUtils.writeLines(lines, System.lineSeparator(), writer);
-        } finally {
-            if (writer != null) {
-//                IOUtils.closeQuietly(writer);
-                safeClose(writer);
-            }
-        }
-        return tempFile;
-    }
-
     public static void safeClose(FileWriter fis) {
         if (fis != null) {
             try {
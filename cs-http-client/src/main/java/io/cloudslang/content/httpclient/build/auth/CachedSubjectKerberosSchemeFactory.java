@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.auth;
+
+import org.apache.http.auth.AuthScheme;
+import org.apache.http.auth.Credentials;
+import org.apache.http.impl.auth.KerberosScheme;
+import org.apache.http.impl.auth.KerberosSchemeFactory;
+import org.apache.http.protocol.HttpContext;
+import org.ietf.jgss.GSSException;
+
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * Creates Kerberos schemes generating their tokens as the cached Subject of the login, so the TGT and the service
+ * tickets are reused across requests.
+ */
+public class CachedSubjectKerberosSchemeFactory extends KerberosSchemeFactory {
+    private final KerberosLogin login;
+
+    CachedSubjectKerberosSchemeFactory(boolean stripPort, KerberosLogin login) {
+        super(stripPort);
+        this.login = login;
+    }
+
+    @Override
+    public AuthScheme create(HttpContext context) {
+        return new KerberosScheme(isStripPort(), isUseCanonicalHostname()) {
+            @Override
+            protected byte[] generateToken(final byte[] input, final String authServer, final Credentials credentials)
+                    throws GSSException {
+                return login.generateToken(new PrivilegedExceptionAction<byte[]>() {
+                    @Override
+                    public byte[] run() throws GSSException {
+                        return generateSubjectToken(input, authServer, credentials);
+                    }
+                });
+            }
+
+            private byte[] generateSubjectToken(byte[] input, String authServer, Credentials credentials) throws GSSException {
+                return super.generateToken(input, authServer, credentials);
+            }
+        };
+    }
+}
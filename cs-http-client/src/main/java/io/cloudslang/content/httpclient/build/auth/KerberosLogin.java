@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.auth;
+
+import org.ietf.jgss.GSSException;
+
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * The principal a Kerberos or SPNEGO scheme authenticates as. The login itself is only done, or taken from
+ * {@link KerberosSubjectCache}, once a server asks for a token.
+ */
+class KerberosLogin {
+    private final String username;
+    private final String password;
+    private final String loginConfigFile;
+
+    KerberosLogin(String username, String password, String loginConfigFile) {
+        this.username = username;
+        this.password = password;
+        this.loginConfigFile = loginConfigFile;
+    }
+
+    byte[] generateToken(PrivilegedExceptionAction<byte[]> action) throws GSSException {
+        return KerberosSubjectCache.doAs(KerberosSubjectCache.getSubject(username, password, loginConfigFile), action);
+    }
+}
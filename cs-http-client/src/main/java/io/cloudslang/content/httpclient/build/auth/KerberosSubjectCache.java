@@ -0,0 +1,214 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.auth;
+
+import com.sun.security.auth.module.Krb5LoginModule;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.ietf.jgss.GSSException;
+
+import javax.security.auth.Subject;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.callback.UnsupportedCallbackException;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.LoginContext;
+import javax.security.auth.login.LoginException;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide cache of the Kerberos logins. The Subject of a login holds its TGT and, once used for a
+ * GSS context, the service tickets obtained with it, so the requests of the same principal skip both the AS and the
+ * TGS exchanges with the KDC. A login is done again once 80% of the lifetime of its TGT has passed.
+ * <p>
+ * The service tickets are only kept in the Subject while javax.security.auth.useSubjectCredsOnly is not 'false',
+ * which is the JDK default. The property is JVM wide and left as it is: when another component sets it to 'false',
+ * the cached TGT is still used but every request asks the KDC for its service ticket.
+ * <p>
+ * The logins are not keyed by the krb5 configuration: java.security.krb5.conf is a JVM wide property and the JDK
+ * keeps the configuration it loaded first, so a single krb5 configuration per JVM is supported.
+ */
+public class KerberosSubjectCache {
+    public static final int MAX_CACHED_SUBJECTS = 64;
+    public static final String LOGIN_CONFIGURATION_NAME = "com.sun.security.jgss.initiate";
+    static final long DEFAULT_LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Configuration PASSWORD_LOGIN_CONFIGURATION = new PasswordLoginConfiguration();
+    //the credentials of a login with a custom configuration are passed through JVM wide system properties
+    private static final Object SYSTEM_PROPERTIES_LOGIN_LOCK = new Object();
+    private static final Map<String, CachedSubject> SUBJECTS = new LinkedHashMap<String, CachedSubject>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSubject> eldest) {
+            return size() > MAX_CACHED_SUBJECTS;
+        }
+    };
+
+    /**
+     * @param loginConfigFile the JAAS configuration used for the login, null to log in with the username and password
+     * @return the Subject of a valid login of the principal
+     */
+    public static Subject getSubject(String username, String password, String loginConfigFile) {
+        String key = StringUtils.join(new String[]{username, password == null ? null : DigestUtils.sha256Hex(password),
+                loginConfigFile}, '\n');
+        CachedSubject cachedSubject;
+        synchronized (SUBJECTS) {
+            cachedSubject = SUBJECTS.get(key);
+            if (cachedSubject == null) {
+                cachedSubject = new CachedSubject();
+                SUBJECTS.put(key, cachedSubject);
+            }
+        }
+        //the KDC round trip only blocks the requests of the same principal
+        synchronized (cachedSubject) {
+            long now = System.currentTimeMillis();
+            if (cachedSubject.subject == null || now >= cachedSubject.renewAt) {
+                Subject subject = login(username, password, loginConfigFile);
+                cachedSubject.subject = subject;
+                cachedSubject.renewAt = getRenewalTime(subject, now);
+            }
+            return cachedSubject.subject;
+        }
+    }
+
+    /**
+     * Runs the creation of a GSS token as the Subject of the login.
+     */
+    public static byte[] doAs(Subject subject, PrivilegedExceptionAction<byte[]> action) throws GSSException {
+        try {
+            return Subject.doAs(subject, action);
+        } catch (PrivilegedActionException e) {
+            if (e.getException() instanceof GSSException) {
+                throw (GSSException) e.getException();
+            }
+            throw new RuntimeException(e.getException().getMessage(), e.getException());
+        }
+    }
+
+    public static void clear() {
+        synchronized (SUBJECTS) {
+            SUBJECTS.clear();
+        }
+    }
+
+    /**
+     * @return the time at which 80% of the lifetime of the TGT of the Subject has passed
+     */
+    static long getRenewalTime(Subject subject, long now) {
+        for (KerberosTicket ticket : subject.getPrivateCredentials(KerberosTicket.class)) {
+            KerberosPrincipal server = ticket.getServer();
+            if (server != null && server.getName().startsWith("krbtgt/") && ticket.getEndTime() != null) {
+                Date start = ticket.getStartTime() != null ? ticket.getStartTime() : ticket.getAuthTime();
+                long startMillis = start != null ? start.getTime() : now;
+                return startMillis + (ticket.getEndTime().getTime() - startMillis) * 4 / 5;
+            }
+        }
+        //a login keeping no TGT in the Subject, e.g. one using a keytab lazily
+        return now + DEFAULT_LIFETIME_MILLIS;
+    }
+
+    private static Subject login(String username, String password, String loginConfigFile) {
+        Subject subject = new Subject();
+        CallbackHandler callbackHandler = new PasswordCallbackHandler(username, password);
+        try {
+            if (loginConfigFile == null) {
+                new LoginContext(LOGIN_CONFIGURATION_NAME, subject, callbackHandler, PASSWORD_LOGIN_CONFIGURATION).login();
+            } else {
+                loginWithSystemProperties(username, password, subject, callbackHandler);
+            }
+        } catch (LoginException e) {
+            throw new RuntimeException("Kerberos login failed for " + username + ": " + e.getMessage(), e);
+        }
+        return subject;
+    }
+
+    /**
+     * A KrbHttpLoginModule listed in the configuration takes the credentials from system properties, so these
+     * logins are serialized across all the principals and the properties only live for the duration of one login.
+     */
+    private static void loginWithSystemProperties(String username, String password, Subject subject,
+                                                  CallbackHandler callbackHandler) throws LoginException {
+        synchronized (SYSTEM_PROPERTIES_LOGIN_LOCK) {
+            try {
+                if (password != null) {
+                    System.setProperty(KrbHttpLoginModule.PAS, password);
+                }
+                if (username != null) {
+                    System.setProperty(KrbHttpLoginModule.USR, username);
+                }
+                new LoginContext(LOGIN_CONFIGURATION_NAME, subject, callbackHandler).login();
+            } finally {
+                System.clearProperty(KrbHttpLoginModule.PAS);
+                System.clearProperty(KrbHttpLoginModule.USR);
+            }
+        }
+    }
+
+    private static class CachedSubject {
+        private Subject subject;
+        private long renewAt;
+    }
+
+    private static class PasswordCallbackHandler implements CallbackHandler {
+        private final String username;
+        private final String password;
+
+        PasswordCallbackHandler(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public void handle(Callback[] callbacks) throws UnsupportedCallbackException {
+            for (Callback callback : callbacks) {
+                if (callback instanceof NameCallback && username != null) {
+                    ((NameCallback) callback).setName(username);
+                } else if (callback instanceof PasswordCallback && password != null) {
+                    ((PasswordCallback) callback).setPassword(password.toCharArray());
+                } else {
+                    throw new UnsupportedCallbackException(callback);
+                }
+            }
+        }
+    }
+
+    /**
+     * Logs in with the username and password given to the callback handler, instead of passing them to the login
+     * module through system properties.
+     */
+    private static class PasswordLoginConfiguration extends Configuration {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            Map<String, String> options = new HashMap<>();
+            options.put("useTicketCache", "false");
+            options.put("storeKey", "false");
+            return new AppConfigurationEntry[]{new AppConfigurationEntry(Krb5LoginModule.class.getName(),
+                    AppConfigurationEntry.LoginModuleControlFlag.REQUIRED, options)};
+        }
+    }
+}
@@ -20,6 +20,8 @@ package io.cloudslang.content.httpclient.build.conn;
 import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
 import com.hp.oo.sdk.content.plugin.SessionResource;
 import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.metrics.TimingConnectionSocketFactory;
+import io.cloudslang.content.httpclient.metrics.TimingLayeredConnectionSocketFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
@@ -28,15 +30,22 @@ import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class ConnectionManagerBuilder {
+    public static final int MAX_CACHED_CONNECTION_MANAGERS = 32;
+    public static final String DEFAULT_IDLE_TIMEOUT = "60";
+    public static final String DEFAULT_VALIDATE_AFTER_INACTIVITY = "2";
+
     private GlobalSessionObject<Map<String, PoolingHttpClientConnectionManager>> connectionPoolHolder;
     private SSLConnectionSocketFactory sslsf;
     private String connectionManagerMapKey;
     private String defaultMaxPerRoute;
     private String totalMax;
+    private String idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private String validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
 
     public ConnectionManagerBuilder setConnectionPoolHolder(GlobalSessionObject connectionPoolHolder) {
         this.connectionPoolHolder = connectionPoolHolder;
@@ -58,6 +67,20 @@ public class ConnectionManagerBuilder {
         return this;
     }
 
+    public ConnectionManagerBuilder setIdleTimeout(String idleTimeout) {
+        if (!StringUtils.isEmpty(idleTimeout)) {
+            this.idleTimeout = idleTimeout;
+        }
+        return this;
+    }
+
+    public ConnectionManagerBuilder setValidateAfterInactivity(String validateAfterInactivity) {
+        if (!StringUtils.isEmpty(validateAfterInactivity)) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+        return this;
+    }
+
     public ConnectionManagerBuilder setConnectionManagerMapKey(String... connectionManagerMapKeys) {
         this.connectionManagerMapKey = buildConnectionManagerMapKey(connectionManagerMapKeys);
         return this;
@@ -82,7 +105,7 @@ public class ConnectionManagerBuilder {
                         = connectionPoolHolder.get();
 
                 if (connectionManagerMap == null) {
-                    final HashMap<String, PoolingHttpClientConnectionManager> connectionManagerMapFinal = new HashMap<>();
+                    final Map<String, PoolingHttpClientConnectionManager> connectionManagerMapFinal = createConnectionManagerMap();
                     connectionPoolHolder.setResource(new SessionResource<Map<String, PoolingHttpClientConnectionManager>>() {
                         @Override
                         public Map<String, PoolingHttpClientConnectionManager> get() {
@@ -98,9 +121,10 @@ public class ConnectionManagerBuilder {
 
                 connManager = connectionManagerMap.get(connectionManagerMapKey);
                 if (connManager == null) {
+                    //the timing wrappers only measure the requests carrying RequestTimings in their context
                     Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                            .register("http", PlainConnectionSocketFactory.getSocketFactory())
-                            .register("https", sslsf)
+                            .register("http", new TimingConnectionSocketFactory(PlainConnectionSocketFactory.getSocketFactory()))
+                            .register("https", new TimingLayeredConnectionSocketFactory(sslsf))
                             .build();
                     connManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
 
@@ -117,6 +141,12 @@ public class ConnectionManagerBuilder {
                             + "' input should be integer" + e.getMessage(), e);
                 }
             }
+            //the default is 2 seconds, a connection idle for longer is checked before being reused
+            int validateAfterInactivity = parseNonNegative(this.validateAfterInactivity, HttpClientInputs.CONNECTIONS_VALIDATE_AFTER_INACTIVITY);
+            connManager.setValidateAfterInactivity((int) TimeUnit.SECONDS.toMillis(validateAfterInactivity));
+            int idleTimeout = parseNonNegative(this.idleTimeout, HttpClientInputs.CONNECTIONS_IDLE_TIMEOUT);
+            IdleConnectionMonitor.register(connManager, TimeUnit.SECONDS.toMillis(idleTimeout));
+
             //the Default totalMax default is 20
             if (!StringUtils.isEmpty(totalMax)) {
                 try {
@@ -130,4 +160,32 @@ public class ConnectionManagerBuilder {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    private static int parseNonNegative(String value, String inputName) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        throw new IllegalArgumentException("the '" + inputName + "' input should be a non negative integer, got: " + value);
+    }
+
+    /**
+     * The managers of a session are kept in LRU order, the least recently used one being retired once
+     * {@link #MAX_CACHED_CONNECTION_MANAGERS} is exceeded.
+     */
+    private static Map<String, PoolingHttpClientConnectionManager> createConnectionManagerMap() {
+        return new LinkedHashMap<String, PoolingHttpClientConnectionManager>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PoolingHttpClientConnectionManager> eldest) {
+                if (size() > MAX_CACHED_CONNECTION_MANAGERS) {
+                    IdleConnectionMonitor.retire(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.conn;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process wide cache for the expensive parts of an http client: the SSL socket factories (which load the
+ * keystore and the trust keystore from disk) and the fully built clients sitting on top of a connection manager.
+ * The SSL entries are evicted in LRU order once {@link #MAX_CACHED_ENTRIES} is reached.
+ * <p>
+ * The clients are keyed weakly by their connection manager and, since a client references its manager, are held
+ * weakly as well: a manager dropped together with its session is collected with its clients, a client collected
+ * while its manager is still in use is simply built again.
+ */
+public class HttpClientCache {
+    public static final int MAX_CACHED_ENTRIES = 64;
+
+    private static final Map<String, SSLConnectionSocketFactory> SSL_SOCKET_FACTORIES = createLruMap();
+    private static final Map<String, SSLIOSessionStrategy> SSL_IO_SESSION_STRATEGIES = createLruMap();
+    private static final Map<HttpClientConnectionManager, Map<String, WeakReference<CloseableHttpClient>>> HTTP_CLIENTS = new WeakHashMap<>();
+
+    /**
+     * Builds the key under which an SSL socket factory is cached. Passwords are hashed and local keystore files
+     * are stamped with their size and last modified time, so a keystore replaced on disk yields a new key.
+     */
+    public static String buildSSLConnectionSocketFactoryKey(String trustAllRoots, String x509HostnameVerifier,
+                                                            String keystore, String keystorePassword,
+                                                            String trustKeystore, String trustPassword,
+                                                            String tlsVersion, String allowedCyphers) {
+        return ConnectionManagerBuilder.buildConnectionManagerMapKey(trustAllRoots,
+                x509HostnameVerifier,
+                keystore,
+                buildFileStamp(keystore),
+                hash(keystorePassword),
+                trustKeystore,
+                buildFileStamp(trustKeystore),
+                hash(trustPassword),
+                tlsVersion,
+                allowedCyphers);
+    }
+
+    public static SSLConnectionSocketFactory getSSLConnectionSocketFactory(String key, SSLConnectionSocketFactoryBuilder builder) {
+        SSLConnectionSocketFactory sslsf;
+        synchronized (SSL_SOCKET_FACTORIES) {
+            sslsf = SSL_SOCKET_FACTORIES.get(key);
+        }
+        if (sslsf == null) {
+            //the keystore I/O is done outside the lock, a concurrent build of the same key only wastes some work
+            sslsf = builder.build();
+            synchronized (SSL_SOCKET_FACTORIES) {
+                SSL_SOCKET_FACTORIES.put(key, sslsf);
+            }
+        }
+        return sslsf;
+    }
+
+    public static SSLIOSessionStrategy getSSLIOSessionStrategy(String key, SSLConnectionSocketFactoryBuilder builder) {
+        SSLIOSessionStrategy sslStrategy;
+        synchronized (SSL_IO_SESSION_STRATEGIES) {
+            sslStrategy = SSL_IO_SESSION_STRATEGIES.get(key);
+        }
+        if (sslStrategy == null) {
+            sslStrategy = builder.buildSSLIOSessionStrategy();
+            synchronized (SSL_IO_SESSION_STRATEGIES) {
+                SSL_IO_SESSION_STRATEGIES.put(key, sslStrategy);
+            }
+        }
+        return sslStrategy;
+    }
+
+    /**
+     * Returns the client previously built over the same connection manager with the same settings, building it
+     * with the given builder otherwise. The cached clients hold no per request state: credentials, auth schemes
+     * and cookies travel in the {@link org.apache.http.client.protocol.HttpClientContext}.
+     */
+    public static CloseableHttpClient getHttpClient(HttpClientConnectionManager connManager, String settingsKey,
+                                                    HttpClientBuilder httpClientBuilder) {
+        if (connManager == null) {
+            return httpClientBuilder.build();
+        }
+        synchronized (HTTP_CLIENTS) {
+            Map<String, WeakReference<CloseableHttpClient>> clients = HTTP_CLIENTS.get(connManager);
+            if (clients == null) {
+                clients = createLruMap();
+                HTTP_CLIENTS.put(connManager, clients);
+            }
+            WeakReference<CloseableHttpClient> clientReference = clients.get(settingsKey);
+            CloseableHttpClient closeableHttpClient = clientReference != null ? clientReference.get() : null;
+            if (closeableHttpClient == null) {
+                closeableHttpClient = httpClientBuilder
+                        .setConnectionManager(connManager)
+                        .setConnectionManagerShared(true)
+                        .build();
+                clients.put(settingsKey, new WeakReference<>(closeableHttpClient));
+            }
+            return closeableHttpClient;
+        }
+    }
+
+    /**
+     * Forgets the clients built over the given connection manager, typically because the manager is shut down.
+     */
+    public static void invalidate(HttpClientConnectionManager connManager) {
+        synchronized (HTTP_CLIENTS) {
+            HTTP_CLIENTS.remove(connManager);
+        }
+    }
+
+    public static void clear() {
+        synchronized (SSL_SOCKET_FACTORIES) {
+            SSL_SOCKET_FACTORIES.clear();
+        }
+        synchronized (SSL_IO_SESSION_STRATEGIES) {
+            SSL_IO_SESSION_STRATEGIES.clear();
+        }
+        synchronized (HTTP_CLIENTS) {
+            HTTP_CLIENTS.clear();
+        }
+    }
+
+    static String buildFileStamp(String path) {
+        if (StringUtils.isEmpty(path) || path.startsWith("http")) {
+            return StringUtils.EMPTY;
+        }
+        File file = new File(path.startsWith("file:") ? path.substring("file:".length()) : path);
+        return file.lastModified() + "-" + file.length();
+    }
+
+    private static String hash(String value) {
+        return value == null ? StringUtils.EMPTY : DigestUtils.sha256Hex(value);
+    }
+
+    private static <K, V> Map<K, V> createLruMap() {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MAX_CACHED_ENTRIES;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.conn;
+
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One daemon thread shared by all the session cached connection managers. Every {@link #SWEEP_INTERVAL_SECONDS}
+ * it closes the expired connections and the connections idle for longer than the idle timeout of their manager,
+ * so that a pooled socket half closed by the server is not handed to the next request.
+ * <p>
+ * The managers are held weakly: a manager dropped together with its session is simply forgotten.
+ * Retired managers are shut down by a later sweep, once they have been retired for {@link #RETIRE_GRACE_SECONDS}
+ * and none of their connections is leased. The grace period covers a request that took the manager from its
+ * session just before it was retired and has not leased a connection yet.
+ */
+public class IdleConnectionMonitor {
+    public static final long SWEEP_INTERVAL_SECONDS = 5;
+    public static final long RETIRE_GRACE_SECONDS = 30;
+
+    private static final Map<HttpClientConnectionManager, Long> IDLE_TIMEOUTS = new WeakHashMap<>();
+    //retired managers and the time they were retired at
+    private static final Map<PoolingHttpClientConnectionManager, Long> RETIRED = new IdentityHashMap<>();
+    private static ScheduledExecutorService sweeper;
+
+    /**
+     * Starts watching the given manager or updates its idle timeout.
+     *
+     * @param idleTimeoutMillis the time after which an idle connection is closed, 0 to only close the expired ones
+     */
+    public static synchronized void register(HttpClientConnectionManager connManager, long idleTimeoutMillis) {
+        IDLE_TIMEOUTS.put(connManager, idleTimeoutMillis);
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "http-client-idle-connection-monitor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            sweeper.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    sweep();
+                }
+            }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops watching the given manager. It is shut down by a sweep after the grace period, once its leased
+     * connections were released.
+     */
+    public static synchronized void retire(PoolingHttpClientConnectionManager connManager) {
+        IDLE_TIMEOUTS.remove(connManager);
+        HttpClientCache.invalidate(connManager);
+        RETIRED.put(connManager, System.currentTimeMillis());
+    }
+
+    static synchronized boolean isRetired(PoolingHttpClientConnectionManager connManager) {
+        return RETIRED.containsKey(connManager);
+    }
+
+    static synchronized boolean isRegistered(HttpClientConnectionManager connManager) {
+        return IDLE_TIMEOUTS.containsKey(connManager);
+    }
+
+    static void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    static void sweep(long now) {
+        Map<HttpClientConnectionManager, Long> idleTimeouts;
+        Map<PoolingHttpClientConnectionManager, Long> retired;
+        synchronized (IdleConnectionMonitor.class) {
+            idleTimeouts = new WeakHashMap<>(IDLE_TIMEOUTS);
+            retired = new IdentityHashMap<>(RETIRED);
+        }
+        for (Map.Entry<HttpClientConnectionManager, Long> entry : idleTimeouts.entrySet()) {
+            try {
+                entry.getKey().closeExpiredConnections();
+                if (entry.getValue() > 0) {
+                    entry.getKey().closeIdleConnections(entry.getValue(), TimeUnit.MILLISECONDS);
+                }
+            } catch (RuntimeException ignore) {
+                //a manager failing to sweep should not stop the others from being swept
+            }
+        }
+        for (Map.Entry<PoolingHttpClientConnectionManager, Long> entry : retired.entrySet()) {
+            PoolingHttpClientConnectionManager connManager = entry.getKey();
+            if (now - entry.getValue() >= TimeUnit.SECONDS.toMillis(RETIRE_GRACE_SECONDS)
+                    && connManager.getTotalStats().getLeased() == 0) {
+                connManager.shutdown();
+                synchronized (IdleConnectionMonitor.class) {
+                    RETIRED.remove(connManager);
+                }
+            }
+        }
+    }
+}
@@ -22,7 +22,9 @@ import org.apache.http.conn.ssl.SSLContextBuilder;
 import org.apache.http.conn.ssl.SSLContexts;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 
+import javax.net.ssl.SSLContext;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -104,6 +106,76 @@ public class SSLConnectionSocketFactoryBuilder {
     }
 
     public SSLConnectionSocketFactory build() {
+        SSLSettings sslSettings = buildSSLSettings();
+        return new SSLConnectionSocketFactory(sslSettings.sslContext, sslSettings.protocols, sslSettings.cyphers,
+                sslSettings.x509HostnameVerifier);
+    }
+
+    /**
+     * Builds the non-blocking counterpart of {@link #build()}, used by the asynchronous http client.
+     */
+    public SSLIOSessionStrategy buildSSLIOSessionStrategy() {
+        SSLSettings sslSettings = buildSSLSettings();
+        return new SSLIOSessionStrategy(sslSettings.sslContext, sslSettings.protocols, sslSettings.cyphers,
+                sslSettings.x509HostnameVerifier);
+    }
+
+    private SSLSettings buildSSLSettings() {
+        SSLContextBuilder sslContextBuilder = createSSLContextBuilder();
+
+        SSLSettings sslSettings = new SSLSettings();
+        try {
+            String x509HostnameVerifierStr = x509HostnameVerifierInputValue.toLowerCase();
+
+            switch (x509HostnameVerifierStr) {
+                case "strict":
+                    sslSettings.x509HostnameVerifier = SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
+                    break;
+                case "browser_compatible":
+                    sslSettings.x509HostnameVerifier = SSLConnectionSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER;
+                    break;
+                case "allow_all":
+                    sslSettings.x509HostnameVerifier = SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid value '" + x509HostnameVerifierInputValue + "' for input 'x509HostnameVerifier'. Valid values: 'strict','browser_compatible','allow_all'.");
+            }
+
+            // Allow SSLv3, TLSv1, TLSv1.1 and TLSv1.2 protocols only. Client-server communication starts with TLSv1.2 and fallbacks to SSLv3 if needed.
+            if (!StringUtils.isEmpty(inputTLS)) {
+                Set<String> protocolSet = new HashSet<>(Arrays.asList(inputTLS.trim().split(",")));
+                String[] protocolArray = protocolSet.toArray(new String[0]);
+
+                if (!checkEquality(protocolArray, SUPPORTED_PROTOCOLS)) {
+                    throw new IllegalArgumentException("Protocol not supported");
+                }
+
+                if (checkIfTLS2(protocolArray, TLSv12))
+                    flag = true;
+
+                if (!StringUtils.isEmpty(inputCyphers))
+                    cypherArray = inputCyphers.trim().split(",");
+
+                if (flag && cypherArray != null) {
+                    sslSettings.protocols = ARRAY_TLSv12;
+                    sslSettings.cyphers = cypherArray;
+                } else {
+                    sslSettings.protocols = protocolArray;
+                }
+            } else {
+                sslSettings.protocols = SUPPORTED_PROTOCOLS;
+            }
+            sslSettings.sslContext = sslContextBuilder.build();
+        } catch (Exception e) {
+            if (e instanceof IllegalArgumentException) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+            throw new RuntimeException(e.getMessage() + ". " + SSL_CONNECTION_ERROR, e);
+        }
+        return sslSettings;
+    }
+
+    private SSLContextBuilder createSSLContextBuilder() {
         if (!"true".equalsIgnoreCase(trustAllRootsStr) && !"false".equalsIgnoreCase(trustAllRootsStr)) {
             throw new IllegalArgumentException("'trustAllRoots' can only be 'true' or 'false'");
         }
@@ -159,61 +231,7 @@ public class SSLConnectionSocketFactoryBuilder {
 
         sslContextBuilder.useSSL();
         sslContextBuilder.useTLS();
-
-        SSLConnectionSocketFactory sslsf = null;
-        try {
-            String x509HostnameVerifierStr = x509HostnameVerifierInputValue.toLowerCase();
-
-            X509HostnameVerifier x509HostnameVerifier;
-            switch (x509HostnameVerifierStr) {
-                case "strict":
-                    x509HostnameVerifier = SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
-                    break;
-                case "browser_compatible":
-                    x509HostnameVerifier = SSLConnectionSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER;
-                    break;
-                case "allow_all":
-                    x509HostnameVerifier = SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
-                    break;
-                default:
-                    throw new IllegalArgumentException("Invalid value '" + x509HostnameVerifierInputValue + "' for input 'x509HostnameVerifier'. Valid values: 'strict','browser_compatible','allow_all'.");
-            }
-
-            // Allow SSLv3, TLSv1, TLSv1.1 and TLSv1.2 protocols only. Client-server communication starts with TLSv1.2 and fallbacks to SSLv3 if needed.
-            if (!StringUtils.isEmpty(inputTLS)) {
-                Set<String> protocolSet = new HashSet<>(Arrays.asList(inputTLS.trim().split(",")));
-                String[] protocolArray = protocolSet.toArray(new String[0]);
-
-                if (!checkEquality(protocolArray, SUPPORTED_PROTOCOLS)) {
-                    throw new IllegalArgumentException("Protocol not supported");
-                }
-
-                if (checkIfTLS2(protocolArray, TLSv12))
-                    flag = true;
-
-                if (!StringUtils.isEmpty(inputCyphers))
-                    cypherArray = inputCyphers.trim().split(",");
-
-                if (flag) {
-                    if (cypherArray != null) {
-                        sslsf = new SSLConnectionSocketFactory(sslContextBuilder.build(), ARRAY_TLSv12, cypherArray, x509HostnameVerifier);
-                    } else {
-                        sslsf = new SSLConnectionSocketFactory(sslContextBuilder.build(), protocolArray, null, x509HostnameVerifier);
-                    }
-                } else {
-                    sslsf = new SSLConnectionSocketFactory(sslContextBuilder.build(), protocolArray, null, x509HostnameVerifier);
-                }
-            } else {
-                sslsf = new SSLConnectionSocketFactory(sslContextBuilder.build(), SUPPORTED_PROTOCOLS, null, x509HostnameVerifier);
-            }
-
-        } catch (Exception e) {
-            if (e instanceof IllegalArgumentException) {
-                throw new IllegalArgumentException(e.getMessage());
-            }
-            throw new RuntimeException(e.getMessage() + ". " + SSL_CONNECTION_ERROR, e);
-        }
-        return sslsf;
+        return sslContextBuilder;
     }
 
     protected void createKeystore(SSLContextBuilder sslContextBuilder, boolean useClientCert) {
@@ -289,4 +307,11 @@ public class SSLConnectionSocketFactoryBuilder {
         }
         return this;
     }
+
+    private static class SSLSettings {
+        private SSLContext sslContext;
+        private String[] protocols;
+        private String[] cyphers;
+        private X509HostnameVerifier x509HostnameVerifier;
+    }
 }
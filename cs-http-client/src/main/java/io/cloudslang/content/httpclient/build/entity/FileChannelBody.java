@@ -0,0 +1,41 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.entity;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.content.FileBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A multipart file part streamed from a {@link java.nio.channels.FileChannel} with the same buffer as
+ * {@link FileChannelEntity}.
+ */
+public class FileChannelBody extends FileBody {
+
+    public FileChannelBody(File file, ContentType contentType, String filename) {
+        super(file, contentType, filename);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        FileChannels.copy(getFile(), out);
+    }
+}
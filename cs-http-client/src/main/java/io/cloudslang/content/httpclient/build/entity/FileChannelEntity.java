@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.entity;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A file request body read from a {@link java.nio.channels.FileChannel} while it is written to the connection,
+ * so that files of any size are sent in constant memory.
+ */
+public class FileChannelEntity extends AbstractHttpEntity {
+    private final File file;
+
+    public FileChannelEntity(File file, ContentType contentType) {
+        this.file = file;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return file.length();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FileInputStream(file);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        FileChannels.copy(file, outStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.entity;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+final class FileChannels {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private FileChannels() {
+    }
+
+    /**
+     * Copies the file to the stream through one fixed size buffer, whatever the size of the file.
+     */
+    static void copy(File file, OutputStream outStream) throws IOException {
+        if (outStream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                outStream.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        }
+        outStream.flush();
+    }
+}
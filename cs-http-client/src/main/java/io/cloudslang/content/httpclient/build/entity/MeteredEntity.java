@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.entity;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes of a request body as they are written to the connection and the time it took. When the body is
+ * sent more than once, after a redirect or an auth challenge, the last write is the one measured.
+ */
+public class MeteredEntity extends HttpEntityWrapper {
+    private volatile long bytesWritten;
+    private volatile long writeNanos;
+
+    public MeteredEntity(HttpEntity wrappedEntity) {
+        super(wrappedEntity);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        final long[] count = new long[1];
+        long start = System.nanoTime();
+        try {
+            super.writeTo(new FilterOutputStream(outStream) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    count[0]++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    count[0] += len;
+                }
+            });
+        } finally {
+            bytesWritten = count[0];
+            writeNanos = System.nanoTime() - start;
+        }
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the rate at which the body was written, in bytes per second
+     */
+    public long getThroughput() {
+        double elapsedSeconds = Math.max(writeNanos, 1) / 1e9;
+        return (long) (bytesWritten / elapsedSeconds);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.cache;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A response body kept in the {@link ResponseCache} together with its status line, its headers and the validators
+ * used to revalidate it.
+ */
+public class CachedResponse {
+    private final StatusLine statusLine;
+    private final Header[] headers;
+    private final byte[] body;
+    private final String etag;
+    private final String lastModified;
+
+    public CachedResponse(StatusLine statusLine, Header[] headers, byte[] body, String etag, String lastModified) {
+        this.statusLine = statusLine;
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public void addConditionalHeaders(HttpRequest request) {
+        if (etag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * Rebuilds the cached response, its headers updated by the ones of the 304 response that revalidated it.
+     */
+    public CloseableHttpResponse toResponse(Header[] notModifiedHeaders) {
+        List<Header> mergedHeaders = new ArrayList<>(Arrays.asList(headers));
+        for (Header header : notModifiedHeaders) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName())
+                    || HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getName())
+                    || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getName())) {
+                continue;
+            }
+            for (int i = mergedHeaders.size() - 1; i >= 0; i--) {
+                if (mergedHeaders.get(i).getName().equalsIgnoreCase(header.getName())) {
+                    mergedHeaders.remove(i);
+                }
+            }
+        }
+        for (Header header : notModifiedHeaders) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName())
+                    && !HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getName())
+                    && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getName())) {
+                mergedHeaders.add(header);
+            }
+        }
+
+        CachedHttpResponse response = new CachedHttpResponse(statusLine);
+        response.setHeaders(mergedHeaders.toArray(new Header[mergedHeaders.size()]));
+        ByteArrayEntity entity = new ByteArrayEntity(body);
+        Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            entity.setContentType(contentType);
+        }
+        response.setEntity(entity);
+        return response;
+    }
+
+    long size() {
+        long size = body.length;
+        for (Header header : headers) {
+            size += header.getName().length() + header.getValue().length();
+        }
+        return size;
+    }
+
+    private static class CachedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        CachedHttpResponse(StatusLine statusLine) {
+            super(statusLine);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of the GET responses carrying an ETag or a Last-Modified validator. A cached response is
+ * never served without asking the server: the request is sent with If-None-Match/If-Modified-Since and the cached
+ * body is only used when the server answers 304 Not Modified.
+ * The cache holds at most {@link #MAX_SIZE} bytes, the least recently used responses being evicted first, and
+ * responses larger than {@link #MAX_ENTRY_SIZE} are not cached.
+ */
+public class ResponseCache {
+    public static final long MAX_SIZE = 32 * 1024 * 1024;
+    public static final int MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final ResponseCache INSTANCE = new ResponseCache(MAX_SIZE, MAX_ENTRY_SIZE);
+
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    ResponseCache(long maxSize, int maxEntrySize) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public static ResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the key of a response out of the requested URI and of everything that may change the response
+     * between callers, such as the credentials and the request headers, so that the callers never share entries.
+     */
+    public static String buildKey(String uri, String... variants) {
+        StringBuilder keyBuilder = new StringBuilder(uri);
+        for (String variant : variants) {
+            keyBuilder.append('\n').append(variant != null ? variant : "");
+        }
+        return DigestUtils.sha256Hex(keyBuilder.toString());
+    }
+
+    public synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the body of a 200 response while keeping it readable by the caller. The body is read up to
+     * the maximum entry size: when it ends before, it is cached and returned from memory, otherwise
+     * the bytes read so far are chained with the rest of the stream and nothing is cached.
+     *
+     * @return the entity the caller should read instead of the one of the response
+     */
+    public HttpEntity cache(String key, HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        Header vary = response.getFirstHeader(HttpHeaders.VARY);
+        if (entity == null || (etag == null && lastModified == null) || (vary != null && vary.getValue().contains("*"))
+                || entity.getContentLength() > maxEntrySize) {
+            remove(key);
+            return entity;
+        }
+
+        InputStream content = entity.getContent();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while (body.size() <= maxEntrySize && (read = content.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        if (body.size() > maxEntrySize) {
+            remove(key);
+            InputStreamEntity streamingEntity = new InputStreamEntity(new SequenceInputStream(
+                    new ByteArrayInputStream(body.toByteArray()), content), entity.getContentLength());
+            streamingEntity.setContentType(entity.getContentType());
+            streamingEntity.setContentEncoding(entity.getContentEncoding());
+            return streamingEntity;
+        }
+
+        byte[] bytes = body.toByteArray();
+        put(key, new CachedResponse(response.getStatusLine(), response.getAllHeaders(), bytes,
+                etag != null ? etag.getValue() : null, lastModified != null ? lastModified.getValue() : null));
+        ByteArrayEntity bufferedEntity = new ByteArrayEntity(bytes);
+        bufferedEntity.setContentType(entity.getContentType());
+        bufferedEntity.setContentEncoding(entity.getContentEncoding());
+        return bufferedEntity;
+    }
+
+    public synchronized void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.size();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private synchronized void put(String key, CachedResponse cachedResponse) {
+        remove(key);
+        entries.put(key, cachedResponse);
+        size += cachedResponse.size();
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+}
@@ -18,8 +18,10 @@
 package io.cloudslang.content.httpclient.consume;
 
 import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.execute.SegmentedDownload;
 import io.cloudslang.content.httpclient.services.HttpClientService;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Consts;
 import org.apache.http.Header;
@@ -28,7 +30,14 @@ import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicHeaderValueParser;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,9 +46,14 @@ import java.util.Map;
  * Date: 7/28/14
  */
 public class HttpResponseConsumer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private HttpResponse httpResponse;
     private String responseCharacterSet;
     private String destinationFile;
+    private String destinationFileCharacterSet;
+    private SegmentedDownload segmentedDownload;
+    private ResponseSelectors responseSelectors;
 
     public HttpResponseConsumer setHttpResponse(HttpResponse httpResponse) {
         this.httpResponse = httpResponse;
@@ -56,6 +70,21 @@ public class HttpResponseConsumer {
         return this;
     }
 
+    public HttpResponseConsumer setDestinationFileCharacterSet(String destinationFileCharacterSet) {
+        this.destinationFileCharacterSet = destinationFileCharacterSet;
+        return this;
+    }
+
+    public HttpResponseConsumer setSegmentedDownload(SegmentedDownload segmentedDownload) {
+        this.segmentedDownload = segmentedDownload;
+        return this;
+    }
+
+    public HttpResponseConsumer setResponseSelectors(ResponseSelectors responseSelectors) {
+        this.responseSelectors = responseSelectors;
+        return this;
+    }
+
     public void consume(Map<String, String> result) throws IOException {
         if (httpResponse.getEntity() != null) {
             if (responseCharacterSet == null || responseCharacterSet.isEmpty()) {
@@ -79,33 +108,116 @@ public class HttpResponseConsumer {
     }
 
     protected void consumeResponseContent(Map<String, String> result) throws IOException {
-        if (StringUtils.isEmpty(destinationFile)) {
-            String document;
+        if (StringUtils.isEmpty(destinationFile) && responseSelectors != null) {
+            consumeSelectedValues(result);
+        } else if (StringUtils.isEmpty(destinationFile)) {
+            result.put(HttpClientService.RETURN_RESULT, readDocument());
+        } else {
+            long start = System.nanoTime();
+            long bytesWritten;
+            if (segmentedDownload != null && StringUtils.isEmpty(destinationFileCharacterSet)) {
+                bytesWritten = segmentedDownload.download(httpResponse, destinationFile);
+                if (bytesWritten < 0) {
+                    //not the download (e.g. an error page): the file, possibly a partial download, is left as it is
+                    result.put(HttpClientService.RETURN_RESULT, readDocument());
+                    bytesWritten = 0;
+                }
+            } else if (StringUtils.isEmpty(destinationFileCharacterSet)) {
+                bytesWritten = copyToDestinationFile();
+            } else {
+                bytesWritten = transcodeToDestinationFile();
+            }
+            double elapsedSeconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            result.put(HttpClientService.BYTES_WRITTEN, String.valueOf(bytesWritten));
+            result.put(HttpClientService.THROUGHPUT, String.valueOf((long) (bytesWritten / elapsedSeconds)));
+        }
+    }
+
+    private String readDocument() throws IOException {
+        try {
+            return IOUtils.toString(httpResponse.getEntity().getContent(), responseCharacterSet);
+        } catch (UnsupportedCharsetException e) {
+            throw new IllegalArgumentException("Could not parse responseCharacterSet. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Evaluates the selectors while the entity is read. The body is only kept, as the bytes read, when it is
+     * returned as well. A response the selectors can't parse, e.g. an HTML error page, is still returned: the
+     * selectors then match nothing and the parse error is reported in 'selectorsError'.
+     */
+    private void consumeSelectedValues(Map<String, String> result) throws IOException {
+        Charset charset;
+        try {
+            charset = Charset.forName(responseCharacterSet);
+        } catch (UnsupportedCharsetException | IllegalCharsetNameException e) {
+            throw new IllegalArgumentException("Could not parse responseCharacterSet. " + e.getMessage(), e);
+        }
+        ByteArrayOutputStream body = responseSelectors.isSkipBody() ? null : new ByteArrayOutputStream();
+        InputStream content = httpResponse.getEntity().getContent();
+        try {
+            if (body != null) {
+                content = new TeeInputStream(content, body);
+            }
+            Map<String, List<String>> selectedValues;
             try {
-                document = IOUtils.toString(httpResponse.getEntity().getContent(), responseCharacterSet);
-            } catch (UnsupportedCharsetException e) {
-                throw new IllegalArgumentException("Could not parse responseCharacterSet. " + e.getMessage(), e);
+                selectedValues = responseSelectors.select(new InputStreamReader(content, charset));
+            } catch (MalformedResponseException e) {
+                selectedValues = responseSelectors.noValues();
+                result.put(HttpClientService.SELECTORS_ERROR, e.getMessage());
             }
-            result.put(HttpClientService.RETURN_RESULT, document);
-        } else {
-            consumeToDestinationFile();
+            //read what is left after the document so the connection can be reused
+            IOUtils.skip(content, Long.MAX_VALUE);
+            result.put(HttpClientService.SELECTED_VALUES, responseSelectors.toJson(selectedValues));
+        } finally {
+            safeClose(content);
+        }
+        result.put(HttpClientService.RETURN_RESULT, body != null ? new String(body.toByteArray(), charset) : StringUtils.EMPTY);
+    }
+
+    /**
+     * Writes the entity bytes as they are, which keeps binary payloads intact and avoids any decoding.
+     */
+    private long copyToDestinationFile() throws IOException {
+        InputStream content = null;
+        FileChannel fileChannel = null;
+        long bytesWritten = 0;
+        try {
+            content = httpResponse.getEntity().getContent();
+            fileChannel = FileChannel.open(Paths.get(destinationFile), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+                bytesWritten += read;
+            }
+        } finally {
+            safeClose(fileChannel);
+            safeClose(content);
         }
+        return bytesWritten;
     }
 
-    private void consumeToDestinationFile() throws IOException {
+    private long transcodeToDestinationFile() throws IOException {
         BufferedReader reader;
         BufferedWriter fileWriter = null;
         FileOutputStream fos = null;
+        File file = new File(destinationFile);
         try {
             try {
                 reader = new BufferedReader(new InputStreamReader(httpResponse.getEntity().getContent(), responseCharacterSet));
-                fos = new FileOutputStream(new File(destinationFile));
-                fileWriter = new BufferedWriter(new OutputStreamWriter(fos, responseCharacterSet));
+                fos = new FileOutputStream(file);
+                fileWriter = new BufferedWriter(new OutputStreamWriter(fos, destinationFileCharacterSet));
             } catch (UnsupportedEncodingException e) {
                 throw new IllegalArgumentException("Could not parse '" + HttpClientInputs.RESPONSE_CHARACTER_SET
-                        + "'. " + e.getMessage(), e);
+                        + "' or '" + HttpClientInputs.DESTINATION_FILE_CHARACTER_SET + "'. " + e.getMessage(), e);
             }
-            char[] buffer = new char[1024];
+            char[] buffer = new char[BUFFER_SIZE / 2];
             int b;
             while ((b = reader.read(buffer, 0, buffer.length)) != -1) {
                 fileWriter.write(buffer, 0, b);
@@ -119,6 +231,7 @@ public class HttpResponseConsumer {
                 safeClose(fileWriter);
             }
         }
+        return file.length();
     }
 
     private void safeClose(Closeable closeable) {
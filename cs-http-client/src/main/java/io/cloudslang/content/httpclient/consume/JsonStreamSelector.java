@@ -0,0 +1,270 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass JSON reader that copies the raw text of the values matched by the selectors while the document is
+ * being read, without building a tree of the document. A matched object or array is kept as its JSON text, a
+ * matched string with its quotes, so every selected value is valid JSON.
+ */
+class JsonStreamSelector {
+    private static final int MAX_DEPTH = 512;
+
+    private final Reader reader;
+    private final List<PathSelector> selectors;
+    private final Map<String, List<String>> selectedValues;
+    private final List<Object> path = new ArrayList<>();
+    private final List<StringBuilder> captures = new ArrayList<>();
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long offset;
+
+    JsonStreamSelector(Reader reader, List<PathSelector> selectors, Map<String, List<String>> selectedValues) {
+        this.reader = reader;
+        this.selectors = selectors;
+        this.selectedValues = selectedValues;
+    }
+
+    void select() throws IOException {
+        skipWhitespace();
+        readValue();
+        skipWhitespace();
+        if (peek() != -1) {
+            throw malformed("end of document");
+        }
+    }
+
+    private void readValue() throws IOException {
+        if (path.size() > MAX_DEPTH) {
+            throw new MalformedResponseException("The JSON response is nested deeper than " + MAX_DEPTH + " levels");
+        }
+        List<PathSelector> matched = null;
+        List<StringBuilder> started = null;
+        for (PathSelector selector : selectors) {
+            if (selector.matches(path)) {
+                if (matched == null) {
+                    matched = new ArrayList<>();
+                    started = new ArrayList<>();
+                }
+                StringBuilder capture = new StringBuilder();
+                matched.add(selector);
+                started.add(capture);
+                captures.add(capture);
+            }
+        }
+
+        int c = peek();
+        if (c == '{') {
+            readObject();
+        } else if (c == '[') {
+            readArray();
+        } else if (c == '"') {
+            readString(false);
+        } else if (c == '-' || c >= '0' && c <= '9') {
+            while ((c = peek()) != -1 && (c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+                next();
+            }
+        } else if (c == 't') {
+            readLiteral("true");
+        } else if (c == 'f') {
+            readLiteral("false");
+        } else if (c == 'n') {
+            readLiteral("null");
+        } else {
+            throw malformed("a value");
+        }
+
+        if (matched != null) {
+            for (int i = 0; i < matched.size(); i++) {
+                captures.remove(started.get(i));
+                selectedValues.get(matched.get(i).getExpression()).add(started.get(i).toString());
+            }
+        }
+    }
+
+    private void readObject() throws IOException {
+        next();
+        skipWhitespace();
+        if (peek() == '}') {
+            next();
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw malformed("a member name");
+            }
+            String name = readString(true);
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            path.add(name);
+            readValue();
+            path.remove(path.size() - 1);
+            skipWhitespace();
+            if (peek() == ',') {
+                next();
+            } else {
+                expect('}');
+                return;
+            }
+        }
+    }
+
+    private void readArray() throws IOException {
+        next();
+        skipWhitespace();
+        if (peek() == ']') {
+            next();
+            return;
+        }
+        for (int index = 0; ; index++) {
+            skipWhitespace();
+            path.add(index);
+            readValue();
+            path.remove(path.size() - 1);
+            skipWhitespace();
+            if (peek() == ',') {
+                next();
+            } else {
+                expect(']');
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the decoded string when asked for, it is only needed for the member names
+     */
+    private String readString(boolean decode) throws IOException {
+        StringBuilder value = decode ? new StringBuilder() : null;
+        next();
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw malformed("the end of a string");
+            }
+            if (c == '"') {
+                return decode ? value.toString() : null;
+            }
+            if (c == '\\') {
+                c = next();
+                switch (c) {
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(next(), 16);
+                            if (digit < 0) {
+                                throw malformed("a unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        c = code;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    default:
+                        throw malformed("an escape sequence");
+                }
+            }
+            if (decode) {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw malformed("'" + literal + "'");
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw malformed("'" + expected + "'");
+        }
+        next();
+    }
+
+    private void skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            position++;
+            offset++;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Consumes the next character, copying it to the values being captured.
+     */
+    private int next() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            offset++;
+            for (int i = 0; i < captures.size(); i++) {
+                captures.get(i).append((char) c);
+            }
+        }
+        return c;
+    }
+
+    private IOException malformed(String expected) throws IOException {
+        int c = peek();
+        return new MalformedResponseException("The response is not valid JSON: expected " + expected + " at offset " + offset
+                + (c == -1 ? ", found the end of the response" : ", found '" + (char) c + "'"));
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import java.io.IOException;
+
+/**
+ * Thrown by the selectors when the response is not the JSON or XML document they expect, e.g. an HTML error page
+ * or an empty body. The response itself was read, so it can still be returned.
+ */
+class MalformedResponseException extends IOException {
+
+    MalformedResponseException(String message) {
+        super(message);
+    }
+
+    MalformedResponseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
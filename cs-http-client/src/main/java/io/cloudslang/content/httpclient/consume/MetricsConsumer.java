@@ -0,0 +1,53 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import io.cloudslang.content.httpclient.metrics.HttpRequestMetrics;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.apache.http.pool.PoolStats;
+
+import java.util.Map;
+
+public class MetricsConsumer {
+    private HttpRequestMetrics requestMetrics;
+
+    public MetricsConsumer setRequestMetrics(HttpRequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+        return this;
+    }
+
+    public void consume(Map<String, String> returnResult) {
+        if (requestMetrics == null) {
+            return;
+        }
+        returnResult.put(HttpClientService.ROUTE_POOL_STATS, format(requestMetrics.getRouteStats()));
+        returnResult.put(HttpClientService.TOTAL_POOL_STATS, format(requestMetrics.getTotalStats()));
+        returnResult.put(HttpClientService.REQUEST_TIMINGS,
+                requestMetrics.getTimings() != null ? requestMetrics.getTimings().toString() : "");
+    }
+
+    static String format(PoolStats stats) {
+        if (stats == null) {
+            return "";
+        }
+        return "leased=" + stats.getLeased() +
+                ",available=" + stats.getAvailable() +
+                ",pending=" + stats.getPending() +
+                ",max=" + stats.getMax();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JSONPath or XPath selector compiled into the steps it matches against the path of a value: object member names
+ * and array indexes for JSON, element local names for XML. Only the subset that can be decided from the path of a
+ * value alone is supported, so every selector is evaluated in a single pass over the document.
+ */
+class PathSelector {
+    private final String expression;
+    private final boolean xml;
+    private final List<Step> steps;
+    private final String attribute;
+
+    private PathSelector(String expression, boolean xml, List<Step> steps, String attribute) {
+        this.expression = expression;
+        this.xml = xml;
+        this.steps = steps;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Compiles a JSONPath made of '$', '.name', '['name']', '[0]', '*' and '..' steps.
+     */
+    static PathSelector compileJsonPath(String expression) {
+        List<Step> steps = new ArrayList<>();
+        int i = 1;
+        while (i < expression.length()) {
+            boolean descendant = false;
+            if (expression.startsWith("..", i)) {
+                descendant = true;
+                i += 2;
+            } else if (expression.charAt(i) == '.') {
+                i++;
+            } else if (expression.charAt(i) != '[') {
+                throw unsupported(expression);
+            }
+            if (i < expression.length() && expression.charAt(i) == '[') {
+                int end = expression.indexOf(']', i);
+                if (end < 0) {
+                    throw unsupported(expression);
+                }
+                steps.add(parseBracket(expression, expression.substring(i + 1, end).trim(), descendant));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                String name = expression.substring(i, end);
+                if (name.isEmpty()) {
+                    throw unsupported(expression);
+                }
+                steps.add(new Step(descendant, "*".equals(name) ? null : name, -1));
+                i = end;
+            }
+        }
+        return new PathSelector(expression, false, steps, null);
+    }
+
+    /**
+     * Compiles an absolute XPath made of '/name', '//name', '*' and a last '@attribute' step. Names are matched
+     * against local names, any namespace prefix of the selector is ignored.
+     */
+    static PathSelector compileXPath(String expression) {
+        List<Step> steps = new ArrayList<>();
+        String attribute = null;
+        int i = 0;
+        while (i < expression.length()) {
+            if (attribute != null || expression.charAt(i) != '/') {
+                throw unsupported(expression);
+            }
+            boolean descendant = expression.startsWith("//", i);
+            i += descendant ? 2 : 1;
+            int end = expression.indexOf('/', i);
+            end = end < 0 ? expression.length() : end;
+            String name = expression.substring(i, end);
+            if (name.startsWith("@") && !descendant && name.length() > 1 && !steps.isEmpty()) {
+                attribute = localName(name.substring(1));
+            } else if (name.equals("*") || isName(name)) {
+                steps.add(new Step(descendant, "*".equals(name) ? null : localName(name), -1));
+            } else {
+                throw unsupported(expression);
+            }
+            i = end;
+        }
+        if (steps.isEmpty()) {
+            throw unsupported(expression);
+        }
+        return new PathSelector(expression, true, steps, attribute);
+    }
+
+    String getExpression() {
+        return expression;
+    }
+
+    boolean isXml() {
+        return xml;
+    }
+
+    String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * @param path the member names (String) and array indexes (Integer) leading to a value
+     */
+    boolean matches(List<Object> path) {
+        return matches(0, path, 0);
+    }
+
+    private boolean matches(int stepIndex, List<Object> path, int pathIndex) {
+        if (stepIndex == steps.size()) {
+            return pathIndex == path.size();
+        }
+        Step step = steps.get(stepIndex);
+        if (!step.descendant) {
+            return pathIndex < path.size() && step.matches(path.get(pathIndex))
+                    && matches(stepIndex + 1, path, pathIndex + 1);
+        }
+        for (int i = pathIndex; i < path.size(); i++) {
+            if (step.matches(path.get(i)) && matches(stepIndex + 1, path, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Step parseBracket(String expression, String content, boolean descendant) {
+        if ("*".equals(content)) {
+            return new Step(descendant, null, -1);
+        }
+        if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+                && content.charAt(content.length() - 1) == content.charAt(0)) {
+            return new Step(descendant, content.substring(1, content.length() - 1), -1);
+        }
+        try {
+            int index = Integer.parseInt(content);
+            if (index >= 0) {
+                return new Step(descendant, null, index);
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        throw unsupported(expression);
+    }
+
+    private static boolean isName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String localName(String name) {
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    private static IllegalArgumentException unsupported(String expression) {
+        return new IllegalArgumentException("Unsupported selector: " + expression
+                + ". JSONPath selectors support names, indexes, '*' and '..', XPath selectors support absolute"
+                + " paths of element names, '*', '//' and a last '@attribute' step");
+    }
+
+    private static class Step {
+        private final boolean descendant;
+        private final String name;
+        private final int index;
+
+        Step(boolean descendant, String name, int index) {
+            this.descendant = descendant;
+            this.name = name;
+            this.index = index;
+        }
+
+        boolean matches(Object segment) {
+            if (name != null) {
+                return name.equals(segment);
+            }
+            return index < 0 || segment instanceof Integer && (Integer) segment == index;
+        }
+    }
+}
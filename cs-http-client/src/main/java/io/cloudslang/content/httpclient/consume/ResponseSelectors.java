@@ -0,0 +1,194 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSONPath or XPath selectors evaluated on the response stream, travelling with the request in its context.
+ * All the selectors of a request are of the same kind: JSONPath selectors start with '$', XPath selectors with '/'.
+ */
+public class ResponseSelectors {
+    public static final String CONTEXT_ATTRIBUTE = "io.cloudslang.content.httpclient.response-selectors";
+
+    private final List<PathSelector> selectors;
+    private final boolean skipBody;
+
+    ResponseSelectors(List<PathSelector> selectors, boolean skipBody) {
+        this.selectors = selectors;
+        this.skipBody = skipBody;
+    }
+
+    /**
+     * @param selectors the comma separated selectors
+     * @return the compiled selectors, null if there are none
+     * @throws IllegalArgumentException if a selector is not supported or malformed, or JSONPath and XPath selectors
+     *                                  are mixed
+     */
+    public static ResponseSelectors parse(String selectors, boolean skipBody) {
+        if (StringUtils.isBlank(selectors)) {
+            return null;
+        }
+        List<PathSelector> pathSelectors = new ArrayList<>();
+        for (String expression : split(selectors)) {
+            if (expression.startsWith("$")) {
+                pathSelectors.add(PathSelector.compileJsonPath(expression));
+            } else if (expression.startsWith("/")) {
+                pathSelectors.add(PathSelector.compileXPath(expression));
+            } else {
+                throw new IllegalArgumentException("Unsupported selector: " + expression
+                        + ". A selector should be a JSONPath starting with '$' or an XPath starting with '/'");
+            }
+            if (pathSelectors.get(0).isXml() != pathSelectors.get(pathSelectors.size() - 1).isXml()) {
+                throw new IllegalArgumentException("JSONPath and XPath selectors cannot be mixed: " + selectors);
+            }
+        }
+        return pathSelectors.isEmpty() ? null : new ResponseSelectors(pathSelectors, skipBody);
+    }
+
+    public static ResponseSelectors get(HttpContext context) {
+        if (context == null) {
+            return null;
+        }
+        Object responseSelectors = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return responseSelectors instanceof ResponseSelectors ? (ResponseSelectors) responseSelectors : null;
+    }
+
+    public void attach(HttpContext context) {
+        context.setAttribute(CONTEXT_ATTRIBUTE, this);
+    }
+
+    /**
+     * @return true if the body is only read for the selected values and not returned
+     */
+    public boolean isSkipBody() {
+        return skipBody;
+    }
+
+    /**
+     * Reads the document once and collects the values matched by each selector, in document order.
+     *
+     * @return the selected values by selector, in the order of the selectors
+     */
+    public Map<String, List<String>> select(Reader reader) throws IOException {
+        Map<String, List<String>> selectedValues = noValues();
+        if (selectors.get(0).isXml()) {
+            new XmlStreamSelector(reader, selectors, selectedValues).select();
+        } else {
+            new JsonStreamSelector(reader, selectors, selectedValues).select();
+        }
+        return selectedValues;
+    }
+
+    /**
+     * @return an empty array of values for each selector, in the order of the selectors
+     */
+    public Map<String, List<String>> noValues() {
+        Map<String, List<String>> selectedValues = new LinkedHashMap<>();
+        for (PathSelector selector : selectors) {
+            selectedValues.put(selector.getExpression(), new ArrayList<String>());
+        }
+        return selectedValues;
+    }
+
+    /**
+     * Formats the selected values as a JSON object with an array of values per selector. The JSON values are kept
+     * as they are, the XML values are JSON strings.
+     */
+    public String toJson(Map<String, List<String>> selectedValues) {
+        boolean xml = selectors.get(0).isXml();
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, List<String>> entry : selectedValues.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendString(json, entry.getKey()).append(":[");
+            List<String> values = entry.getValue();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                if (xml) {
+                    appendString(json, values.get(i));
+                } else {
+                    json.append(values.get(i));
+                }
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Splits on the commas that are outside brackets and quotes.
+     *
+     * @throws IllegalArgumentException if a quote is not terminated or a bracket not closed
+     */
+    static List<String> split(String selectors) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i <= selectors.length(); i++) {
+            char c = i < selectors.length() ? selectors.charAt(i) : ',';
+            if (i == selectors.length() && (quote != 0 || depth != 0)) {
+                throw new IllegalArgumentException((quote != 0 ? "Unterminated quote" : "Unbalanced brackets")
+                        + " in the selector: " + selectors.substring(start).trim());
+            }
+            if (quote != 0) {
+                quote = c == quote ? 0 : quote;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == ',' && (depth == 0 || i == selectors.length())) {
+                String selector = selectors.substring(start, i).trim();
+                if (!selector.isEmpty()) {
+                    result.add(selector);
+                }
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.consume;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass StAX reader collecting the text content of the elements, or the value of the attributes, matched by
+ * the selectors. DTDs and external entities are not processed.
+ */
+class XmlStreamSelector {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final Reader reader;
+    private final List<PathSelector> selectors;
+    private final Map<String, List<String>> selectedValues;
+
+    XmlStreamSelector(Reader reader, List<PathSelector> selectors, Map<String, List<String>> selectedValues) {
+        this.reader = reader;
+        this.selectors = selectors;
+        this.selectedValues = selectedValues;
+    }
+
+    void select() throws IOException {
+        List<Object> path = new ArrayList<>();
+        //the elements being captured, with the depth at which they end
+        List<StringBuilder> captures = new ArrayList<>();
+        List<PathSelector> captureSelectors = new ArrayList<>();
+        List<Integer> captureDepths = new ArrayList<>();
+        XMLStreamReader xmlReader = null;
+        try {
+            xmlReader = XML_INPUT_FACTORY.createXMLStreamReader(reader);
+            while (xmlReader.hasNext()) {
+                int event = xmlReader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    path.add(xmlReader.getLocalName());
+                    for (PathSelector selector : selectors) {
+                        if (!selector.matches(path)) {
+                            continue;
+                        }
+                        if (selector.getAttribute() == null) {
+                            captures.add(new StringBuilder());
+                            captureSelectors.add(selector);
+                            captureDepths.add(path.size());
+                        } else {
+                            String value = getAttributeValue(xmlReader, selector.getAttribute());
+                            if (value != null) {
+                                selectedValues.get(selector.getExpression()).add(value);
+                            }
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    for (int i = captures.size() - 1; i >= 0 && captureDepths.get(i) == path.size(); i--) {
+                        selectedValues.get(captureSelectors.remove(i).getExpression()).add(captures.remove(i).toString());
+                        captureDepths.remove(i);
+                    }
+                    path.remove(path.size() - 1);
+                } else if (!captures.isEmpty() && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE)) {
+                    for (StringBuilder capture : captures) {
+                        capture.append(xmlReader.getTextCharacters(), xmlReader.getTextStart(), xmlReader.getTextLength());
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            if (e.getNestedException() instanceof IOException) {
+                //reading the response failed, it was not necessarily malformed
+                throw (IOException) e.getNestedException();
+            }
+            throw new MalformedResponseException("The response is not valid XML: " + e.getMessage(), e);
+        } finally {
+            if (xmlReader != null) {
+                try {
+                    xmlReader.close();
+                } catch (XMLStreamException ignore) {
+                }
+            }
+        }
+    }
+
+    private static String getAttributeValue(XMLStreamReader xmlReader, String localName) {
+        for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+            if (localName.equals(xmlReader.getAttributeLocalName(i))) {
+                return xmlReader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return xmlInputFactory;
+    }
+}
@@ -62,15 +62,35 @@ public class HttpClientInputs {
     public static final String KEEP_ALIVE = "keepAlive";
     public static final String CONNECTIONS_MAX_PER_ROUTE = "connectionsMaxPerRoute";
     public static final String CONNECTIONS_MAX_TOTAL = "connectionsMaxTotal";
+    public static final String CONNECTIONS_IDLE_TIMEOUT = "connectionsIdleTimeout";
+    public static final String CONNECTIONS_VALIDATE_AFTER_INACTIVITY = "connectionsValidateAfterInactivity";
     public static final String HEADERS = "headers";
     public static final String RESPONSE_CHARACTER_SET = "responseCharacterSet";
     public static final String DESTINATION_FILE = "destinationFile";
+    public static final String DESTINATION_FILE_CHARACTER_SET = "destinationFileCharacterSet";
     public static final String MULTIPART_BODIES = "multipartBodies";
     public static final String MULTIPART_BODIES_CONTENT_TYPE = "multipartBodiesContentType";
     public static final String MULTIPART_FILES = "multipartFiles";
     public static final String MULTIPART_FILES_CONTENT_TYPE = "multipartFilesContentType";
     public static final String MULTIPART_VALUES_ARE_URLENCODED = "multipartValuesAreURLEncoded";
     public static final String CHUNKED_REQUEST_ENTITY = "chunkedRequestEntity";
+    public static final String COMPRESSION = "compression";
+    public static final String DOWNLOAD_SEGMENTS = "downloadSegments";
+    public static final String RESUME_DOWNLOAD = "resumeDownload";
+    public static final String USE_RESPONSE_CACHE = "useResponseCache";
+    public static final String RESPONSE_SELECTORS = "responseSelectors";
+    public static final String SKIP_RESPONSE_BODY = "skipResponseBody";
+    public static final String COLLECT_METRICS = "collectMetrics";
+    public static final String RETRY_COUNT = "retryCount";
+    public static final String RETRY_DELAY = "retryDelay";
+    public static final String RETRY_MAX_DELAY = "retryMaxDelay";
+    public static final String RETRY_STATUS_CODES = "retryStatusCodes";
+    public static final String CIRCUIT_BREAKER_THRESHOLD = "circuitBreakerThreshold";
+    public static final String CIRCUIT_BREAKER_OPEN_TIME = "circuitBreakerOpenTime";
+    public static final String RATE_LIMIT = "rateLimit";
+    public static final String RATE_LIMIT_BURST = "rateLimitBurst";
+    public static final String RATE_LIMIT_KEY = "rateLimitKey";
+    public static final String RATE_LIMIT_MAX_WAIT = "rateLimitMaxWait";
 
     public final static String SESSION_CONNECTION_POOL = "httpClientPoolingConnectionManager";
     public final static String SESSION_COOKIES = "httpClientCookieSession";
@@ -99,9 +119,12 @@ public class HttpClientInputs {
     private String keepAlive;
     private String connectionsMaxPerRoute;
     private String connectionsMaxTotal;
+    private String connectionsIdleTimeout;
+    private String connectionsValidateAfterInactivity;
     private String headers;
     private String responseCharacterSet;
     private String destinationFile;
+    private String destinationFileCharacterSet;
     private String followRedirects;
     private String queryParams;
     private String queryParamsAreURLEncoded;
@@ -117,6 +140,23 @@ public class HttpClientInputs {
     private String multipartBodiesContentType;
     private String multipartFilesContentType;
     private String chunkedRequestEntity;
+    private String compression;
+    private String downloadSegments;
+    private String resumeDownload;
+    private String useResponseCache;
+    private String responseSelectors;
+    private String skipResponseBody;
+    private String collectMetrics;
+    private String retryCount;
+    private String retryDelay;
+    private String retryMaxDelay;
+    private String retryStatusCodes;
+    private String circuitBreakerThreshold;
+    private String circuitBreakerOpenTime;
+    private String rateLimit;
+    private String rateLimitBurst;
+    private String rateLimitKey;
+    private String rateLimitMaxWait;
     private String method;
     private String tlsVersion;
     private String allowedCyphers;
@@ -333,6 +373,22 @@ public class HttpClientInputs {
         this.connectionsMaxTotal = connectionsMaxTotal;
     }
 
+    public String getConnectionsIdleTimeout() {
+        return connectionsIdleTimeout;
+    }
+
+    public void setConnectionsIdleTimeout(String connectionsIdleTimeout) {
+        this.connectionsIdleTimeout = connectionsIdleTimeout;
+    }
+
+    public String getConnectionsValidateAfterInactivity() {
+        return connectionsValidateAfterInactivity;
+    }
+
+    public void setConnectionsValidateAfterInactivity(String connectionsValidateAfterInactivity) {
+        this.connectionsValidateAfterInactivity = connectionsValidateAfterInactivity;
+    }
+
     public String getHeaders() {
         return headers;
     }
@@ -357,6 +413,14 @@ public class HttpClientInputs {
         this.destinationFile = destinationFile;
     }
 
+    public String getDestinationFileCharacterSet() {
+        return destinationFileCharacterSet;
+    }
+
+    public void setDestinationFileCharacterSet(String destinationFileCharacterSet) {
+        this.destinationFileCharacterSet = destinationFileCharacterSet;
+    }
+
     public String getFollowRedirects() {
         return followRedirects;
     }
@@ -485,6 +549,142 @@ public class HttpClientInputs {
         this.chunkedRequestEntity = chunkedRequestEntity;
     }
 
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public String getDownloadSegments() {
+        return downloadSegments;
+    }
+
+    public void setDownloadSegments(String downloadSegments) {
+        this.downloadSegments = downloadSegments;
+    }
+
+    public String getResumeDownload() {
+        return resumeDownload;
+    }
+
+    public void setResumeDownload(String resumeDownload) {
+        this.resumeDownload = resumeDownload;
+    }
+
+    public String getUseResponseCache() {
+        return useResponseCache;
+    }
+
+    public void setUseResponseCache(String useResponseCache) {
+        this.useResponseCache = useResponseCache;
+    }
+
+    public String getResponseSelectors() {
+        return responseSelectors;
+    }
+
+    public void setResponseSelectors(String responseSelectors) {
+        this.responseSelectors = responseSelectors;
+    }
+
+    public String getSkipResponseBody() {
+        return skipResponseBody;
+    }
+
+    public void setSkipResponseBody(String skipResponseBody) {
+        this.skipResponseBody = skipResponseBody;
+    }
+
+    public String getCollectMetrics() {
+        return collectMetrics;
+    }
+
+    public void setCollectMetrics(String collectMetrics) {
+        this.collectMetrics = collectMetrics;
+    }
+
+    public String getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(String retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public String getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(String retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public String getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(String retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    public String getRetryStatusCodes() {
+        return retryStatusCodes;
+    }
+
+    public void setRetryStatusCodes(String retryStatusCodes) {
+        this.retryStatusCodes = retryStatusCodes;
+    }
+
+    public String getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public void setCircuitBreakerThreshold(String circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+    }
+
+    public String getCircuitBreakerOpenTime() {
+        return circuitBreakerOpenTime;
+    }
+
+    public void setCircuitBreakerOpenTime(String circuitBreakerOpenTime) {
+        this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+    }
+
+    public String getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(String rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public String getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(String rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public String getRateLimitKey() {
+        return rateLimitKey;
+    }
+
+    public void setRateLimitKey(String rateLimitKey) {
+        this.rateLimitKey = rateLimitKey;
+    }
+
+    public String getRateLimitMaxWait() {
+        return rateLimitMaxWait;
+    }
+
+    public void setRateLimitMaxWait(String rateLimitMaxWait) {
+        this.rateLimitMaxWait = rateLimitMaxWait;
+    }
+
     public SerializableSessionObject getCookieStoreSessionObject() {
         return cookieStoreSessionObject;
     }
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per host circuit breaker. After a number of consecutive failures the circuit opens and the requests to the host
+ * fail fast for a while. A single probe request is then let through: its success closes the circuit, its failure
+ * opens it again.
+ */
+public class CircuitBreaker {
+    public static final int MAX_TRACKED_HOSTS = 256;
+
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new LinkedHashMap<String, CircuitBreaker>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CircuitBreaker> eldest) {
+            return size() > MAX_TRACKED_HOSTS;
+        }
+    };
+
+    private final String host;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean open;
+    private boolean probing;
+
+    CircuitBreaker(String host) {
+        this.host = host;
+    }
+
+    public static CircuitBreaker forHost(String host) {
+        synchronized (CIRCUIT_BREAKERS) {
+            CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(host);
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(host);
+                CIRCUIT_BREAKERS.put(host, circuitBreaker);
+            }
+            return circuitBreaker;
+        }
+    }
+
+    public static void clear() {
+        synchronized (CIRCUIT_BREAKERS) {
+            CIRCUIT_BREAKERS.clear();
+        }
+    }
+
+    /**
+     * Lets a request through, or fails it fast when the circuit is open.
+     *
+     * @throws RuntimeException if the circuit is open or its probe request is still running
+     */
+    public synchronized void acquire() {
+        if (!open) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < openUntil) {
+            throw new RuntimeException("Circuit breaker open for " + host + " after " + consecutiveFailures
+                    + " consecutive failures, failing fast for another " + (openUntil - now) + " ms");
+        }
+        if (probing) {
+            throw new RuntimeException("Circuit breaker open for " + host + ", waiting for the probe request to complete");
+        }
+        probing = true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        probing = false;
+    }
+
+    public synchronized void onFailure(int threshold, long openMillis) {
+        consecutiveFailures++;
+        if (probing || consecutiveFailures >= threshold) {
+            open = true;
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+        probing = false;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+}
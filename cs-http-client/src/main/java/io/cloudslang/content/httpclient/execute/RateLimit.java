@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.http.protocol.HttpContext;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The rate limiter of one request together with the time it waited for its permits. It travels in the context of
+ * the request, so that {@link RateLimitInterceptor} takes a permit for every round trip sent on its behalf:
+ * the retries, the redirects and the byte ranges of a segmented download.
+ * <p>
+ * The permit of the first round trip is taken up front, before the request reaches the circuit breaker, so that a
+ * request rejected by the limiter does not count as a failure of the host.
+ */
+public class RateLimit {
+    public static final String CONTEXT_ATTRIBUTE = "io.cloudslang.content.httpclient.rate-limit";
+
+    private final RateLimiter rateLimiter;
+    private final long maxWaitMillis;
+    private final AtomicBoolean prepaid = new AtomicBoolean();
+    private final AtomicLong waitMillis = new AtomicLong();
+
+    public RateLimit(RateLimiter rateLimiter, long maxWaitMillis) {
+        this.rateLimiter = rateLimiter;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public static RateLimit get(HttpContext context) {
+        if (context == null) {
+            return null;
+        }
+        Object rateLimit = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return rateLimit instanceof RateLimit ? (RateLimit) rateLimit : null;
+    }
+
+    public void attach(HttpContext context) {
+        context.setAttribute(CONTEXT_ATTRIBUTE, this);
+    }
+
+    /**
+     * Takes the permit of the first round trip.
+     */
+    public void acquireFirst() {
+        waitMillis.addAndGet(rateLimiter.acquire(maxWaitMillis));
+        prepaid.set(true);
+    }
+
+    /**
+     * Takes the permit of a round trip, unless it is the first one and its permit was taken up front.
+     */
+    public void acquire() {
+        if (!prepaid.compareAndSet(true, false)) {
+            waitMillis.addAndGet(rateLimiter.acquire(maxWaitMillis));
+        }
+    }
+
+    /**
+     * @return the time waited for all the permits, in milliseconds
+     */
+    public long getWaitMillis() {
+        return waitMillis.get();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Runs once per round trip, the retries and redirects included, and takes a permit from the {@link RateLimit}
+ * of the request, if any.
+ */
+public class RateLimitInterceptor implements HttpRequestInterceptor {
+    public static final RateLimitInterceptor INSTANCE = new RateLimitInterceptor();
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        RateLimit rateLimit = RateLimit.get(context);
+        if (rateLimit != null) {
+            rateLimit.acquire();
+        }
+    }
+}
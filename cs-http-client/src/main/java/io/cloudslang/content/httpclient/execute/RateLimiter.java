@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide token bucket shared by the requests with the same key, by default the host they are sent to.
+ * The bucket holds up to 'burst' permits and is refilled at 'permitsPerSecond'. It is kept lock free as a single
+ * theoretical arrival time: the instant at which the bucket would be full again, advanced by one refill interval
+ * for each permit handed out.
+ */
+public class RateLimiter {
+    public static final int MAX_TRACKED_KEYS = 1024;
+
+    private static final ConcurrentMap<String, RateLimiter> RATE_LIMITERS = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final long intervalNanos;
+    private final int burst;
+    private final AtomicLong arrivalTime;
+
+    RateLimiter(String key, double permitsPerSecond, int burst) {
+        this.key = key;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+        this.arrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return the bucket of the key. When its rate or burst changed it is replaced by one with the new settings
+     * that keeps the permits already handed out, so alternating settings cannot refill the bucket.
+     */
+    public static RateLimiter forKey(String key, double permitsPerSecond, int burst) {
+        RateLimiter rateLimiter = RATE_LIMITERS.get(key);
+        while (rateLimiter == null || !rateLimiter.hasSettings(permitsPerSecond, burst)) {
+            RateLimiter newRateLimiter = rateLimiter == null
+                    ? new RateLimiter(key, permitsPerSecond, burst)
+                    : rateLimiter.withSettings(permitsPerSecond, burst);
+            boolean added = rateLimiter == null
+                    ? RATE_LIMITERS.putIfAbsent(key, newRateLimiter) == null
+                    : RATE_LIMITERS.replace(key, rateLimiter, newRateLimiter);
+            rateLimiter = added ? newRateLimiter : RATE_LIMITERS.get(key);
+        }
+        if (RATE_LIMITERS.size() > MAX_TRACKED_KEYS) {
+            removeFullBuckets();
+        }
+        return rateLimiter;
+    }
+
+    public static void clear() {
+        RATE_LIMITERS.clear();
+    }
+
+    /**
+     * Takes a permit, waiting for it at most maxWaitMillis.
+     *
+     * @return the time waited for the permit, in milliseconds
+     * @throws RuntimeException if the permit is not available within maxWaitMillis
+     */
+    public long acquire(long maxWaitMillis) {
+        long waitNanos = reserve(TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+        if (waitNanos < 0) {
+            throw new RuntimeException("Rate limit exceeded for " + key + ", no permit available within "
+                    + maxWaitMillis + " ms");
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a permit for " + key, e);
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+    }
+
+    /**
+     * Reserves the next permit unless it becomes available later than maxWaitNanos from now.
+     *
+     * @return the time to wait before using the permit, in nanoseconds, or -1 if no permit was reserved
+     */
+    long reserve(long maxWaitNanos) {
+        long tolerance = (burst - 1) * intervalNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrivalTime.get();
+            long waitNanos = Math.max(0, current - tolerance - now);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (arrivalTime.compareAndSet(current, Math.max(current, now) + intervalNanos)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    /**
+     * @return a bucket with the given settings owing as many permits as this one
+     */
+    private RateLimiter withSettings(double permitsPerSecond, int burst) {
+        RateLimiter rateLimiter = new RateLimiter(key, permitsPerSecond, burst);
+        long now = System.nanoTime();
+        double owedPermits = Math.max(0, arrivalTime.get() - now) / (double) intervalNanos;
+        rateLimiter.arrivalTime.set(now + (long) (owedPermits * rateLimiter.intervalNanos));
+        return rateLimiter;
+    }
+
+    private boolean hasSettings(double permitsPerSecond, int burst) {
+        return this.burst == burst
+                && intervalNanos == Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    }
+
+    /**
+     * A full bucket is the same as a new one, so forgetting it loses no state.
+     */
+    private static void removeFullBuckets() {
+        long now = System.nanoTime();
+        Iterator<RateLimiter> rateLimiters = RATE_LIMITERS.values().iterator();
+        while (rateLimiters.hasNext()) {
+            if (rateLimiters.next().arrivalTime.get() - now <= 0) {
+                rateLimiters.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.protocol.HttpContext;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+
+/**
+ * Retries the requests failing with a transient I/O error, after the backoff delay of their {@link RetryPolicy}.
+ * Unknown hosts, TLS failures and read timeouts are not transient and are never retried.
+ */
+public class RetryHandler implements HttpRequestRetryHandler {
+    public static final RetryHandler INSTANCE = new RetryHandler();
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        RetryPolicy retryPolicy = RetryPolicy.get(context);
+        if (retryPolicy == null || !isTransient(exception)
+                || !retryPolicy.isRetryable(HttpClientContext.adapt(context).getRequest())) {
+            return false;
+        }
+        long delay = retryPolicy.nextDelay(null);
+        return delay >= 0 && sleep(delay);
+    }
+
+    static boolean isTransient(IOException exception) {
+        if (exception instanceof InterruptedIOException) {
+            return exception instanceof ConnectTimeoutException;
+        }
+        return !(exception instanceof UnknownHostException) && !(exception instanceof SSLException);
+    }
+
+    static boolean sleep(long delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The retry settings of one request together with the number of retries already spent on it. It travels in
+ * the context of the request, so the retry handlers installed on the shared clients only retry the requests
+ * that ask for it.
+ */
+public class RetryPolicy {
+    public static final String CONTEXT_ATTRIBUTE = "io.cloudslang.content.httpclient.retry-policy";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS", "TRACE")));
+
+    private final int maxRetries;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final Set<Integer> retryStatusCodes;
+    private final int circuitBreakerThreshold;
+    private final long circuitBreakerOpenMillis;
+    private int retries;
+
+    public RetryPolicy(int maxRetries, long initialDelayMillis, long maxDelayMillis, Set<Integer> retryStatusCodes,
+                       int circuitBreakerThreshold, long circuitBreakerOpenMillis) {
+        this.maxRetries = maxRetries;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.retryStatusCodes = retryStatusCodes;
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+    }
+
+    public static RetryPolicy get(HttpContext context) {
+        if (context == null) {
+            return null;
+        }
+        Object policy = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return policy instanceof RetryPolicy ? (RetryPolicy) policy : null;
+    }
+
+    public void attach(HttpContext context) {
+        context.setAttribute(CONTEXT_ATTRIBUTE, this);
+    }
+
+    /**
+     * Only the idempotent methods are retried and only when their entity, if any, can be sent again.
+     */
+    public boolean isRetryable(HttpRequest request) {
+        if (request == null || !IDEMPOTENT_METHODS.contains(request.getRequestLine().getMethod().toUpperCase())) {
+            return false;
+        }
+        return !(request instanceof HttpEntityEnclosingRequest)
+                || ((HttpEntityEnclosingRequest) request).getEntity() == null
+                || ((HttpEntityEnclosingRequest) request).getEntity().isRepeatable();
+    }
+
+    public boolean isRetryableStatus(int statusCode) {
+        return retryStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Spends one retry and returns the time to wait before it: the delay asked by the server if any, else an
+     * exponential backoff with full jitter, a random delay between 0 and initialDelay * 2^retry capped to maxDelay.
+     *
+     * @param retryAfterMillis the delay asked by the server through Retry-After, null if none
+     * @return the delay in milliseconds, -1 if no retry is left or the server asked to wait longer than maxDelay
+     */
+    public long nextDelay(Long retryAfterMillis) {
+        if (retries >= maxRetries) {
+            return -1;
+        }
+        long delay;
+        if (retryAfterMillis != null) {
+            if (retryAfterMillis > maxDelayMillis) {
+                return -1;
+            }
+            delay = retryAfterMillis;
+        } else {
+            long ceiling = initialDelayMillis << Math.min(retries, 30);
+            if (ceiling <= 0 || ceiling > maxDelayMillis) {
+                ceiling = maxDelayMillis;
+            }
+            delay = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        }
+        retries++;
+        return delay;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public long getCircuitBreakerOpenMillis() {
+        return circuitBreakerOpenMillis;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries the requests answered with one of the retry status codes of their {@link RetryPolicy}, honoring the
+ * Retry-After header of the response.
+ */
+public class RetryStrategy implements ServiceUnavailableRetryStrategy {
+    public static final RetryStrategy INSTANCE = new RetryStrategy();
+
+    //the client asks for the interval right after retryRequest, on the same thread
+    private static final ThreadLocal<Long> RETRY_INTERVAL = new ThreadLocal<>();
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+        RetryPolicy retryPolicy = RetryPolicy.get(context);
+        if (retryPolicy == null || !retryPolicy.isRetryableStatus(response.getStatusLine().getStatusCode())
+                || !retryPolicy.isRetryable(HttpClientContext.adapt(context).getRequest())) {
+            return false;
+        }
+        long delay = retryPolicy.nextDelay(parseRetryAfter(response.getFirstHeader(HttpHeaders.RETRY_AFTER)));
+        if (delay < 0) {
+            return false;
+        }
+        RETRY_INTERVAL.set(delay);
+        return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+        Long interval = RETRY_INTERVAL.get();
+        RETRY_INTERVAL.remove();
+        return interval != null ? interval : 0;
+    }
+
+    /**
+     * @return the delay in milliseconds asked by a Retry-After header holding either delta seconds or an HTTP date,
+     * null if there is no such header or it cannot be parsed
+     */
+    static Long parseRetryAfter(Header retryAfter) {
+        if (retryAfter == null || StringUtils.isBlank(retryAfter.getValue())) {
+            return null;
+        }
+        String value = retryAfter.getValue().trim();
+        if (StringUtils.isNumeric(value)) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        Date date = DateUtils.parseDate(value);
+        return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : null;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads the entity of a GET request to a file, either resuming a partially downloaded file or splitting it
+ * into byte ranges fetched concurrently over the pooled connections.
+ * <p>
+ * The response to the original request serves as the probe: when it advertises Accept-Ranges: bytes and a length,
+ * its stream is only read for the first segment while the other segments are requested with Range headers and
+ * written with positional writes into a preallocated '.part' file, renamed once its length was verified. When
+ * ranges are not supported the entity is read as a single stream.
+ * <p>
+ * A resumed download asks for the bytes following the ones already in the file and appends them as a single stream,
+ * so that an interrupted download always leaves a valid prefix behind.
+ * <p>
+ * Each segment holds a connection of the pool, so the number of concurrent segments is capped by the maximum number
+ * of connections per route (connectionsMaxPerRoute, 2 by default): the segments over it wait for a connection.
+ */
+public class SegmentedDownload {
+    public static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+    public static final String PART_SUFFIX = ".part";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private CloseableHttpClient closeableHttpClient;
+    private HttpRequestBase httpRequestBase;
+    private HttpClientContext context;
+    private int segments = 1;
+    private long resumeOffset;
+
+    public SegmentedDownload setCloseableHttpClient(CloseableHttpClient closeableHttpClient) {
+        this.closeableHttpClient = closeableHttpClient;
+        return this;
+    }
+
+    public SegmentedDownload setHttpRequestBase(HttpRequestBase httpRequestBase) {
+        this.httpRequestBase = httpRequestBase;
+        return this;
+    }
+
+    public SegmentedDownload setContext(HttpClientContext context) {
+        this.context = context;
+        return this;
+    }
+
+    public SegmentedDownload setSegments(int segments) {
+        this.segments = segments;
+        return this;
+    }
+
+    /**
+     * @param resumeOffset the number of bytes already downloaded, the original request asks for the following ones
+     */
+    public SegmentedDownload setResumeOffset(long resumeOffset) {
+        this.resumeOffset = resumeOffset;
+        return this;
+    }
+
+    public long getResumeOffset() {
+        return resumeOffset;
+    }
+
+    /**
+     * Writes the entity of the response to the destination file.
+     *
+     * @return the number of bytes written, -1 if the response is not the download (e.g. an error page), in which case
+     * the file was not touched and the entity is left to the caller
+     */
+    public long download(HttpResponse response, String destinationFile) throws IOException {
+        int statusCode = response.getStatusLine().getStatusCode();
+        File destination = new File(destinationFile);
+
+        if (statusCode == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE && resumeOffset > 0) {
+            //the file may already be complete
+            long[] range = parseContentRange(response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            if (range != null && range[2] == resumeOffset) {
+                return 0;
+            }
+            return -1;
+        }
+        if (statusCode == HttpStatus.SC_PARTIAL_CONTENT && resumeOffset > 0) {
+            long[] range = parseContentRange(response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            if (range == null || range[0] != resumeOffset) {
+                throw new IOException("Cannot resume the download of '" + destinationFile + "' from byte " + resumeOffset
+                        + ", the server answered with the range: " + headerValue(response, HttpHeaders.CONTENT_RANGE));
+            }
+            long written;
+            try (InputStream content = response.getEntity().getContent()) {
+                written = writeStream(content, destination.toPath(), resumeOffset, Long.MAX_VALUE);
+            }
+            verifyLength(destination, range[2]);
+            return written;
+        }
+        if (statusCode != HttpStatus.SC_OK) {
+            return -1;
+        }
+
+        //a full entity, the server ignored the range or there was nothing to resume
+        long length = response.getEntity().getContentLength();
+        boolean acceptsRanges = "bytes".equalsIgnoreCase(headerValue(response, HttpHeaders.ACCEPT_RANGES));
+        boolean identity = response.getEntity().getContentEncoding() == null
+                && response.getFirstHeader(HttpHeaders.CONTENT_ENCODING) == null;
+        int segmentCount = (int) Math.min(segments, length / MIN_SEGMENT_SIZE);
+        if (!acceptsRanges || !identity || segmentCount < 2) {
+            long written;
+            try (InputStream content = response.getEntity().getContent()) {
+                Files.deleteIfExists(destination.toPath());
+                written = writeStream(content, destination.toPath(), 0, Long.MAX_VALUE);
+            }
+            verifyLength(destination, length);
+            return written;
+        }
+        return downloadSegments(response, destination, length, segmentCount);
+    }
+
+    private long downloadSegments(HttpResponse response, File destination, final long length, int segmentCount)
+            throws IOException {
+        final Path part = new File(destination.getPath() + PART_SUFFIX).toPath();
+        final URI uri = getFinalUri();
+        final long segmentSize = (length + segmentCount - 1) / segmentCount;
+        final List<HttpGet> rangeRequests = Collections.synchronizedList(new ArrayList<HttpGet>());
+        ExecutorService executor = Executors.newFixedThreadPool(segmentCount - 1);
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            //preallocates the file so that the segments are written in place
+            channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 1; i < segmentCount; i++) {
+                final long start = i * segmentSize;
+                final long end = Math.min(start + segmentSize, length) - 1;
+                futures.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws IOException {
+                        return downloadRange(uri, part, start, end, rangeRequests);
+                    }
+                }));
+            }
+
+            long written;
+            try {
+                written = writeStream(response.getEntity().getContent(), part, 0, segmentSize);
+            } finally {
+                //the rest of the entity is fetched by the segments: closing the stream would read it, the connection is dropped instead
+                httpRequestBase.abort();
+            }
+            for (Future<Long> future : futures) {
+                written += getSegment(future);
+            }
+            if (written != length || channel.size() != length) {
+                throw new IOException("Downloaded " + written + " bytes instead of " + length);
+            }
+            channel.force(false);
+            completed = true;
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                synchronized (rangeRequests) {
+                    for (HttpGet rangeRequest : rangeRequests) {
+                        rangeRequest.abort();
+                    }
+                }
+                Files.deleteIfExists(part);
+            }
+        }
+        Files.move(part, destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return length;
+    }
+
+    private long downloadRange(URI uri, Path part, long start, long end, List<HttpGet> rangeRequests) throws IOException {
+        HttpGet rangeRequest = new HttpGet(uri);
+        rangeRequests.add(rangeRequest);
+        for (Header header : httpRequestBase.getAllHeaders()) {
+            if (!HttpHeaders.RANGE.equalsIgnoreCase(header.getName())) {
+                rangeRequest.addHeader(header);
+            }
+        }
+        rangeRequest.setHeader(HttpHeaders.RANGE, "bytes=" + start + "-" + end);
+        rangeRequest.setConfig(httpRequestBase.getConfig());
+
+        try (CloseableHttpResponse rangeResponse = closeableHttpClient.execute(rangeRequest, createSegmentContext())) {
+            long[] range = parseContentRange(rangeResponse.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            if (rangeResponse.getStatusLine().getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT
+                    || range == null || range[0] != start || range[1] != end) {
+                throw new IOException("The server did not return the range " + start + "-" + end + ": "
+                        + rangeResponse.getStatusLine() + " " + headerValue(rangeResponse, HttpHeaders.CONTENT_RANGE));
+            }
+            long written;
+            try (InputStream content = rangeResponse.getEntity().getContent()) {
+                written = writeStream(content, part, start, end - start + 1);
+            }
+            if (written != end - start + 1) {
+                throw new IOException("The range " + start + "-" + end + " ended after " + written + " bytes");
+            }
+            return written;
+        }
+    }
+
+    /**
+     * The contexts are not thread safe: each segment gets its own, sharing the credentials, the auth schemes,
+     * the auth cache, the cookies and the rate limit of the original request.
+     */
+    private HttpClientContext createSegmentContext() {
+        HttpClientContext segmentContext = HttpClientContext.create();
+        segmentContext.setCredentialsProvider(context.getCredentialsProvider());
+        segmentContext.setAuthSchemeRegistry(context.getAuthSchemeRegistry());
+        segmentContext.setAuthCache(context.getAuthCache());
+        segmentContext.setCookieStore(context.getCookieStore());
+        RateLimit rateLimit = RateLimit.get(context);
+        if (rateLimit != null) {
+            rateLimit.attach(segmentContext);
+        }
+        return segmentContext;
+    }
+
+    private URI getFinalUri() throws IOException {
+        try {
+            return URIUtils.resolve(httpRequestBase.getURI(), context.getTargetHost(), context.getRedirectLocations());
+        } catch (URISyntaxException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes at most maxBytes of the stream at the given position of the file, with positional writes.
+     */
+    private static long writeStream(InputStream content, Path path, long position, long maxBytes) throws IOException {
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            int read;
+            while (written < maxBytes
+                    && (read = content.read(buffer, 0, (int) Math.min(buffer.length, maxBytes - written))) != -1) {
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    written += channel.write(byteBuffer, position + written);
+                }
+            }
+        }
+        return written;
+    }
+
+    private static long getSegment(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading the segments", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private static void verifyLength(File destination, long expectedLength) throws IOException {
+        if (expectedLength >= 0 && destination.length() != expectedLength) {
+            throw new IOException("Downloaded file '" + destination + "' has " + destination.length()
+                    + " bytes instead of " + expectedLength);
+        }
+    }
+
+    /**
+     * @return first byte, last byte and complete length of a Content-Range header, the length being -1 if unknown,
+     * or null if there is no such header. For an unsatisfied range (bytes *&#47;length) first and last are -1.
+     */
+    static long[] parseContentRange(Header contentRange) {
+        if (contentRange == null || StringUtils.isBlank(contentRange.getValue())) {
+            return null;
+        }
+        String value = contentRange.getValue().trim();
+        Matcher unsatisfied = Pattern.compile("bytes\\s+\\*/(\\d+)").matcher(value);
+        if (unsatisfied.matches()) {
+            return new long[]{-1, -1, Long.parseLong(unsatisfied.group(1))};
+        }
+        Matcher matcher = CONTENT_RANGE.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+        long length = "*".equals(matcher.group(3)) ? -1 : Long.parseLong(matcher.group(3));
+        return new long[]{Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)), length};
+    }
+
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process wide registry of the {@link HttpMetricsListener}s. Requests are only measured when a listener is
+ * registered or when the metrics outputs were asked for, so an unused registry costs nothing.
+ */
+public class HttpClientMetrics {
+    private static final List<HttpMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    public static void addListener(HttpMetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("the metrics listener should not be null");
+        }
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(HttpMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public static boolean hasListeners() {
+        return !LISTENERS.isEmpty();
+    }
+
+    public static void fireRequestCompleted(HttpRequestMetrics metrics) {
+        for (HttpMetricsListener listener : LISTENERS) {
+            try {
+                listener.requestCompleted(metrics);
+            } catch (RuntimeException ignore) {
+                //a failing listener should not fail the request it observes
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.metrics;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * What was measured for one request: its timings and the state of the connection pool it went through,
+ * sampled while the connection of the request was still leased.
+ */
+public class HttpRequestMetrics {
+    private final HttpRoute route;
+    private final RequestTimings timings;
+    private final PoolStats routeStats;
+    private final PoolStats totalStats;
+
+    public HttpRequestMetrics(HttpRoute route, RequestTimings timings, PoolStats routeStats, PoolStats totalStats) {
+        this.route = route;
+        this.timings = timings;
+        this.routeStats = routeStats;
+        this.totalStats = totalStats;
+    }
+
+    /**
+     * @return the route of the final request, null if it is not known
+     */
+    public HttpRoute getRoute() {
+        return route;
+    }
+
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * @return the stats of the pool for {@link #getRoute()}, null if the route or the pool are not known
+     */
+    public PoolStats getRouteStats() {
+        return routeStats;
+    }
+
+    /**
+     * @return the stats of the whole pool, null if the request did not go through a pool
+     */
+    public PoolStats getTotalStats() {
+        return totalStats;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.metrics;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Registered last on the client, it runs once per round trip right before the connection is leased.
+ */
+public class RequestTimingInterceptor implements HttpRequestInterceptor {
+    public static final RequestTimingInterceptor INSTANCE = new RequestTimingInterceptor();
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        RequestTimings timings = RequestTimings.get(context);
+        if (timings != null) {
+            timings.markRoundStart();
+        }
+    }
+}
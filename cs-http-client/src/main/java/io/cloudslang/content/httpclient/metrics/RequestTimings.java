@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.metrics;
+
+import org.apache.http.protocol.HttpContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The phases of one request execution, in nanoseconds. An instance is put in the context of the requests that
+ * should be measured; the instrumented client parts look it up and do nothing when it is absent.
+ * Connect and TLS handshake times add up over all the connections opened while following redirects or
+ * answering auth challenges, the time to first byte is the one of the final response.
+ */
+public class RequestTimings {
+    public static final String CONTEXT_ATTRIBUTE = "io.cloudslang.content.httpclient.request-timings";
+
+    private long roundStart;
+    private long roundConnectNanos;
+    private long executeStart;
+    private long leaseWaitNanos;
+    private long connectNanos;
+    private long tlsHandshakeNanos;
+    private long timeToFirstByteNanos;
+    private long bodyReadNanos;
+    private long totalNanos;
+
+    public static RequestTimings get(HttpContext context) {
+        if (context == null) {
+            return null;
+        }
+        Object timings = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return timings instanceof RequestTimings ? (RequestTimings) timings : null;
+    }
+
+    public void attach(HttpContext context) {
+        context.setAttribute(CONTEXT_ATTRIBUTE, this);
+    }
+
+    /**
+     * Called once the request interceptors ran, right before the connection is leased from the pool.
+     */
+    void markRoundStart() {
+        roundStart = System.nanoTime();
+        roundConnectNanos = 0;
+    }
+
+    void addConnect(long nanos) {
+        connectNanos += nanos;
+        roundConnectNanos += nanos;
+    }
+
+    void addTlsHandshake(long nanos) {
+        tlsHandshakeNanos += nanos;
+        roundConnectNanos += nanos;
+    }
+
+    /**
+     * Called when the request is about to be written on a leased and connected connection. Whatever time was
+     * not spent opening the connection since {@link #markRoundStart()} was spent waiting for the pool.
+     */
+    void markExecuteStart() {
+        executeStart = System.nanoTime();
+        if (roundStart != 0) {
+            leaseWaitNanos += Math.max(0, executeStart - roundStart - roundConnectNanos);
+            roundStart = 0;
+        }
+    }
+
+    void markFirstByte() {
+        if (executeStart != 0) {
+            timeToFirstByteNanos = System.nanoTime() - executeStart;
+        }
+    }
+
+    public void setBodyReadNanos(long bodyReadNanos) {
+        this.bodyReadNanos = bodyReadNanos;
+    }
+
+    public void setTotalNanos(long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    public long getLeaseWait(TimeUnit unit) {
+        return unit.convert(leaseWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getConnect(TimeUnit unit) {
+        return unit.convert(connectNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTlsHandshake(TimeUnit unit) {
+        return unit.convert(tlsHandshakeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTimeToFirstByte(TimeUnit unit) {
+        return unit.convert(timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getBodyRead(TimeUnit unit) {
+        return unit.convert(bodyReadNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTotal(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the timings in milliseconds, e.g. leaseWait=0,connect=3,tlsHandshake=12,timeToFirstByte=40,bodyRead=2,total=58
+     */
+    @Override
+    public String toString() {
+        TimeUnit ms = TimeUnit.MILLISECONDS;
+        return "leaseWait=" + getLeaseWait(ms) +
+                ",connect=" + getConnect(ms) +
+                ",tlsHandshake=" + getTlsHandshake(ms) +
+                ",timeToFirstByte=" + getTimeToFirstByte(ms) +
+                ",bodyRead=" + getBodyRead(ms) +
+                ",total=" + getTotal(ms);
+    }
+}
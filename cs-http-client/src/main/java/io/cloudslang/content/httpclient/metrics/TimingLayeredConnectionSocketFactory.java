@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.metrics;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+
+/**
+ * Splits the opening of TLS connections into the TCP connect and the TLS handshake. The delegate connects and
+ * layers the socket as usual, this factory only hands it a plain socket that times its own connect, the rest of
+ * the time spent in the delegate is the TLS handshake.
+ */
+public class TimingLayeredConnectionSocketFactory implements LayeredConnectionSocketFactory {
+    private final LayeredConnectionSocketFactory delegate;
+
+    public TimingLayeredConnectionSocketFactory(LayeredConnectionSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        if (RequestTimings.get(context) == null) {
+            return delegate.createSocket(context);
+        }
+        return new ConnectTimingSocket();
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        RequestTimings timings = RequestTimings.get(context);
+        if (timings == null || !(socket instanceof ConnectTimingSocket)) {
+            return delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        }
+        ConnectTimingSocket timedSocket = (ConnectTimingSocket) socket;
+        long start = System.nanoTime();
+        try {
+            return delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        } finally {
+            long connectNanos = timedSocket.getConnectNanos();
+            timings.addConnect(connectNanos);
+            if (timedSocket.isConnected()) {
+                timings.addTlsHandshake(System.nanoTime() - start - connectNanos);
+            }
+        }
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        RequestTimings timings = RequestTimings.get(context);
+        if (timings == null) {
+            return delegate.createLayeredSocket(socket, target, port, context);
+        }
+        long start = System.nanoTime();
+        try {
+            return delegate.createLayeredSocket(socket, target, port, context);
+        } finally {
+            timings.addTlsHandshake(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * A plain socket recording how long its connect took.
+     */
+    static class ConnectTimingSocket extends Socket {
+        private long connectNanos;
+
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.connect(endpoint, timeout);
+            } finally {
+                connectNanos = System.nanoTime() - start;
+            }
+        }
+
+        long getConnectNanos() {
+            return connectNanos;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.services;
+
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.httpclient.build.conn.HttpClientCache;
+import io.cloudslang.content.httpclient.components.HttpComponents;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.EXCEPTION;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_CODE;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+
+/**
+ * Executes a batch of http requests over a non-blocking I/O client, so that hundreds of requests share a handful
+ * of I/O threads and their network latencies overlap instead of adding up.
+ * The requests are built exactly like the ones of {@link HttpClientService} and every result has the same keys
+ * as the result of {@link HttpClientService#execute(HttpClientInputs)}.
+ * The response bodies are buffered in memory, compressed if the server chose so, before being consumed.
+ */
+public class HttpAsyncClientService {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 20;
+    private static final ResponseContentEncoding RESPONSE_CONTENT_ENCODING = new ResponseContentEncoding();
+
+    /**
+     * @param httpClientInputsList the requests to execute
+     * @param maxInFlight          the maximum number of requests being executed at the same time. It is also the
+     *                             size of the connection pool.
+     * @return one result per request, in the order of the given requests. A request that fails has a result with
+     * the 'returnCode' -1, the error message in 'returnResult' and the stack trace in 'exception'.
+     */
+    public List<Map<String, String>> executeAll(List<HttpClientInputs> httpClientInputsList, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("the maximum number of requests in flight should be a positive integer");
+        }
+        int size = httpClientInputsList.size();
+        List<Map<String, String>> results = new ArrayList<>(size);
+        List<HttpClientService> httpClientServices = new ArrayList<>(size);
+        List<HttpComponents> httpComponentsList = new ArrayList<>(size);
+        List<Future<HttpResponse>> futures = new ArrayList<>(size);
+        Map<String, CloseableHttpAsyncClient> asyncClients = new HashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            for (HttpClientInputs httpClientInputs : httpClientInputsList) {
+                //the builders keep state between calls, so every request gets its own service
+                HttpClientService httpClientService = new HttpClientService();
+                HttpComponents httpComponents = null;
+                Future<HttpResponse> future = null;
+                try {
+                    httpClientService.initSessionsObjects(httpClientInputs);
+                    httpComponents = httpClientService.buildHttpRequestComponents(httpClientInputs);
+                    CloseableHttpAsyncClient asyncClient = getAsyncClient(asyncClients, httpClientService,
+                            httpClientInputs, maxInFlight);
+                    acquire(inFlight);
+                    future = asyncClient.execute(httpComponents.getHttpRequestBase(),
+                            httpComponents.getHttpClientContext(), new InFlightCallback(inFlight));
+                    results.add(null);
+                } catch (RuntimeException e) {
+                    results.add(exceptionResult(e.getMessage(), e));
+                }
+                httpClientServices.add(httpClientService);
+                httpComponentsList.add(httpComponents);
+                futures.add(future);
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (futures.get(i) != null) {
+                    results.set(i, consume(httpClientInputsList.get(i), httpClientServices.get(i),
+                            httpComponentsList.get(i), futures.get(i)));
+                }
+            }
+        } finally {
+            for (CloseableHttpAsyncClient asyncClient : asyncClients.values()) {
+                try {
+                    asyncClient.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+        return results;
+    }
+
+    private Map<String, String> consume(HttpClientInputs httpClientInputs, HttpClientService httpClientService,
+                                        HttpComponents httpComponents, Future<HttpResponse> future) {
+        try {
+            HttpResponse httpResponse = future.get();
+            //the non-blocking client has no decompression stage of its own
+            RESPONSE_CONTENT_ENCODING.process(httpResponse, httpComponents.getHttpClientContext());
+            return httpClientService.parseResponse(httpResponse,
+                    httpClientInputs.getResponseCharacterSet(),
+                    httpClientInputs.getDestinationFile(),
+                    httpClientInputs.getDestinationFileCharacterSet(),
+                    httpComponents.getUri(),
+                    httpComponents.getHttpClientContext(),
+                    httpComponents.getCookieStore(),
+                    httpClientInputs.getCookieStoreSessionObject(),
+                    null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the http response", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return exceptionResult("Error while executing http request: " + cause.getMessage(), cause);
+        } catch (RuntimeException | HttpException | IOException e) {
+            return exceptionResult(e.getMessage(), e);
+        }
+    }
+
+    private CloseableHttpAsyncClient getAsyncClient(Map<String, CloseableHttpAsyncClient> asyncClients,
+                                                    HttpClientService httpClientService,
+                                                    HttpClientInputs httpClientInputs, int maxInFlight) {
+        String sslConnectionSocketFactoryKey = httpClientService.buildSSLConnectionSocketFactoryKey(httpClientInputs);
+        boolean keepAlive = HttpClientService.isKeepAlive(httpClientInputs);
+        String asyncClientKey = sslConnectionSocketFactoryKey + ":" + keepAlive;
+
+        CloseableHttpAsyncClient asyncClient = asyncClients.get(asyncClientKey);
+        if (asyncClient == null) {
+            SSLIOSessionStrategy sslStrategy = HttpClientCache.getSSLIOSessionStrategy(sslConnectionSocketFactoryKey,
+                    httpClientService.buildSSLConnectionSocketFactoryBuilder(httpClientInputs));
+            Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", sslStrategy)
+                    .build();
+            PoolingNHttpClientConnectionManager connManager;
+            try {
+                connManager = new PoolingNHttpClientConnectionManager(
+                        new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT), sessionStrategyRegistry);
+            } catch (IOReactorException e) {
+                throw new RuntimeException("Could not start the I/O reactor: " + e.getMessage(), e);
+            }
+            connManager.setMaxTotal(maxInFlight);
+            connManager.setDefaultMaxPerRoute(maxInFlight);
+
+            asyncClient = HttpAsyncClients.custom()
+                    .setConnectionManager(connManager)
+                    .addInterceptorLast(new RequestAcceptEncoding())
+                    .setConnectionReuseStrategy(keepAlive ? DefaultConnectionReuseStrategy.INSTANCE : NoConnectionReuseStrategy.INSTANCE)
+                    .build();
+            asyncClient.start();
+            asyncClients.put(asyncClientKey, asyncClient);
+        }
+        return asyncClient;
+    }
+
+    private void acquire(Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a request slot", e);
+        }
+    }
+
+    private Map<String, String> exceptionResult(String message, Throwable e) {
+        StringWriter writer = new StringWriter();
+        e.printStackTrace(new PrintWriter(writer));
+
+        Map<String, String> result = new HashMap<>();
+        result.put(RETURN_RESULT, message);
+        result.put(RETURN_CODE, ReturnCodes.FAILURE);
+        result.put(EXCEPTION, writer.toString());
+        return result;
+    }
+
+    private static class InFlightCallback implements FutureCallback<HttpResponse> {
+        private final Semaphore inFlight;
+
+        InFlightCallback(Semaphore inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void completed(HttpResponse result) {
+            inFlight.release();
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            inFlight.release();
+        }
+
+        @Override
+        public void cancelled() {
+            inFlight.release();
+        }
+    }
+}
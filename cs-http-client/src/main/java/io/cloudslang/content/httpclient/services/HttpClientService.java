@@ -26,15 +26,38 @@ import io.cloudslang.content.httpclient.build.auth.AuthSchemeProviderLookupBuild
 import io.cloudslang.content.httpclient.build.auth.AuthTypes;
 import io.cloudslang.content.httpclient.build.auth.CredentialsProviderBuilder;
 import io.cloudslang.content.httpclient.build.conn.ConnectionManagerBuilder;
+import io.cloudslang.content.httpclient.build.conn.HttpClientCache;
 import io.cloudslang.content.httpclient.build.conn.SSLConnectionSocketFactoryBuilder;
+import io.cloudslang.content.httpclient.build.entity.MeteredEntity;
+import io.cloudslang.content.httpclient.cache.CachedResponse;
+import io.cloudslang.content.httpclient.cache.ResponseCache;
 import io.cloudslang.content.httpclient.consume.FinalLocationConsumer;
 import io.cloudslang.content.httpclient.consume.HeadersConsumer;
 import io.cloudslang.content.httpclient.consume.HttpResponseConsumer;
+import io.cloudslang.content.httpclient.consume.MetricsConsumer;
+import io.cloudslang.content.httpclient.consume.ResponseSelectors;
 import io.cloudslang.content.httpclient.consume.StatusConsumer;
+import io.cloudslang.content.httpclient.execute.CircuitBreaker;
+import io.cloudslang.content.httpclient.execute.RateLimit;
+import io.cloudslang.content.httpclient.execute.RateLimitInterceptor;
+import io.cloudslang.content.httpclient.execute.RateLimiter;
 import io.cloudslang.content.httpclient.execute.HttpClientExecutor;
+import io.cloudslang.content.httpclient.execute.RetryHandler;
+import io.cloudslang.content.httpclient.execute.RetryPolicy;
+import io.cloudslang.content.httpclient.execute.RetryStrategy;
+import io.cloudslang.content.httpclient.execute.SegmentedDownload;
+import io.cloudslang.content.httpclient.metrics.HttpClientMetrics;
+import io.cloudslang.content.httpclient.metrics.HttpRequestMetrics;
+import io.cloudslang.content.httpclient.metrics.RequestTimingInterceptor;
+import io.cloudslang.content.httpclient.metrics.RequestTimings;
+import io.cloudslang.content.httpclient.metrics.TimingHttpRequestExecutor;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthSchemeProvider;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.CredentialsProvider;
@@ -42,16 +65,21 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.config.Lookup;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.RouteInfo;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.DefaultConnectionReuseStrategy;
 import org.apache.http.impl.NoConnectionReuseStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashMap;
@@ -74,10 +102,22 @@ public class HttpClientService {
     public static final String RESPONSE_HEADERS = "responseHeaders";
     public static final String PROTOCOL_VERSION = "protocolVersion";
     public static final String REASON_PHRASE = "reasonPhrase";
+    public static final String BYTES_WRITTEN = "bytesWritten";
+    public static final String THROUGHPUT = "throughput";
+    public static final String ROUTE_POOL_STATS = "routePoolStats";
+    public static final String TOTAL_POOL_STATS = "totalPoolStats";
+    public static final String REQUEST_TIMINGS = "requestTimings";
+    public static final String CACHE_HIT = "cacheHit";
+    public static final String BYTES_UPLOADED = "bytesUploaded";
+    public static final String UPLOAD_THROUGHPUT = "uploadThroughput";
+    public static final String RATE_LIMIT_WAIT = "rateLimitWait";
+    public static final String SELECTED_VALUES = "selectedValues";
+    public static final String SELECTORS_ERROR = "selectorsError";
 
     private CookieStoreBuilder cookieStoreBuilder;
     private AuthSchemeProviderLookupBuilder authSchemeProviderLookupBuilder;
     private RequestConfigBuilder requestConfigBuilder;
+    private RetryPolicyBuilder retryPolicyBuilder;
     private HeadersBuilder headersBuilder;
     private ContentTypeBuilder contentTypeBuilder;
     private EntityBuilder httpEntityBuilder;
@@ -92,22 +132,89 @@ public class HttpClientService {
     private FinalLocationConsumer finalLocationConsumer;
     private HeadersConsumer headersConsumer;
     private StatusConsumer statusConsumer;
+    private MetricsConsumer metricsConsumer;
 
     public Map<String, String> execute(HttpClientInputs httpClientInputs) {
         initSessionsObjects(httpClientInputs);
         HttpComponents httpComponents = buildHttpComponents(httpClientInputs);
 
-        CloseableHttpResponse httpResponse = execute(httpComponents.getCloseableHttpClient(),
-                httpComponents.getHttpRequestBase(),
-                httpComponents.getHttpClientContext());
+        boolean collectMetrics = Boolean.parseBoolean(httpClientInputs.getCollectMetrics());
+        RequestTimings timings = null;
+        if (collectMetrics || HttpClientMetrics.hasListeners()) {
+            timings = new RequestTimings();
+            timings.attach(httpComponents.getHttpClientContext());
+        }
+        long start = System.nanoTime();
+
+        String cacheKey = null;
+        CachedResponse cachedResponse = null;
+        if (Boolean.parseBoolean(httpClientInputs.getUseResponseCache())) {
+            cacheKey = buildResponseCacheKey(httpClientInputs, httpComponents.getHttpRequestBase());
+            cachedResponse = cacheKey != null ? ResponseCache.getInstance().get(cacheKey) : null;
+            if (cachedResponse != null) {
+                cachedResponse.addConditionalHeaders(httpComponents.getHttpRequestBase());
+            }
+        }
+
+        SegmentedDownload segmentedDownload = buildSegmentedDownload(httpClientInputs, httpComponents);
+
+        RateLimit rateLimit = acquireRateLimit(httpClientInputs, httpComponents);
+
+        CloseableHttpResponse httpResponse = executeWithCircuitBreaker(httpComponents);
+
+        //sampled while the connection of this request is still leased
+        PoolStats routeStats = null;
+        PoolStats totalStats = null;
+        if (timings != null) {
+            routeStats = getRouteStats(httpComponents.getConnManager(), httpComponents.getHttpClientContext());
+            totalStats = httpComponents.getConnManager() != null ? httpComponents.getConnManager().getTotalStats() : null;
+        }
+        long bodyReadStart = System.nanoTime();
+
+        boolean cacheHit = false;
+        if (cacheKey != null) {
+            int statusCode = httpResponse.getStatusLine().getStatusCode();
+            if (cachedResponse != null && statusCode == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consumeQuietly(httpResponse.getEntity());
+                httpResponse = cachedResponse.toResponse(httpResponse.getAllHeaders());
+                cacheHit = true;
+            } else if (statusCode == HttpStatus.SC_OK) {
+                try {
+                    httpResponse.setEntity(ResponseCache.getInstance().cache(cacheKey, httpResponse));
+                } catch (IOException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+        }
 
         Map<String, String> result = parseResponse(httpResponse,
                 httpClientInputs.getResponseCharacterSet(),
                 httpClientInputs.getDestinationFile(),
+                httpClientInputs.getDestinationFileCharacterSet(),
                 httpComponents.getUri(),
                 httpComponents.getHttpClientContext(),
                 httpComponents.getCookieStore(),
-                httpClientInputs.getCookieStoreSessionObject());
+                httpClientInputs.getCookieStoreSessionObject(),
+                segmentedDownload);
+        if (cacheKey != null) {
+            result.put(CACHE_HIT, String.valueOf(cacheHit));
+        }
+        if (rateLimit != null) {
+            result.put(RATE_LIMIT_WAIT, String.valueOf(rateLimit.getWaitMillis()));
+        }
+        putUploadMetrics(httpComponents.getHttpRequestBase(), result);
+
+        if (timings != null) {
+            long end = System.nanoTime();
+            timings.setBodyReadNanos(end - bodyReadStart);
+            timings.setTotalNanos(end - start);
+            HttpRoute route = getRoute(httpComponents.getHttpClientContext());
+            HttpRequestMetrics requestMetrics = new HttpRequestMetrics(route, timings, routeStats, totalStats);
+            HttpClientMetrics.fireRequestCompleted(requestMetrics);
+            if (collectMetrics) {
+                metricsConsumer.setRequestMetrics(requestMetrics).consume(result);
+            }
+        }
 
         checkKeepAlive(httpComponents.getHttpRequestBase(),
                 httpComponents.getConnManager(),
@@ -117,7 +224,7 @@ public class HttpClientService {
         return result;
     }
 
-    private void initSessionsObjects(HttpClientInputs httpClientInputs) {
+    void initSessionsObjects(HttpClientInputs httpClientInputs) {
         SerializableSessionObject cookieStoreSessionObject = httpClientInputs.getCookieStoreSessionObject();
         if (cookieStoreSessionObject == null) {
             httpClientInputs.setCookieStoreSessionObject(new SerializableSessionObject());
@@ -130,6 +237,51 @@ public class HttpClientService {
     }
 
     public HttpComponents buildHttpComponents(HttpClientInputs httpClientInputs) {
+        HttpComponents result = buildHttpRequestComponents(httpClientInputs);
+
+        String sslConnectionSocketFactoryKey = buildSSLConnectionSocketFactoryKey(httpClientInputs);
+        SSLConnectionSocketFactory sslConnectionSocketFactory = HttpClientCache.getSSLConnectionSocketFactory(
+                sslConnectionSocketFactoryKey, buildSSLConnectionSocketFactoryBuilder(httpClientInputs));
+
+        //the pool is tied to the socket factory, so a changed TLS configuration or keystore gets its own pool
+        PoolingHttpClientConnectionManager connManager = poolingHttpClientConnectionManagerBuilder
+                .setConnectionManagerMapKey(sslConnectionSocketFactoryKey)
+                .setConnectionPoolHolder(httpClientInputs.getConnectionPoolSessionObject())
+                .setSslsf(sslConnectionSocketFactory)
+                .setDefaultMaxPerRoute(httpClientInputs.getConnectionsMaxPerRoute())
+                .setTotalMax(httpClientInputs.getConnectionsMaxTotal())
+                .setIdleTimeout(httpClientInputs.getConnectionsIdleTimeout())
+                .setValidateAfterInactivity(httpClientInputs.getConnectionsValidateAfterInactivity())
+                .buildConnectionManager();
+
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
+        boolean keepAlive = isKeepAlive(httpClientInputs);
+        if (keepAlive) {
+            httpClientBuilder.setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE);
+        } else {
+            httpClientBuilder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+
+        //both only retry the requests carrying a RetryPolicy in their context
+        httpClientBuilder.setRetryHandler(RetryHandler.INSTANCE);
+        httpClientBuilder.setServiceUnavailableRetryStrategy(RetryStrategy.INSTANCE);
+        httpClientBuilder.setRequestExecutor(new TimingHttpRequestExecutor());
+        httpClientBuilder.addInterceptorLast(RateLimitInterceptor.INSTANCE);
+        httpClientBuilder.addInterceptorLast(RequestTimingInterceptor.INSTANCE);
+
+        String clientSettingsKey = ConnectionManagerBuilder.buildConnectionManagerMapKey(String.valueOf(keepAlive));
+        CloseableHttpClient closeableHttpClient = HttpClientCache.getHttpClient(connManager, clientSettingsKey, httpClientBuilder);
+
+        result.setCloseableHttpClient(closeableHttpClient);
+        result.setConnManager(connManager);
+        return result;
+    }
+
+    /**
+     * Builds everything that is specific to one request: the request itself and the context carrying the
+     * credentials, the auth schemes and the cookies. The client that executes it is left to the caller.
+     */
+    public HttpComponents buildHttpRequestComponents(HttpClientInputs httpClientInputs) {
         buildDefaultServices();
 
         URI uri = uriBuilder.setUrl(httpClientInputs.getUrl())
@@ -156,8 +308,14 @@ public class HttpClientService {
                 .setMultipartBodiesContentType(httpClientInputs.getMultipartBodiesContentType())
                 .setMultipartFilesContentType(httpClientInputs.getMultipartFilesContentType())
                 .setChunkedRequestEntity(httpClientInputs.getChunkedRequestEntity())
+                .setCompression(httpClientInputs.getCompression())
                 .buildEntity();
 
+        //measures what goes on the wire, after the compression
+        if (httpEntity != null) {
+            httpEntity = new MeteredEntity(httpEntity);
+        }
+
         HttpRequestBase httpRequestBase = requestBuilder
                 .setMethod(httpClientInputs.getMethod())
                 .setUri(uri)
@@ -175,10 +333,25 @@ public class HttpClientService {
                 .setFollowRedirects(httpClientInputs.getFollowRedirects())
                 .setProxyHost(httpClientInputs.getProxyHost())
                 .setProxyPort(httpClientInputs.getProxyPort())
+                .setCompression(httpClientInputs.getCompression())
                 .buildRequestConfig();
         httpRequestBase.setConfig(requestConfig);
 
-        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
+        RetryPolicy retryPolicy = retryPolicyBuilder
+                .setRetryCount(httpClientInputs.getRetryCount())
+                .setRetryDelay(httpClientInputs.getRetryDelay())
+                .setRetryMaxDelay(httpClientInputs.getRetryMaxDelay())
+                .setRetryStatusCodes(httpClientInputs.getRetryStatusCodes())
+                .setCircuitBreakerThreshold(httpClientInputs.getCircuitBreakerThreshold())
+                .setCircuitBreakerOpenTime(httpClientInputs.getCircuitBreakerOpenTime())
+                .buildRetryPolicy();
+
+        ResponseSelectors responseSelectors = ResponseSelectors.parse(httpClientInputs.getResponseSelectors(),
+                Boolean.parseBoolean(httpClientInputs.getSkipResponseBody()));
+        if (responseSelectors != null && StringUtils.isNotEmpty(httpClientInputs.getDestinationFile())) {
+            throw new IllegalArgumentException("the '" + HttpClientInputs.RESPONSE_SELECTORS + "' input cannot be used with '"
+                    + HttpClientInputs.DESTINATION_FILE + "', the response is written to the file as it is");
+        }
 
         AuthTypes authTypes = new AuthTypes(httpClientInputs.getAuthType());
 
@@ -193,7 +366,6 @@ public class HttpClientService {
                 .setProxyHost(httpClientInputs.getProxyHost())
                 .setProxyPort(httpClientInputs.getProxyPort())
                 .buildCredentialsProvider();
-        httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
 
         Lookup<AuthSchemeProvider> authSchemeLookup = authSchemeProviderLookupBuilder
                 .setAuthTypes(authTypes)
@@ -205,7 +377,6 @@ public class HttpClientService {
                 .setUsername(httpClientInputs.getUsername())
                 .setPassword(httpClientInputs.getPassword())
                 .buildAuthSchemeProviderLookup();
-        httpClientBuilder.setDefaultAuthSchemeRegistry(authSchemeLookup);
 
         httpRequestBase.setHeaders(theHeaders.toArray(new Header[theHeaders.size()]));
 
@@ -213,11 +384,43 @@ public class HttpClientService {
                 .setUseCookies(httpClientInputs.getUseCookies())
                 .setCookieStoreSessionObject(httpClientInputs.getCookieStoreSessionObject())
                 .buildCookieStore();
-        if (cookieStore != null) {
-            httpClientBuilder.setDefaultCookieStore(cookieStore);
+
+        HttpClientContext context = contextBuilder
+                .setAuthSchemeLookup(authSchemeLookup)
+                .setAuthTypes(authTypes)
+                .setCredentialsProvider(credentialsProvider)
+                .setCookieStore(cookieStore)
+                .setUri(uri)
+                .setPreemptiveAuth(httpClientInputs.getPreemptiveAuth()).build();
+        if (retryPolicy != null) {
+            retryPolicy.attach(context);
+        }
+        if (responseSelectors != null) {
+            responseSelectors.attach(context);
         }
 
-        SSLConnectionSocketFactory sslConnectionSocketFactory = sslConnectionSocketFactoryBuilder
+        HttpComponents result = new HttpComponents();
+        result.setHttpRequestBase(httpRequestBase);
+        result.setHttpClientContext(context);
+        result.setUri(uri);
+        result.setCookieStore(cookieStore);
+        return result;
+    }
+
+    public String buildSSLConnectionSocketFactoryKey(HttpClientInputs httpClientInputs) {
+        return HttpClientCache.buildSSLConnectionSocketFactoryKey(httpClientInputs.getTrustAllRoots(),
+                httpClientInputs.getX509HostnameVerifier(),
+                httpClientInputs.getKeystore(),
+                httpClientInputs.getKeystorePassword(),
+                httpClientInputs.getTrustKeystore(),
+                httpClientInputs.getTrustPassword(),
+                httpClientInputs.getTlsVersion(),
+                httpClientInputs.getAllowedCyphers());
+    }
+
+    public SSLConnectionSocketFactoryBuilder buildSSLConnectionSocketFactoryBuilder(HttpClientInputs httpClientInputs) {
+        buildDefaultServices();
+        return sslConnectionSocketFactoryBuilder
                 .setTrustAllRoots(httpClientInputs.getTrustAllRoots())
                 .setKeystore(httpClientInputs.getKeystore())
                 .setKeystorePassword(httpClientInputs.getKeystorePassword())
@@ -225,51 +428,164 @@ public class HttpClientService {
                 .setTrustPassword(httpClientInputs.getTrustPassword())
                 .setX509HostnameVerifier(httpClientInputs.getX509HostnameVerifier())
                 .setInputTLS(httpClientInputs.getTlsVersion())
-                .setallowedCyphers(httpClientInputs.getAllowedCyphers())
-                .build();
+                .setallowedCyphers(httpClientInputs.getAllowedCyphers());
+    }
 
-        String connectionKey = ConnectionManagerBuilder.buildConnectionManagerMapKey(httpClientInputs.getTrustAllRoots(),
-                httpClientInputs.getX509HostnameVerifier(),
-                httpClientInputs.getKeystore(),
-                httpClientInputs.getTrustKeystore());
-        PoolingHttpClientConnectionManager connManager = poolingHttpClientConnectionManagerBuilder
-                .setConnectionManagerMapKey(connectionKey)
-                .setConnectionPoolHolder(httpClientInputs.getConnectionPoolSessionObject())
-                .setSslsf(sslConnectionSocketFactory)
-                .setDefaultMaxPerRoute(httpClientInputs.getConnectionsMaxPerRoute())
-                .setTotalMax(httpClientInputs.getConnectionsMaxTotal())
-                .buildConnectionManager();
+    public static boolean isKeepAlive(HttpClientInputs httpClientInputs) {
+        return StringUtils.isEmpty(httpClientInputs.getKeepAlive()) || Boolean.parseBoolean(httpClientInputs.getKeepAlive());
+    }
 
-        httpClientBuilder.setConnectionManager(connManager);
 
-        if (StringUtils.isEmpty(httpClientInputs.getKeepAlive()) || Boolean.parseBoolean(httpClientInputs.getKeepAlive())) {
-            httpClientBuilder.setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE);
-        } else {
-            httpClientBuilder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+    /**
+     * @return the download of the entity of a GET to 'destinationFile' in segments or resuming a partial file,
+     * null if the request is not such a download. Ranges count bytes of the encoded entity, so the response
+     * of such a download is not decompressed.
+     */
+    private static SegmentedDownload buildSegmentedDownload(HttpClientInputs httpClientInputs, HttpComponents httpComponents) {
+        HttpRequestBase httpRequestBase = httpComponents.getHttpRequestBase();
+        String destinationFile = httpClientInputs.getDestinationFile();
+        boolean resume = Boolean.parseBoolean(httpClientInputs.getResumeDownload());
+        int segments = 1;
+        if (!StringUtils.isEmpty(httpClientInputs.getDownloadSegments())) {
+            try {
+                segments = Integer.parseInt(httpClientInputs.getDownloadSegments());
+            } catch (NumberFormatException e) {
+                segments = 0;
+            }
+            if (segments < 1) {
+                throw new IllegalArgumentException("the '" + HttpClientInputs.DOWNLOAD_SEGMENTS
+                        + "' input should be a positive integer, got: " + httpClientInputs.getDownloadSegments());
+            }
+        }
+        if (StringUtils.isEmpty(destinationFile) || !StringUtils.isEmpty(httpClientInputs.getDestinationFileCharacterSet())
+                || !"GET".equalsIgnoreCase(httpRequestBase.getMethod()) || (segments == 1 && !resume)) {
+            return null;
         }
 
-        httpClientBuilder.setRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+        RequestConfig requestConfig = httpRequestBase.getConfig() != null ? httpRequestBase.getConfig() : RequestConfig.DEFAULT;
+        httpRequestBase.setConfig(RequestConfig.copy(requestConfig).setContentCompressionEnabled(false).build());
 
-        CloseableHttpClient closeableHttpClient = httpClientBuilder.build();
+        long resumeOffset = 0;
+        File file = new File(destinationFile);
+        if (resume && file.isFile() && file.length() > 0) {
+            resumeOffset = file.length();
+            httpRequestBase.setHeader(HttpHeaders.RANGE, "bytes=" + resumeOffset + "-");
+        }
+        return new SegmentedDownload()
+                .setCloseableHttpClient(httpComponents.getCloseableHttpClient())
+                .setHttpRequestBase(httpRequestBase)
+                .setContext(httpComponents.getHttpClientContext())
+                .setSegments(segments)
+                .setResumeOffset(resumeOffset);
+    }
 
-        HttpClientContext context = contextBuilder
-                .setAuthSchemeLookup(authSchemeLookup)
-                .setAuthTypes(authTypes)
-                .setCredentialsProvider(credentialsProvider)
-                .setUri(uri)
-                .setPreemptiveAuth(httpClientInputs.getPreemptiveAuth()).build();
+    /**
+     * Takes the permit of the first round trip from the rate limiter of the request, by default the one of its host,
+     * and attaches it to the context so that every further round trip takes its own permit.
+     *
+     * @return the rate limit of the request, null if the request is not rate limited
+     */
+    private static RateLimit acquireRateLimit(HttpClientInputs httpClientInputs, HttpComponents httpComponents) {
+        if (StringUtils.isEmpty(httpClientInputs.getRateLimit())) {
+            return null;
+        }
+        double permitsPerSecond;
+        try {
+            permitsPerSecond = Double.parseDouble(httpClientInputs.getRateLimit());
+        } catch (NumberFormatException e) {
+            permitsPerSecond = 0;
+        }
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("the '" + HttpClientInputs.RATE_LIMIT
+                    + "' input should be a positive number, got: " + httpClientInputs.getRateLimit());
+        }
+        int burst = parseRateLimitInput(httpClientInputs.getRateLimitBurst(), "1", HttpClientInputs.RATE_LIMIT_BURST);
+        if (burst == 0) {
+            throw new IllegalArgumentException("the '" + HttpClientInputs.RATE_LIMIT_BURST
+                    + "' input should be a positive integer, got: " + httpClientInputs.getRateLimitBurst());
+        }
+        int maxWait = parseRateLimitInput(httpClientInputs.getRateLimitMaxWait(), "1000", HttpClientInputs.RATE_LIMIT_MAX_WAIT);
+        String key = StringUtils.isEmpty(httpClientInputs.getRateLimitKey())
+                ? URIUtils.extractHost(httpComponents.getUri()).toURI()
+                : httpClientInputs.getRateLimitKey();
+        RateLimit rateLimit = new RateLimit(RateLimiter.forKey(key, permitsPerSecond, burst), maxWait);
+        rateLimit.acquireFirst();
+        rateLimit.attach(httpComponents.getHttpClientContext());
+        return rateLimit;
+    }
 
-        HttpComponents result = new HttpComponents();
-        result.setCloseableHttpClient(closeableHttpClient);
-        result.setHttpRequestBase(httpRequestBase);
-        result.setHttpClientContext(context);
-        result.setUri(uri);
-        result.setConnManager(connManager);
-        result.setCookieStore(cookieStore);
-        result.setHttpClientBuilder(httpClientBuilder);
-        return result;
+    private static int parseRateLimitInput(String value, String defaultValue, String inputName) {
+        value = StringUtils.defaultIfEmpty(value, defaultValue);
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        throw new IllegalArgumentException("the '" + inputName + "' input should be a non negative integer, got: " + value);
+    }
+
+    private static void putUploadMetrics(HttpRequestBase httpRequestBase, Map<String, String> result) {
+        if (httpRequestBase instanceof HttpEntityEnclosingRequest
+                && ((HttpEntityEnclosingRequest) httpRequestBase).getEntity() instanceof MeteredEntity) {
+            MeteredEntity entity = (MeteredEntity) ((HttpEntityEnclosingRequest) httpRequestBase).getEntity();
+            result.put(BYTES_UPLOADED, String.valueOf(entity.getBytesWritten()));
+            result.put(UPLOAD_THROUGHPUT, String.valueOf(entity.getThroughput()));
+        }
+    }
+
+    /**
+     * @return the key of the response to the request, null if the request is not a GET or already is conditional
+     */
+    private static String buildResponseCacheKey(HttpClientInputs httpClientInputs, HttpRequestBase httpRequestBase) {
+        if (!"GET".equalsIgnoreCase(httpRequestBase.getMethod())
+                || httpRequestBase.containsHeader(HttpHeaders.IF_NONE_MATCH)
+                || httpRequestBase.containsHeader(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return null;
+        }
+        return ResponseCache.buildKey(httpRequestBase.getURI().toString(),
+                httpClientInputs.getAuthType(),
+                httpClientInputs.getUsername(),
+                httpClientInputs.getPassword(),
+                httpClientInputs.getHeaders(),
+                httpClientInputs.getCompression(),
+                httpClientInputs.getTrustAllRoots(),
+                httpClientInputs.getKeystore(),
+                httpClientInputs.getProxyHost(),
+                httpClientInputs.getProxyUsername());
     }
 
+    /**
+     * Executes the request through the circuit breaker of its host when its retry policy asks for one. A request
+     * failing with an I/O error or, once its retries are spent, with one of the retry status codes counts as a failure.
+     */
+    private CloseableHttpResponse executeWithCircuitBreaker(HttpComponents httpComponents) {
+        RetryPolicy retryPolicy = RetryPolicy.get(httpComponents.getHttpClientContext());
+        if (retryPolicy == null || retryPolicy.getCircuitBreakerThreshold() == 0) {
+            return execute(httpComponents.getCloseableHttpClient(),
+                    httpComponents.getHttpRequestBase(),
+                    httpComponents.getHttpClientContext());
+        }
+
+        CircuitBreaker circuitBreaker = CircuitBreaker.forHost(URIUtils.extractHost(httpComponents.getUri()).toURI());
+        circuitBreaker.acquire();
+        CloseableHttpResponse httpResponse;
+        try {
+            httpResponse = execute(httpComponents.getCloseableHttpClient(),
+                    httpComponents.getHttpRequestBase(),
+                    httpComponents.getHttpClientContext());
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(retryPolicy.getCircuitBreakerThreshold(), retryPolicy.getCircuitBreakerOpenMillis());
+            throw e;
+        }
+        if (retryPolicy.isRetryableStatus(httpResponse.getStatusLine().getStatusCode())) {
+            circuitBreaker.onFailure(retryPolicy.getCircuitBreakerThreshold(), retryPolicy.getCircuitBreakerOpenMillis());
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        return httpResponse;
+    }
 
     public CloseableHttpResponse execute(CloseableHttpClient closeableHttpClient,
                                          HttpRequestBase httpRequestBase,
@@ -282,13 +598,15 @@ public class HttpClientService {
                 .execute();
     }
 
-    public Map<String, String> parseResponse(CloseableHttpResponse httpResponse,
+    public Map<String, String> parseResponse(HttpResponse httpResponse,
                                              String responseCharacterSet,
                                              String destinationFile,
+                                             String destinationFileCharacterSet,
                                              URI uri,
                                              HttpClientContext httpClientContext,
                                              CookieStore cookieStore,
-                                             SerializableSessionObject cookieStoreSessionObject
+                                             SerializableSessionObject cookieStoreSessionObject,
+                                             SegmentedDownload segmentedDownload
     ) {
         Map<String, String> result = new HashMap<>();
 
@@ -297,6 +615,9 @@ public class HttpClientService {
                     .setHttpResponse(httpResponse)
                     .setResponseCharacterSet(responseCharacterSet)
                     .setDestinationFile(destinationFile)
+                    .setDestinationFileCharacterSet(destinationFileCharacterSet)
+                    .setSegmentedDownload(segmentedDownload)
+                    .setResponseSelectors(ResponseSelectors.get(httpClientContext))
                     .consume(result);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -323,6 +644,16 @@ public class HttpClientService {
         return result;
     }
 
+    private static HttpRoute getRoute(HttpClientContext context) {
+        RouteInfo route = context != null ? context.getHttpRoute() : null;
+        return route instanceof HttpRoute ? (HttpRoute) route : null;
+    }
+
+    private static PoolStats getRouteStats(PoolingHttpClientConnectionManager connManager, HttpClientContext context) {
+        HttpRoute route = getRoute(context);
+        return connManager != null && route != null ? connManager.getStats(route) : null;
+    }
+
     private void checkKeepAlive(HttpRequestBase httpRequestBase, PoolingHttpClientConnectionManager connManager,
                                 String keepAliveInput, CloseableHttpResponse httpResponse) {
         boolean keepAlive = StringUtils.isBlank(keepAliveInput) || Boolean.parseBoolean(keepAliveInput);
@@ -351,6 +682,10 @@ public class HttpClientService {
         this.requestConfigBuilder = requestConfigBuilder;
     }
 
+    public void setRetryPolicyBuilder(RetryPolicyBuilder retryPolicyBuilder) {
+        this.retryPolicyBuilder = retryPolicyBuilder;
+    }
+
     public void setHeadersBuilder(HeadersBuilder headersBuilder) {
         this.headersBuilder = headersBuilder;
     }
@@ -394,6 +729,9 @@ public class HttpClientService {
         if (requestConfigBuilder == null) {
             requestConfigBuilder = new RequestConfigBuilder();
         }
+        if (retryPolicyBuilder == null) {
+            retryPolicyBuilder = new RetryPolicyBuilder();
+        }
         if (credentialsProviderBuilder == null) {
             credentialsProviderBuilder = new CredentialsProviderBuilder();
         }
@@ -427,5 +765,8 @@ public class HttpClientService {
         if (statusConsumer == null) {
             statusConsumer = new StatusConsumer();
         }
+        if (metricsConsumer == null) {
+            metricsConsumer = new MetricsConsumer();
+        }
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.services.HttpAsyncClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_CODE;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.STATUS_CODE;
+import static org.junit.Assert.assertEquals;
+
+public class HttpAsyncClientServiceTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gzip", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    GZIPOutputStream gzip = new GZIPOutputStream(body);
+                    gzip.write("compressed".getBytes(StandardCharsets.UTF_8));
+                    gzip.close();
+                } else {
+                    body.write("plain".getBytes(StandardCharsets.UTF_8));
+                }
+                exchange.sendResponseHeaders(200, body.size());
+                OutputStream os = exchange.getResponseBody();
+                body.writeTo(os);
+                os.close();
+            }
+        });
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                //answer the later requests first so that the completion order differs from the input order
+                String index = exchange.getRequestURI().getQuery().substring("index=".length());
+                try {
+                    Thread.sleep(200 - 20 * Integer.parseInt(index));
+                } catch (InterruptedException ignore) {
+                }
+                byte[] body = index.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(10);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void executeAllReturnsResultsInInputOrder() {
+        List<HttpClientInputs> inputs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputs.add(buildInputs("http://localhost:" + server.getAddress().getPort() + "/?index=" + i));
+        }
+
+        List<Map<String, String>> results = new HttpAsyncClientService().executeAll(inputs, 5);
+
+        assertEquals(10, results.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("0", results.get(i).get(RETURN_CODE));
+            assertEquals("200", results.get(i).get(STATUS_CODE));
+            assertEquals(String.valueOf(i), results.get(i).get(RETURN_RESULT));
+        }
+    }
+
+    @Test
+    public void executeAllReportsFailuresPerRequest() {
+        List<HttpClientInputs> inputs = new ArrayList<>();
+        inputs.add(buildInputs("http://localhost:" + server.getAddress().getPort() + "/?index=1"));
+        inputs.add(buildInputs("not a url"));
+
+        List<Map<String, String>> results = new HttpAsyncClientService().executeAll(inputs, 1);
+
+        assertEquals("0", results.get(0).get(RETURN_CODE));
+        assertEquals("-1", results.get(1).get(RETURN_CODE));
+    }
+
+    @Test
+    public void executeAllDecompressesResponses() {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/gzip";
+        HttpClientInputs uncompressed = buildInputs(url);
+        uncompressed.setCompression("none");
+
+        List<Map<String, String>> results = new HttpAsyncClientService().executeAll(
+                Arrays.asList(buildInputs(url), uncompressed), 2);
+
+        assertEquals("compressed", results.get(0).get(RETURN_RESULT));
+        assertEquals("plain", results.get(1).get(RETURN_RESULT));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeAllWithInvalidMaxInFlight() {
+        new HttpAsyncClientService().executeAll(Collections.<HttpClientInputs>emptyList(), 0);
+    }
+
+    private HttpClientInputs buildInputs(String url) {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl(url);
+        httpClientInputs.setMethod("GET");
+        httpClientInputs.setAuthType("anonymous");
+        return httpClientInputs;
+    }
+}
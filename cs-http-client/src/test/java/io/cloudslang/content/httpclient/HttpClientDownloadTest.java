@@ -0,0 +1,243 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.BYTES_WRITTEN;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.STATUS_CODE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class HttpClientDownloadTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final byte[] CONTENT = new byte[3 * 1024 * 1024 + 123];
+
+    static {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ranges", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                if (range == null) {
+                    send(exchange, 200, 0, CONTENT.length);
+                    return;
+                }
+                rangeRequests.incrementAndGet();
+                Matcher matcher = RANGE.matcher(range);
+                matcher.matches();
+                int start = Integer.parseInt(matcher.group(1));
+                int end = matcher.group(2).isEmpty() ? CONTENT.length - 1 : Integer.parseInt(matcher.group(2));
+                if (start >= CONTENT.length) {
+                    exchange.getResponseHeaders().add("Content-Range", "bytes */" + CONTENT.length);
+                    exchange.sendResponseHeaders(416, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + CONTENT.length);
+                send(exchange, 206, start, end - start + 1);
+            }
+        });
+        server.createContext("/noranges", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, 200, 0, CONTENT.length);
+            }
+        });
+        server.createContext("/error", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = "Internal Server Error".getBytes(StandardCharsets.ISO_8859_1);
+                exchange.sendResponseHeaders(500, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void executeDownloadsSegments() throws IOException {
+        File destination = new File(folder.getRoot(), "segmented.bin");
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", destination);
+        httpClientInputs.setDownloadSegments("3");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("200", result.get(STATUS_CODE));
+        assertEquals(String.valueOf(CONTENT.length), result.get(BYTES_WRITTEN));
+        assertEquals(2, rangeRequests.get());
+        assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+        assertFalse(new File(destination.getPath() + ".part").exists());
+    }
+
+    @Test
+    public void executeFallsBackToSingleStream() throws IOException {
+        File destination = new File(folder.getRoot(), "single.bin");
+        HttpClientInputs httpClientInputs = buildInputs("/noranges", destination);
+        httpClientInputs.setDownloadSegments("3");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals(String.valueOf(CONTENT.length), result.get(BYTES_WRITTEN));
+        assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void executeResumesDownload() throws IOException {
+        File destination = new File(folder.getRoot(), "resumed.bin");
+        Files.write(destination.toPath(), Arrays.copyOf(CONTENT, 1000));
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", destination);
+        httpClientInputs.setResumeDownload("true");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("206", result.get(STATUS_CODE));
+        assertEquals(String.valueOf(CONTENT.length - 1000), result.get(BYTES_WRITTEN));
+        assertEquals(1, rangeRequests.get());
+        assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void executeResumesCompleteDownload() throws IOException {
+        File destination = new File(folder.getRoot(), "complete.bin");
+        Files.write(destination.toPath(), CONTENT);
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", destination);
+        httpClientInputs.setResumeDownload("true");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("416", result.get(STATUS_CODE));
+        assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void executeResumeKeepsPartialFileOnError() throws IOException {
+        File destination = new File(folder.getRoot(), "error.bin");
+        Files.write(destination.toPath(), Arrays.copyOf(CONTENT, 1000));
+        HttpClientInputs httpClientInputs = buildInputs("/error", destination);
+        httpClientInputs.setResumeDownload("true");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("500", result.get(STATUS_CODE));
+        assertEquals("Internal Server Error", result.get(RETURN_RESULT));
+        assertEquals("0", result.get(BYTES_WRITTEN));
+        assertArrayEquals(Arrays.copyOf(CONTENT, 1000), Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void executeResumeKeepsPartialFileOnUnexpectedRangeNotSatisfiable() throws IOException {
+        //the file is longer than the entity, the 416 does not mean the download is complete
+        byte[] longer = Arrays.copyOf(CONTENT, CONTENT.length + 10);
+        File destination = new File(folder.getRoot(), "longer.bin");
+        Files.write(destination.toPath(), longer);
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", destination);
+        httpClientInputs.setResumeDownload("true");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("416", result.get(STATUS_CODE));
+        assertEquals("0", result.get(BYTES_WRITTEN));
+        assertArrayEquals(longer, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeWithInvalidDownloadSegments() {
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", new File(folder.getRoot(), "invalid.bin"));
+        httpClientInputs.setDownloadSegments("0");
+        new HttpClientService().execute(httpClientInputs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeWithResponseSelectors() {
+        HttpClientInputs httpClientInputs = buildInputs("/ranges", new File(folder.getRoot(), "selected.bin"));
+        httpClientInputs.setResponseSelectors("$.value");
+        new HttpClientService().execute(httpClientInputs);
+    }
+
+    private HttpClientInputs buildInputs(String path, File destination) {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl("http://localhost:" + server.getAddress().getPort() + path);
+        httpClientInputs.setMethod("GET");
+        httpClientInputs.setAuthType("anonymous");
+        httpClientInputs.setDestinationFile(destination.getAbsolutePath());
+        httpClientInputs.setConnectionsMaxPerRoute("4");
+        httpClientInputs.setConnectionPoolSessionObject(new GlobalSessionObject());
+        return httpClientInputs;
+    }
+
+    private static void send(HttpExchange exchange, int status, int offset, int length) throws IOException {
+        exchange.sendResponseHeaders(status, length);
+        OutputStream os = exchange.getResponseBody();
+        try {
+            os.write(CONTENT, offset, length);
+            os.close();
+        } catch (IOException ignore) {
+            //the client drops the connection once it read the first segment
+        }
+        exchange.close();
+    }
+}
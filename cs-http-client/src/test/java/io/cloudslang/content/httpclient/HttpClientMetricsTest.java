@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.metrics.HttpClientMetrics;
+import io.cloudslang.content.httpclient.metrics.HttpMetricsListener;
+import io.cloudslang.content.httpclient.metrics.HttpRequestMetrics;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.BYTES_UPLOADED;
+import static io.cloudslang.content.httpclient.services.HttpClientService.REQUEST_TIMINGS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.ROUTE_POOL_STATS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.TOTAL_POOL_STATS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.UPLOAD_THROUGHPUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientMetricsTest {
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignore) {
+                }
+                byte[] body = "metrics".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void executeWithCollectMetrics() {
+        HttpClientInputs httpClientInputs = buildInputs();
+        httpClientInputs.setCollectMetrics("true");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("metrics", result.get(RETURN_RESULT));
+        assertEquals("leased=1,available=0,pending=0,max=2", result.get(ROUTE_POOL_STATS));
+        assertEquals("leased=1,available=0,pending=0,max=20", result.get(TOTAL_POOL_STATS));
+        assertTrue(result.get(REQUEST_TIMINGS), result.get(REQUEST_TIMINGS).matches(
+                "leaseWait=\\d+,connect=\\d+,tlsHandshake=0,timeToFirstByte=\\d+,bodyRead=\\d+,total=\\d+"));
+    }
+
+    @Test
+    public void executeWithoutCollectMetrics() {
+        Map<String, String> result = new HttpClientService().execute(buildInputs());
+
+        assertEquals("metrics", result.get(RETURN_RESULT));
+        assertFalse(result.containsKey(ROUTE_POOL_STATS));
+        assertFalse(result.containsKey(REQUEST_TIMINGS));
+    }
+
+    @Test
+    public void executeReportsUpload() {
+        HttpClientInputs httpClientInputs = buildInputs();
+        httpClientInputs.setMethod("POST");
+        httpClientInputs.setBody("uploaded body");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("13", result.get(BYTES_UPLOADED));
+        assertTrue(Long.parseLong(result.get(UPLOAD_THROUGHPUT)) > 0);
+    }
+
+    @Test
+    public void executeWithoutUpload() {
+        Map<String, String> result = new HttpClientService().execute(buildInputs());
+
+        assertFalse(result.containsKey(BYTES_UPLOADED));
+    }
+
+    @Test
+    public void executeNotifiesListeners() {
+        final List<HttpRequestMetrics> received = new ArrayList<>();
+        HttpMetricsListener listener = new HttpMetricsListener() {
+            @Override
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                received.add(metrics);
+            }
+        };
+        HttpClientMetrics.addListener(listener);
+        try {
+            Map<String, String> result = new HttpClientService().execute(buildInputs());
+            assertFalse(result.containsKey(REQUEST_TIMINGS));
+        } finally {
+            HttpClientMetrics.removeListener(listener);
+        }
+
+        assertEquals(1, received.size());
+        HttpRequestMetrics metrics = received.get(0);
+        assertEquals(server.getAddress().getPort(), metrics.getRoute().getTargetHost().getPort());
+        assertNotNull(metrics.getRouteStats());
+        assertTrue(metrics.getTimings().getTimeToFirstByte(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(metrics.getTimings().getTotal(TimeUnit.NANOSECONDS) >= metrics.getTimings().getTimeToFirstByte(TimeUnit.NANOSECONDS));
+    }
+
+    private HttpClientInputs buildInputs() {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        httpClientInputs.setMethod("GET");
+        httpClientInputs.setAuthType("anonymous");
+        //a dedicated pool keeps the stats independent from the other tests
+        httpClientInputs.setConnectionPoolSessionObject(new GlobalSessionObject());
+        return httpClientInputs;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.cache.ResponseCache;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.CACHE_HIT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RESPONSE_HEADERS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.STATUS_CODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientResponseCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = "cached body".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        ResponseCache.getInstance().clear();
+    }
+
+    @Test
+    public void executeServesNotModifiedFromCache() {
+        Map<String, String> first = new HttpClientService().execute(buildInputs("/cached", "user1"));
+        Map<String, String> second = new HttpClientService().execute(buildInputs("/cached", "user1"));
+
+        assertEquals("false", first.get(CACHE_HIT));
+        assertEquals("true", second.get(CACHE_HIT));
+        assertEquals("200", second.get(STATUS_CODE));
+        assertEquals("cached body", second.get(RETURN_RESULT));
+        assertTrue(second.get(RESPONSE_HEADERS).toLowerCase().contains("etag: " + ETAG));
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void executeDoesNotShareEntriesBetweenCallers() {
+        new HttpClientService().execute(buildInputs("/shared", "user1"));
+        Map<String, String> result = new HttpClientService().execute(buildInputs("/shared", "user2"));
+
+        assertEquals("false", result.get(CACHE_HIT));
+        assertEquals(0, notModified.get());
+    }
+
+    @Test
+    public void executeWithoutResponseCache() {
+        HttpClientInputs httpClientInputs = buildInputs("/uncached", "user1");
+        httpClientInputs.setUseResponseCache("false");
+        new HttpClientService().execute(httpClientInputs);
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertFalse(result.containsKey(CACHE_HIT));
+        assertEquals(0, notModified.get());
+    }
+
+    private HttpClientInputs buildInputs(String path, String username) {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl("http://localhost:" + server.getAddress().getPort() + path);
+        httpClientInputs.setMethod("GET");
+        httpClientInputs.setAuthType("basic");
+        httpClientInputs.setUsername(username);
+        httpClientInputs.setPassword("password");
+        httpClientInputs.setUseResponseCache("true");
+        httpClientInputs.setConnectionPoolSessionObject(new GlobalSessionObject());
+        return httpClientInputs;
+    }
+}
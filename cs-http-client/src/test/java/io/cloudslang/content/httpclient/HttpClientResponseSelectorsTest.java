@@ -0,0 +1,127 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_CODE;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.SELECTED_VALUES;
+import static io.cloudslang.content.httpclient.services.HttpClientService.SELECTORS_ERROR;
+import static io.cloudslang.content.httpclient.services.HttpClientService.STATUS_CODE;
+import static io.cloudslang.content.httpclient.services.HttpClientService.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientResponseSelectorsTest {
+    private static final String HTML_ERROR = "<html><body><h1>502 Bad Gateway</h1></body></html>";
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/json", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, 200, "application/json", "{\"value\":[{\"id\":\"a1\"},{\"id\":\"b2\"}]}");
+            }
+        });
+        server.createContext("/html", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, 502, "text/html", HTML_ERROR);
+            }
+        });
+        server.createContext("/empty", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, 200, "application/json", "");
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void executeSelectsValues() {
+        Map<String, String> result = new HttpClientService().execute(buildInputs("/json"));
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("{\"$.value[*].id\":[\"a1\",\"b2\"]}", result.get(SELECTED_VALUES));
+        assertFalse(result.containsKey(SELECTORS_ERROR));
+    }
+
+    @Test
+    public void executeReturnsHtmlErrorPage() {
+        Map<String, String> result = new HttpClientService().execute(buildInputs("/html"));
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("502", result.get(STATUS_CODE));
+        assertEquals(HTML_ERROR, result.get(RETURN_RESULT));
+        assertEquals("{\"$.value[*].id\":[]}", result.get(SELECTED_VALUES));
+        assertTrue(result.get(SELECTORS_ERROR), result.get(SELECTORS_ERROR).startsWith("The response is not valid JSON"));
+    }
+
+    @Test
+    public void executeReturnsEmptyBody() {
+        Map<String, String> result = new HttpClientService().execute(buildInputs("/empty"));
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("200", result.get(STATUS_CODE));
+        assertEquals("", result.get(RETURN_RESULT));
+        assertEquals("{\"$.value[*].id\":[]}", result.get(SELECTED_VALUES));
+        assertTrue(result.containsKey(SELECTORS_ERROR));
+    }
+
+    private HttpClientInputs buildInputs(String path) {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl("http://localhost:" + server.getAddress().getPort() + path);
+        httpClientInputs.setMethod("GET");
+        httpClientInputs.setAuthType("anonymous");
+        httpClientInputs.setResponseSelectors("$.value[*].id");
+        httpClientInputs.setConnectionPoolSessionObject(new GlobalSessionObject());
+        return httpClientInputs;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(bytes);
+        os.close();
+    }
+}
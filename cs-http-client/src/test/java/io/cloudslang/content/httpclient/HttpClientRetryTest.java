@@ -0,0 +1,201 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.httpclient.entities.HttpClientInputs;
+import io.cloudslang.content.httpclient.execute.CircuitBreaker;
+import io.cloudslang.content.httpclient.execute.RateLimiter;
+import io.cloudslang.content.httpclient.services.HttpClientService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.RATE_LIMIT_WAIT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.STATUS_CODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpClientRetryTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int failuresBeforeSuccess;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body;
+                if (hits.incrementAndGet() <= failuresBeforeSuccess) {
+                    body = "busy".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Retry-After", "0");
+                    exchange.sendResponseHeaders(503, body.length);
+                } else {
+                    body = "done".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                }
+                OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        CircuitBreaker.clear();
+        RateLimiter.clear();
+    }
+
+    @Test
+    public void executeRetriesUnavailable() {
+        failuresBeforeSuccess = 2;
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRetryCount("3");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("200", result.get(STATUS_CODE));
+        assertEquals("done", result.get(RETURN_RESULT));
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    public void executeStopsWhenRetriesAreSpent() {
+        failuresBeforeSuccess = 5;
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRetryCount("1");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("503", result.get(STATUS_CODE));
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void executeDoesNotRetryNonIdempotentMethods() {
+        failuresBeforeSuccess = 2;
+        HttpClientInputs httpClientInputs = buildInputs("POST");
+        httpClientInputs.setRetryCount("3");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("503", result.get(STATUS_CODE));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    public void executeFailsFastWhenCircuitBreakerIsOpen() {
+        failuresBeforeSuccess = 10;
+        for (int i = 0; i < 2; i++) {
+            HttpClientInputs httpClientInputs = buildInputs("GET");
+            httpClientInputs.setCircuitBreakerThreshold("2");
+            assertEquals("503", new HttpClientService().execute(httpClientInputs).get(STATUS_CODE));
+        }
+
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setCircuitBreakerThreshold("2");
+        try {
+            new HttpClientService().execute(httpClientInputs);
+            fail("the circuit breaker should be open");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Circuit breaker open"));
+        }
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void executeWaitsForRateLimit() {
+        for (int i = 0; i < 3; i++) {
+            HttpClientInputs httpClientInputs = buildInputs("GET");
+            httpClientInputs.setRateLimit("10");
+            httpClientInputs.setRateLimitBurst("2");
+            Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+            assertEquals("200", result.get(STATUS_CODE));
+            long wait = Long.parseLong(result.get(RATE_LIMIT_WAIT));
+            assertTrue(String.valueOf(wait), i < 2 ? wait == 0 : wait <= 100);
+        }
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    public void executeTakesPermitPerRetry() {
+        failuresBeforeSuccess = 2;
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRetryCount("3");
+        httpClientInputs.setRateLimit("10");
+
+        Map<String, String> result = new HttpClientService().execute(httpClientInputs);
+
+        assertEquals("200", result.get(STATUS_CODE));
+        assertEquals(3, hits.get());
+        long wait = Long.parseLong(result.get(RATE_LIMIT_WAIT));
+        assertTrue(String.valueOf(wait), wait >= 150);
+    }
+
+    @Test
+    public void executeFailsFastWhenRateLimited() {
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRateLimit("0.1");
+        httpClientInputs.setRateLimitKey("shared-quota");
+        assertEquals("0", new HttpClientService().execute(httpClientInputs).get(RATE_LIMIT_WAIT));
+
+        httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRateLimit("0.1");
+        httpClientInputs.setRateLimitKey("shared-quota");
+        httpClientInputs.setRateLimitMaxWait("0");
+        try {
+            new HttpClientService().execute(httpClientInputs);
+            fail("the rate limit should be exceeded");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Rate limit exceeded for shared-quota"));
+        }
+        assertEquals(1, hits.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeWithInvalidRateLimit() {
+        HttpClientInputs httpClientInputs = buildInputs("GET");
+        httpClientInputs.setRateLimit("-1");
+        new HttpClientService().execute(httpClientInputs);
+    }
+
+    private HttpClientInputs buildInputs(String method) {
+        HttpClientInputs httpClientInputs = new HttpClientInputs();
+        httpClientInputs.setUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        httpClientInputs.setMethod(method);
+        httpClientInputs.setAuthType("anonymous");
+        httpClientInputs.setConnectionPoolSessionObject(new GlobalSessionObject());
+        return httpClientInputs;
+    }
+}
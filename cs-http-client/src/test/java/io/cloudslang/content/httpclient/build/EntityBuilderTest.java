@@ -17,22 +17,33 @@
 
 package io.cloudslang.content.httpclient.build;
 
+import io.cloudslang.content.httpclient.build.entity.FileChannelEntity;
+import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 
@@ -45,6 +56,8 @@ import static org.junit.Assert.assertThat;
 public class EntityBuilderTest {
     private static final String CONTENT_TYPE = "text/plain";
     private EntityBuilder entityBuilder;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
     @Mock
     private java.io.File fileMock;
 
@@ -86,8 +99,8 @@ public class EntityBuilderTest {
                 .setFilePath(fileName)
                 .setContentType(parsedContentType)
                 .buildEntity();
-        assertThat(httpEntity, instanceOf(FileEntity.class));
-        FileEntity fileEntity = (FileEntity) httpEntity;
+        assertThat(httpEntity, instanceOf(FileChannelEntity.class));
+        FileChannelEntity fileEntity = (FileChannelEntity) httpEntity;
         assertEquals(CONTENT_TYPE, fileEntity.getContentType().getValue());
     }
 
@@ -99,4 +112,62 @@ public class EntityBuilderTest {
                 .buildEntity();
         assertNull(httpEntity);
     }
+
+    @Test
+    public void buildEntityWithGzipCompression() throws Exception {
+        HttpEntity httpEntity = entityBuilder
+                .setBody("testBody")
+                .setContentType(ContentType.parse(CONTENT_TYPE))
+                .setCompression("gzip")
+                .buildEntity();
+        assertThat(httpEntity, instanceOf(GzipCompressingEntity.class));
+        assertEquals("gzip", httpEntity.getContentEncoding().getValue());
+        assertEquals(CONTENT_TYPE, httpEntity.getContentType().getValue());
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        httpEntity.writeTo(compressed);
+        GZIPInputStream decompressed = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        assertEquals("testBody", IOUtils.toString(decompressed, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void buildEntityWithFileStreamsContent() throws Exception {
+        File file = folder.newFile("large.bin");
+        byte[] content = new byte[200 * 1024 + 7];
+        Arrays.fill(content, (byte) 'x');
+        Files.write(file.toPath(), content);
+
+        HttpEntity httpEntity = entityBuilder
+                .setFilePath(file.getAbsolutePath())
+                .buildEntity();
+        assertEquals(content.length, httpEntity.getContentLength());
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        httpEntity.writeTo(written);
+        assertEquals(content.length, written.size());
+        assertTrue(Arrays.equals(content, written.toByteArray()));
+    }
+
+    @Test
+    public void buildEntityWithMultipartFiles() throws Exception {
+        File file = folder.newFile("part.txt");
+        Files.write(file.toPath(), "part content".getBytes(StandardCharsets.UTF_8));
+
+        HttpEntity httpEntity = entityBuilder
+                .setMultipartFiles("file1=" + file.getAbsolutePath())
+                .setMultipartValuesAreURLEncoded("true")
+                .buildEntity();
+        assertTrue(httpEntity.getContentLength() > file.length());
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        httpEntity.writeTo(written);
+        assertEquals(httpEntity.getContentLength(), written.size());
+        assertTrue(written.toString("UTF-8").contains("part content"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildEntityWithMissingMultipartFile() {
+        entityBuilder
+                .setMultipartFiles("file1=" + new File(folder.getRoot(), "missing.txt").getAbsolutePath())
+                .setMultipartValuesAreURLEncoded("true")
+                .buildEntity();
+    }
 }
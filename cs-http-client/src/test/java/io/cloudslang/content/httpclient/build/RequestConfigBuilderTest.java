@@ -132,5 +132,19 @@ public class RequestConfigBuilderTest {
         assertNotNull(reqConfig.getProxy());
         assertEquals("myproxy.com", reqConfig.getProxy().getHostName());
     }
-}
 
+    @Test
+    public void buildWithCompression() {
+        assertTrue(requestConfigBuilder.buildRequestConfig().isContentCompressionEnabled());
+        assertTrue(new RequestConfigBuilder().setCompression("gzip").buildRequestConfig().isContentCompressionEnabled());
+        assertFalse(new RequestConfigBuilder().setCompression("none").buildRequestConfig().isContentCompressionEnabled());
+    }
+
+    @Test
+    public void buildWithInvalidCompression() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Invalid value 'brotli' for input 'compression'");
+        requestConfigBuilder.setCompression("brotli")
+                .buildRequestConfig();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.build;
+
+import io.cloudslang.content.httpclient.execute.RetryPolicy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyBuilderTest {
+
+    @Test
+    public void buildRetryPolicyDisabledByDefault() {
+        assertNull(new RetryPolicyBuilder().buildRetryPolicy());
+    }
+
+    @Test
+    public void buildRetryPolicy() {
+        RetryPolicy retryPolicy = new RetryPolicyBuilder()
+                .setRetryCount("3")
+                .setRetryStatusCodes("500, 503")
+                .buildRetryPolicy();
+        assertEquals(3, retryPolicy.getMaxRetries());
+        assertEquals(0, retryPolicy.getCircuitBreakerThreshold());
+        assertTrue(retryPolicy.isRetryableStatus(500));
+        assertTrue(retryPolicy.isRetryableStatus(503));
+        assertFalse(retryPolicy.isRetryableStatus(429));
+    }
+
+    @Test
+    public void buildRetryPolicyWithCircuitBreakerOnly() {
+        RetryPolicy retryPolicy = new RetryPolicyBuilder()
+                .setCircuitBreakerThreshold("5")
+                .setCircuitBreakerOpenTime("10")
+                .buildRetryPolicy();
+        assertEquals(0, retryPolicy.getMaxRetries());
+        assertEquals(5, retryPolicy.getCircuitBreakerThreshold());
+        assertEquals(10000, retryPolicy.getCircuitBreakerOpenMillis());
+        assertTrue(retryPolicy.isRetryableStatus(503));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildRetryPolicyWithInvalidRetryCount() {
+        new RetryPolicyBuilder().setRetryCount("-2").buildRetryPolicy();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildRetryPolicyWithInvalidStatusCodes() {
+        new RetryPolicyBuilder().setRetryCount("1").setRetryStatusCodes("503,abc").buildRetryPolicy();
+    }
+}
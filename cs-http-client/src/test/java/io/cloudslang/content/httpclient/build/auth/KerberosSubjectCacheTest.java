@@ -0,0 +1,201 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.build.auth;
+
+import org.apache.http.impl.auth.KerberosScheme;
+import org.apache.http.impl.auth.SPNegoScheme;
+import org.ietf.jgss.GSSException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.security.auth.Subject;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.spi.LoginModule;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class KerberosSubjectCacheTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final String LOGIN_CONFIG_FILE = "login.conf";
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() {
+        configuration = Configuration.getConfiguration();
+        Configuration.setConfiguration(new TicketLoginConfiguration());
+        TicketLoginModule.LOGINS.set(0);
+        TicketLoginModule.startOffset = 0;
+        KerberosSubjectCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Configuration.setConfiguration(configuration);
+        KerberosSubjectCache.clear();
+    }
+
+    @Test
+    public void getSubjectReusesLogin() {
+        Subject subject = KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE);
+
+        assertSame(subject, KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE));
+        assertEquals(1, TicketLoginModule.LOGINS.get());
+        assertEquals("user", TicketLoginModule.username);
+        assertNull(System.getProperty(KrbHttpLoginModule.USR));
+        assertNull(System.getProperty(KrbHttpLoginModule.PAS));
+    }
+
+    @Test
+    public void getSubjectLogsInPerCredentials() {
+        Subject subject = KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE);
+
+        assertNotSame(subject, KerberosSubjectCache.getSubject("user", "other", LOGIN_CONFIG_FILE));
+        assertNotSame(subject, KerberosSubjectCache.getSubject("other", "pass", LOGIN_CONFIG_FILE));
+        assertEquals(3, TicketLoginModule.LOGINS.get());
+    }
+
+    @Test
+    public void getSubjectRenewsExpiringLogin() {
+        //a TGT of 10 hours started 9 hours ago is past 80% of its lifetime
+        TicketLoginModule.startOffset = -9 * HOUR;
+        Subject subject = KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE);
+
+        TicketLoginModule.startOffset = 0;
+        Subject renewed = KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE);
+
+        assertNotSame(subject, renewed);
+        assertSame(renewed, KerberosSubjectCache.getSubject("user", "pass", LOGIN_CONFIG_FILE));
+        assertEquals(2, TicketLoginModule.LOGINS.get());
+    }
+
+    @Test
+    public void getRenewalTimeBeforeTgtExpiry() {
+        long start = System.currentTimeMillis();
+        Subject subject = new Subject();
+        subject.getPrivateCredentials().add(ticket("HTTP/web.contoso.com@CONTOSO.COM", start, start + HOUR));
+        subject.getPrivateCredentials().add(ticket("krbtgt/CONTOSO.COM@CONTOSO.COM", start, start + 10 * HOUR));
+
+        assertEquals(start + 8 * HOUR, KerberosSubjectCache.getRenewalTime(subject, start));
+    }
+
+    @Test
+    public void getRenewalTimeWithoutTgt() {
+        long now = System.currentTimeMillis();
+        assertEquals(now + KerberosSubjectCache.DEFAULT_LIFETIME_MILLIS, KerberosSubjectCache.getRenewalTime(new Subject(), now));
+    }
+
+    @Test
+    public void doAsRunsAsSubject() throws GSSException {
+        final Subject subject = new Subject();
+        byte[] token = KerberosSubjectCache.doAs(subject, new PrivilegedExceptionAction<byte[]>() {
+            @Override
+            public byte[] run() {
+                assertSame(subject, Subject.getSubject(AccessController.getContext()));
+                return new byte[]{1};
+            }
+        });
+        assertEquals(1, token.length);
+    }
+
+    @Test(expected = GSSException.class)
+    public void doAsUnwrapsGssException() throws GSSException {
+        KerberosSubjectCache.doAs(new Subject(), new PrivilegedExceptionAction<byte[]>() {
+            @Override
+            public byte[] run() throws GSSException {
+                throw new GSSException(GSSException.NO_CRED);
+            }
+        });
+    }
+
+    @Test
+    public void factoriesCreateSchemesLazily() {
+        KerberosLogin login = new KerberosLogin("user", "pass", null);
+        assertThat(new CachedSubjectKerberosSchemeFactory(true, login).create(null), instanceOf(KerberosScheme.class));
+        assertThat(new CachedSubjectSPNegoSchemeFactory(true, login).create(null), instanceOf(SPNegoScheme.class));
+    }
+
+    private static KerberosTicket ticket(String server, long start, long end) {
+        return new KerberosTicket(new byte[]{0}, new KerberosPrincipal("user@CONTOSO.COM"), new KerberosPrincipal(server),
+                new byte[16], 17, new boolean[32], new Date(start), new Date(start), new Date(end), null, null);
+    }
+
+    private static class TicketLoginConfiguration extends Configuration {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return new AppConfigurationEntry[]{new AppConfigurationEntry(TicketLoginModule.class.getName(),
+                    AppConfigurationEntry.LoginModuleControlFlag.REQUIRED, Collections.<String, Object>emptyMap())};
+        }
+    }
+
+    /**
+     * Stands for a KrbHttpLoginModule: reads the credentials from the system properties and adds a TGT of 10 hours
+     * that started 'startOffset' from now.
+     */
+    public static class TicketLoginModule implements LoginModule {
+        static final AtomicInteger LOGINS = new AtomicInteger();
+        static volatile long startOffset;
+        static volatile String username;
+
+        private Subject subject;
+
+        @Override
+        public void initialize(Subject subject, CallbackHandler callbackHandler, Map<String, ?> sharedState, Map<String, ?> options) {
+            this.subject = subject;
+        }
+
+        @Override
+        public boolean login() {
+            username = System.getProperty(KrbHttpLoginModule.USR);
+            LOGINS.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean commit() {
+            long start = System.currentTimeMillis() + startOffset;
+            subject.getPrivateCredentials().add(ticket("krbtgt/CONTOSO.COM@CONTOSO.COM", start, start + 10 * HOUR));
+            return true;
+        }
+
+        @Override
+        public boolean abort() {
+            return true;
+        }
+
+        @Override
+        public boolean logout() {
+            return true;
+        }
+    }
+}
@@ -19,6 +19,9 @@ package io.cloudslang.content.httpclient.build.conn;
 
 import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
 import com.hp.oo.sdk.content.plugin.SessionResource;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.junit.Test;
@@ -28,6 +31,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.*;
 
@@ -83,4 +87,64 @@ public class ConnectionManagerBuilderTest {
                 .buildConnectionManager();
         assertEquals(connectionManagerMock, connectionManager);
     }
+
+    @Test
+    public void buildConnectionManagerEvictsLeastRecentlyUsed() throws Exception {
+        GlobalSessionObject holder = new GlobalSessionObject();
+        PoolingHttpClientConnectionManager first = buildConnectionManager(holder, "key0");
+        PoolingHttpClientConnectionManager second = buildConnectionManager(holder, "key1");
+        for (int i = 2; i <= ConnectionManagerBuilder.MAX_CACHED_CONNECTION_MANAGERS; i++) {
+            buildConnectionManager(holder, "key" + i);
+            //keeps the first manager the most recently used one
+            assertSame(first, buildConnectionManager(holder, "key0"));
+        }
+
+        Map<String, PoolingHttpClientConnectionManager> connectionManagerMap =
+                (Map<String, PoolingHttpClientConnectionManager>) holder.get();
+        assertEquals(ConnectionManagerBuilder.MAX_CACHED_CONNECTION_MANAGERS, connectionManagerMap.size());
+        assertFalse(connectionManagerMap.containsValue(second));
+        assertFalse(IdleConnectionMonitor.isRegistered(second));
+        assertTrue(IdleConnectionMonitor.isRegistered(first));
+        //a request that took the evicted manager just before the eviction can still lease a connection
+        assertTrue(IdleConnectionMonitor.isRetired(second));
+        HttpClientConnection connection = second.requestConnection(new HttpRoute(new HttpHost("localhost")), null)
+                .get(1, TimeUnit.SECONDS);
+        second.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+
+        IdleConnectionMonitor.sweep(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(IdleConnectionMonitor.RETIRE_GRACE_SECONDS));
+        try {
+            second.requestConnection(new HttpRoute(new HttpHost("localhost")), null).get(1, TimeUnit.SECONDS);
+            fail("the evicted connection manager should be shut down");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void buildConnectionManagerSetsValidateAfterInactivity() {
+        PoolingHttpClientConnectionManager connectionManager = new ConnectionManagerBuilder()
+                .setConnectionManagerMapKey("key1", "key2")
+                .setSslsf(sslConnectionSocketFactoryMock)
+                .setConnectionPoolHolder(new GlobalSessionObject())
+                .setValidateAfterInactivity("5")
+                .buildConnectionManager();
+        assertEquals(5000, connectionManager.getValidateAfterInactivity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildConnectionManagerWithInvalidIdleTimeout() {
+        new ConnectionManagerBuilder()
+                .setConnectionManagerMapKey("key1", "key2")
+                .setSslsf(sslConnectionSocketFactoryMock)
+                .setConnectionPoolHolder(new GlobalSessionObject())
+                .setIdleTimeout("-1")
+                .buildConnectionManager();
+    }
+
+    private PoolingHttpClientConnectionManager buildConnectionManager(GlobalSessionObject holder, String key) {
+        return new ConnectionManagerBuilder()
+                .setConnectionManagerMapKey(key)
+                .setSslsf(sslConnectionSocketFactoryMock)
+                .setConnectionPoolHolder(holder)
+                .buildConnectionManager();
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.cloudslang.content.httpclient.build.conn;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Mock
+    private SSLConnectionSocketFactoryBuilder sslConnectionSocketFactoryBuilderMock;
+    @Mock
+    private SSLConnectionSocketFactory sslConnectionSocketFactoryMock;
+
+    @After
+    public void tearDown() {
+        HttpClientCache.clear();
+    }
+
+    @Test
+    public void sslConnectionSocketFactoryIsBuiltOncePerKey() {
+        when(sslConnectionSocketFactoryBuilderMock.build()).thenReturn(sslConnectionSocketFactoryMock);
+
+        SSLConnectionSocketFactory first = HttpClientCache.getSSLConnectionSocketFactory("key", sslConnectionSocketFactoryBuilderMock);
+        SSLConnectionSocketFactory second = HttpClientCache.getSSLConnectionSocketFactory("key", sslConnectionSocketFactoryBuilderMock);
+
+        assertSame(first, second);
+        verify(sslConnectionSocketFactoryBuilderMock, times(1)).build();
+    }
+
+    @Test
+    public void sslConnectionSocketFactoryKeyChangesWithKeystoreFile() throws Exception {
+        File keystore = folder.newFile("keystore.jks");
+        Files.write(keystore.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+        String firstKey = HttpClientCache.buildSSLConnectionSocketFactoryKey("false", "strict", keystore.getAbsolutePath(),
+                "changeit", keystore.getAbsolutePath(), "changeit", "TLSv1.2", null);
+
+        Files.write(keystore.toPath(), "second keystore".getBytes(StandardCharsets.UTF_8));
+        String secondKey = HttpClientCache.buildSSLConnectionSocketFactoryKey("false", "strict", keystore.getAbsolutePath(),
+                "changeit", keystore.getAbsolutePath(), "changeit", "TLSv1.2", null);
+
+        assertNotEquals(firstKey, secondKey);
+    }
+
+    @Test
+    public void sslConnectionSocketFactoryKeyDoesNotContainPasswords() {
+        String key = HttpClientCache.buildSSLConnectionSocketFactoryKey("true", "allow_all", "", "secretPassword",
+                "", "otherSecret", null, null);
+
+        assertNotEquals(-1, key.indexOf("allow_all"));
+        assertEquals(-1, key.indexOf("secretPassword"));
+        assertEquals(-1, key.indexOf("otherSecret"));
+    }
+
+    @Test
+    public void httpClientIsReusedForSameConnectionManagerAndSettings() {
+        PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+
+        CloseableHttpClient first = HttpClientCache.getHttpClient(connManager, "true", HttpClientBuilder.create());
+        CloseableHttpClient second = HttpClientCache.getHttpClient(connManager, "true", HttpClientBuilder.create());
+        CloseableHttpClient otherSettings = HttpClientCache.getHttpClient(connManager, "false", HttpClientBuilder.create());
+        CloseableHttpClient otherManager = HttpClientCache.getHttpClient(new PoolingHttpClientConnectionManager(), "true",
+                HttpClientBuilder.create());
+
+        assertSame(first, second);
+        assertNotSame(first, otherSettings);
+        assertNotSame(first, otherManager);
+    }
+
+    @Test
+    public void invalidateForgetsTheClientsOfConnectionManager() {
+        PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+
+        CloseableHttpClient first = HttpClientCache.getHttpClient(connManager, "true", HttpClientBuilder.create());
+        HttpClientCache.invalidate(connManager);
+
+        assertNotSame(first, HttpClientCache.getHttpClient(connManager, "true", HttpClientBuilder.create()));
+    }
+
+    @Test
+    public void connectionManagerIsNotKeptByItsCachedClients() throws Exception {
+        PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+        HttpClientCache.getHttpClient(connManager, "true", HttpClientBuilder.create());
+        WeakReference<PoolingHttpClientConnectionManager> managerReference = new WeakReference<>(connManager);
+        connManager = null;
+
+        for (int attempt = 0; attempt < 50 && managerReference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(managerReference.get());
+    }
+}
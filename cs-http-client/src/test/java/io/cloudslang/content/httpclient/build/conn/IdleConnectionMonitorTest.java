@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.build.conn;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdleConnectionMonitorTest {
+
+    @Mock
+    private PoolingHttpClientConnectionManager connManagerMock;
+
+    @Test
+    public void sweepClosesExpiredAndIdleConnections() {
+        IdleConnectionMonitor.register(connManagerMock, 1000);
+        assertTrue(IdleConnectionMonitor.isRegistered(connManagerMock));
+
+        IdleConnectionMonitor.sweep();
+
+        verify(connManagerMock).closeExpiredConnections();
+        verify(connManagerMock).closeIdleConnections(1000, TimeUnit.MILLISECONDS);
+        when(connManagerMock.getTotalStats()).thenReturn(new PoolStats(0, 0, 0, 20));
+        IdleConnectionMonitor.retire(connManagerMock);
+    }
+
+    @Test
+    public void sweepWithoutIdleTimeoutOnlyClosesExpiredConnections() {
+        IdleConnectionMonitor.register(connManagerMock, 0);
+
+        IdleConnectionMonitor.sweep();
+
+        verify(connManagerMock).closeExpiredConnections();
+        verify(connManagerMock, never()).closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        when(connManagerMock.getTotalStats()).thenReturn(new PoolStats(0, 0, 0, 20));
+        IdleConnectionMonitor.retire(connManagerMock);
+    }
+
+    @Test
+    public void retireDefersShutdownForGracePeriod() {
+        IdleConnectionMonitor.register(connManagerMock, 1000);
+        when(connManagerMock.getTotalStats()).thenReturn(new PoolStats(0, 1, 0, 20));
+
+        IdleConnectionMonitor.retire(connManagerMock);
+
+        assertFalse(IdleConnectionMonitor.isRegistered(connManagerMock));
+        assertTrue(IdleConnectionMonitor.isRetired(connManagerMock));
+        verify(connManagerMock, never()).shutdown();
+
+        IdleConnectionMonitor.sweep();
+        verify(connManagerMock, never()).shutdown();
+
+        IdleConnectionMonitor.sweep(afterGracePeriod());
+        verify(connManagerMock).shutdown();
+        assertFalse(IdleConnectionMonitor.isRetired(connManagerMock));
+    }
+
+    @Test
+    public void retireWaitsForLeasedConnections() {
+        IdleConnectionMonitor.register(connManagerMock, 1000);
+        when(connManagerMock.getTotalStats()).thenReturn(new PoolStats(1, 0, 0, 20));
+
+        IdleConnectionMonitor.retire(connManagerMock);
+        IdleConnectionMonitor.sweep(afterGracePeriod());
+
+        assertFalse(IdleConnectionMonitor.isRegistered(connManagerMock));
+        verify(connManagerMock, never()).shutdown();
+
+        when(connManagerMock.getTotalStats()).thenReturn(new PoolStats(0, 1, 0, 20));
+        IdleConnectionMonitor.sweep(afterGracePeriod());
+
+        verify(connManagerMock).shutdown();
+        verify(connManagerMock, never()).closeExpiredConnections();
+    }
+
+    private static long afterGracePeriod() {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(IdleConnectionMonitor.RETIRE_GRACE_SECONDS);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.build.entity;
+
+import org.apache.http.entity.StringEntity;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MeteredEntityTest {
+
+    @Test
+    public void writeToCountsBytes() throws IOException {
+        MeteredEntity entity = new MeteredEntity(new StringEntity("metered body"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        assertEquals("metered body", out.toString());
+        assertEquals(12, entity.getBytesWritten());
+        assertTrue(entity.getThroughput() > 0);
+    }
+
+    @Test
+    public void writeToMeasuresLastWrite() throws IOException {
+        MeteredEntity entity = new MeteredEntity(new StringEntity("metered body"));
+
+        entity.writeTo(new ByteArrayOutputStream());
+        entity.writeTo(new ByteArrayOutputStream());
+
+        assertEquals(12, entity.getBytesWritten());
+    }
+}
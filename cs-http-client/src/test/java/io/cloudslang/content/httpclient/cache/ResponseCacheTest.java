@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.cache;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void cacheKeepsResponsesWithValidators() throws IOException {
+        ResponseCache responseCache = new ResponseCache(1024, 100);
+        HttpResponse response = buildResponse(new byte[10], "\"v1\"");
+
+        byte[] body = EntityUtils.toByteArray(responseCache.cache("key", response));
+
+        assertEquals(10, body.length);
+        assertNotNull(responseCache.get("key"));
+    }
+
+    @Test
+    public void cacheSkipsResponsesWithoutValidators() throws IOException {
+        ResponseCache responseCache = new ResponseCache(1024, 100);
+
+        responseCache.cache("key", buildResponse(new byte[10], null));
+
+        assertNull(responseCache.get("key"));
+    }
+
+    @Test
+    public void cacheStreamsLargeResponses() throws IOException {
+        ResponseCache responseCache = new ResponseCache(1024, 100);
+        byte[] content = new byte[500];
+        Arrays.fill(content, (byte) 'a');
+        HttpResponse response = buildResponse(content, "\"v1\"");
+        response.setEntity(new InputStreamEntity(new ByteArrayInputStream(content)));
+
+        byte[] body = EntityUtils.toByteArray(responseCache.cache("key", response));
+
+        assertArrayEquals(content, body);
+        assertNull(responseCache.get("key"));
+    }
+
+    @Test
+    public void cacheEvictsLeastRecentlyUsed() throws IOException {
+        ResponseCache responseCache = new ResponseCache(250, 100);
+        for (int i = 0; i < 3; i++) {
+            responseCache.cache("key" + i, buildResponse(new byte[90], "\"v1\""));
+        }
+
+        assertNull(responseCache.get("key0"));
+        assertNotNull(responseCache.get("key1"));
+        assertNotNull(responseCache.get("key2"));
+        assertEquals(2, responseCache.getEntryCount());
+    }
+
+    private static HttpResponse buildResponse(byte[] body, String etag) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        if (etag != null) {
+            response.addHeader("ETag", etag);
+        }
+        response.setEntity(new ByteArrayEntity(body));
+        return response;
+    }
+}
@@ -32,11 +32,17 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import static io.cloudslang.content.httpclient.services.HttpClientService.BYTES_WRITTEN;
+import static io.cloudslang.content.httpclient.services.HttpClientService.THROUGHPUT;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -105,7 +111,7 @@ public class HttpResponseConsumerTest {
     }
 
     @Test
-    public void consumeWithDestinationFile() throws Exception {
+    public void consumeWithDestinationFileCharacterSet() throws Exception {
         setHttpResponseEntity(CONTENT_TYPE);
 
         whenNew(InputStreamReader.class).withArguments(anyObject(), anyString()).thenReturn(inputStreamReaderMock);
@@ -115,6 +121,7 @@ public class HttpResponseConsumerTest {
         httpResponseConsumer
                 .setHttpResponse(httpResponseMock)
                 .setDestinationFile("test.txt")
+                .setDestinationFileCharacterSet("UTF-8")
                 .setResponseCharacterSet(null)
                 .consume(result);
 
@@ -123,6 +130,34 @@ public class HttpResponseConsumerTest {
         assertNull(result.get(RETURN_RESULT));
     }
 
+    @Test
+    public void consumeWithDestinationFileKeepsBytes() throws Exception {
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(content));
+        entity.setContentType(new HeaderEntity("Content-Type", CONTENT_TYPE));
+        when(httpResponseMock.getEntity()).thenReturn(entity);
+
+        File file = File.createTempFile("destination", ".bin");
+        try {
+            httpResponseConsumer
+                    .setHttpResponse(httpResponseMock)
+                    .setDestinationFile(file.getAbsolutePath())
+                    .setResponseCharacterSet(null)
+                    .consume(result);
+
+            assertTrue(Arrays.equals(content, Files.readAllBytes(file.toPath())));
+            assertEquals(String.valueOf(content.length), result.get(BYTES_WRITTEN));
+            assertNotNull(result.get(THROUGHPUT));
+            assertNull(result.get(RETURN_RESULT));
+        } finally {
+            file.delete();
+        }
+    }
+
     private void setHttpResponseEntity(String contentType) {
         BasicHttpEntity entity = new BasicHttpEntity();
         entity.setContent(inputStreamMock);
@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.consume;
+
+import io.cloudslang.content.httpclient.metrics.HttpRequestMetrics;
+import io.cloudslang.content.httpclient.metrics.RequestTimings;
+import org.apache.http.pool.PoolStats;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.REQUEST_TIMINGS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.ROUTE_POOL_STATS;
+import static io.cloudslang.content.httpclient.services.HttpClientService.TOTAL_POOL_STATS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsConsumerTest {
+
+    @Test
+    public void consume() {
+        RequestTimings timings = new RequestTimings();
+        timings.setBodyReadNanos(2000000);
+        timings.setTotalNanos(5000000);
+        HttpRequestMetrics metrics = new HttpRequestMetrics(null, timings, new PoolStats(1, 0, 3, 2), new PoolStats(4, 5, 3, 20));
+
+        Map<String, String> result = new HashMap<>();
+        new MetricsConsumer().setRequestMetrics(metrics).consume(result);
+
+        assertEquals("leased=1,available=3,pending=0,max=2", result.get(ROUTE_POOL_STATS));
+        assertEquals("leased=4,available=3,pending=5,max=20", result.get(TOTAL_POOL_STATS));
+        assertEquals("leaseWait=0,connect=0,tlsHandshake=0,timeToFirstByte=0,bodyRead=2,total=5", result.get(REQUEST_TIMINGS));
+    }
+
+    @Test
+    public void consumeWithoutPool() {
+        Map<String, String> result = new HashMap<>();
+        new MetricsConsumer().setRequestMetrics(new HttpRequestMetrics(null, new RequestTimings(), null, null)).consume(result);
+
+        assertEquals("", result.get(ROUTE_POOL_STATS));
+        assertEquals("", result.get(TOTAL_POOL_STATS));
+        assertTrue(result.get(REQUEST_TIMINGS).startsWith("leaseWait=0"));
+    }
+
+    @Test
+    public void consumeWithoutMetrics() {
+        Map<String, String> result = new HashMap<>();
+        new MetricsConsumer().consume(result);
+
+        assertTrue(result.isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.consume;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.cloudslang.content.httpclient.services.HttpClientService.RETURN_RESULT;
+import static io.cloudslang.content.httpclient.services.HttpClientService.SELECTED_VALUES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResponseSelectorsTest {
+    private static final String JSON = "{\"value\": [{\"id\": \"a1\", \"tags\": [1, 2]}, {\"id\": \"b\\\"2\", \"tags\": []}],"
+            + " \"meta\": {\"next\": null, \"count\": 2.5e1, \"ok\": true}}";
+    private static final String XML = "<?xml version=\"1.0\"?><ns:feed xmlns:ns=\"urn:test\"><ns:entry id=\"1\"><title>One</title>"
+            + "</ns:entry><ns:entry id=\"2\"><title><![CDATA[Two & more]]></title></ns:entry></ns:feed>";
+
+    @Test
+    public void parseReturnsNullWithoutSelectors() {
+        assertNull(ResponseSelectors.parse(null, false));
+        assertNull(ResponseSelectors.parse(" , ", false));
+    }
+
+    @Test
+    public void splitKeepsCommasInBrackets() {
+        assertEquals(Arrays.asList("$['a,b']", "$.c[0]", "//d/@e"), ResponseSelectors.split("$['a,b'], $.c[0] ,//d/@e"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void splitRejectsUnterminatedQuote() {
+        ResponseSelectors.split("$.a, $['b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void splitRejectsUnclosedBracket() {
+        ResponseSelectors.split("$.a, $.b[0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRejectsFilters() {
+        ResponseSelectors.parse("$.value[?(@.id == 'a1')]", false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRejectsMixedSelectors() {
+        ResponseSelectors.parse("$.value, /feed", false);
+    }
+
+    @Test
+    public void selectJsonValues() throws IOException {
+        Map<String, List<String>> selected = select("$.value[*].id, $.value[0].tags, $..count, $.meta.next, $['meta'].ok, $.missing", JSON);
+        assertEquals(Arrays.asList("\"a1\"", "\"b\\\"2\""), selected.get("$.value[*].id"));
+        assertEquals(Collections.singletonList("[1,2]"), selected.get("$.value[0].tags"));
+        assertEquals(Collections.singletonList("2.5e1"), selected.get("$..count"));
+        assertEquals(Collections.singletonList("null"), selected.get("$.meta.next"));
+        assertEquals(Collections.singletonList("true"), selected.get("$['meta'].ok"));
+        assertEquals(Collections.<String>emptyList(), selected.get("$.missing"));
+    }
+
+    @Test
+    public void selectNestedJsonMatches() throws IOException {
+        Map<String, List<String>> selected = select("$..tags[*], $.value[1]", JSON);
+        assertEquals(Arrays.asList("1", "2"), selected.get("$..tags[*]"));
+        assertEquals(Collections.singletonList("{\"id\":\"b\\\"2\",\"tags\":[]}"), selected.get("$.value[1]"));
+    }
+
+    @Test(expected = IOException.class)
+    public void selectRejectsMalformedJson() throws IOException {
+        select("$.a", "{\"a\": [1, 2}");
+    }
+
+    @Test
+    public void selectXmlValues() throws IOException {
+        Map<String, List<String>> selected = select("/feed/entry/@id, //title, /feed/*/title, /ns:feed/ns:entry/@missing", XML);
+        assertEquals(Arrays.asList("1", "2"), selected.get("/feed/entry/@id"));
+        assertEquals(Arrays.asList("One", "Two & more"), selected.get("//title"));
+        assertEquals(Arrays.asList("One", "Two & more"), selected.get("/feed/*/title"));
+        assertEquals(Collections.<String>emptyList(), selected.get("/ns:feed/ns:entry/@missing"));
+    }
+
+    @Test
+    public void toJsonQuotesXmlValues() throws IOException {
+        ResponseSelectors responseSelectors = ResponseSelectors.parse("//title", false);
+        Map<String, List<String>> selected = responseSelectors.select(new StringReader(XML));
+        assertEquals("{\"//title\":[\"One\",\"Two & more\"]}", responseSelectors.toJson(selected));
+    }
+
+    @Test
+    public void consumeReturnsSelectedValuesAndBody() throws IOException {
+        Map<String, String> result = consume(ResponseSelectors.parse("$.value[*].id", false));
+        assertEquals("{\"$.value[*].id\":[\"a1\",\"b\\\"2\"]}", result.get(SELECTED_VALUES));
+        assertEquals(JSON, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void consumeSkipsBody() throws IOException {
+        Map<String, String> result = consume(ResponseSelectors.parse("$.meta.count", true));
+        assertEquals("{\"$.meta.count\":[2.5e1]}", result.get(SELECTED_VALUES));
+        assertEquals("", result.get(RETURN_RESULT));
+    }
+
+    private static Map<String, List<String>> select(String selectors, String document) throws IOException {
+        return ResponseSelectors.parse(selectors, false).select(new StringReader(document));
+    }
+
+    private static Map<String, String> consume(ResponseSelectors responseSelectors) throws IOException {
+        HttpResponse httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        httpResponse.setEntity(new StringEntity(JSON, ContentType.APPLICATION_JSON));
+        Map<String, String> result = new HashMap<>();
+        new HttpResponseConsumer()
+                .setHttpResponse(httpResponse)
+                .setResponseSelectors(responseSelectors)
+                .consume(result);
+        return result;
+    }
+}
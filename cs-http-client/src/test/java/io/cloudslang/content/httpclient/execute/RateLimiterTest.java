@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @After
+    public void tearDown() {
+        RateLimiter.clear();
+    }
+
+    @Test
+    public void reserveAllowsBurst() {
+        RateLimiter rateLimiter = new RateLimiter("host", 10, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.reserve(0));
+        }
+        assertEquals(-1, rateLimiter.reserve(0));
+    }
+
+    @Test
+    public void reserveSpacesPermitsByInterval() {
+        RateLimiter rateLimiter = new RateLimiter("host", 10, 1);
+        assertEquals(0, rateLimiter.reserve(0));
+        long firstWait = rateLimiter.reserve(TimeUnit.SECONDS.toNanos(1));
+        long secondWait = rateLimiter.reserve(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(firstWait > 0 && firstWait <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(secondWait > firstWait && secondWait <= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void acquireFailsFast() {
+        RateLimiter rateLimiter = new RateLimiter("host", 1, 1);
+        rateLimiter.acquire(0);
+        rateLimiter.acquire(0);
+    }
+
+    @Test
+    public void acquireReportsWait() {
+        RateLimiter rateLimiter = new RateLimiter("host", 20, 1);
+        assertEquals(0, rateLimiter.acquire(0));
+        long wait = rateLimiter.acquire(1000);
+        assertTrue(String.valueOf(wait), wait > 0 && wait <= 50);
+    }
+
+    @Test
+    public void forKeySharesBucketsPerKey() {
+        RateLimiter rateLimiter = RateLimiter.forKey("http://a:80", 5, 2);
+        assertSame(rateLimiter, RateLimiter.forKey("http://a:80", 5, 2));
+        assertNotSame(rateLimiter, RateLimiter.forKey("http://b:80", 5, 2));
+        assertNotSame(rateLimiter, RateLimiter.forKey("http://a:80", 5, 3));
+    }
+
+    @Test
+    public void forKeyKeepsPermitsWhenSettingsChange() {
+        RateLimiter rateLimiter = RateLimiter.forKey("http://a:80", 1, 1);
+        assertEquals(0, rateLimiter.reserve(0));
+        assertEquals(-1, RateLimiter.forKey("http://a:80", 1, 1).reserve(0));
+        //the bucket does not come back full with other settings, nor when switching back
+        assertEquals(-1, RateLimiter.forKey("http://a:80", 0.5, 1).reserve(0));
+        assertEquals(-1, RateLimiter.forKey("http://a:80", 1, 1).reserve(0));
+    }
+
+    @Test
+    public void reserveHandsOutEachPermitOnce() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter("host", 1, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int granted = 0;
+                        for (int j = 0; j < 20; j++) {
+                            if (rateLimiter.reserve(0) == 0) {
+                                granted++;
+                            }
+                        }
+                        return granted;
+                    }
+                }));
+            }
+            int granted = 0;
+            for (Future<Integer> future : futures) {
+                granted += future.get();
+            }
+            assertTrue(String.valueOf(granted), granted >= 50 && granted <= 51);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.execute;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void nextDelayUsesBoundedBackoff() {
+        RetryPolicy retryPolicy = new RetryPolicy(5, 100, 300, Collections.singleton(503), 0, 0);
+        long[] ceilings = {100, 200, 300, 300, 300};
+        for (long ceiling : ceilings) {
+            long delay = retryPolicy.nextDelay(null);
+            assertTrue(delay >= 0 && delay <= ceiling);
+        }
+        assertEquals(-1, retryPolicy.nextDelay(null));
+        assertEquals(5, retryPolicy.getRetries());
+    }
+
+    @Test
+    public void nextDelayHonorsRetryAfter() {
+        RetryPolicy retryPolicy = new RetryPolicy(2, 100, 5000, Collections.singleton(503), 0, 0);
+        assertEquals(2000, retryPolicy.nextDelay(2000L));
+        assertEquals(-1, retryPolicy.nextDelay(6000L));
+    }
+
+    @Test
+    public void isRetryableOnlyForIdempotentMethods() {
+        RetryPolicy retryPolicy = new RetryPolicy(1, 100, 300, Collections.singleton(503), 0, 0);
+        assertTrue(retryPolicy.isRetryable(new HttpGet("http://localhost")));
+        assertFalse(retryPolicy.isRetryable(new HttpPost("http://localhost")));
+
+        HttpPut put = new HttpPut("http://localhost");
+        put.setEntity(new InputStreamEntity(new ByteArrayInputStream(new byte[1])));
+        assertFalse(retryPolicy.isRetryable(put));
+    }
+
+    @Test
+    public void parseRetryAfter() {
+        assertEquals(Long.valueOf(120000), RetryStrategy.parseRetryAfter(new BasicHeader("Retry-After", "120")));
+        assertNull(RetryStrategy.parseRetryAfter(new BasicHeader("Retry-After", "soon")));
+        assertNull(RetryStrategy.parseRetryAfter(null));
+
+        Date inTenSeconds = new Date(System.currentTimeMillis() + 10000);
+        Long delay = RetryStrategy.parseRetryAfter(new BasicHeader("Retry-After", DateUtils.formatDate(inTenSeconds)));
+        assertTrue(delay > 8000 && delay <= 10000);
+    }
+}
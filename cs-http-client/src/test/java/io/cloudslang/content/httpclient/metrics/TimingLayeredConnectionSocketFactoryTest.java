@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2019 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.httpclient.metrics;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TimingLayeredConnectionSocketFactoryTest {
+
+    @Test
+    public void createSocketUsesDelegateWithoutTimings() throws Exception {
+        LayeredConnectionSocketFactory delegate = mock(LayeredConnectionSocketFactory.class);
+        Socket socket = new Socket();
+        HttpContext context = new BasicHttpContext();
+        when(delegate.createSocket(context)).thenReturn(socket);
+
+        assertSame(socket, new TimingLayeredConnectionSocketFactory(delegate).createSocket(context));
+    }
+
+    @Test
+    public void connectSocketDelegatesAndSplitsConnectFromHandshake() throws Exception {
+        LayeredConnectionSocketFactory delegate = mock(LayeredConnectionSocketFactory.class);
+        when(delegate.connectSocket(anyInt(), any(Socket.class), any(HttpHost.class), any(InetSocketAddress.class),
+                any(InetSocketAddress.class), any(HttpContext.class))).thenAnswer(new Answer<Socket>() {
+            @Override
+            public Socket answer(InvocationOnMock invocation) throws Throwable {
+                //connects like the delegate does, then stands for a handshake of at least 50 milliseconds
+                Socket socket = (Socket) invocation.getArguments()[1];
+                socket.connect((InetSocketAddress) invocation.getArguments()[3], (Integer) invocation.getArguments()[0]);
+                Thread.sleep(50);
+                return socket;
+            }
+        });
+        TimingLayeredConnectionSocketFactory factory = new TimingLayeredConnectionSocketFactory(delegate);
+        HttpContext context = new BasicHttpContext();
+        RequestTimings timings = new RequestTimings();
+        timings.attach(context);
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            InetSocketAddress remoteAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+            Socket socket = factory.createSocket(context);
+            try {
+                assertSame(socket, factory.connectSocket(1000, socket, new HttpHost("localhost", server.getLocalPort(), "https"),
+                        remoteAddress, null, context));
+            } finally {
+                socket.close();
+            }
+            verify(delegate).connectSocket(1000, socket, new HttpHost("localhost", server.getLocalPort(), "https"),
+                    remoteAddress, null, context);
+        }
+
+        assertTrue(timings.getConnect(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(timings.getConnect(TimeUnit.MILLISECONDS) < 50);
+        assertTrue(timings.getTlsHandshake(TimeUnit.MILLISECONDS) >= 50);
+    }
+}